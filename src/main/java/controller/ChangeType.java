@@ -0,0 +1,33 @@
+package controller;
+
+/**
+ * The enum {@code ChangeType} describes what kind of change an observable controller reports. It is passed as the
+ * argument of {@code notifyObservers}, so observers are able to update only the affected parts.
+ */
+public enum ChangeType {
+
+	/**
+	 * The name, description, color or color {@link Feature} of a {@link Group} changed.
+	 */
+	GROUP_METADATA,
+
+	/**
+	 * The elements of a {@link Group} changed, e.g. by a {@link Constraint}, its visibility, its creation or removal.
+	 */
+	GROUP_MEMBERSHIP,
+
+	/**
+	 * The name of a {@link Feature} changed.
+	 */
+	FEATURE_METADATA,
+
+	/**
+	 * The active {@link Subspace} changed.
+	 */
+	SUBSPACE,
+
+	/**
+	 * The strategy to calculate the effective outlierness changed.
+	 */
+	EFFECTIVE_OUTLIERNESS
+}
@@ -0,0 +1,281 @@
+package controller;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * The class {@code ColorEngine} calculates the colors of elements depending on their groups and feature values.
+ * Colors are packed as ARGB {@code int}s, like {@link Group#getColor()}, so a whole batch of elements is colored
+ * without allocating an object per element.
+ *
+ * The color of an element is the alpha weighted mean of the colors of its groups, the alpha is the mean of the alpha
+ * values of its groups. A color feature scales the alpha value of its group linear. Elements without a group are
+ * black.
+ */
+public final class ColorEngine {
+
+	/**
+	 * Color of elements without any group, opaque black.
+	 */
+	public static final int NO_GROUP_COLOR = 0xff000000;
+
+	/**
+	 * N<sup>o</sup> of values stored per resolved group: red, green, blue, alpha, minimum and range of the color feature.
+	 */
+	private static final int GROUP_PARTS = 6;
+
+	/**
+	 * Private constructor to avoid construction.
+	 */
+	private ColorEngine() {
+		// utility class, do not construct
+		throw new AssertionError();
+	}
+
+	/**
+	 * Calculates the colors of a range of elements.
+	 *
+	 * Every distinct group is resolved only once per call, so the elements share the unpacked color and the color
+	 * feature of their groups.
+	 *
+	 * @param elements
+	 *            the elements.
+	 * @param start
+	 *            the first element of the range.
+	 * @param end
+	 *            the element after the last one of the range.
+	 * @param dest
+	 *            receives the packed colors, color i of the range is written to {@code dest[i - start]}.
+	 */
+	public static void calcColors(ElementData[] elements, int start, int end, int[] dest) {
+		if (elements == null || dest == null || start < 0 || end > elements.length || dest.length < end - start) {
+			throw new IllegalArgumentException("elements or dest are null or too short");
+		}
+
+		// resolved groups, indexed by their position in the order of appearance
+		IdentityHashMap<Group, Integer> resolved = new IdentityHashMap<Group, Integer>();
+		float[] parts = new float[0];
+		Feature[] colorFeatures = new Feature[0];
+
+		for (int i = start; i < end; ++i) {
+			Group[] groups = elements[i].getGroups();
+
+			for (Group group : groups) {
+				if (!resolved.containsKey(group)) {
+					int index = resolved.size();
+
+					if (index == colorFeatures.length) {
+						colorFeatures = Arrays.copyOf(colorFeatures, Math.max(4, index * 2));
+						parts = Arrays.copyOf(parts, colorFeatures.length * GROUP_PARTS);
+					}
+
+					resolveGroup(group, parts, index * GROUP_PARTS);
+					colorFeatures[index] = group.getColorFeature();
+					resolved.put(group, index);
+				}
+			}
+
+			if (groups.length == 0) {
+				dest[i - start] = NO_GROUP_COLOR;
+				continue;
+			}
+
+			float weightedRed = 0.f;
+			float weightedGreen = 0.f;
+			float weightedBlue = 0.f;
+			float red = 0.f;
+			float green = 0.f;
+			float blue = 0.f;
+			float sumAlpha = 0.f;
+			int count = 0;
+
+			for (Group group : groups) {
+				int index = resolved.get(group);
+				int p = index * GROUP_PARTS;
+				float alpha = partAlpha(elements[i], parts, p, colorFeatures[index]);
+
+				red += parts[p];
+				green += parts[p + 1];
+				blue += parts[p + 2];
+
+				if (!Float.isNaN(alpha)) {
+					weightedRed += parts[p] * alpha;
+					weightedGreen += parts[p + 1] * alpha;
+					weightedBlue += parts[p + 2] * alpha;
+					sumAlpha += alpha;
+					++count;
+				}
+			}
+
+			if (count > 0 && sumAlpha > 0.f) {
+				dest[i - start] = pack(weightedRed / sumAlpha, weightedGreen / sumAlpha, weightedBlue / sumAlpha,
+						sumAlpha / count);
+			} else {
+				// fall back to the simple mean without alpha values
+				dest[i - start] = pack(red / groups.length, green / groups.length, blue / groups.length,
+						count > 0 ? sumAlpha / count : 0.f);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the color of a single element.
+	 *
+	 * @param element
+	 *            the element.
+	 * @return the packed color.
+	 */
+	public static int calcColor(ElementData element) {
+		int[] dest = new int[1];
+		calcColors(new ElementData[] { element }, 0, 1, dest);
+
+		return dest[0];
+	}
+
+	/**
+	 * Writes the red, green, blue and alpha components of a packed color to a buffer.
+	 *
+	 * @param dest
+	 *            the buffer, the components are written at its position.
+	 * @param color
+	 *            the packed color.
+	 * @param alphaFactor
+	 *            factor for the alpha component, e.g. to fade out elements, which are not selected.
+	 */
+	public static void putColor(FloatBuffer dest, int color, float alphaFactor) {
+		dest.put(getRed(color));
+		dest.put(getGreen(color));
+		dest.put(getBlue(color));
+		dest.put(getAlpha(color) * alphaFactor);
+	}
+
+	/**
+	 * Returns the red component of a packed color.
+	 *
+	 * @param color
+	 *            the packed color.
+	 * @return the component in [0, 1].
+	 */
+	public static float getRed(int color) {
+		return ((color >> 16) & 0xff) / 255.f;
+	}
+
+	/**
+	 * Returns the green component of a packed color.
+	 *
+	 * @param color
+	 *            the packed color.
+	 * @return the component in [0, 1].
+	 */
+	public static float getGreen(int color) {
+		return ((color >> 8) & 0xff) / 255.f;
+	}
+
+	/**
+	 * Returns the blue component of a packed color.
+	 *
+	 * @param color
+	 *            the packed color.
+	 * @return the component in [0, 1].
+	 */
+	public static float getBlue(int color) {
+		return (color & 0xff) / 255.f;
+	}
+
+	/**
+	 * Returns the alpha component of a packed color.
+	 *
+	 * @param color
+	 *            the packed color.
+	 * @return the component in [0, 1].
+	 */
+	public static float getAlpha(int color) {
+		return ((color >> 24) & 0xff) / 255.f;
+	}
+
+	/**
+	 * Unpacks the color of a group.
+	 *
+	 * @param group
+	 *            the group.
+	 * @param parts
+	 *            receives red, green, blue and alpha of the group, followed by minimum and range of its color feature.
+	 * @param offset
+	 *            the position of the group in {@code parts}.
+	 */
+	private static void resolveGroup(Group group, float[] parts, int offset) {
+		int rgba = group.getColor();
+		Feature feature = group.getColorFeature();
+
+		parts[offset] = ((rgba >> 16) & 0xff) / 255.f;
+		parts[offset + 1] = ((rgba >> 8) & 0xff) / 255.f;
+		parts[offset + 2] = (rgba & 0xff) / 255.f;
+		parts[offset + 3] = ((rgba >> 24) & 0xff) / 255.f;
+
+		if (feature != null) {
+			parts[offset + 4] = feature.getMinValue();
+			parts[offset + 5] = feature.getMaxValue() - feature.getMinValue();
+		}
+	}
+
+	/**
+	 * Returns the alpha value of a group for an element, scaled by the color feature of the group.
+	 *
+	 * @param element
+	 *            the element.
+	 * @param parts
+	 *            the unpacked groups.
+	 * @param offset
+	 *            the position of the group in {@code parts}.
+	 * @param feature
+	 *            the color feature of the group, or null.
+	 * @return the alpha value, NaN if the color feature has an empty range.
+	 */
+	private static float partAlpha(ElementData element, float[] parts, int offset, Feature feature) {
+		float alpha = parts[offset + 3];
+
+		if (feature != null) {
+			float value = element.getValue(feature);
+
+			if (!Float.isNaN(value)) {
+				// scale alpha linear
+				alpha *= (value - parts[offset + 4]) / parts[offset + 5];
+			}
+		}
+
+		return alpha;
+	}
+
+	/**
+	 * Packs color components, rounding them like {@link java.awt.Color}.
+	 *
+	 * @param red
+	 *            the red component in [0, 1].
+	 * @param green
+	 *            the green component in [0, 1].
+	 * @param blue
+	 *            the blue component in [0, 1].
+	 * @param alpha
+	 *            the alpha component in [0, 1].
+	 * @return the packed color.
+	 */
+	public static int pack(float red, float green, float blue, float alpha) {
+		return (toByte(alpha) << 24) | (toByte(red) << 16) | (toByte(green) << 8) | toByte(blue);
+	}
+
+	/**
+	 * Converts a color component to a byte, values beyond [0, 1] are clamped.
+	 *
+	 * @param component
+	 *            the component.
+	 * @return the byte value.
+	 */
+	private static int toByte(float component) {
+		if (!(component > 0.f)) {
+			return 0;
+		}
+
+		return Math.min(255, (int) (component * 255 + 0.5));
+	}
+}
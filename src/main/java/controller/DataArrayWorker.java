@@ -1,17 +1,18 @@
 package controller;
 
 import controller.effectiveoutlierness.Calculation;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.Arrays;
 
+import db.ColumnFile;
 import db.Database;
+import db.DatabaseAccessException;
 
 /**
  * The class {@code DataArrayWorker} is used to concurrently filter and create {@code ElementData} objects and finally
@@ -19,11 +20,31 @@ import db.Database;
  */
 public class DataArrayWorker implements Runnable {
 
+	/**
+	 * Minimal fraction of wanted rows within the id range of a worker, to read the whole range in a single scan.
+	 */
+	private static final double RANGE_SCAN_SELECTIVITY = 0.25;
+
+	/**
+	 * Maximal number of ids in one {@code IN} list.
+	 */
+	private static final int IN_CHUNK_SIZE = 500;
+
 	/**
 	 * The {@link Database}, where all elements are stored.
 	 */
 	private Database database = null;
 
+	/**
+	 * The mapped columns of all objects, null if the values have to be queried from the {@link Database}.
+	 */
+	private ColumnFile columnFile = null;
+
+	/**
+	 * The read-only connection of this worker, only valid while running.
+	 */
+	private Connection connection = null;
+
 	/**
 	 * The prepared part of the needed query, that is generated for the worker.
 	 */
@@ -34,15 +55,20 @@ public class DataArrayWorker implements Runnable {
 	 */
 	private ElementData[] elements = null;
 
+	/**
+	 * The columnar store, where the values of our range are written to.
+	 */
+	private FeatureStore store = null;
+
 	/**
 	 * The method to calculate the effective outlierness by
 	 */
 	private Calculation calculateEffectiveOutlierness = null;
 
 	/**
-	 * The groups, which currently exist.
+	 * Resolves the groups of the elements.
 	 */
-	private Group[] groups = null;
+	private GroupMembership membership = null;
 
 	/**
 	 * The active features, used to filter only wanted values.
@@ -64,24 +90,24 @@ public class DataArrayWorker implements Runnable {
 	 */
 	private int[] uniqWorkerArray = null;
 
-	/**
-	 * The group ids with their set of ids, used to resolve elements to their groups.
-	 */
-	private HashMap<Integer, HashSet<Integer>> uniqGroupIds = null;
-
 	/**
 	 * Constructs a new {@code DataArrayWorker}.
 	 *
 	 * @param database
 	 *            The {@link Database}, where all elements are stored.
+	 * @param columnFile
+	 *            The mapped columns of all objects, null if the values have to be queried from the {@link Database}.
 	 * @param sql
-	 *            The prepared part of the needed query, that is generated for the worker.
+	 *            The prepared part of the needed query, that is generated for the worker. It selects the features
+	 *            followed by the id.
 	 * @param elements
 	 *            The array we have to fill with our workload.
+	 * @param store
+	 *            The columnar store, where the values of our range are written to. Row i belongs to elements[i].
 	 * @param calculateEffectiveOutlierness
 	 *            The method to calculate the effective outlierness.
-	 * @param groups
-	 *            The groups, which currently exist.
+	 * @param membership
+	 *            Resolves the groups of the elements.
 	 * @param features
 	 *            The active features, used to filter only wanted values.
 	 * @param start
@@ -90,66 +116,123 @@ public class DataArrayWorker implements Runnable {
 	 *            The end index of our array working range.
 	 * @param uniqWorkerArray
 	 *            The array of ids, filter by constraints.
-	 * @param uniqGroupIds
-	 *            The group ids with their set of ids, used to resolve elements to their groups.
 	 */
-	DataArrayWorker(Database database, String sql, ElementData[] elements,
-			Calculation calculateEffectiveOutlierness, Group[] groups, Feature[] features,
-			int start, int end, int[] uniqWorkerArray, HashMap<Integer, HashSet<Integer>> uniqGroupIds) {
+	DataArrayWorker(Database database, ColumnFile columnFile, String sql, ElementData[] elements, FeatureStore store,
+			Calculation calculateEffectiveOutlierness, GroupMembership membership, Feature[] features,
+			int start, int end, int[] uniqWorkerArray) {
 		this.database = database;
+		this.columnFile = columnFile;
 		this.sharedSql = sql;
 		this.elements = elements;
+		this.store = store;
 		this.calculateEffectiveOutlierness = calculateEffectiveOutlierness;
-		this.groups = groups;
+		this.membership = membership;
 		this.features = features;
 		this.start = start;
 		this.end = end;
 		this.uniqWorkerArray = uniqWorkerArray;
-		this.uniqGroupIds = uniqGroupIds;
 	}
 
 	@Override
 	public void run() {
-		int[] featureIds = new int[this.features.length];
-		float[] values = new float[this.features.length];
+		float[][] columns = new float[this.features.length][];
+
+		// resolve the columns of our features
+		for (int p = 0; p < this.features.length; ++p) {
+			columns[p] = this.store.getColumn(this.features[p].getId());
+		}
 
-		// resolve feature ids
-		for (int p = 1; p < this.features.length; ++p) {
-			featureIds[p] = this.features[p].getId();
+		// mapped columns need neither a connection nor a query
+		if (this.columnFile != null) {
+			try {
+				this.generateFromColumnFile(columns);
+			} catch (IOException e) {
+				this.invalidateRange(columns);
+			}
+
+			return;
 		}
 
 		try {
+			// use a connection of our own, so the workers are not serialized on the shared connection
+			this.connection = this.database.acquireReadConnection();
+
 			// we need to get all objects for our block [end-start], b/c we have no constraints
 			if (uniqWorkerArray == null) {
-				this.generateAllElements(featureIds, values);
+				this.generateAllElements(columns);
 			} else {
-				this.generateElementsFromRange(featureIds, values);
+				this.generateElementsFromRange(columns);
 			}
 		} catch (SQLException e) {
 			// we couldn't finish our block, so we re-fill it with NaN to gracefully handle this situation
-			this.invalidateRange(featureIds, values);
+			this.invalidateRange(columns);
+		} catch (DatabaseAccessException e) {
+			this.invalidateRange(columns);
+		} finally {
+			if (this.connection != null) {
+				this.database.releaseReadConnection(this.connection);
+				this.connection = null;
+			}
 		}
 
 		// done here
 		Thread.yield();
 	}
 
+	/**
+	 * Generates elements by copying their values from the mapped columns.
+	 *
+	 * Value i of a mapped column belongs to the object with id i + 1, so a range of all objects is copied in bulk.
+	 *
+	 * @param columns
+	 *            the columns of the features, to store the values in
+	 * @throws IOException
+	 *             if a column could not be mapped
+	 */
+	private void generateFromColumnFile(float[][] columns) throws IOException {
+		for (int p = 0; p < this.features.length; ++p) {
+			FloatBuffer source = this.columnFile.getColumn(this.features[p].getId());
+
+			if (source == null) {
+				// virtual features are not stored, they are calculated with the elements
+				Arrays.fill(columns[p], this.start, this.end, Float.NaN);
+			} else if (this.uniqWorkerArray == null) {
+				int copied = Math.max(0, Math.min(this.end, source.limit()) - this.start);
+
+				source.position(this.start);
+				source.get(columns[p], this.start, copied);
+				Arrays.fill(columns[p], this.start + copied, this.end, Float.NaN);
+			} else {
+				for (int k = this.start; k < this.end; ++k) {
+					int id = this.uniqWorkerArray[k];
+					columns[p][k] = (id >= 1 && id <= source.limit()) ? source.get(id - 1) : Float.NaN;
+				}
+			}
+		}
+
+		for (int k = this.start; k < this.end; ++k) {
+			boolean allObjects = this.uniqWorkerArray == null;
+			ElementData element = this.generateElementData(allObjects ? k + 1 : this.uniqWorkerArray[k], k,
+					allObjects);
+			this.calculateEffectiveOutlierness.calculate(features, element);
+			this.elements[k] = element;
+		}
+	}
+
 	/**
 	 * generates elements if we do not have any constraints.
 	 *
 	 * fast query, slow object creation
 	 *
-	 * @param featureIds
-	 *            the list of features
-	 * @param values
-	 *            the list to store the values in
+	 * @param columns
+	 *            the columns of the features, to store the values in
 	 * @throws SQLException
 	 *             if database access failed
 	 */
-	private void generateAllElements(int[] featureIds, float[] values) throws SQLException {
+	private void generateAllElements(float[][] columns) throws SQLException {
 		int fetchSize = (end - start) < 1 ? 0 : (end - start);
 
-		Statement stmt = this.database.getConnection().createStatement();
+		Statement stmt = this.connection.createStatement();
 		stmt.setFetchSize(fetchSize);
 
 		// query = shared + specific
@@ -160,15 +243,15 @@ public class DataArrayWorker implements Runnable {
 			// walk over each table column in order to get all values
 			for (int j = 0; j < this.features.length; ++j) {
 				// offset +1, b/c counting starts at 1
-				values[j] = rs.getFloat(j + 1);
+				columns[j][i] = rs.getFloat(j + 1);
 
 				// gracefully handle NaN, so we are always returning floats
 				if (rs.wasNull()) {
-					values[j] = Float.NaN;
+					columns[j][i] = Float.NaN;
 				}
 			}
 
-			ElementData element = this.generateElementData(i + 1, featureIds, values, true);
+			ElementData element = this.generateElementData(i + 1, i, true);
 			this.calculateEffectiveOutlierness.calculate(features, element);
 			this.elements[i] = element;
 		}
@@ -179,157 +262,158 @@ public class DataArrayWorker implements Runnable {
 	/**
 	 * Generates elements based on constraints.
 	 *
-	 * slow query, fast object creation (assuming filtered ids << all ids)
+	 * The ids of our range are sorted, so we fetch them in batches and merge the ordered result against our ids. Dense
+	 * ranges are read by a single range scan, sparse ranges by chunks of {@code IN} lists.
 	 *
-	 * @param featureIds
-	 *            the list of features
-	 * @param values
-	 *            the array to store the values in
+	 * @param columns
+	 *            the columns of the features, to store the values in
 	 * @throws SQLException
 	 *             if database access failed
 	 */
-	private void generateElementsFromRange(int[] featureIds, float[] values) throws SQLException {
-		int fetchSize = (end - start) < 1 ? 0 : (end - start);
-
-		Statement stmt = this.database.getConnection().createStatement();
-		stmt.setFetchSize(fetchSize);
+	private void generateElementsFromRange(float[][] columns) throws SQLException {
+		if (this.end <= this.start) {
+			return;
+		}
 
-		// only get ids from the set
-		for (int k = this.start; k < this.end; ++k) {
-			int id = this.uniqWorkerArray[k];
+		Statement stmt = this.connection.createStatement();
+		stmt.setFetchSize(this.end - this.start);
 
-			ResultSet rs = stmt.executeQuery(sharedSql + "WHERE Id== " + id + ";");
+		int firstId = this.uniqWorkerArray[this.start];
+		int lastId = this.uniqWorkerArray[this.end - 1];
 
-			// walk over each table column in order to get all values
-			for (int l = 0; l < this.features.length; ++l) {
-				// offset +1, b/c counting starts at 1
-				values[l] = rs.getFloat(l + 1);
+		// fraction of the scanned rows, which are actually wanted
+		double selectivity = (double) (this.end - this.start) / ((double) lastId - firstId + 1);
 
-				// gracefully handle NaN, so we are always returning floats
-				if (rs.wasNull()) {
-					values[l] = Float.NaN;
+		if (selectivity >= RANGE_SCAN_SELECTIVITY) {
+			// dense selection, one scan over the whole id range
+			ResultSet rs = stmt.executeQuery(sharedSql + "WHERE Id >= " + firstId + " AND Id <= " + lastId
+					+ " ORDER BY Id;");
+			this.mergeResult(rs, columns, this.start, this.end);
+		} else {
+			// sparse selection, fetch the ids in chunks
+			for (int from = this.start; from < this.end; from += IN_CHUNK_SIZE) {
+				int to = Math.min(from + IN_CHUNK_SIZE, this.end);
+
+				StringBuilder strB = new StringBuilder(sharedSql);
+				strB.append("WHERE Id IN (");
+				for (int k = from; k < to; ++k) {
+					strB.append(this.uniqWorkerArray[k]);
+					strB.append(',');
 				}
+				strB.setCharAt(strB.length() - 1, ')');
+				strB.append(" ORDER BY Id;");
+
+				this.mergeResult(stmt.executeQuery(strB.toString()), columns, from, to);
 			}
+		}
+
+		stmt.close();
 
-			ElementData element = this.generateElementData(id, featureIds, values, false);
+		for (int k = this.start; k < this.end; ++k) {
+			ElementData element = this.generateElementData(this.uniqWorkerArray[k], k, false);
 			this.calculateEffectiveOutlierness.calculate(features, element);
 			this.elements[k] = element;
 		}
-		stmt.close();
 	}
 
 	/**
-	 * Invalidates the specific range of the worker array, by setting NaN as values.
+	 * Merges a result set, ordered by id, against the sorted ids of the given rows and stores the values. Ids without
+	 * a matching row are filled with NaN.
 	 *
-	 * By doing so, we are able to handle interrupted worker threads gracefully.
-	 *
-	 * @param featureIds
-	 *            the list of features
-	 * @param values
-	 *            the array to store the values in
+	 * @param rs
+	 *            the result set, the id is expected in the column after the features
+	 * @param columns
+	 *            the columns of the features, to store the values in
+	 * @param from
+	 *            the first row to fill
+	 * @param to
+	 *            the row after the last row to fill
+	 * @throws SQLException
+	 *             if database access failed
 	 */
-	private void invalidateRange(int[] featureIds, float[] values) {
-		// fill elements from start to end
-		for (int i = this.start; i < this.end; ++i) {
-			// fill each value of the element with NaN
-			for (int j = 0; j < this.features.length; ++j) {
-				values[j] = Float.NaN;
-			}
-
-			ElementData element = this.generateElementData(i + 1, featureIds, values, true);
+	private void mergeResult(ResultSet rs, float[][] columns, int from, int to) throws SQLException {
+		int idColumn = this.features.length + 1;
+		int k = from;
 
-			// calculate the effective outlierness for this element
-			this.calculateEffectiveOutlierness.calculate(features, element);
+		while (k < to && rs.next()) {
+			int rowId = rs.getInt(idColumn);
 
-			// add the element to the final list
-			this.elements[i] = element;
-		}
-	}
-
-	/**
-	 * Generate ElementData and assign groups
-	 *
-	 * @param id element id
-	 * @param featureIds feature ids of required features
-	 * @param values feature values
-	 * @param emptyGroup flags, if empty group should add to elements
-	 * @return element data
-	 */
-	private ElementData generateElementData(int id, int[] featureIds, float[] values, boolean emptyGroup) {
-		int[] groupIds;
+			// skip ids, which are not part of the result
+			while (k < to && this.uniqWorkerArray[k] < rowId) {
+				this.fillNaN(columns, k++);
+			}
 
-		// get group ids from groups, which select all ids
-		ArrayList<Integer> inGroup = new ArrayList<Integer>();
+			if (k < to && this.uniqWorkerArray[k] == rowId) {
+				// walk over each table column in order to get all values
+				for (int l = 0; l < this.features.length; ++l) {
+					// offset +1, b/c counting starts at 1
+					columns[l][k] = rs.getFloat(l + 1);
 
-		if (emptyGroup) {
-			// add "empty" group to elements
-			for (Group group : this.groups) {
-				if (group.isVisible() && group.getConstraints().length == 0) {
-					inGroup.add(group.getId());
+					// gracefully handle NaN, so we are always returning floats
+					if (rs.wasNull()) {
+						columns[l][k] = Float.NaN;
+					}
 				}
+				++k;
 			}
 		}
 
-		// check for occurrence of id and get the groupId from the mapping
-		for (Map.Entry<Integer, HashSet<Integer>> entry : this.uniqGroupIds.entrySet()) {
-			if (entry.getValue().contains(id) && !inGroup.contains(entry.getKey())) {
-				inGroup.add(entry.getKey());
-			}
-		}
+		rs.close();
 
-		if (inGroup.isEmpty()) {
-			groupIds = new int[0];
-		} else {
-			// we have to convert the ArrayList to an array for the ElementData ctor
-			groupIds = this.convertGroupMapping(inGroup);
-			inGroup.clear();
+		// ids beyond the last returned row
+		while (k < to) {
+			this.fillNaN(columns, k++);
 		}
-
-		// finally, fire up the constructor!
-		return new ElementData(id, featureIds, values, resolvGroups(groupIds));
 	}
 
 	/**
-	 * Converts an ArrayList of group ids to a native int array for ease of usage.
+	 * Fills all values of the given row with NaN.
 	 *
-	 * @param inGroup
-	 *            the ArrayList to convert
-	 * @return the result in array
+	 * @param columns
+	 *            the columns of the features
+	 * @param row
+	 *            the row to fill
 	 */
-	private int[] convertGroupMapping(ArrayList<Integer> inGroup) {
-		Integer[] integerArray = new Integer[inGroup.size()];
-		inGroup.toArray(integerArray);
-
-		return ArrayUtils.toPrimitive(integerArray);
+	private void fillNaN(float[][] columns, int row) {
+		for (float[] column : columns) {
+			column[row] = Float.NaN;
+		}
 	}
 
 	/**
-	 * Resolves group ids to group objects.
+	 * Invalidates the specific range of the worker array, by setting NaN as values.
+	 *
+	 * By doing so, we are able to handle interrupted worker threads gracefully.
 	 *
-	 * @param groupIds
-	 *            the list of group ids
-	 * @return the list of groups
+	 * @param columns
+	 *            the columns of the features, to store the values in
 	 */
-	private Group[] resolvGroups(int[] groupIds) {
-		ArrayList<Group> inGroup = new ArrayList<Group>();
-
-		// get specific group objects by their ids
-		for (Group group : this.groups) {
-			if (group.isVisible()) {
-				for (int groupId : groupIds) {
-					if (group.getId() == groupId) {
-						inGroup.add(group);
-					}
-				}
-			}
-		}
+	private void invalidateRange(float[][] columns) {
+		// fill elements from start to end
+		for (int i = this.start; i < this.end; ++i) {
+			// fill each value of the element with NaN
+			this.fillNaN(columns, i);
 
-		Group[] groups = new Group[inGroup.size()];
+			ElementData element = this.generateElementData(i + 1, i, true);
 
-		for (int i = 0; i < inGroup.size(); ++i) {
-			groups[i] = inGroup.get(i);
+			// calculate the effective outlierness for this element
+			this.calculateEffectiveOutlierness.calculate(features, element);
+
+			// add the element to the final list
+			this.elements[i] = element;
 		}
+	}
 
-		return groups;
+	/**
+	 * Generate ElementData and assign groups
+	 *
+	 * @param id element id
+	 * @param row row of the element in the feature store
+	 * @param emptyGroup flags, if empty group should add to elements
+	 * @return element data
+	 */
+	private ElementData generateElementData(int id, int row, boolean emptyGroup) {
+		// finally, fire up the constructor!
+		return new ElementData(id, this.store, row, this.membership.resolve(id, emptyGroup));
 	}
 }
@@ -0,0 +1,30 @@
+package controller;
+
+/**
+ * The interface {@code DataChunkListener} is informed about the progress, while the {@link DataHub} loads all elements
+ * of a new subspace or selection. It allows views to show an approximate picture before the data is complete.
+ */
+public interface DataChunkListener {
+
+	/**
+	 * Invoked before the elements are loaded. Chunks of an earlier loading are outdated afterwards.
+	 *
+	 * @param count
+	 *            N<sup>o</sup> of elements to load.
+	 */
+	void loadingStarted(int count);
+
+	/**
+	 * Invoked after a range of elements was loaded. The range is complete and will not change anymore, but the other
+	 * elements of the array may still be empty. It is called from the loading thread, which holds the lock of the
+	 * {@link DataHub}, so listeners must not call it.
+	 *
+	 * @param elements
+	 *            the elements, which are loaded so far.
+	 * @param start
+	 *            the first element of the range.
+	 * @param end
+	 *            the element after the last one of the range.
+	 */
+	void chunkLoaded(ElementData[] elements, int start, int end);
+}
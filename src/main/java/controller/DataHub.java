@@ -1,22 +1,35 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.lang3.ArrayUtils;
-
+import util.Failure;
 import util.Operator;
+import controller.effectiveoutlierness.Calculation;
+import db.ColumnFile;
 import db.Database;
 import db.DatabaseAccessException;
 
@@ -25,6 +38,11 @@ import db.DatabaseAccessException;
  */
 public class DataHub extends Observable implements Observer {
 
+	/**
+	 * Minimal number of objects, scanned by a single thread while evaluating dynamic constraints.
+	 */
+	private static final int MIN_SCAN_CHUNK_SIZE = 1 << 16;
+
 	/**
 	 * The {@link Database}, where all elements are stored.
 	 */
@@ -43,17 +61,22 @@ public class DataHub extends Observable implements Observer {
 	/**
 	 * Holds intersections on constraints, for each group.
 	 */
-	private HashMap<Integer, HashSet<Integer>> uniqGroupIds = null;
+	private GroupMembership membership = null;
 
 	/**
 	 * Holds all groups from the groupcontroller.
 	 */
 	private Group[] allGroups = null;
 
+	/**
+	 * Ids of the groups, which are shown instead of the visible ones, {@code null} to show the visible groups.
+	 */
+	private Set<Integer> groupFilter = null;
+
 	/**
 	 * Union on all active/visible groups.
 	 */
-	private HashSet<Integer> uniqIds = null;
+	private BitSet uniqIds = null;
 
 	/**
 	 * Holds all ids from constraints and is read on a range basis by the worker threads.
@@ -70,11 +93,53 @@ public class DataHub extends Observable implements Observer {
 	 */
 	private int numberOfThreads = 0;
 
+	/**
+	 * Caches whole feature columns of all objects, indexed by the object id, to evaluate dynamic constraints in
+	 * memory. Only the features of active dynamic constraints are kept.
+	 */
+	private final HashMap<Integer, float[]> objectColumns = new HashMap<Integer, float[]>();
+
+	/**
+	 * Sorted indexes of the cached object columns, built in the background.
+	 */
+	private final HashMap<Integer, Future<SortedFeatureIndex>> featureIndexes =
+			new HashMap<Integer, Future<SortedFeatureIndex>>();
+
 	/**
 	 * Caches elements, to optimize performance of queries with same subspace/constraints.
 	 */
 	private ElementData[] elementCache = null;
 
+	/**
+	 * Holds the values of the cached elements, row i belongs to the i-th cached element.
+	 */
+	private FeatureStore cacheStore = null;
+
+	/**
+	 * The features, the cache was built for.
+	 */
+	private Feature[] cacheFeatures = null;
+
+	/**
+	 * Defines whether the cache holds all objects, b/c no constraint restricts them.
+	 */
+	private boolean cacheHoldsAllObjects = false;
+
+	/**
+	 * The packed colors of the cached elements, null if they are not calculated yet or outdated.
+	 */
+	private int[] colorCache = null;
+
+	/**
+	 * The elements, which {@link #colorCache} belongs to.
+	 */
+	private ElementData[] colorCacheElements = null;
+
+	/**
+	 * The listeners, which are informed about every chunk of elements, while the cache is built.
+	 */
+	private final List<DataChunkListener> chunkListeners = new CopyOnWriteArrayList<DataChunkListener>();
+
 	/**
 	 * Constructor for a new {@code DataHub}. All parameters may not be {@code null}.
 	 *
@@ -100,7 +165,6 @@ public class DataHub extends Observable implements Observer {
 		this.subspaceController.addObserver(this);
 
 		int maxIds;
-		int maxGroups;
 
 		try {
 			maxIds = database.getConnection().createStatement().executeQuery("SELECT COUNT(Id) FROM Objects;")
@@ -109,20 +173,11 @@ public class DataHub extends Observable implements Observer {
 			maxIds = -1;
 		}
 
-		try {
-			maxGroups = this.groupController.getGroups().length;
-		} catch (DatabaseAccessException e) {
-			maxGroups = -1;
-		}
-
-		if (maxIds != -1 && maxGroups != -1) {
-			// boost performance by specifying capacity and load factor
-			this.uniqGroupIds = new HashMap<Integer, HashSet<Integer>>((int) (maxGroups * 1.2f), 1.f);
-			this.uniqIds = new HashSet<Integer>((int) (maxIds * 1.2f), 1.f);
+		if (maxIds != -1) {
+			// boost performance by specifying the capacity, ids are dense and start at 1
+			this.uniqIds = new BitSet(maxIds + 1);
 		} else {
-			// no performance boost without load factor and capacity specification
-			this.uniqGroupIds = new HashMap<Integer, HashSet<Integer>>();
-			this.uniqIds = new HashSet<Integer>();
+			this.uniqIds = new BitSet();
 		}
 
 		// initialize threadpool; assume pool size ~ proc+2
@@ -135,53 +190,87 @@ public class DataHub extends Observable implements Observer {
 	 *
 	 * @throws DatabaseAccessException
 	 *                                  if read operation failed in {@link Database}.
+	 * @throws InterruptedException
+	 *                                  if the scan threads got interupted
 	 */
-	private void evaluateConstraints() throws DatabaseAccessException {
-		for (Group group : this.allGroups) {
+	private void evaluateConstraints() throws DatabaseAccessException, InterruptedException {
+		boolean[] visible = new boolean[this.allGroups.length];
+
+		for (int i = 0; i < visible.length; ++i) {
+			visible[i] = this.isShown(this.allGroups[i]);
+		}
+
+		this.membership = new GroupMembership(this.allGroups, visible);
+
+		// ids of the features, which are used by any active dynamic constraint
+		HashSet<Integer> usedFeatures = new HashSet<Integer>();
+
+		for (int i = 0; i < this.allGroups.length; ++i) {
+			Group group = this.allGroups[i];
+
 			// select constraints accordingly
-			if (group.isVisible() && group.getConstraints().length > 0) {
+			if (visible[i] && group.getConstraints().length > 0) {
 				Constraint[] allConstraints = group.getConstraints();
 
-				// holds sets for each static constraint
-				ArrayList<HashSet<Integer>> staticConstraintSets = new ArrayList<HashSet<Integer>>();
+				// intersection on all constraints in a group
+				BitSet intersectionSet = new BitSet();
 
-				// holds sets for each dynamic constraint
-				ArrayList<HashSet<Integer>> dynamicConstraintSets = new ArrayList<HashSet<Integer>>();
+				// holds all active dynamic constraints, they are evaluated in one pass
+				ArrayList<DynamicConstraint> dynamicConstraints = new ArrayList<DynamicConstraint>();
 
-				// static and dynamic constraints need different evaluation mechanisms
+				// union on all static constraints
 				for (Constraint constraint : allConstraints) {
 					if (constraint instanceof StaticConstraint && constraint.isActive()) {
-						staticConstraintSets.add(evaluateStaticConstraint((StaticConstraint) constraint));
+						intersectionSet.or(evaluateStaticConstraint((StaticConstraint) constraint));
 					} else if (constraint instanceof DynamicConstraint && constraint.isActive()) {
-						dynamicConstraintSets.add(evaluateDynamicConstraint((DynamicConstraint) constraint));
+						dynamicConstraints.add((DynamicConstraint) constraint);
+						usedFeatures.add(((DynamicConstraint) constraint).getFeature().getId());
 					}
 				}
 
-				// intersection on all constraints in a group
-				HashSet<Integer> intersectionSet = new HashSet<Integer>(
-						(int) ((staticConstraintSets.size() + dynamicConstraintSets.size()) * 1.2f), 1.f);
-
-				// union on all static constraints
-				for (HashSet<Integer> staticHs : staticConstraintSets) {
-					intersectionSet.addAll(staticHs);
-				}
+				// intersection on all dynamic constraints, they have to hold together, so constraints which exclude
+				// each other select nothing, even if further constraints match; the union of the static constraints
+				// only restricts the result, if it is not empty
+				if (!dynamicConstraints.isEmpty()) {
+					BitSet dynamicSet = this.evaluateDynamicConstraints(dynamicConstraints);
 
-				// intersection on all dynamic constraints
-				for (HashSet<Integer> dynamicHs : dynamicConstraintSets) {
 					if (intersectionSet.isEmpty()) {
-						intersectionSet.addAll(dynamicHs);
+						intersectionSet.or(dynamicSet);
 					} else {
-						intersectionSet.retainAll(dynamicHs);
+						intersectionSet.and(dynamicSet);
 					}
 				}
 
-				this.uniqGroupIds.put(group.getId(), intersectionSet);
+				this.membership.setMembers(i, intersectionSet);
+
+				// finally, union on all groups
+				this.uniqIds.or(intersectionSet);
 			}
 		}
 
-		// finally, union on all groups
-		for (HashSet<Integer> groupSet : this.uniqGroupIds.values()) {
-			this.uniqIds.addAll(groupSet);
+		this.retainObjectColumns(usedFeatures);
+	}
+
+	/**
+	 * Drops the cached columns and sorted indexes of all features, which are no longer used by a constraint, so the
+	 * cache does not grow with every feature ever constrained.
+	 *
+	 * @param usedFeatures
+	 *            ids of the features, whose columns are kept
+	 */
+	private void retainObjectColumns(Set<Integer> usedFeatures) {
+		this.objectColumns.keySet().retainAll(usedFeatures);
+
+		Iterator<Map.Entry<Integer, Future<SortedFeatureIndex>>> it = this.featureIndexes.entrySet().iterator();
+
+		while (it.hasNext()) {
+			Map.Entry<Integer, Future<SortedFeatureIndex>> entry = it.next();
+
+			if (!usedFeatures.contains(entry.getKey())) {
+				// a running build is no longer needed
+				entry.getValue().cancel(false);
+				it.remove();
+			}
 		}
 	}
 
@@ -192,74 +281,252 @@ public class DataHub extends Observable implements Observer {
 	 *
 	 * @return selected, unique ids
 	 */
-	private HashSet<Integer> evaluateStaticConstraint(StaticConstraint staticConstraint) {
-		HashSet<Integer> constraintSet = new HashSet<Integer>(
-				(int) (staticConstraint.getSelection().length * 1.2f),
-				1.f);
+	private static BitSet evaluateStaticConstraint(StaticConstraint staticConstraint) {
+		BitSet constraintSet = new BitSet();
 
 		for (int id : staticConstraint.getSelection()) {
-			constraintSet.add(id);
+			// ids start at 1, so negative ids never match an object
+			if (id >= 0) {
+				constraintSet.set(id);
+			}
 		}
 
 		return constraintSet;
 	}
 
 	/**
-	 * Returns unique ids, selected by dynamic constraints
+	 * Returns unique ids, selected by all given dynamic constraints
 	 *
-	 * @param dynamicConstraint dynamic constraints
+	 * The constraints are evaluated in a single pass over the in-memory columns of their features, split into chunks
+	 * which are scanned concurrently.
+	 *
+	 * @param dynamicConstraints dynamic constraints, which all have to be fulfilled
 	 *
 	 * @return selected, unique ids
 	 *
 	 * @throws DatabaseAccessException
+	 *             if a feature column could not be read from the {@link Database}.
+	 * @throws InterruptedException
+	 *             if the scan threads got interupted
 	 */
-	private HashSet<Integer> evaluateDynamicConstraint(DynamicConstraint dynamicConstraint)
-			throws DatabaseAccessException {
-		try {
-			HashSet<Integer> constraintSet = new HashSet<Integer>((int) (this.allGroups.length * 1.2f), 1.f);
-			Statement stmt = database.getConnection().createStatement();
+	private BitSet evaluateDynamicConstraints(List<DynamicConstraint> dynamicConstraints)
+			throws DatabaseAccessException, InterruptedException {
+		int count = dynamicConstraints.size();
+		float[][] columns = new float[count][];
+		Operator[] operators = new Operator[count];
+		float[] limits = new float[count];
+
+		for (int i = 0; i < count; ++i) {
+			DynamicConstraint constraint = dynamicConstraints.get(i);
+			columns[i] = this.getObjectColumn(constraint.getFeature());
+			operators[i] = constraint.getOperator();
+			limits[i] = constraint.getValue();
+		}
+
+		int length = columns[0].length;
+
+		// answer by the smallest slice of a sorted index, if there is one built already
+		int best = -1;
+		int bestCount = Integer.MAX_VALUE;
+
+		for (int i = 0; i < count; ++i) {
+			Future<SortedFeatureIndex> index = this.featureIndexes.get(dynamicConstraints.get(i).getFeature().getId());
 
-			// select range, WHERE Feature Operator Value, e.g. WHERE "2" > 42.0013
-			ResultSet rs = stmt.executeQuery(
-					"SELECT Id FROM Objects WHERE \"" + dynamicConstraint.getFeature().getId() + "\" "
-					+ operatorToString(dynamicConstraint.getOperator()) + " " + dynamicConstraint.getValue() + ";");
+			if (index != null && index.isDone()) {
+				int matches = getDone(index).count(operators[i], limits[i]);
 
-			while (rs.next()) {
-				constraintSet.add(rs.getInt(1));
+				if (matches < bestCount) {
+					best = i;
+					bestCount = matches;
+				}
 			}
+		}
 
-			stmt.close();
+		if (best >= 0) {
+			Future<SortedFeatureIndex> index = this.featureIndexes.get(dynamicConstraints.get(best).getFeature()
+					.getId());
+			BitSet constraintSet = getDone(index).select(operators[best], limits[best]);
+
+			// the remaining constraints only filter the slice
+			for (int id = constraintSet.nextSetBit(0); id >= 0; id = constraintSet.nextSetBit(id + 1)) {
+				for (int i = 0; i < count; ++i) {
+					if (i != best && !DynamicConstraintScan.matches(columns[i][id], operators[i], limits[i])) {
+						constraintSet.clear(id);
+						break;
+					}
+				}
+			}
 
 			return constraintSet;
+		}
+
+		// small tables are not worth the thread overhead
+		int chunks = Math.max(1, Math.min(this.numberOfThreads, length / MIN_SCAN_CHUNK_SIZE));
+		int rowsPerChunk = (int) Math.ceil((double) length / chunks);
+
+		List<Callable<BitSet>> jobsQ = new ArrayList<Callable<BitSet>>(chunks);
+
+		for (int i = 0; i < chunks; ++i) {
+			jobsQ.add(new DynamicConstraintScan(columns, operators, limits, i * rowsPerChunk, Math.min((i + 1)
+					* rowsPerChunk, length)));
+		}
+
+		BitSet constraintSet = new BitSet(length);
+
+		try {
+			// union on the disjoint chunks
+			for (Future<BitSet> result : this.xServ.invokeAll(jobsQ)) {
+				constraintSet.or(result.get());
+			}
+		} catch (ExecutionException e) {
+			// the scan does not access the database, so this is a programming error
+			throw new IllegalStateException(e.getCause());
+		}
+
+		return constraintSet;
+	}
+
+	/**
+	 * Returns the values of a feature for all objects, indexed by the object id. Missing objects are NaN.
+	 *
+	 * The column is copied from the mapped columns of the {@link Database}, or read from the {@link Database} if there
+	 * are none. It is cached afterwards, b/c objects do not change.
+	 *
+	 * @param feature
+	 *            the requested feature
+	 * @return the column
+	 * @throws DatabaseAccessException
+	 *             if read operation failed in {@link Database}.
+	 */
+	private float[] getObjectColumn(Feature feature) throws DatabaseAccessException {
+		float[] column = this.objectColumns.get(feature.getId());
+
+		if (column != null) {
+			return column;
+		}
+
+		ColumnFile columnFile = this.database.getColumnFile();
+
+		if (columnFile != null) {
+			column = mapObjectColumn(columnFile, feature);
+		} else {
+			column = this.queryObjectColumn(feature);
+		}
+
+		this.objectColumns.put(feature.getId(), column);
+
+		// sort the column in the background, until then the constraints are answered by a scan
+		final float[] indexedColumn = column;
+		this.featureIndexes.put(feature.getId(), this.xServ.submit(new Callable<SortedFeatureIndex>() {
+			@Override
+			public SortedFeatureIndex call() {
+				return new SortedFeatureIndex(indexedColumn);
+			}
+		}));
+
+		return column;
+	}
+
+	/**
+	 * Copies the column of a feature from the mapped columns of all objects.
+	 *
+	 * @param columnFile
+	 *            the mapped columns
+	 * @param feature
+	 *            the requested feature
+	 * @return the column, indexed by the object id
+	 * @throws DatabaseAccessException
+	 *             if the column could not be mapped.
+	 */
+	private static float[] mapObjectColumn(ColumnFile columnFile, Feature feature) throws DatabaseAccessException {
+		float[] column = new float[columnFile.getObjectCount() + 1];
+		column[0] = Float.NaN;
+
+		try {
+			FloatBuffer source = columnFile.getColumn(feature.getId());
+
+			// virtual features are not stored, thus they never match
+			if (source == null) {
+				Arrays.fill(column, Float.NaN);
+			} else {
+				source.get(column, 1, columnFile.getObjectCount());
+			}
+		} catch (IOException e) {
+			throw new DatabaseAccessException(Failure.READ);
+		}
+
+		return column;
+	}
+
+	/**
+	 * Reads the column of a feature from the {@link Database}.
+	 *
+	 * @param feature
+	 *            the requested feature
+	 * @return the column, indexed by the object id
+	 * @throws DatabaseAccessException
+	 *             if read operation failed in {@link Database}.
+	 */
+	private float[] queryObjectColumn(Feature feature) throws DatabaseAccessException {
+		float[] column;
+		Connection connection = this.database.acquireReadConnection();
+
+		try {
+			Statement stmt = connection.createStatement();
+
+			ResultSet rs = stmt.executeQuery("SELECT MAX(Id) FROM Objects;");
+			column = new float[rs.getInt(1) + 1];
+			rs.close();
+
+			Arrays.fill(column, Float.NaN);
+
+			// virtual features are not stored in the database, thus they never match
+			if (!feature.isVirtual()) {
+				rs = stmt.executeQuery("SELECT Id, \"" + feature.getId() + "\" FROM Objects;");
+
+				while (rs.next()) {
+					float value = rs.getFloat(2);
+
+					// gracefully handle NaN, so we are always returning floats
+					column[rs.getInt(1)] = rs.wasNull() ? Float.NaN : value;
+				}
+				rs.close();
+			}
+
+			stmt.close();
 		} catch (SQLException e) {
-			throw new DatabaseAccessException();
+			throw new DatabaseAccessException(Failure.READ);
+		} finally {
+			this.database.releaseReadConnection(connection);
 		}
+
+		return column;
+	}
+
+	/**
+	 * Returns the number of features, whose columns are cached to evaluate dynamic constraints.
+	 *
+	 * @return N<sup>o</sup> of cached columns
+	 */
+	synchronized int getCachedColumnCount() {
+		return this.objectColumns.size();
 	}
 
 	/**
-	 * Converts operator to string accepted by SQL
-	 *
-	 * @param operator operator that should be converted
-	 * @return SQL string
-	 */
-	private static String operatorToString(Operator operator) {
-		switch (operator) {
-		case EQUAL:
-			return "=";
-		case NOT_EQUAL:
-			// "<>" in some cases of SQL.. go figure
-			return "!=";
-		case LESS:
-			return "<";
-		case LESS_OR_EQUAL:
-			return "<=";
-		case GREATER:
-			return ">";
-		case GREATER_OR_EQUAL:
-			return ">=";
-		default:
-			// well .. there isn't a meaningful default, but at least we try not to induce a crash
-			return "=";
+	 * Returns the result of a finished index build.
+	 *
+	 * @param index
+	 *            the finished build
+	 * @return the sorted index
+	 */
+	private static SortedFeatureIndex getDone(Future<SortedFeatureIndex> index) {
+		try {
+			return index.get();
+		} catch (InterruptedException e) {
+			// a finished future does not block
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
 		}
 	}
 
@@ -288,6 +555,67 @@ public class DataHub extends Observable implements Observer {
 		return this.elementCache;
 	}
 
+	/**
+	 * Returns the packed colors of the given elements, as calculated by {@link ColorEngine}.
+	 *
+	 * The colors of the cached elements are calculated once and reused, until a group, the membership of the elements
+	 * or their values change. Colors of other elements are calculated on every call.
+	 *
+	 * @param elements
+	 *            the elements, usually the result of {@link #getData()}.
+	 * @return the colors in the order of the elements, the array must not be modified.
+	 */
+	public synchronized int[] getColors(ElementData[] elements) {
+		if (elements == null) {
+			throw new IllegalArgumentException("elements is null");
+		}
+
+		if (elements == this.colorCacheElements && this.colorCache != null) {
+			return this.colorCache;
+		}
+
+		int[] colors = new int[elements.length];
+		ColorEngine.calcColors(elements, 0, elements.length, colors);
+
+		if (elements == this.elementCache) {
+			this.colorCache = colors;
+			this.colorCacheElements = elements;
+		}
+
+		return colors;
+	}
+
+	/**
+	 * Shows the elements of the given groups, regardless of the visibility stored in the {@link Database}. This
+	 * changes neither the groups nor the other views of the workspace.
+	 *
+	 * @param groupIds
+	 *            ids of the shown groups, {@code null} to show the visible groups again.
+	 */
+	public void setGroupFilter(Set<Integer> groupIds) {
+		synchronized (this) {
+			this.groupFilter = (groupIds != null) ? new HashSet<Integer>(groupIds) : null;
+		}
+
+		// the members change like after a change of the visibility
+		this.update(this.groupController, ChangeType.GROUP_MEMBERSHIP);
+	}
+
+	/**
+	 * Checks, if the elements of a group are shown.
+	 *
+	 * @param group
+	 *            the group.
+	 * @return true, if the group passes the group filter or is visible without a filter.
+	 */
+	private boolean isShown(Group group) {
+		if (this.groupFilter != null) {
+			return this.groupFilter.contains(group.getId());
+		}
+
+		return group.isVisible();
+	}
+
 	/**
 	 * Queries database and fill cache with elements
 	 *
@@ -298,12 +626,242 @@ public class DataHub extends Observable implements Observer {
 	 *             if worker threads got interupted
 	 */
 	private ElementData[] buildCache() throws DatabaseAccessException, InterruptedException {
-		// invalidate cache
-		this.elementCache = null;
+		this.invalidateCache();
 
 		// build group cache
 		this.allGroups = this.groupController.getGroups();
 
+		Feature[] features = this.getRequiredFeatures();
+
+		ElementData[] elements = new ElementData[0];
+		FeatureStore store = null;
+		boolean allObjects = false;
+
+		try {
+			if (features.length > 0) {
+				// start evaluating constraints instead of creating unused ElementData objects
+				this.evaluateConstraints();
+
+				int count = this.uniqIds.cardinality();
+
+				// no groups availble, get all objects
+				if (this.allGroups.length == 0 || this.membership.anyGroupSelectsAll()) {
+					allObjects = true;
+					count = this.countObjects();
+				} else {
+					// init worker array
+					this.uniqWorkerArray = this.sortedUniqIds();
+				}
+
+				elements = new ElementData[count];
+				store = createStore(count, features);
+
+				this.runWorkers(elements, store, features, this.uniqWorkerArray, true);
+			}
+		} finally {
+			this.clearWorkerState();
+		}
+
+		// fill cache
+		this.cacheFeatures = features;
+		this.cacheStore = store;
+		this.cacheHoldsAllObjects = allObjects;
+		this.elementCache = elements;
+
+		return this.elementCache;
+	}
+
+	/**
+	 * Re-evaluates the membership of the cached elements after constraints or groups changed.
+	 *
+	 * Values of elements, which are already cached, are copied from the cache instead of being fetched again. Only
+	 * elements new to the selection are requested from the {@link Database}.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if read operation failed in {@link Database}.
+	 * @throws InterruptedException
+	 *             if worker threads got interupted
+	 */
+	private void updateMembership() throws DatabaseAccessException, InterruptedException {
+		this.allGroups = this.groupController.getGroups();
+
+		Feature[] features = this.getRequiredFeatures();
+
+		// the cache does not hold the required features, so we start from scratch
+		if (!this.cacheMatches(features)) {
+			this.buildCache();
+			return;
+		}
+
+		try {
+			this.evaluateConstraints();
+
+			ElementData[] elements;
+
+			if (this.allGroups.length == 0 || this.membership.anyGroupSelectsAll()) {
+				if (!this.cacheHoldsAllObjects) {
+					// nearly all values would be missing, fetch them at once
+					this.clearWorkerState();
+					this.buildCache();
+					return;
+				}
+
+				// same elements, only their groups changed
+				elements = new ElementData[this.elementCache.length];
+				for (int i = 0; i < elements.length; ++i) {
+					int id = this.elementCache[i].getId();
+					elements[i] = new ElementData(id, this.cacheStore, i, this.membership.resolve(id, true));
+				}
+			} else {
+				elements = this.mergeWithCache(features, this.sortedUniqIds());
+				this.cacheHoldsAllObjects = false;
+			}
+
+			this.elementCache = elements;
+		} finally {
+			this.clearWorkerState();
+		}
+	}
+
+	/**
+	 * Builds the elements for the given ids, reusing the values of cached elements and fetching only the missing
+	 * ones.
+	 *
+	 * @param features
+	 *            the required features, matching the cache
+	 * @param ids
+	 *            the sorted ids of the new selection
+	 * @return the new elements, sorted by id
+	 * @throws InterruptedException
+	 *             if worker threads got interupted
+	 */
+	private ElementData[] mergeWithCache(Feature[] features, int[] ids) throws InterruptedException {
+		// match new ids against the cached ones, both are sorted
+		int[] cachedRows = new int[ids.length];
+		int[] missingIds = new int[ids.length];
+		int missingCount = 0;
+
+		for (int i = 0, j = 0; i < ids.length; ++i) {
+			while (j < this.elementCache.length && this.elementCache[j].getId() < ids[i]) {
+				++j;
+			}
+
+			if (j < this.elementCache.length && this.elementCache[j].getId() == ids[i]) {
+				cachedRows[i] = j;
+			} else {
+				cachedRows[i] = -1;
+				missingIds[missingCount++] = ids[i];
+			}
+		}
+
+		// fetch the missing elements
+		missingIds = Arrays.copyOf(missingIds, missingCount);
+		ElementData[] fetched = new ElementData[missingCount];
+		FeatureStore fetchedStore = createStore(missingCount, features);
+
+		if (missingCount > 0) {
+			this.runWorkers(fetched, fetchedStore, features, missingIds, false);
+		}
+
+		// copy both sources into a single store
+		FeatureStore store = createStore(ids.length, features);
+		ElementData[] elements = new ElementData[ids.length];
+
+		float[][] target = new float[features.length][];
+		float[][] cached = new float[features.length][];
+		float[][] missing = new float[features.length][];
+
+		for (int c = 0; c < features.length; ++c) {
+			target[c] = store.getColumn(features[c].getId());
+			cached[c] = this.cacheStore.getColumn(features[c].getId());
+			missing[c] = fetchedStore.getColumn(features[c].getId());
+		}
+
+		for (int i = 0, k = 0; i < ids.length; ++i) {
+			Group[] groups;
+
+			if (cachedRows[i] >= 0) {
+				for (int c = 0; c < features.length; ++c) {
+					target[c][i] = cached[c][cachedRows[i]];
+				}
+				groups = this.membership.resolve(ids[i], false);
+			} else {
+				for (int c = 0; c < features.length; ++c) {
+					target[c][i] = missing[c][k];
+				}
+				groups = fetched[k++].getGroups();
+			}
+
+			elements[i] = new ElementData(ids[i], store, i, groups);
+		}
+
+		this.cacheStore = store;
+
+		return elements;
+	}
+
+	/**
+	 * Replaces the {@link Group}s of the cached elements by their current state, after the name, color or
+	 * description of a group changed.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if read operation failed in {@link Database}.
+	 * @throws InterruptedException
+	 *             if worker threads got interupted
+	 */
+	private void refreshGroups() throws DatabaseAccessException, InterruptedException {
+		this.allGroups = this.groupController.getGroups();
+
+		// a new color feature has to be fetched
+		if (!this.cacheMatches(this.getRequiredFeatures())) {
+			this.buildCache();
+			return;
+		}
+
+		HashMap<Integer, Group> groupsById = new HashMap<Integer, Group>();
+		for (Group group : this.allGroups) {
+			groupsById.put(group.getId(), group);
+		}
+
+		for (ElementData element : this.elementCache) {
+			// the group arrays are owned by the elements, so we update them in place
+			Group[] groups = element.getGroups();
+
+			for (int i = 0; i < groups.length; ++i) {
+				Group current = groupsById.get(groups[i].getId());
+
+				if (current == null) {
+					// the group vanished in the meantime
+					this.buildCache();
+					return;
+				}
+
+				groups[i] = current;
+			}
+		}
+
+		this.allGroups = null;
+	}
+
+	/**
+	 * Recalculates the effective outlierness of the cached elements with the current strategy.
+	 */
+	private void recalculateEffectiveOutlierness() {
+		Calculation calculation = this.subspaceController.getCalculateEffectiveOutliernessBy();
+
+		for (ElementData element : this.elementCache) {
+			calculation.calculate(this.cacheFeatures, element);
+		}
+	}
+
+	/**
+	 * Returns the features of the active subspace, followed by the color features of all groups.
+	 *
+	 * @return the required features
+	 * @throws DatabaseAccessException
+	 *             if read operation failed in {@link Database}.
+	 */
+	private Feature[] getRequiredFeatures() throws DatabaseAccessException {
 		// combine normal features and color features
 		ArrayList<Feature> combinedFeatures = new ArrayList<Feature>();
 		combinedFeatures.addAll(Arrays.asList(subspaceController.getActiveSubspace().getFeatures()));
@@ -319,110 +877,211 @@ public class DataHub extends Observable implements Observer {
 		Feature[] features = new Feature[combinedFeatures.size()];
 		combinedFeatures.toArray(features);
 
-		ElementData[] elements = new ElementData[0];
-
-		if (features.length > 0) {
-			String requiredFeatures = buildRequiredFeaturesString(features);
+		return features;
+	}
 
-			// start evaluating constraints instead of creating unused ElementData objects
-			this.evaluateConstraints();
+	/**
+	 * Checks, if the cache was built for exactly the given features.
+	 *
+	 * @param features
+	 *            the required features
+	 * @return {@code true} if the cached values can be reused, {@code false} otherwise
+	 */
+	private boolean cacheMatches(Feature[] features) {
+		if (this.elementCache == null || this.cacheStore == null || this.cacheFeatures.length != features.length) {
+			return false;
+		}
 
-			int count = this.uniqIds.size();
+		for (int i = 0; i < features.length; ++i) {
+			if (this.cacheFeatures[i].getId() != features[i].getId()) {
+				return false;
+			}
+		}
 
-			// no groups availble, get all objects
-			if (this.allGroups.length == 0 || this.anyGroupSelectsAllObjects()) {
-				try {
-					Statement stmt = database.getConnection().createStatement();
+		return true;
+	}
 
-					// number of rows in the table Objects, needed for array creation
-					ResultSet rs = stmt.executeQuery("SELECT COUNT(Id) FROM Objects;");
+	/**
+	 * Fills the given elements by concurrently running {@link DataArrayWorker}s.
+	 *
+	 * @param elements
+	 *            the array to fill
+	 * @param store
+	 *            the store, where the values are written to
+	 * @param features
+	 *            the features to fetch
+	 * @param ids
+	 *            the sorted ids to fetch, or {@code null} to fetch all objects
+	 * @param publish
+	 *            true, if the {@link DataChunkListener}s are informed about every finished range
+	 * @throws InterruptedException
+	 *             if worker threads got interupted
+	 */
+	private void runWorkers(ElementData[] elements, FeatureStore store, Feature[] features, int[] ids,
+			boolean publish) throws InterruptedException {
+		int count = elements.length;
 
-					rs.next();
-					count = rs.getInt(1);
-					stmt.close();
-				} catch (SQLException e) {
-					throw new DatabaseAccessException();
-				}
-			} else {
-				// init worker array
-				Integer[] integerArray = new Integer[count];
-				this.uniqIds.toArray(integerArray);
-				this.uniqWorkerArray = ArrayUtils.toPrimitive(integerArray);
+		if (publish) {
+			for (DataChunkListener listener : this.chunkListeners) {
+				listener.loadingStarted(count);
 			}
+		}
+
+		if (count == 0) {
+			return;
+		}
 
-			elements = new ElementData[count];
+		// workers copy from the mapped columns if possible, otherwise they query the database
+		ColumnFile columnFile = this.database.getColumnFile();
 
-			String sharedSql = "SELECT " + requiredFeatures + " FROM Objects ";
+		// the id is appended, so workers can merge batched results against their ids
+		String sharedSql = "SELECT " + buildRequiredFeaturesString(features) + ",Id FROM Objects ";
 
-			// adjust number of workers to size of selection
-			int adjustedNumberOfThreads = (count < this.numberOfThreads) ? count : this.numberOfThreads;
+		// adjust number of workers to size of selection
+		int adjustedNumberOfThreads = (count < this.numberOfThreads) ? count : this.numberOfThreads;
 
-			// threaded implementation of bottleneck, for now only prints boundaries
-			int rowsPerThread = (int) Math.ceil((double) count / adjustedNumberOfThreads);
+		// threaded implementation of bottleneck
+		int rowsPerThread = (int) Math.ceil((double) count / adjustedNumberOfThreads);
 
-			List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(adjustedNumberOfThreads);
+		List<Future<int[]>> jobsQ = new ArrayList<Future<int[]>>(adjustedNumberOfThreads);
+		CompletionService<int[]> completion = new ExecutorCompletionService<int[]>(this.xServ);
 
+		try {
 			for (int i = 0; i < adjustedNumberOfThreads; ++i) {
 				// let thread i fill elements[start:end]
 				int start = i * rowsPerThread;
 				int end = Math.min((i + 1) * rowsPerThread, count);
 
-				// fill job queue with specific workload
-				jobsQ.add(Executors.callable(new DataArrayWorker(this.database, sharedSql, elements,
-						this.subspaceController.getCalculateEffectiveOutliernessBy(), this.allGroups, features, start,
-						end, this.uniqWorkerArray, this.uniqGroupIds)));
+				// fill job queue with specific workload, the result is the range of the job
+				jobsQ.add(completion.submit(new DataArrayWorker(this.database, columnFile, sharedSql, elements, store,
+						this.subspaceController.getCalculateEffectiveOutliernessBy(), this.membership, features,
+						start, end, ids), new int[] { start, end }));
 			}
 
-			// synchronization: execute and wait on all jobs
-			this.xServ.invokeAll(jobsQ);
+			// synchronization: wait on all jobs, publishing their ranges in the order they finish
+			for (int i = 0; i < jobsQ.size(); ++i) {
+				int[] range = completion.take().get();
 
-			// clean group cache
-			this.allGroups = null;
+				if (publish) {
+					for (DataChunkListener listener : this.chunkListeners) {
+						listener.chunkLoaded(elements, range[0], range[1]);
+					}
+				}
+			}
+		} catch (ExecutionException e) {
+			// workers handle their errors by invalidating their range, so this is a programming error
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			for (Future<int[]> job : jobsQ) {
+				job.cancel(true);
+			}
 		}
+	}
 
-		// clear worker sets / arrays
-		this.uniqGroupIds.clear();
-		this.uniqIds.clear();
-		this.uniqWorkerArray = null;
-
-		// fill cache
-		this.elementCache = elements;
+	/**
+	 * Registers a listener, which is informed about every chunk of elements, while all elements of a new subspace or
+	 * selection are loaded.
+	 *
+	 * @param listener
+	 *            the listener.
+	 */
+	public void addChunkListener(DataChunkListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("listener is null");
+		}
 
-		return this.elementCache;
+		this.chunkListeners.add(listener);
 	}
 
 	/**
-	 * Checks, if the given groups selects all objects
-	 * Any group thats vsible and has no constraints selects all objects
+	 * Removes a listener, registered by {@link #addChunkListener(DataChunkListener)}.
 	 *
-	 * @param group group to check
-	 * @return {@code true} if the group selects all objects, {@code false} otherwise
+	 * @param listener
+	 *            the listener.
 	 */
-	private static boolean groupSelectsAllObjects(Group group) {
-		boolean isSelected = false;
+	public void removeChunkListener(DataChunkListener listener) {
+		this.chunkListeners.remove(listener);
+	}
 
-		if (group.isVisible() && group.getConstraints().length == 0) {
-			isSelected = true;
+	/**
+	 * Allocates a store with one column per feature.
+	 *
+	 * @param count
+	 *            the number of rows
+	 * @param features
+	 *            the features
+	 * @return the new store
+	 */
+	private static FeatureStore createStore(int count, Feature[] features) {
+		// one primitive column per feature, rows match the element array
+		int[] featureIds = new int[features.length];
+		for (int i = 0; i < features.length; ++i) {
+			featureIds[i] = features[i].getId();
 		}
 
-		return isSelected;
+		return new FeatureStore(count, featureIds);
 	}
 
 	/**
-	 * Checks, if there is a group that selects all objects
+	 * Drops the cached elements, so they are loaded again on demand.
+	 */
+	private void invalidateCache() {
+		this.colorCache = null;
+		this.colorCacheElements = null;
+		this.elementCache = null;
+		this.cacheStore = null;
+		this.cacheFeatures = null;
+		this.cacheHoldsAllObjects = false;
+	}
+
+	/**
+	 * Returns the number of rows in the table Objects.
 	 *
-	 * @return {@code true} if there a a group, {@code false} otherwise
+	 * @return the number of objects
+	 * @throws DatabaseAccessException
+	 *             if read operation failed in {@link Database}.
 	 */
-	private boolean anyGroupSelectsAllObjects() {
-		boolean selectsAll = false;
+	private int countObjects() throws DatabaseAccessException {
+		try {
+			Statement stmt = database.getConnection().createStatement();
 
-		for (Group group : this.allGroups) {
-			if (groupSelectsAllObjects(group)) {
-				selectsAll = true;
-			}
+			// number of rows in the table Objects, needed for array creation
+			ResultSet rs = stmt.executeQuery("SELECT COUNT(Id) FROM Objects;");
+
+			rs.next();
+			int count = rs.getInt(1);
+			stmt.close();
+
+			return count;
+		} catch (SQLException e) {
+			throw new DatabaseAccessException();
+		}
+	}
+
+	/**
+	 * Returns the union of all evaluated constraints as sorted array.
+	 *
+	 * @return the sorted ids
+	 */
+	private int[] sortedUniqIds() {
+		int[] ids = new int[this.uniqIds.cardinality()];
+
+		// the bitmap is walked in ascending order, so the ids are already sorted
+		for (int id = this.uniqIds.nextSetBit(0), k = 0; id >= 0; id = this.uniqIds.nextSetBit(id + 1)) {
+			ids[k++] = id;
 		}
 
-		return selectsAll;
+		return ids;
+	}
+
+	/**
+	 * Clears the sets and arrays, which are only used while evaluating constraints.
+	 */
+	private void clearWorkerState() {
+		this.membership = null;
+		this.uniqIds.clear();
+		this.uniqWorkerArray = null;
+		this.allGroups = null;
 	}
 
 	/**
@@ -450,11 +1109,31 @@ public class DataHub extends Observable implements Observer {
 
 	@Override
 	public void update(Observable arg0, Object arg1) {
+		ChangeType change = (arg1 instanceof ChangeType) ? (ChangeType) arg1 : null;
+
 		try {
-			this.buildCache();
+			synchronized (this) {
+				// every change may affect the colors, e.g. group colors or values of color features
+				this.colorCache = null;
+				this.colorCacheElements = null;
+
+				if (this.elementCache == null) {
+					// nothing cached yet, getData() will build the cache on demand
+				} else if (change == ChangeType.GROUP_METADATA) {
+					this.refreshGroups();
+				} else if (change == ChangeType.GROUP_MEMBERSHIP) {
+					this.updateMembership();
+				} else if (change == ChangeType.EFFECTIVE_OUTLIERNESS) {
+					this.recalculateEffectiveOutlierness();
+				} else if (change != ChangeType.FEATURE_METADATA) {
+					// subspace changes and unknown changes require all values, which are loaded by the next getData(),
+					// so the views are notified at once and can show the chunks while they are loaded
+					this.invalidateCache();
+				}
+			}
 
 			this.setChanged();
-			this.notifyObservers();
+			this.notifyObservers(change);
 		} catch (DatabaseAccessException e) {
 			// do not notify observers
 			e.printStackTrace();
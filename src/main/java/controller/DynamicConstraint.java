@@ -141,7 +141,7 @@ public class DynamicConstraint implements Constraint {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -170,7 +170,7 @@ public class DynamicConstraint implements Constraint {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -188,7 +188,7 @@ public class DynamicConstraint implements Constraint {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -213,7 +213,7 @@ public class DynamicConstraint implements Constraint {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -230,7 +230,7 @@ public class DynamicConstraint implements Constraint {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -0,0 +1,140 @@
+package controller;
+
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+
+import util.Operator;
+
+/**
+ * The class {@code DynamicConstraintScan} evaluates several {@link DynamicConstraint}s in a single pass over a range
+ * of in-memory feature columns. Each column is indexed by the object id, so the resulting bits are object ids.
+ *
+ * An object is selected, if it fulfills all constraints. Scans over disjoint ranges may run concurrently.
+ */
+class DynamicConstraintScan implements Callable<BitSet> {
+
+	/**
+	 * The column of each constraint, indexed by the object id.
+	 */
+	private final float[][] columns;
+
+	/**
+	 * The operator of each constraint.
+	 */
+	private final Operator[] operators;
+
+	/**
+	 * The limit of each constraint.
+	 */
+	private final float[] limits;
+
+	/**
+	 * The first object id of our range.
+	 */
+	private final int start;
+
+	/**
+	 * The object id after the last one of our range.
+	 */
+	private final int end;
+
+	/**
+	 * Constructs a new {@code DynamicConstraintScan}.
+	 *
+	 * @param columns
+	 *            the column of each constraint, indexed by the object id.
+	 * @param operators
+	 *            the operator of each constraint.
+	 * @param limits
+	 *            the limit of each constraint.
+	 * @param start
+	 *            the first object id of our range.
+	 * @param end
+	 *            the object id after the last one of our range.
+	 */
+	DynamicConstraintScan(float[][] columns, Operator[] operators, float[] limits, int start, int end) {
+		if (columns.length != operators.length || columns.length != limits.length) {
+			throw new IllegalArgumentException("columns, operators and limits have not same length");
+		}
+
+		this.columns = columns;
+		this.operators = operators;
+		this.limits = limits;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public BitSet call() {
+		BitSet result = new BitSet(this.end);
+
+		if (this.columns.length == 0) {
+			return result;
+		}
+
+		// the first constraint selects the candidates, the other ones only filter them
+		float[] first = this.columns[0];
+		Operator firstOperator = this.operators[0];
+		float firstLimit = this.limits[0];
+
+		for (int id = this.start; id < this.end; ++id) {
+			if (matches(first[id], firstOperator, firstLimit) && this.matchesRemaining(id)) {
+				result.set(id);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Checks the object against all constraints but the first.
+	 *
+	 * @param id
+	 *            the object id.
+	 * @return {@code true} if all these constraints are fulfilled, {@code false} otherwise.
+	 */
+	private boolean matchesRemaining(int id) {
+		for (int c = 1; c < this.columns.length; ++c) {
+			if (!matches(this.columns[c][id], this.operators[c], this.limits[c])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compares a value against a limit. Like in SQL, a missing value (NaN) never matches.
+	 *
+	 * @param value
+	 *            the value of the object.
+	 * @param operator
+	 *            the operator used to compare.
+	 * @param limit
+	 *            the limit of the constraint.
+	 * @return {@code true} if the value fulfills the constraint, {@code false} otherwise.
+	 */
+	static boolean matches(float value, Operator operator, float limit) {
+		if (Float.isNaN(value)) {
+			return false;
+		}
+
+		switch (operator) {
+		case EQUAL:
+			return value == limit;
+		case NOT_EQUAL:
+			return value != limit;
+		case LESS:
+			return value < limit;
+		case LESS_OR_EQUAL:
+			return value <= limit;
+		case GREATER:
+			return value > limit;
+		case GREATER_OR_EQUAL:
+			return value >= limit;
+		default:
+			// well .. there isn't a meaningful default
+			return false;
+		}
+	}
+}
@@ -1,10 +1,10 @@
 package controller;
 
-import java.util.HashMap;
-
 /**
  * The class {@code ElementData} represents one element with several {@link Feature}s and their values. The number of
  * {@link Feature}s differs, according to the used {@link Feature}s in the UI.
+ *
+ * The values are not stored in the element itself, but in one row of a shared {@link FeatureStore}.
  */
 public class ElementData {
 
@@ -21,7 +21,12 @@ public class ElementData {
 	/**
 	 * Stores the values, matching to the features.
 	 */
-	private final HashMap<Integer, Float> values;
+	private final FeatureStore store;
+
+	/**
+	 * The row of this element in the {@code store}.
+	 */
+	private final int row;
 
 	/**
 	 * Constructs a new {@code ElementData}.
@@ -43,13 +48,37 @@ public class ElementData {
 		}
 
 		this.id = id;
-		this.values = new HashMap<Integer, Float>((int) ((featureIds.length + 1) * 1.2f) + 1, 1.f);
+		this.store = new FeatureStore(1, featureIds);
+		this.row = 0;
 
 		// Add all values matching to the features
 		for (int i = 0; i < featureIds.length; i++) {
-			this.values.put(featureIds[i], values[i]);
+			this.store.setValue(featureIds[i], 0, values[i]);
+		}
+
+		this.groups = groups;
+	}
+
+	/**
+	 * Constructs a new {@code ElementData}, which reads its values from a row of a shared {@link FeatureStore}.
+	 *
+	 * @param id
+	 *            not negative unique identifier of this element.
+	 * @param store
+	 *            the {@link FeatureStore} holding the values of this element.
+	 * @param row
+	 *            the row of this element in the {@code store}.
+	 * @param groups
+	 *            a list of groups, which this element belongs to.
+	 */
+	ElementData(int id, FeatureStore store, int row, Group[] groups) {
+		if (id < 1 || store == null || row < 0 || row >= store.size() || groups == null) {
+			throw new IllegalArgumentException("one parameter is null, id is negative or row is out of range");
 		}
 
+		this.id = id;
+		this.store = store;
+		this.row = row;
 		this.groups = groups;
 	}
 
@@ -74,7 +103,7 @@ public class ElementData {
 			throw new IllegalArgumentException("feature is null");
 		}
 
-		return this.values.get(feature.getId());
+		return this.store.getValue(feature.getId(), this.row);
 	}
 
 	/**
@@ -95,6 +124,6 @@ public class ElementData {
 	 *            the value to add to this element.
 	 */
 	public void addValue(int id, float value) {
-		this.values.put(id, value);
+		this.store.setValue(id, this.row, value);
 	}
 }
@@ -150,7 +150,7 @@ public class Feature {
 				prepStmt.execute();
 				prepStmt.close();
 
-				this.subspaceController.informObservers();
+				this.subspaceController.informObservers(ChangeType.FEATURE_METADATA);
 			} catch (SQLException e) {
 				throw new DatabaseAccessException(Failure.WRITE);
 			}
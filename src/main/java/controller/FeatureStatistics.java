@@ -0,0 +1,209 @@
+package controller;
+
+/**
+ * The class {@code FeatureStatistics} holds the statistics of the values of one {@link Feature} for a set of elements,
+ * as calculated by the {@link StatisticsEngine}. Missing values (NaN) are not taken into account.
+ *
+ * The median and other quantiles are approximated by a {@link QuantileSketch}, which is exact for small sets. The exact
+ * median of large sets is calculated on demand only.
+ *
+ * An instance is immutable, so it may be shared between threads.
+ */
+public final class FeatureStatistics {
+
+	/**
+	 * N<sup>o</sup> of values.
+	 */
+	private final int count;
+
+	/**
+	 * The smallest value.
+	 */
+	private final float min;
+
+	/**
+	 * The largest value.
+	 */
+	private final float max;
+
+	/**
+	 * The arithmetic mean.
+	 */
+	private final double mean;
+
+	/**
+	 * The sum of squared differences from the mean.
+	 */
+	private final double m2;
+
+	/**
+	 * The sketch of the quantiles or null, if they were not calculated.
+	 */
+	private final QuantileSketch quantiles;
+
+	/**
+	 * The exact median or NaN, if it was not calculated.
+	 */
+	private final float exactMedian;
+
+	/**
+	 * Constructs new {@code FeatureStatistics}.
+	 *
+	 * @param count
+	 *            N<sup>o</sup> of values.
+	 * @param min
+	 *            the smallest value.
+	 * @param max
+	 *            the largest value.
+	 * @param mean
+	 *            the arithmetic mean.
+	 * @param m2
+	 *            the sum of squared differences from the mean.
+	 * @param quantiles
+	 *            the sketch of the quantiles or null, if they were not calculated. It must not be modified afterwards.
+	 * @param exactMedian
+	 *            the exact median or NaN, if it was not calculated.
+	 */
+	FeatureStatistics(int count, float min, float max, double mean, double m2, QuantileSketch quantiles,
+			float exactMedian) {
+		this.count = count;
+		this.min = min;
+		this.max = max;
+		this.mean = mean;
+		this.m2 = m2;
+		this.quantiles = quantiles;
+		this.exactMedian = exactMedian;
+	}
+
+	/**
+	 * Returns the number of values.
+	 *
+	 * @return N<sup>o</sup> of values, which are not NaN.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the smallest value.
+	 *
+	 * @return the minimum or NaN, if there are no values.
+	 */
+	public float getMin() {
+		return (this.count > 0) ? this.min : Float.NaN;
+	}
+
+	/**
+	 * Returns the largest value.
+	 *
+	 * @return the maximum or NaN, if there are no values.
+	 */
+	public float getMax() {
+		return (this.count > 0) ? this.max : Float.NaN;
+	}
+
+	/**
+	 * Returns the arithmetic mean of the values.
+	 *
+	 * @return the mean or NaN, if there are no values.
+	 */
+	public float getMean() {
+		return (this.count > 0) ? (float) this.mean : Float.NaN;
+	}
+
+	/**
+	 * Returns the variance of the values, as population variance.
+	 *
+	 * @return the variance or NaN, if there are no values.
+	 */
+	public float getVariance() {
+		return (this.count > 0) ? (float) (this.m2 / this.count) : Float.NaN;
+	}
+
+	/**
+	 * Returns the standard deviation of the values, as square root of the population variance.
+	 *
+	 * @return the standard deviation or NaN, if there are no values.
+	 */
+	public float getStandardDeviation() {
+		return (this.count > 0) ? (float) Math.sqrt(this.m2 / this.count) : Float.NaN;
+	}
+
+	/**
+	 * Checks, if the median and the other quantiles were calculated.
+	 *
+	 * @return true, if {@link #getMedian()}, {@link #getQuantile(double)} and {@link #getInterquartileRange()} are
+	 *         available.
+	 */
+	public boolean hasMedian() {
+		return this.count == 0 || this.quantiles != null;
+	}
+
+	/**
+	 * Checks, if the median is exact. It is exact for small sets or if it was calculated exactly on demand.
+	 *
+	 * @return true, if {@link #getMedian()} is exact.
+	 */
+	public boolean isMedianExact() {
+		return this.count == 0 || !Float.isNaN(this.exactMedian) || (this.quantiles != null && this.quantiles.isExact());
+	}
+
+	/**
+	 * Returns the median of the values, the mean of the two middle values for an even number of values.
+	 *
+	 * @return the exact median if available, the approximated one otherwise or NaN, if there are no values or it was
+	 *         not calculated.
+	 */
+	public float getMedian() {
+		if (!Float.isNaN(this.exactMedian)) {
+			return this.exactMedian;
+		}
+
+		return this.getQuantile(0.5);
+	}
+
+	/**
+	 * Returns the approximated quantile of the values, e.g. 0.9 for the 90th percentile.
+	 *
+	 * @param q
+	 *            the quantile between 0 and 1.
+	 * @return the quantile or NaN, if there are no values or the quantiles were not calculated.
+	 */
+	public float getQuantile(double q) {
+		if (this.quantiles == null) {
+			if (!(q >= 0. && q <= 1.)) {
+				throw new IllegalArgumentException("q is not between 0 and 1");
+			}
+
+			return Float.NaN;
+		}
+
+		return this.quantiles.getQuantile(q);
+	}
+
+	/**
+	 * Returns the approximated interquartile range, the difference of the third and the first quartile.
+	 *
+	 * @return the interquartile range or NaN, if there are no values or the quantiles were not calculated.
+	 */
+	public float getInterquartileRange() {
+		if (this.quantiles == null) {
+			return Float.NaN;
+		}
+
+		float[] quartiles = this.quantiles.getQuantiles(new double[] { 0.25, 0.75 });
+
+		return quartiles[1] - quartiles[0];
+	}
+
+	/**
+	 * Returns a copy of these statistics with the given exact median.
+	 *
+	 * @param median
+	 *            the exact median.
+	 * @return the new statistics.
+	 */
+	FeatureStatistics withExactMedian(float median) {
+		return new FeatureStatistics(this.count, this.min, this.max, this.mean, this.m2, this.quantiles, median);
+	}
+}
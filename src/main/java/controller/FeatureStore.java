@@ -0,0 +1,135 @@
+package controller;
+
+/**
+ * The class {@code FeatureStore} holds the values of a set of elements column by column. Each {@link Feature} owns a
+ * primitive {@code float} array, an element is addressed by its row index in these arrays.
+ *
+ * Rows may be written concurrently, as long as every thread works on its own range of rows.
+ */
+public class FeatureStore {
+
+	/**
+	 * The smallest supported feature id, used by the virtual effective outlierness {@link Feature}.
+	 */
+	private static final int MIN_FEATURE_ID = -1;
+
+	/**
+	 * The number of rows in each column.
+	 */
+	private final int size;
+
+	/**
+	 * The columns, indexed by the feature id shifted by {@code MIN_FEATURE_ID}. Missing columns are {@code null}.
+	 */
+	private volatile float[][] columns;
+
+	/**
+	 * Constructs a new {@code FeatureStore} and allocates a column for every given feature id.
+	 *
+	 * @param size
+	 *            the number of rows, may not be negative.
+	 * @param featureIds
+	 *            the ids of the features to allocate columns for, may not be {@code null}.
+	 */
+	public FeatureStore(int size, int[] featureIds) {
+		if (size < 0 || featureIds == null) {
+			throw new IllegalArgumentException("size is negative or featureIds is null");
+		}
+
+		this.size = size;
+		this.columns = new float[0][];
+
+		for (int featureId : featureIds) {
+			this.addColumn(featureId);
+		}
+	}
+
+	/**
+	 * Returns the number of rows in this store.
+	 *
+	 * @return the number of rows.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the column of the given feature id. The array is returned without copying, so it may not be modified.
+	 *
+	 * @param featureId
+	 *            the id of the requested feature.
+	 * @return the column or {@code null}, if this store holds no values for this feature.
+	 */
+	public float[] getColumn(int featureId) {
+		float[][] current = this.columns;
+		int index = featureId - MIN_FEATURE_ID;
+
+		return (index >= 0 && index < current.length) ? current[index] : null;
+	}
+
+	/**
+	 * Returns the value of the given feature in the given row.
+	 *
+	 * @param featureId
+	 *            the id of the requested feature.
+	 * @param row
+	 *            the row of the element.
+	 * @return the value.
+	 * @throws NullPointerException
+	 *             if this store holds no values for this feature.
+	 */
+	public float getValue(int featureId, int row) {
+		return this.getColumn(featureId)[row];
+	}
+
+	/**
+	 * Sets the value of the given feature in the given row, the column is allocated, if it does not exist yet.
+	 *
+	 * @param featureId
+	 *            the id of the feature.
+	 * @param row
+	 *            the row of the element.
+	 * @param value
+	 *            the new value.
+	 */
+	public void setValue(int featureId, int row, float value) {
+		float[] column = this.getColumn(featureId);
+
+		if (column == null) {
+			column = this.addColumn(featureId);
+		}
+
+		column[row] = value;
+	}
+
+	/**
+	 * Allocates the column for the given feature id, if it does not exist yet.
+	 *
+	 * @param featureId
+	 *            the id of the feature.
+	 * @return the column of this feature.
+	 */
+	private synchronized float[] addColumn(int featureId) {
+		if (featureId < MIN_FEATURE_ID) {
+			throw new IllegalArgumentException("featureId is out of range");
+		}
+
+		float[][] current = this.columns;
+		int index = featureId - MIN_FEATURE_ID;
+
+		if (index >= current.length) {
+			float[][] grown = new float[index + 1][];
+			System.arraycopy(current, 0, grown, 0, current.length);
+			current = grown;
+		} else if (current[index] != null) {
+			return current[index];
+		}
+
+		current[index] = new float[this.size];
+
+		// publish the new column set
+		this.columns = current;
+
+		return current[index];
+	}
+}
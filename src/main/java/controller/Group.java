@@ -185,7 +185,7 @@ public class Group {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_METADATA);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -210,7 +210,7 @@ public class Group {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -235,7 +235,7 @@ public class Group {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_METADATA);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -262,7 +262,7 @@ public class Group {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_METADATA);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -291,7 +291,7 @@ public class Group {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_METADATA);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -344,7 +344,7 @@ public class Group {
 
 			constraints.add(newConstraint);
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -400,7 +400,7 @@ public class Group {
 
 			constraints.add(newConstraint);
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -449,7 +449,7 @@ public class Group {
 			stmt.execute("DELETE FROM Groups WHERE Id=" + this.id + ";");
 			stmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
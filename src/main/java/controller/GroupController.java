@@ -99,7 +99,7 @@ public class GroupController extends Observable {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
 
-		informOberserver();
+		informOberserver(ChangeType.GROUP_MEMBERSHIP);
 
 		return new Group(this, database, groupId, name, true, groupColor.getRGB(), null, "");
 	}
@@ -114,7 +114,7 @@ public class GroupController extends Observable {
 	 */
 	public void removeGroup(Group group) throws DatabaseAccessException {
 		group.remove();
-		informOberserver();
+		informOberserver(ChangeType.GROUP_MEMBERSHIP);
 	}
 
 	/**
@@ -218,10 +218,13 @@ public class GroupController extends Observable {
 
 	/**
 	 * This method is called to update all Observer, registered to this {@code GroupController}.
+	 *
+	 * @param change
+	 *            the kind of the change, passed to the observers.
 	 */
-	public void informOberserver() {
+	public void informOberserver(ChangeType change) {
 		// update observers
 		this.setChanged();
-		this.notifyObservers();
+		this.notifyObservers(change);
 	}
 }
@@ -0,0 +1,124 @@
+package controller;
+
+import java.util.BitSet;
+
+/**
+ * The class {@code GroupMembership} resolves the {@link Group}s of an element by its id. The elements of each
+ * {@link Group} are stored as bitmap of ids, so a lookup is a single bit test per {@link Group}.
+ */
+class GroupMembership {
+
+	/**
+	 * The groups, which currently exist.
+	 */
+	private final Group[] groups;
+
+	/**
+	 * Flags the groups, which are shown.
+	 */
+	private final boolean[] visible;
+
+	/**
+	 * The ids selected by the constraints of each group, {@code null} if the group was not evaluated.
+	 */
+	private final BitSet[] members;
+
+	/**
+	 * Flags the visible groups without constraints, they select all elements.
+	 */
+	private final boolean[] selectsAll;
+
+	/**
+	 * Constructs a new {@code GroupMembership} without any evaluated groups.
+	 *
+	 * @param groups
+	 *            the groups, which currently exist.
+	 * @param visible
+	 *            flags the groups, which are shown, in the order of the groups.
+	 */
+	GroupMembership(Group[] groups, boolean[] visible) {
+		this.groups = groups;
+		this.visible = visible;
+		this.members = new BitSet[groups.length];
+		this.selectsAll = new boolean[groups.length];
+
+		for (int i = 0; i < groups.length; ++i) {
+			this.selectsAll[i] = visible[i] && groups[i].getConstraints().length == 0;
+		}
+	}
+
+	/**
+	 * Sets the ids selected by the constraints of a group.
+	 *
+	 * @param index
+	 *            the index of the group.
+	 * @param ids
+	 *            the selected ids.
+	 */
+	void setMembers(int index, BitSet ids) {
+		this.members[index] = ids;
+	}
+
+	/**
+	 * Checks, if there is a group that selects all objects.
+	 *
+	 * @return {@code true} if there is such a group, {@code false} otherwise.
+	 */
+	boolean anyGroupSelectsAll() {
+		for (boolean all : this.selectsAll) {
+			if (all) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Resolves the visible groups containing an element.
+	 *
+	 * @param id
+	 *            the element id.
+	 * @param emptyGroup
+	 *            flags, if groups without constraints should be added to the element.
+	 * @return the groups, in the order of the existing groups.
+	 */
+	Group[] resolve(int id, boolean emptyGroup) {
+		int count = 0;
+
+		for (int i = 0; i < this.groups.length; ++i) {
+			if (this.contains(i, id, emptyGroup)) {
+				++count;
+			}
+		}
+
+		Group[] result = new Group[count];
+
+		for (int i = 0, k = 0; k < count; ++i) {
+			if (this.contains(i, id, emptyGroup)) {
+				result[k++] = this.groups[i];
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Checks, if a visible group contains an element.
+	 *
+	 * @param index
+	 *            the index of the group.
+	 * @param id
+	 *            the element id.
+	 * @param emptyGroup
+	 *            flags, if groups without constraints contain the element.
+	 * @return {@code true} if the group contains the element, {@code false} otherwise.
+	 */
+	private boolean contains(int index, int id, boolean emptyGroup) {
+		if (emptyGroup && this.selectsAll[index]) {
+			return true;
+		}
+
+		return this.members[index] != null && this.visible[index] && this.members[index].get(id);
+	}
+}
@@ -0,0 +1,365 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import util.SortKeys;
+
+/**
+ * The class {@code QuantileSketch} approximates the quantiles of a stream of values in constant memory, following the
+ * KLL sketch of Karnin, Lang and Liberty.
+ *
+ * The values are kept in a hierarchy of compactors, a value on level h stands for 2<sup>h</sup> values of the stream.
+ * If a compactor is full, it is sorted and every second value, starting randomly at the first or second one, is moved
+ * to the next level, while the others are dropped. The capacities decrease geometrically towards the lower levels, so
+ * the sketch keeps about 3k values. The rank error is about 1.7 / k with high probability, e.g. less than one percent
+ * for the default of k = 200. As long as no compaction happened, all values are kept and the quantiles are exact.
+ *
+ * Sketches of disjoint parts of the stream can be merged, e.g. to calculate them in parallel. An instance is not
+ * thread-safe, but reading the quantiles does not modify it.
+ */
+public final class QuantileSketch {
+
+	/**
+	 * The default accuracy parameter.
+	 */
+	public static final int DEFAULT_K = 200;
+
+	/**
+	 * Ratio of the capacities of two neighboring levels.
+	 */
+	private static final double CAPACITY_RATIO = 2. / 3.;
+
+	/**
+	 * Smallest capacity of a level.
+	 */
+	private static final int MIN_CAPACITY = 8;
+
+	/**
+	 * The accuracy parameter, the capacity of the top level.
+	 */
+	private final int k;
+
+	/**
+	 * Chooses which values of a compaction are kept, seeded for reproducible results.
+	 */
+	private final Random random = new Random(0x5eed);
+
+	/**
+	 * The values per level.
+	 */
+	private float[][] levels = new float[1][8];
+
+	/**
+	 * N<sup>o</sup> of values per level.
+	 */
+	private int[] sizes = new int[1];
+
+	/**
+	 * N<sup>o</sup> of values in all levels.
+	 */
+	private int size;
+
+	/**
+	 * N<sup>o</sup> of values, which may be kept before a compaction is necessary.
+	 */
+	private int maxSize;
+
+	/**
+	 * N<sup>o</sup> of values of the stream.
+	 */
+	private long count;
+
+	/**
+	 * Constructs a new {@code QuantileSketch} with the default accuracy.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * Constructs a new {@code QuantileSketch}.
+	 *
+	 * @param k
+	 *            the accuracy parameter, the memory grows and the error decreases linearly with it.
+	 */
+	public QuantileSketch(int k) {
+		if (k < MIN_CAPACITY) {
+			throw new IllegalArgumentException("k is less than " + MIN_CAPACITY);
+		}
+
+		this.k = k;
+		this.maxSize = this.capacity(0);
+	}
+
+	/**
+	 * Adds a value of the stream, NaN is ignored.
+	 *
+	 * @param value
+	 *            the value.
+	 */
+	public void add(float value) {
+		if (Float.isNaN(value)) {
+			return;
+		}
+
+		this.append(0, value);
+		this.count++;
+
+		if (this.size >= this.maxSize) {
+			this.compress();
+		}
+	}
+
+	/**
+	 * Adds the values of another sketch with the same accuracy, as if they had been added to this one.
+	 *
+	 * @param other
+	 *            the other sketch, which is not modified.
+	 */
+	public void merge(QuantileSketch other) {
+		if (other == null) {
+			throw new IllegalArgumentException("other is null");
+		}
+
+		if (other.k != this.k) {
+			throw new IllegalArgumentException("k differs");
+		}
+
+		while (this.levels.length < other.levels.length) {
+			this.grow();
+		}
+
+		for (int h = 0; h < other.levels.length; ++h) {
+			for (int i = 0; i < other.sizes[h]; ++i) {
+				this.append(h, other.levels[h][i]);
+			}
+		}
+
+		this.count += other.count;
+
+		while (this.size >= this.maxSize) {
+			this.compress();
+		}
+	}
+
+	/**
+	 * Returns the number of values of the stream.
+	 *
+	 * @return N<sup>o</sup> of added values.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Checks, if all values are still kept, so the quantiles are exact.
+	 *
+	 * @return true, if no compaction happened yet.
+	 */
+	public boolean isExact() {
+		return this.levels.length == 1;
+	}
+
+	/**
+	 * Returns the approximated quantile. Like for the median, it is interpolated linearly between the values at the
+	 * neighboring ranks, if the rank is no integer.
+	 *
+	 * @param q
+	 *            the quantile between 0 and 1, e.g. 0.5 for the median.
+	 * @return the value at the quantile or NaN, if the sketch is empty.
+	 */
+	public float getQuantile(double q) {
+		if (!(q >= 0. && q <= 1.)) {
+			throw new IllegalArgumentException("q is not between 0 and 1");
+		}
+
+		return this.getQuantiles(new double[] { q })[0];
+	}
+
+	/**
+	 * Returns several approximated quantiles at once, which is cheaper than requesting them one by one.
+	 *
+	 * @param qs
+	 *            the quantiles between 0 and 1.
+	 * @return the values at the quantiles in the order of the quantiles, NaN if the sketch is empty.
+	 * @see #getQuantile(double)
+	 */
+	public float[] getQuantiles(double[] qs) {
+		if (qs == null) {
+			throw new IllegalArgumentException("qs is null");
+		}
+
+		float[] result = new float[qs.length];
+
+		if (this.size == 0) {
+			Arrays.fill(result, Float.NaN);
+			return result;
+		}
+
+		// collect the values with their weight and sort them by value
+		long[] items = new long[this.size];
+		float[] values = new float[this.size];
+		int n = 0;
+
+		for (int h = 0; h < this.levels.length; ++h) {
+			for (int i = 0; i < this.sizes[h]; ++i) {
+				values[n] = this.levels[h][i];
+				items[n] = SortKeys.pack(SortKeys.sortableBits(values[n]), n);
+				++n;
+			}
+		}
+
+		Arrays.sort(items);
+
+		// the first rank of every sorted value, the weight of the last one is the rest
+		float[] sorted = new float[n];
+		long[] ranks = new long[n];
+		long rank = 0;
+
+		for (int i = 0; i < n; ++i) {
+			int index = SortKeys.getIndex(items[i]);
+
+			sorted[i] = values[index];
+			ranks[i] = rank;
+			rank += this.weightOf(index);
+		}
+
+		for (int j = 0; j < qs.length; ++j) {
+			if (!(qs[j] >= 0. && qs[j] <= 1.)) {
+				throw new IllegalArgumentException("q is not between 0 and 1");
+			}
+
+			double position = qs[j] * (rank - 1);
+			long lower = (long) Math.floor(position);
+			float low = valueAt(sorted, ranks, lower);
+			float high = valueAt(sorted, ranks, Math.min(lower + 1, rank - 1));
+
+			result[j] = (float) (low + (high - low) * (position - lower));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the value, which covers a rank.
+	 *
+	 * @param sorted
+	 *            the values in ascending order.
+	 * @param ranks
+	 *            the first rank covered by every value.
+	 * @param rank
+	 *            the rank.
+	 * @return the value.
+	 */
+	private static float valueAt(float[] sorted, long[] ranks, long rank) {
+		int i = Arrays.binarySearch(ranks, rank);
+
+		if (i < 0) {
+			i = -i - 2;
+		}
+
+		// the ranks are strictly increasing, since every value has a weight of at least 1
+		return sorted[i];
+	}
+
+	/**
+	 * Returns the weight of a value, given by its index in the order of the levels.
+	 *
+	 * @param index
+	 *            the index of the value.
+	 * @return 2<sup>h</sup> for a value on level h.
+	 */
+	private long weightOf(int index) {
+		int h = 0;
+
+		while (index >= this.sizes[h]) {
+			index -= this.sizes[h];
+			++h;
+		}
+
+		return 1L << h;
+	}
+
+	/**
+	 * Appends a value to a level.
+	 *
+	 * @param h
+	 *            the level.
+	 * @param value
+	 *            the value.
+	 */
+	private void append(int h, float value) {
+		if (this.sizes[h] == this.levels[h].length) {
+			this.levels[h] = Arrays.copyOf(this.levels[h], this.levels[h].length * 2);
+		}
+
+		this.levels[h][this.sizes[h]++] = value;
+		this.size++;
+	}
+
+	/**
+	 * Compacts the lowest full level into the next one.
+	 */
+	private void compress() {
+		for (int h = 0; h < this.levels.length; ++h) {
+			if (this.sizes[h] >= this.capacity(h)) {
+				if (h + 1 == this.levels.length) {
+					this.grow();
+				}
+
+				float[] level = this.levels[h];
+				int n = this.sizes[h];
+
+				Arrays.sort(level, 0, n);
+
+				// an odd value stays on this level
+				int pairs = n / 2;
+				int offset = this.random.nextBoolean() ? 1 : 0;
+
+				for (int i = 0; i < pairs; ++i) {
+					this.append(h + 1, level[2 * i + offset]);
+				}
+
+				if (n % 2 == 1) {
+					level[0] = level[n - 1];
+				}
+
+				this.sizes[h] = n % 2;
+				this.size -= 2 * pairs;
+
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Adds a new top level, which lowers the capacities of all others.
+	 */
+	private void grow() {
+		int height = this.levels.length + 1;
+
+		this.levels = Arrays.copyOf(this.levels, height);
+		this.levels[height - 1] = new float[8];
+		this.sizes = Arrays.copyOf(this.sizes, height);
+
+		this.maxSize = 0;
+
+		for (int h = 0; h < height; ++h) {
+			this.maxSize += this.capacity(h);
+		}
+	}
+
+	/**
+	 * Returns the capacity of a level, which depends on its distance to the top level.
+	 *
+	 * @param h
+	 *            the level.
+	 * @return N<sup>o</sup> of values, which make the level full.
+	 */
+	private int capacity(int h) {
+		int depth = this.levels.length - h - 1;
+
+		return Math.max(MIN_CAPACITY, (int) Math.ceil(this.k * Math.pow(CAPACITY_RATIO, depth)));
+	}
+}
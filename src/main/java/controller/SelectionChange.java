@@ -0,0 +1,73 @@
+package controller;
+
+import java.util.BitSet;
+
+/**
+ * The class {@code SelectionChange} describes which elements a change of the selection affected. It is passed as the
+ * argument of {@code notifyObservers} by the {@link SelectionController}, so observers are able to update only the
+ * affected elements.
+ */
+public final class SelectionChange {
+
+	/**
+	 * Ids of the newly selected elements.
+	 */
+	private final BitSet added;
+
+	/**
+	 * Ids of the newly unselected elements.
+	 */
+	private final BitSet removed;
+
+	/**
+	 * Constructs a new {@code SelectionChange}, which takes ownership of the given sets.
+	 *
+	 * @param added
+	 *            ids of the newly selected elements.
+	 * @param removed
+	 *            ids of the newly unselected elements.
+	 */
+	SelectionChange(BitSet added, BitSet removed) {
+		this.added = added;
+		this.removed = removed;
+	}
+
+	/**
+	 * Returns the ids of the newly selected elements.
+	 *
+	 * @return the ids in ascending order.
+	 */
+	public int[] getAdded() {
+		return SelectionController.toArray(this.added);
+	}
+
+	/**
+	 * Returns the ids of the newly unselected elements.
+	 *
+	 * @return the ids in ascending order.
+	 */
+	public int[] getRemoved() {
+		return SelectionController.toArray(this.removed);
+	}
+
+	/**
+	 * Returns the ids of all elements, whose selection changed.
+	 *
+	 * @return a new set of the added and removed ids.
+	 */
+	public BitSet getChanged() {
+		BitSet changed = (BitSet) this.added.clone();
+		changed.or(this.removed);
+
+		return changed;
+	}
+
+	/**
+	 * Returns how many elements are affected by the change.
+	 *
+	 * @return N<sup>o</sup> of added and removed ids.
+	 */
+	public int size() {
+		return this.added.cardinality() + this.removed.cardinality();
+	}
+}
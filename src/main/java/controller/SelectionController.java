@@ -1,24 +1,30 @@
 package controller;
 
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.Observable;
 
-import org.apache.commons.lang3.ArrayUtils;
-
 /**
  * The class {@code SelectionController} manages the current selection from the UI. You can select several points, reset
  * your selection or request a list of all currently selected points.
+ *
+ * The ids of the elements are dense, so the selection is stored as bitset. Every change notifies the observers with a
+ * {@link SelectionChange}, which contains the affected ids only. Changes, which affect no element, are not reported.
  */
 public class SelectionController extends Observable {
 	/**
-	 * Stores current selection.
+	 * Stores current selection, indexed by the ids of the elements.
+	 */
+	private BitSet selection = new BitSet();
+
+	/**
+	 * N<sup>o</sup> of selected elements.
 	 */
-	private HashSet<Integer> selection = null;
+	private int count;
 
 	/**
-	 * Stores if something is selected.
+	 * Counts the changes of the selection.
 	 */
-	private boolean somethingSelected;
+	private long version;
 
 	/**
 	 * Constructs a new SelectionController with empty selection.
@@ -38,7 +44,37 @@ public class SelectionController extends Observable {
 			throw new NullPointerException("Elements can't be null!");
 		}
 
-		this.addToSelection(elements);
+		this.select(toBitSet(elements));
+	}
+
+	/**
+	 * Selects the given {@code elements} and saves it.
+	 *
+	 * @param elements
+	 *            The ids of the selection.
+	 */
+	public void select(BitSet elements) {
+		if (elements == null) {
+			throw new NullPointerException("Elements can't be null!");
+		}
+
+		BitSet added = (BitSet) elements.clone();
+		added.clear(0);
+		added.andNot(this.selection);
+
+		this.apply(added, new BitSet());
+	}
+
+	/**
+	 * Selects the elements with ids in the given range.
+	 *
+	 * @param from
+	 *            the first id, inclusive.
+	 * @param to
+	 *            the last id, exclusive.
+	 */
+	public void selectRange(int from, int to) {
+		this.select(toBitSet(from, to));
 	}
 
 	/**
@@ -52,16 +88,36 @@ public class SelectionController extends Observable {
 			throw new NullPointerException("Elements can't be null!");
 		}
 
-		for (int i = 0; i < elements.length; i++) {
-			this.selection.remove(elements[i]);
-		}
+		this.unselect(toBitSet(elements));
+	}
 
-		if (this.selection.isEmpty()) {
-			this.somethingSelected = false;
+	/**
+	 * Unselects the given {@code elements} and saves it.
+	 *
+	 * @param elements
+	 *            The ids of the unselection.
+	 */
+	public void unselect(BitSet elements) {
+		if (elements == null) {
+			throw new NullPointerException("Elements can't be null!");
 		}
 
-		this.setChanged();
-		this.notifyObservers();
+		BitSet removed = (BitSet) elements.clone();
+		removed.and(this.selection);
+
+		this.apply(new BitSet(), removed);
+	}
+
+	/**
+	 * Unselects the elements with ids in the given range.
+	 *
+	 * @param from
+	 *            the first id, inclusive.
+	 * @param to
+	 *            the last id, exclusive.
+	 */
+	public void unselectRange(int from, int to) {
+		this.unselect(toBitSet(from, to));
 	}
 
 	/**
@@ -75,38 +131,53 @@ public class SelectionController extends Observable {
 			throw new NullPointerException("Elements can't be null!");
 		}
 
-		this.selection = new HashSet<Integer>((int) (elements.length * 1.2f), 1.f);
-		this.somethingSelected = false;
-
-		this.addToSelection(elements);
+		this.reselect(toBitSet(elements));
 	}
 
 	/**
-	 * Dismisses the currently saved selection.
+	 * Resets the current selection, selects the given {@code elements} and saves it.
+	 *
+	 * @param elements
+	 *            The ids of the selection.
 	 */
-	public void reset() {
-		if (this.selection == null) {
-			this.selection = new HashSet<Integer>();
-		} else {
-			this.selection.clear();
+	public void reselect(BitSet elements) {
+		if (elements == null) {
+			throw new NullPointerException("Elements can't be null!");
 		}
 
-		this.somethingSelected = false;
+		BitSet added = (BitSet) elements.clone();
+		added.clear(0);
+		added.andNot(this.selection);
 
-		this.setChanged();
-		this.notifyObservers(this);
+		BitSet removed = (BitSet) this.selection.clone();
+		removed.andNot(elements);
+
+		this.apply(added, removed);
+	}
+
+	/**
+	 * Dismisses the currently saved selection.
+	 */
+	public void reset() {
+		this.apply(new BitSet(), (BitSet) this.selection.clone());
 	}
 
 	/**
 	 * Returns the currently saved selection.
 	 *
-	 * @return The selection.
+	 * @return The selection in ascending order.
 	 */
 	public int[] getSelection() {
-		Integer[] tmp = new Integer[this.selection.size()];
-		this.selection.toArray(tmp);
+		return toArray(this.selection);
+	}
 
-		return ArrayUtils.toPrimitive(tmp);
+	/**
+	 * Returns the currently saved selection as bitset, e.g. for bulk operations.
+	 *
+	 * @return a copy of the selection, indexed by the ids of the elements.
+	 */
+	public BitSet getSelectionBits() {
+		return (BitSet) this.selection.clone();
 	}
 
 	/**
@@ -115,7 +186,17 @@ public class SelectionController extends Observable {
 	 * @return count of selected objects.
 	 */
 	public int getSelectedCount() {
-		return selection.size();
+		return this.count;
+	}
+
+	/**
+	 * Returns the version of the selection, which changes with every change of the selection, e.g. to cache results
+	 * calculated from it.
+	 *
+	 * @return the version.
+	 */
+	public long getVersion() {
+		return this.version;
 	}
 
 	/**
@@ -124,7 +205,7 @@ public class SelectionController extends Observable {
 	 * @return {@code true} if something is selected, {@code false} otherwise.
 	 */
 	public boolean isSomethingSelected() {
-		return this.somethingSelected;
+		return this.count > 0;
 	}
 
 	/**
@@ -135,24 +216,88 @@ public class SelectionController extends Observable {
 	 * @return {@code true} if element is selected, {@code false} otherwise.
 	 */
 	public boolean isSelected(int id) {
-		return this.selection.contains(id);
+		return id > 0 && this.selection.get(id);
+	}
+
+	/**
+	 * Applies a change to the selection and notifies the observers, if any element is affected.
+	 *
+	 * @param added
+	 *            ids of elements, which are not selected yet and should be selected.
+	 * @param removed
+	 *            ids of selected elements, which should be unselected.
+	 */
+	private void apply(BitSet added, BitSet removed) {
+		if (added.isEmpty() && removed.isEmpty()) {
+			return;
+		}
+
+		this.selection.or(added);
+		this.selection.andNot(removed);
+		this.count = this.selection.cardinality();
+		this.version++;
+
+		this.setChanged();
+		this.notifyObservers(new SelectionChange(added, removed));
 	}
 
 	/**
-	 * Adds given elemnts to selection
+	 * Converts ids to a bitset, ids less than 1 are ignored.
 	 *
 	 * @param elements
-	 *                  ids of elements, that should be selected
+	 *            the ids.
+	 * @return the bitset.
 	 */
-	private void addToSelection(int[] elements) {
+	private static BitSet toBitSet(int[] elements) {
+		BitSet bits = new BitSet();
+
 		for (int i = 0; i < elements.length; i++) {
 			if (elements[i] > 0) {
-				this.selection.add(elements[i]);
-				this.somethingSelected = true;
+				bits.set(elements[i]);
 			}
 		}
 
-		this.setChanged();
-		this.notifyObservers();
+		return bits;
+	}
+
+	/**
+	 * Converts a range of ids to a bitset, ids less than 1 are ignored.
+	 *
+	 * @param from
+	 *            the first id, inclusive.
+	 * @param to
+	 *            the last id, exclusive.
+	 * @return the bitset.
+	 */
+	private static BitSet toBitSet(int from, int to) {
+		if (from > to) {
+			throw new IllegalArgumentException("from greater than to");
+		}
+
+		BitSet bits = new BitSet();
+
+		if (to > 1) {
+			bits.set(Math.max(1, from), to);
+		}
+
+		return bits;
+	}
+
+	/**
+	 * Converts a bitset to the ids it contains.
+	 *
+	 * @param bits
+	 *            the bitset.
+	 * @return the ids in ascending order.
+	 */
+	static int[] toArray(BitSet bits) {
+		int[] result = new int[bits.cardinality()];
+		int j = 0;
+
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			result[j++] = i;
+		}
+
+		return result;
 	}
 }
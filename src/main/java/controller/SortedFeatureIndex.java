@@ -0,0 +1,227 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import util.Operator;
+import util.SortKeys;
+
+/**
+ * The class {@code SortedFeatureIndex} holds the values of one {@link Feature} for all objects in ascending order,
+ * together with the matching object ids. Range predicates are answered by a binary search plus a slice, quantiles by
+ * a single array access.
+ *
+ * Missing values (NaN) are not part of the index. An index is immutable, so it may be shared between threads.
+ */
+public class SortedFeatureIndex {
+
+	/**
+	 * The values in ascending order.
+	 */
+	private final float[] values;
+
+	/**
+	 * The object ids, ids[i] belongs to values[i].
+	 */
+	private final int[] ids;
+
+	/**
+	 * Constructs a new {@code SortedFeatureIndex} from a column, which is indexed by the object id.
+	 *
+	 * @param column
+	 *            the values of the feature, column[id] belongs to the object with the given id. It may not be
+	 *            {@code null}.
+	 */
+	public SortedFeatureIndex(float[] column) {
+		if (column == null) {
+			throw new IllegalArgumentException("column is null");
+		}
+
+		// pack the order preserving bits of the value and the id into one primitive key
+		long[] keys = new long[column.length];
+		int count = 0;
+
+		for (int id = 0; id < column.length; ++id) {
+			if (!Float.isNaN(column[id])) {
+				keys[count++] = SortKeys.pack(SortKeys.sortableBits(column[id]), id);
+			}
+		}
+
+		Arrays.sort(keys, 0, count);
+
+		this.values = new float[count];
+		this.ids = new int[count];
+
+		for (int i = 0; i < count; ++i) {
+			this.ids[i] = SortKeys.getIndex(keys[i]);
+			this.values[i] = column[this.ids[i]];
+		}
+	}
+
+	/**
+	 * Returns the number of indexed values.
+	 *
+	 * @return the number of values, which are not NaN.
+	 */
+	public int size() {
+		return this.values.length;
+	}
+
+	/**
+	 * Returns the value at the given rank.
+	 *
+	 * @param rank
+	 *            the position in ascending order, starting at 0.
+	 * @return the value.
+	 */
+	public float getValue(int rank) {
+		return this.values[rank];
+	}
+
+	/**
+	 * Returns the object id at the given rank.
+	 *
+	 * @param rank
+	 *            the position in ascending order, starting at 0.
+	 * @return the object id.
+	 */
+	public int getId(int rank) {
+		return this.ids[rank];
+	}
+
+	/**
+	 * Counts the objects, which fulfill the given predicate.
+	 *
+	 * @param operator
+	 *            the {@link Operator} used to compare.
+	 * @param limit
+	 *            the limit used to compare.
+	 * @return the number of matching objects.
+	 */
+	public int count(Operator operator, float limit) {
+		int lower = this.lowerBound(limit);
+		int upper = this.upperBound(limit);
+
+		switch (operator) {
+		case EQUAL:
+			return upper - lower;
+		case NOT_EQUAL:
+			return this.values.length - (upper - lower);
+		case LESS:
+			return lower;
+		case LESS_OR_EQUAL:
+			return upper;
+		case GREATER:
+			return this.values.length - upper;
+		case GREATER_OR_EQUAL:
+			return this.values.length - lower;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the ids of all objects, which fulfill the given predicate.
+	 *
+	 * @param operator
+	 *            the {@link Operator} used to compare.
+	 * @param limit
+	 *            the limit used to compare.
+	 * @return the matching object ids.
+	 */
+	public BitSet select(Operator operator, float limit) {
+		int lower = this.lowerBound(limit);
+		int upper = this.upperBound(limit);
+		BitSet result = new BitSet();
+
+		switch (operator) {
+		case EQUAL:
+			this.setIds(result, lower, upper);
+			break;
+		case NOT_EQUAL:
+			this.setIds(result, 0, lower);
+			this.setIds(result, upper, this.values.length);
+			break;
+		case LESS:
+			this.setIds(result, 0, lower);
+			break;
+		case LESS_OR_EQUAL:
+			this.setIds(result, 0, upper);
+			break;
+		case GREATER:
+			this.setIds(result, upper, this.values.length);
+			break;
+		case GREATER_OR_EQUAL:
+			this.setIds(result, lower, this.values.length);
+			break;
+		default:
+			break;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Sets the ids of a slice of ranks.
+	 *
+	 * @param result
+	 *            the bitmap to set the ids in.
+	 * @param from
+	 *            the first rank.
+	 * @param to
+	 *            the rank after the last one.
+	 */
+	private void setIds(BitSet result, int from, int to) {
+		for (int i = from; i < to; ++i) {
+			result.set(this.ids[i]);
+		}
+	}
+
+	/**
+	 * Returns the first rank, whose value is not less than the limit.
+	 *
+	 * @param limit
+	 *            the limit.
+	 * @return the rank.
+	 */
+	private int lowerBound(float limit) {
+		int low = 0;
+		int high = this.values.length;
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+
+			if (this.values[mid] < limit) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Returns the first rank, whose value is greater than the limit.
+	 *
+	 * @param limit
+	 *            the limit.
+	 * @return the rank.
+	 */
+	private int upperBound(float limit) {
+		int low = 0;
+		int high = this.values.length;
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+
+			if (this.values[mid] <= limit) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+}
@@ -103,7 +103,7 @@ public class StaticConstraint implements Constraint {
 			prepStmt.execute();
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -151,7 +151,7 @@ public class StaticConstraint implements Constraint {
 			connection.setAutoCommit(true);
 			prepStmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -166,7 +166,7 @@ public class StaticConstraint implements Constraint {
 			stmt.execute("DELETE FROM StaticConstraints WHERE Id=" + this.id + ";");
 			stmt.close();
 
-			this.groupController.informOberserver();
+			this.groupController.informOberserver(ChangeType.GROUP_MEMBERSHIP);
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.WRITE);
 		}
@@ -0,0 +1,542 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import util.ParallelSort;
+import db.DatabaseAccessException;
+
+/**
+ * The class {@code StatisticsEngine} calculates the {@link FeatureStatistics} of the selected elements for many
+ * features at once.
+ *
+ * All requested features are calculated in one pass over the elements, which is split into consecutive ranges
+ * processed in parallel. Every range keeps its own accumulators (Welford's algorithm for mean and variance), which
+ * are merged at the end. The results are cached until the selection or the data of the {@link DataHub} change, e.g.
+ * by another subspace, so showing other statistics of the same selection needs no further pass.
+ *
+ * The quantiles are approximated by a {@link QuantileSketch} per feature and range, so they need constant memory
+ * independent of the size of the selection. The exact medians may be calculated in the background on demand.
+ */
+public class StatisticsEngine {
+
+	/**
+	 * N<sup>o</sup> of threads, which calculate the statistics.
+	 */
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The data source.
+	 */
+	private final DataHub dataHub;
+
+	/**
+	 * The selection, whose statistics are calculated.
+	 */
+	private final SelectionController selectionController;
+
+	/**
+	 * The cached statistics, indexed by the id of their feature.
+	 */
+	private final Map<Integer, FeatureStatistics> cache = new HashMap<Integer, FeatureStatistics>();
+
+	/**
+	 * The elements, the cached statistics belong to.
+	 */
+	private ElementData[] cachedData;
+
+	/**
+	 * Version of the selection, the cached statistics belong to.
+	 */
+	private long cachedVersion = -1;
+
+	/**
+	 * Threads, which calculate the statistics, created on demand.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Thread, which calculates the exact medians, created on demand.
+	 */
+	private ExecutorService background;
+
+	/**
+	 * The pending calculation of exact medians or null.
+	 */
+	private Future<?> exactJob;
+
+	/**
+	 * Ids of the features of the pending calculation of exact medians.
+	 */
+	private Set<Integer> exactFeatures = new HashSet<Integer>();
+
+	/**
+	 * The elements of the pending calculation of exact medians.
+	 */
+	private ElementData[] exactData;
+
+	/**
+	 * Version of the selection of the pending calculation of exact medians.
+	 */
+	private long exactVersion = -1;
+
+	/**
+	 * Constructs a new {@code StatisticsEngine}.
+	 *
+	 * @param dataHub
+	 *            the data source.
+	 * @param selectionController
+	 *            the selection, whose statistics are calculated.
+	 */
+	public StatisticsEngine(DataHub dataHub, SelectionController selectionController) {
+		if (dataHub == null || selectionController == null) {
+			throw new IllegalArgumentException("dataHub or selectionController is null");
+		}
+
+		this.dataHub = dataHub;
+		this.selectionController = selectionController;
+	}
+
+	/**
+	 * Returns the statistics of the selected elements for the given features, from the cache if possible.
+	 *
+	 * @param features
+	 *            the features.
+	 * @param quantiles
+	 *            true, if the approximated medians and other quantiles are needed, too.
+	 * @return the statistics in the order of the features.
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read.
+	 * @throws InterruptedException
+	 *             if the calculation is interrupted.
+	 */
+	public synchronized FeatureStatistics[] getStatistics(Feature[] features, boolean quantiles)
+			throws DatabaseAccessException, InterruptedException {
+		if (features == null) {
+			throw new IllegalArgumentException("features is null");
+		}
+
+		ElementData[] data = this.dataHub.getData();
+		long version = this.selectionController.getVersion();
+
+		if (data != this.cachedData || version != this.cachedVersion) {
+			this.cache.clear();
+			this.cachedData = data;
+			this.cachedVersion = version;
+		}
+
+		// only features, which are not cached yet, are calculated
+		List<Feature> missing = new ArrayList<Feature>();
+
+		for (Feature feature : features) {
+			FeatureStatistics cached = this.cache.get(feature.getId());
+
+			if (cached == null || (quantiles && !cached.hasMedian())) {
+				missing.add(feature);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			Feature[] pending = missing.toArray(new Feature[missing.size()]);
+			FeatureStatistics[] calculated = this.calculate(data, this.selectionController.getSelectionBits(), pending,
+					quantiles);
+
+			for (int f = 0; f < pending.length; ++f) {
+				this.cache.put(pending[f].getId(), calculated[f]);
+			}
+		}
+
+		FeatureStatistics[] result = new FeatureStatistics[features.length];
+
+		for (int f = 0; f < features.length; ++f) {
+			result[f] = this.cache.get(features[f].getId());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Starts the calculation of the exact medians of the selected elements for the given features in the background,
+	 * if their approximated medians are not exact. Afterwards, the exact medians are returned by
+	 * {@link #getStatistics(Feature[], boolean)}, as long as the selection and the data do not change. A pending
+	 * calculation for other features or an older selection is cancelled.
+	 *
+	 * @param features
+	 *            the features.
+	 * @param done
+	 *            called by the background thread, when the medians are calculated, or null. It is ignored, if a
+	 *            pending calculation for the same features is returned.
+	 * @return the pending calculation, or null if all medians are exact already.
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read.
+	 * @throws InterruptedException
+	 *             if the calculation of the approximated statistics is interrupted.
+	 */
+	public synchronized Future<?> requestExactMedians(Feature[] features, final Runnable done)
+			throws DatabaseAccessException, InterruptedException {
+		FeatureStatistics[] stats = this.getStatistics(features, true);
+		List<Feature> missing = new ArrayList<Feature>();
+		Set<Integer> ids = new HashSet<Integer>();
+
+		for (int f = 0; f < features.length; ++f) {
+			if (!stats[f].isMedianExact()) {
+				missing.add(features[f]);
+				ids.add(features[f].getId());
+			}
+		}
+
+		if (missing.isEmpty()) {
+			return null;
+		}
+
+		if (this.exactJob != null && !this.exactJob.isDone() && this.exactData == this.cachedData
+				&& this.exactVersion == this.cachedVersion && this.exactFeatures.containsAll(ids)) {
+			return this.exactJob;
+		}
+
+		if (this.exactJob != null) {
+			this.exactJob.cancel(true);
+		}
+
+		if (this.background == null) {
+			this.background = Executors.newSingleThreadExecutor();
+		}
+
+		final ElementData[] data = this.cachedData;
+		final long version = this.cachedVersion;
+		final BitSet selection = this.selectionController.getSelectionBits();
+		final Feature[] pending = missing.toArray(new Feature[missing.size()]);
+
+		this.exactFeatures = ids;
+		this.exactData = data;
+		this.exactVersion = version;
+		this.exactJob = this.background.submit(new Callable<Object>() {
+
+			@Override
+			public Object call() throws InterruptedException {
+				for (Feature feature : pending) {
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+
+					putExactMedian(data, version, feature, median(data, selection, feature));
+				}
+
+				if (done != null) {
+					done.run();
+				}
+
+				return null;
+			}
+		});
+
+		return this.exactJob;
+	}
+
+	/**
+	 * Stops the threads of this engine, it must not be used afterwards.
+	 */
+	public synchronized void shutdown() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+
+		if (this.background != null) {
+			this.background.shutdownNow();
+			this.background = null;
+		}
+	}
+
+	/**
+	 * Adds an exact median to the cached statistics, if they still belong to the same elements and selection.
+	 *
+	 * @param data
+	 *            the elements, the median belongs to.
+	 * @param version
+	 *            the version of the selection, the median belongs to.
+	 * @param feature
+	 *            the feature.
+	 * @param median
+	 *            the exact median.
+	 */
+	private synchronized void putExactMedian(ElementData[] data, long version, Feature feature, float median) {
+		if (data != this.cachedData || version != this.cachedVersion) {
+			return;
+		}
+
+		FeatureStatistics cached = this.cache.get(feature.getId());
+
+		if (cached != null) {
+			this.cache.put(feature.getId(), cached.withExactMedian(median));
+		}
+	}
+
+	/**
+	 * Calculates the statistics of the selected elements in one parallel pass.
+	 *
+	 * @param data
+	 *            the elements.
+	 * @param selection
+	 *            the ids of the selected elements.
+	 * @param features
+	 *            the features.
+	 * @param quantiles
+	 *            true, if the quantiles should be approximated.
+	 * @return the statistics in the order of the features.
+	 * @throws InterruptedException
+	 *             if the calculation is interrupted.
+	 */
+	private FeatureStatistics[] calculate(ElementData[] data, BitSet selection, Feature[] features, boolean quantiles)
+			throws InterruptedException {
+		int chunks = ParallelSort.getChunkCount(data.length, THREADS);
+		List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(chunks);
+		StatisticsTask[] tasks = new StatisticsTask[chunks];
+
+		for (int i = 0; i < chunks; ++i) {
+			tasks[i] = new StatisticsTask(data, selection, features, quantiles, ParallelSort.getChunkStart(data.length,
+					chunks, i), ParallelSort.getChunkStart(data.length, chunks, i + 1));
+			jobsQ.add(tasks[i]);
+		}
+
+		if (chunks == 1 || selection.isEmpty()) {
+			tasks[0].call();
+		} else {
+			if (this.executor == null) {
+				this.executor = Executors.newFixedThreadPool(THREADS);
+			}
+
+			ParallelSort.invokeAll(this.executor, jobsQ);
+		}
+
+		// merge the ranges in order
+		FeatureStatistics[] result = new FeatureStatistics[features.length];
+
+		for (int f = 0; f < features.length; ++f) {
+			int count = 0;
+			float min = Float.MAX_VALUE;
+			float max = -Float.MAX_VALUE;
+			double mean = 0.;
+			double m2 = 0.;
+			QuantileSketch sketch = quantiles ? new QuantileSketch() : null;
+
+			for (StatisticsTask task : tasks) {
+				int other = task.count[f];
+
+				if (other == 0) {
+					continue;
+				}
+
+				double delta = task.mean[f] - mean;
+				int total = count + other;
+
+				mean += delta * other / total;
+				m2 += task.m2[f] + delta * delta * ((double) count * other / total);
+				min = Math.min(min, task.min[f]);
+				max = Math.max(max, task.max[f]);
+				count = total;
+
+				if (sketch != null) {
+					sketch.merge(task.sketches[f]);
+				}
+			}
+
+			result[f] = new FeatureStatistics(count, min, max, mean, m2, sketch, Float.NaN);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Calculates the exact median of the selected values of a feature. It needs memory for all values and sorts them.
+	 *
+	 * @param data
+	 *            the elements.
+	 * @param selection
+	 *            the ids of the selected elements.
+	 * @param feature
+	 *            the feature.
+	 * @return the median or NaN, if there are no values.
+	 */
+	private static float median(ElementData[] data, BitSet selection, Feature feature) {
+		float[] values = new float[16];
+		int count = 0;
+
+		for (ElementData element : data) {
+			if (!selection.get(element.getId())) {
+				continue;
+			}
+
+			float value = element.getValue(feature);
+
+			if (Float.isNaN(value)) {
+				continue;
+			}
+
+			if (count == values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+
+			values[count++] = value;
+		}
+
+		if (count == 0) {
+			return Float.NaN;
+		}
+
+		Arrays.sort(values, 0, count);
+
+		if (count % 2 == 0) {
+			return (values[count / 2 - 1] + values[count / 2]) / 2.f;
+		}
+
+		return values[count / 2];
+	}
+
+	/**
+	 * Accumulates the statistics of a range of elements for all features.
+	 */
+	private static class StatisticsTask implements Callable<Object> {
+
+		/**
+		 * The elements.
+		 */
+		private final ElementData[] data;
+
+		/**
+		 * The ids of the selected elements.
+		 */
+		private final BitSet selection;
+
+		/**
+		 * The features.
+		 */
+		private final Feature[] features;
+
+		/**
+		 * The first element of the range.
+		 */
+		private final int start;
+
+		/**
+		 * The element after the last one of the range.
+		 */
+		private final int end;
+
+		/**
+		 * N<sup>o</sup> of values per feature.
+		 */
+		private final int[] count;
+
+		/**
+		 * Smallest value per feature.
+		 */
+		private final float[] min;
+
+		/**
+		 * Largest value per feature.
+		 */
+		private final float[] max;
+
+		/**
+		 * Running mean per feature.
+		 */
+		private final double[] mean;
+
+		/**
+		 * Running sum of squared differences from the mean per feature.
+		 */
+		private final double[] m2;
+
+		/**
+		 * The sketch of the quantiles per feature, or null if no quantiles are approximated.
+		 */
+		private final QuantileSketch[] sketches;
+
+		/**
+		 * Constructs a new {@code StatisticsTask}.
+		 *
+		 * @param data
+		 *            the elements.
+		 * @param selection
+		 *            the ids of the selected elements.
+		 * @param features
+		 *            the features.
+		 * @param quantiles
+		 *            true, if the quantiles should be approximated.
+		 * @param start
+		 *            the first element of the range.
+		 * @param end
+		 *            the element after the last one of the range.
+		 */
+		public StatisticsTask(ElementData[] data, BitSet selection, Feature[] features, boolean quantiles, int start,
+				int end) {
+			this.data = data;
+			this.selection = selection;
+			this.features = features;
+			this.start = start;
+			this.end = end;
+			this.count = new int[features.length];
+			this.min = new float[features.length];
+			this.max = new float[features.length];
+			this.mean = new double[features.length];
+			this.m2 = new double[features.length];
+			this.sketches = quantiles ? new QuantileSketch[features.length] : null;
+
+			for (int f = 0; quantiles && f < features.length; ++f) {
+				this.sketches[f] = new QuantileSketch();
+			}
+
+			Arrays.fill(this.min, Float.MAX_VALUE);
+			Arrays.fill(this.max, -Float.MAX_VALUE);
+		}
+
+		@Override
+		public Object call() {
+			for (int i = this.start; i < this.end; ++i) {
+				ElementData element = this.data[i];
+
+				if (!this.selection.get(element.getId())) {
+					continue;
+				}
+
+				for (int f = 0; f < this.features.length; ++f) {
+					float value = element.getValue(this.features[f]);
+
+					if (Float.isNaN(value)) {
+						continue;
+					}
+
+					int n = ++this.count[f];
+					double delta = value - this.mean[f];
+					this.mean[f] += delta / n;
+					this.m2[f] += delta * (value - this.mean[f]);
+
+					if (value < this.min[f]) {
+						this.min[f] = value;
+					}
+
+					if (value > this.max[f]) {
+						this.max[f] = value;
+					}
+
+					if (this.sketches != null) {
+						this.sketches[f].add(value);
+					}
+				}
+			}
+
+			return null;
+		}
+	}
+}
@@ -131,7 +131,7 @@ public class SubspaceController extends Observable {
 		this.currentActiveSubspace = subspace;
 		this.calculateEffectiveOutliernessBy.resetMinMax();
 
-		informObservers();
+		informObservers(ChangeType.SUBSPACE);
 
 		return this.currentActiveSubspace;
 	}
@@ -171,7 +171,7 @@ public class SubspaceController extends Observable {
 		strategy.resetMinMax();
 		this.calculateEffectiveOutliernessBy = strategy;
 
-		informObservers();
+		informObservers(ChangeType.EFFECTIVE_OUTLIERNESS);
 	}
 
 	/**
@@ -296,10 +296,13 @@ public class SubspaceController extends Observable {
 
 	/**
 	 * This method updates all registered Observer.
+	 *
+	 * @param change
+	 *            the kind of the change, passed to the observers.
 	 */
-	public void informObservers() {
+	public void informObservers(ChangeType change) {
 		// update observers
 		setChanged();
-		notifyObservers();
+		notifyObservers(change);
 	}
 }
@@ -0,0 +1,229 @@
+package db;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The class {@code ColumnFile} gives read access to the binary column file of the objects, which is written next to
+ * the database at import time by a {@link ColumnFileWriter}.
+ *
+ * The file consists of a header, the ids of the stored features and one contiguous column of little-endian floats per
+ * feature. Value i of a column belongs to the object with id i + 1. Columns are mapped on first use, so the operating
+ * system pages them in on demand and no values are copied while opening.
+ *
+ * The header holds the fingerprint of the import, which is stored in the database, too. A file next to another
+ * database, e.g. after the database was replaced, is recognized by it.
+ */
+public final class ColumnFile {
+
+	/**
+	 * Marks a column file, "BSVC" in ASCII.
+	 */
+	static final int MAGIC = 0x42535643;
+
+	/**
+	 * The number of ints in the header: magic, version, completion flag, object count, feature count and fingerprint.
+	 */
+	static final int HEADER_INTS = 6;
+
+	/**
+	 * The position of the completion flag in the header.
+	 */
+	static final int COMPLETE_POSITION = 8;
+
+	/**
+	 * The underlying file.
+	 */
+	private final RandomAccessFile file;
+
+	/**
+	 * The number of objects in each column.
+	 */
+	private final int objectCount;
+
+	/**
+	 * The ids of the stored features, in the order of their columns.
+	 */
+	private final int[] featureIds;
+
+	/**
+	 * The fingerprint of the import, which wrote the file.
+	 */
+	private final int fingerprint;
+
+	/**
+	 * The columns mapped so far, null if a column was not used yet.
+	 */
+	private final FloatBuffer[] columns;
+
+	/**
+	 * Opens a column file and checks its header.
+	 *
+	 * @param path
+	 *            the file to open.
+	 * @throws IOException
+	 *             if the file could not be read, or it is no complete column file of the current version.
+	 */
+	public ColumnFile(File path) throws IOException {
+		this.file = new RandomAccessFile(path, "r");
+
+		try {
+			FileChannel channel = this.file.getChannel();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+
+			readFully(channel, header, 0);
+
+			if (header.getInt(0) != MAGIC || header.getInt(4) != DatabaseConfiguration.COLUMNFILEVERSION
+					|| header.getInt(COMPLETE_POSITION) != 1) {
+				throw new IOException("no complete column file: " + path);
+			}
+
+			this.objectCount = header.getInt(12);
+
+			if (this.objectCount < 0 || header.getInt(16) < 0) {
+				throw new IOException("corrupted column file: " + path);
+			}
+
+			this.featureIds = new int[header.getInt(16)];
+			this.fingerprint = header.getInt(20);
+
+			ByteBuffer ids = ByteBuffer.allocate(this.featureIds.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(channel, ids, HEADER_INTS * 4);
+			ids.flip();
+			ids.asIntBuffer().get(this.featureIds);
+
+			if (channel.size() < columnOffset(this.featureIds.length, this.featureIds.length, this.objectCount)) {
+				throw new IOException("truncated column file: " + path);
+			}
+		} catch (IOException e) {
+			this.file.close();
+			throw e;
+		}
+
+		this.columns = new FloatBuffer[this.featureIds.length];
+	}
+
+	/**
+	 * Returns the number of objects in each column.
+	 *
+	 * @return the number of objects.
+	 */
+	public int getObjectCount() {
+		return this.objectCount;
+	}
+
+	/**
+	 * Returns the fingerprint of the import, which wrote the file.
+	 *
+	 * @return the fingerprint.
+	 */
+	int getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Returns the ids of the stored features.
+	 *
+	 * @return the ids in the order of their columns.
+	 */
+	int[] getFeatureIds() {
+		return this.featureIds.clone();
+	}
+
+	/**
+	 * Returns the column of a feature. The returned buffer is private to the caller, so its position may be changed
+	 * freely, but it shares the values with all other buffers of the column.
+	 *
+	 * @param featureId
+	 *            the id of the feature.
+	 * @return the column, value i belongs to the object with id i + 1, or null if the feature is not stored.
+	 * @throws IOException
+	 *             if the column could not be mapped.
+	 */
+	public FloatBuffer getColumn(int featureId) throws IOException {
+		for (int f = 0; f < this.featureIds.length; ++f) {
+			if (this.featureIds[f] == featureId) {
+				return this.mapColumn(f).duplicate();
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Closes the file. Mapped columns stay valid, until they are garbage collected.
+	 *
+	 * @throws IOException
+	 *             if the file could not be closed.
+	 */
+	public void close() throws IOException {
+		this.file.close();
+	}
+
+	/**
+	 * Maps a column on first use.
+	 *
+	 * @param index
+	 *            the index of the column.
+	 * @return the mapped column.
+	 * @throws IOException
+	 *             if the column could not be mapped.
+	 */
+	private synchronized FloatBuffer mapColumn(int index) throws IOException {
+		if (this.columns[index] == null) {
+			// each column is mapped on its own, so files beyond 2 GB are no problem
+			long offset = columnOffset(this.featureIds.length, index, this.objectCount);
+			this.columns[index] = this.file.getChannel()
+					.map(FileChannel.MapMode.READ_ONLY, offset, (long) this.objectCount * 4)
+					.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+		}
+
+		return this.columns[index];
+	}
+
+	/**
+	 * Returns the position of a column within the file.
+	 *
+	 * @param featureCount
+	 *            the number of stored features.
+	 * @param index
+	 *            the index of the column.
+	 * @param objectCount
+	 *            the number of objects in each column.
+	 * @return the position of the first value of the column.
+	 */
+	static long columnOffset(int featureCount, int index, int objectCount) {
+		return (HEADER_INTS + featureCount) * 4L + (long) index * objectCount * 4;
+	}
+
+	/**
+	 * Fills a buffer from the given position of a channel.
+	 *
+	 * @param channel
+	 *            the channel to read.
+	 * @param buffer
+	 *            the buffer to fill.
+	 * @param position
+	 *            the position to read from.
+	 * @throws IOException
+	 *             if the channel ends before the buffer is full.
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long current = position;
+
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, current);
+
+			if (read < 0) {
+				throw new IOException("unexpected end of column file");
+			}
+
+			current += read;
+		}
+	}
+}
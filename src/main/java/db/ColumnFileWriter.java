@@ -0,0 +1,166 @@
+package db;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The class {@code ColumnFileWriter} writes the binary column file of the objects, see {@link ColumnFile}.
+ *
+ * The file is allocated for all objects up front, so rows can be written in batches while importing. It is only
+ * marked as complete by {@link #finish()}, thus an aborted import never leaves a readable column file behind.
+ */
+public final class ColumnFileWriter {
+
+	/**
+	 * The underlying file.
+	 */
+	private final RandomAccessFile file;
+
+	/**
+	 * The channel of the file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The number of objects in each column.
+	 */
+	private final int objectCount;
+
+	/**
+	 * The number of stored features.
+	 */
+	private final int featureCount;
+
+	/**
+	 * Buffer for the values of one column within a batch, reused between batches.
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+	/**
+	 * Creates a new, incomplete column file. An existing file is overwritten.
+	 *
+	 * @param path
+	 *            the file to write.
+	 * @param objectCount
+	 *            the number of objects in each column.
+	 * @param featureIds
+	 *            the ids of the stored features, in the order of the values of a row.
+	 * @param fingerprint
+	 *            the fingerprint of the import, which is stored in the database, too.
+	 * @throws IOException
+	 *             if the file could not be created.
+	 */
+	ColumnFileWriter(File path, int objectCount, int[] featureIds, int fingerprint) throws IOException {
+		if (objectCount < 0 || featureIds == null) {
+			throw new IllegalArgumentException("invalid object count or feature ids");
+		}
+
+		this.file = new RandomAccessFile(path, "rw");
+		this.channel = this.file.getChannel();
+		this.objectCount = objectCount;
+		this.featureCount = featureIds.length;
+
+		try {
+			this.file.setLength(0);
+			this.file.setLength(ColumnFile.columnOffset(this.featureCount, this.featureCount, objectCount));
+
+			ByteBuffer header = ByteBuffer.allocate((ColumnFile.HEADER_INTS + this.featureCount) * 4).order(
+					ByteOrder.LITTLE_ENDIAN);
+			header.putInt(ColumnFile.MAGIC).putInt(DatabaseConfiguration.COLUMNFILEVERSION).putInt(0)
+					.putInt(objectCount).putInt(this.featureCount).putInt(fingerprint);
+
+			for (int featureId : featureIds) {
+				header.putInt(featureId);
+			}
+
+			header.flip();
+			this.writeFully(header, 0);
+		} catch (IOException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes a batch of consecutive rows.
+	 *
+	 * @param firstRow
+	 *            the row of the first object, which is its id minus one.
+	 * @param rows
+	 *            the values of each object, in the order of the feature ids.
+	 * @throws IOException
+	 *             if the rows could not be written.
+	 */
+	public void writeRows(int firstRow, float[][] rows) throws IOException {
+		if (firstRow < 0 || firstRow + rows.length > this.objectCount) {
+			throw new IllegalArgumentException("rows out of range");
+		}
+
+		if (this.buffer.capacity() < rows.length * 4) {
+			this.buffer = ByteBuffer.allocate(rows.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		for (int f = 0; f < this.featureCount; ++f) {
+			this.buffer.clear();
+
+			for (float[] row : rows) {
+				this.buffer.putFloat(row[f]);
+			}
+
+			this.buffer.flip();
+			this.writeFully(this.buffer, ColumnFile.columnOffset(this.featureCount, f, this.objectCount) + firstRow
+					* 4L);
+		}
+	}
+
+	/**
+	 * Marks the file as complete and closes it.
+	 *
+	 * @throws IOException
+	 *             if the file could not be written.
+	 */
+	public void finish() throws IOException {
+		try {
+			// the values have to be on disk, before the file is marked as complete
+			this.channel.force(false);
+
+			ByteBuffer complete = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			complete.putInt(0, 1);
+			this.writeFully(complete, ColumnFile.COMPLETE_POSITION);
+		} finally {
+			this.file.close();
+		}
+	}
+
+	/**
+	 * Closes the file without marking it as complete.
+	 *
+	 * @throws IOException
+	 *             if the file could not be closed.
+	 */
+	public void close() throws IOException {
+		this.file.close();
+	}
+
+	/**
+	 * Writes a buffer to the given position of the file.
+	 *
+	 * @param source
+	 *            the buffer to write.
+	 * @param position
+	 *            the position to write to.
+	 * @throws IOException
+	 *             if the buffer could not be written.
+	 */
+	private void writeFully(ByteBuffer source, long position) throws IOException {
+		long current = position;
+
+		while (source.hasRemaining()) {
+			current += this.channel.write(source, current);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package db;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -7,6 +9,13 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.sqlite.SQLiteConfig;
 
 import util.Failure;
 
@@ -24,6 +33,18 @@ public class Database {
 	// the database connection; context session for the database
 	private Connection connection = null;
 
+	// idle read-only connections, handed out to concurrent readers
+	private final ConcurrentLinkedQueue<Connection> idleReadConnections = new ConcurrentLinkedQueue<Connection>();
+
+	// all read-only connections ever opened, closed on shutdown
+	private final ArrayList<Connection> readConnections = new ArrayList<Connection>();
+
+	// the opened binary column file of the objects, null if it was not opened yet
+	private ColumnFile columnFile = null;
+
+	// the reason, why the column file was not used the last time, so it is logged only once
+	private String columnFileRejection = null;
+
 	/**
 	 * Constructs a database.
 	 *
@@ -61,7 +82,16 @@ public class Database {
 	 */
 	public void shutdown() throws DatabaseAccessException {
 		try {
+			synchronized (this.readConnections) {
+				for (Connection readConnection : this.readConnections) {
+					readConnection.close();
+				}
+				this.readConnections.clear();
+				this.idleReadConnections.clear();
+			}
+
 			this.connection.close();
+			this.closeColumnFile();
 		} catch (SQLException e) {
 			throw new DatabaseAccessException(Failure.CONNECTION);
 		}
@@ -126,6 +156,8 @@ public class Database {
 
 			// The MEMORY journaling mode stores the rollback journal in volatile RAM.
 			// This saves disk I/O but at the expense of database safety and integrity.
+			// It also converts a workspace, which was left in WAL mode, back to a single file, so copying the
+			// file keeps all data. The readers of the pool share the file without WAL, as they only read.
 			stmt.execute("PRAGMA journal_mode = MEMORY;");
 
 			// The journal_size_limit pragma may be used to limit the size of rollback-journal.
@@ -191,6 +223,12 @@ public class Database {
 		Statement stmt = null;
 		PreparedStatement prepStmt = null;
 
+		// the objects are dropped, so their column file is stale
+		this.closeColumnFile();
+		if (!this.isInMemory()) {
+			this.getColumnFilePath().delete();
+		}
+
 		try {
 			stmt = this.connection.createStatement();
 
@@ -235,6 +273,16 @@ public class Database {
 		}
 	}
 
+	/**
+	 * Removes all data and restores an empty layout, e.g. after an aborted import.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if the layout could not be restored
+	 */
+	public void clear() throws DatabaseAccessException {
+		createTables();
+	}
+
 	/**
 	 * Returns the database connection.
 	 *
@@ -244,6 +292,230 @@ public class Database {
 		return this.connection;
 	}
 
+	/**
+	 * Returns an idle read-only connection or opens a new one, if all are in use.
+	 *
+	 * Each concurrent reader should use its own connection, so the reads are not serialized on the shared
+	 * connection. The connection has to be returned by {@link #releaseReadConnection(Connection)}.
+	 *
+	 * In-memory databases are private to their connection, so the shared connection is returned for them.
+	 *
+	 * @return a read-only connection to the database
+	 * @throws DatabaseAccessException
+	 *             if a new connection could not be created
+	 */
+	public Connection acquireReadConnection() throws DatabaseAccessException {
+		if (this.isInMemory()) {
+			return this.connection;
+		}
+
+		Connection readConnection = this.idleReadConnections.poll();
+
+		if (readConnection == null) {
+			SQLiteConfig config = new SQLiteConfig();
+			config.setReadOnly(true);
+
+			// keep the page cache small, there may be one reader per core
+			config.setCacheSize(-10000);
+			config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+
+			try {
+				readConnection = DriverManager.getConnection(this.driver + ":" + this.path, config.toProperties());
+			} catch (SQLException e) {
+				throw new DatabaseAccessException(Failure.CONNECTION);
+			}
+
+			synchronized (this.readConnections) {
+				this.readConnections.add(readConnection);
+			}
+		}
+
+		return readConnection;
+	}
+
+	/**
+	 * Returns a connection, acquired by {@link #acquireReadConnection()}, to the pool.
+	 *
+	 * @param readConnection
+	 *            the read-only connection, it may not be {@code null}
+	 */
+	public void releaseReadConnection(Connection readConnection) {
+		if (readConnection == null) {
+			throw new IllegalArgumentException("readConnection is null");
+		}
+
+		if (readConnection != this.connection) {
+			this.idleReadConnections.offer(readConnection);
+		}
+	}
+
+	/**
+	 * Creates the binary column file of the objects, which is written while importing.
+	 *
+	 * The file stores one column per feature, thus all features have to be initialized before. It is only used by
+	 * {@link #getColumnFile()}, after the import marked it as complete.
+	 *
+	 * A new random fingerprint is stored in the header of the file and as user version of the database, so a file,
+	 * which belongs to another database, is never used.
+	 *
+	 * @param objectCount
+	 *            the number of objects, which will be imported
+	 * @return the writer of the new file, or null if the database is not stored in a file
+	 * @throws DatabaseAccessException
+	 *             if the file could not be created
+	 */
+	public synchronized ColumnFileWriter createColumnFile(int objectCount) throws DatabaseAccessException {
+		if (this.isInMemory()) {
+			return null;
+		}
+
+		this.closeColumnFile();
+
+		try {
+			int[] featureIds = this.getFeatureIds();
+
+			// 0 is the user version of every database, which had no import yet
+			int fingerprint = 0;
+			Random random = new Random();
+
+			while (fingerprint == 0) {
+				fingerprint = random.nextInt();
+			}
+
+			Statement stmt = this.connection.createStatement();
+			stmt.execute("PRAGMA user_version = " + fingerprint + ";");
+			stmt.close();
+
+			return new ColumnFileWriter(this.getColumnFilePath(), objectCount, featureIds, fingerprint);
+		} catch (SQLException e) {
+			throw new DatabaseAccessException(Failure.READ);
+		} catch (IOException e) {
+			throw new DatabaseAccessException(Failure.WRITE);
+		}
+	}
+
+	/**
+	 * Returns the binary column file of the objects, which maps the values of the objects into memory.
+	 *
+	 * The file is only used if it is complete and matches the objects of the database, i.e. it has the fingerprint of
+	 * the last import, the same features and number of objects. Otherwise the objects have to be read from the
+	 * database.
+	 *
+	 * @return the column file, or null if there is no usable one
+	 */
+	public synchronized ColumnFile getColumnFile() {
+		if (this.columnFile != null || this.isInMemory() || !this.getColumnFilePath().exists()) {
+			return this.columnFile;
+		}
+
+		try {
+			ColumnFile file = new ColumnFile(this.getColumnFilePath());
+
+			Statement stmt = this.connection.createStatement();
+			ResultSet rs = stmt.executeQuery("SELECT MAX(Id), COUNT(*) FROM Objects;");
+			int maxId = rs.getInt(1);
+			int objectCount = rs.getInt(2);
+			rs = stmt.executeQuery("PRAGMA user_version;");
+			int fingerprint = rs.getInt(1);
+			stmt.close();
+
+			// the file stores the object with id i at index i - 1, so it needs consecutive ids
+			if (maxId != objectCount) {
+				file.close();
+				this.rejectColumnFile("the ids of the objects are not consecutive", null);
+			} else if (fingerprint != 0 && fingerprint == file.getFingerprint() && objectCount == file.getObjectCount()
+					&& Arrays.equals(this.getFeatureIds(), file.getFeatureIds())) {
+				this.columnFile = file;
+				this.columnFileRejection = null;
+			} else {
+				file.close();
+				this.rejectColumnFile("it does not match the database", null);
+			}
+		} catch (IOException e) {
+			this.rejectColumnFile("it could not be read", e);
+		} catch (SQLException e) {
+			// without objects there is nothing to map
+		}
+
+		return this.columnFile;
+	}
+
+	/**
+	 * Logs, that the column file is not used and the objects are read from the database instead.
+	 *
+	 * A reason is only logged once in a row, as the file is checked again on every load.
+	 *
+	 * @param reason
+	 *            why the file is not used
+	 * @param cause
+	 *            the exception, which made the file unusable, or null
+	 */
+	private void rejectColumnFile(String reason, Exception cause) {
+		if (!reason.equals(this.columnFileRejection)) {
+			this.columnFileRejection = reason;
+			Logger.getLogger(Database.class.getName()).log(Level.INFO,
+					"The column file " + this.getColumnFilePath() + " is not used, because " + reason
+							+ ". The objects are read from the database.", cause);
+		}
+	}
+
+	/**
+	 * Returns the ids of all features.
+	 *
+	 * @return the ids in ascending order
+	 * @throws SQLException
+	 *             if the features could not be read
+	 */
+	private int[] getFeatureIds() throws SQLException {
+		Statement stmt = this.connection.createStatement();
+		ResultSet rs = stmt.executeQuery("SELECT Id FROM Features ORDER BY Id;");
+		ArrayList<Integer> ids = new ArrayList<Integer>();
+
+		while (rs.next()) {
+			ids.add(rs.getInt(1));
+		}
+		stmt.close();
+
+		int[] featureIds = new int[ids.size()];
+		for (int i = 0; i < featureIds.length; ++i) {
+			featureIds[i] = ids.get(i);
+		}
+
+		return featureIds;
+	}
+
+	/**
+	 * Closes the column file, if it is open.
+	 */
+	private synchronized void closeColumnFile() {
+		if (this.columnFile != null) {
+			try {
+				this.columnFile.close();
+			} catch (IOException e) {
+				// the file is read-only, so nothing is lost
+			}
+			this.columnFile = null;
+		}
+	}
+
+	/**
+	 * Returns the path of the binary column file of the objects.
+	 *
+	 * @return the path
+	 */
+	private File getColumnFilePath() {
+		return new File(this.path + DatabaseConfiguration.COLUMNFILEEXTENSION);
+	}
+
+	/**
+	 * Checks if this database only lives in memory.
+	 *
+	 * @return true if the database is not stored in a file
+	 */
+	private boolean isInMemory() {
+		return this.path.length() == 0 || this.path.equals(":memory:");
+	}
+
 	/**
 	 * Returns true if database exists but is empty.
 	 * True also could indicate a read error. Check if Database is readable before using this method.
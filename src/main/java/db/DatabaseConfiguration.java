@@ -24,6 +24,18 @@ public final class DatabaseConfiguration {
 	 */
 	public static final int TRANSACTIONSIZE = 3000;
 
+	/**
+	 * The extension appended to the database path, to name the binary column file of the objects.
+	 */
+	public static final String COLUMNFILEEXTENSION = ".columns";
+
+	/**
+	 * The version of the binary column file layout.
+	 *
+	 * Files of another version are ignored, so the objects are read from the database again.
+	 */
+	public static final int COLUMNFILEVERSION = 2;
+
 	// utility class, do not construct
 	private DatabaseConfiguration() {
 		throw new AssertionError();
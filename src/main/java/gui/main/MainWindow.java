@@ -325,6 +325,21 @@ public class MainWindow extends JFrame {
 			this.subspacePanel.setVisible(false);
 			this.remove(this.subspacePanel);
 		}
+
+		// the views observe the controllers and own threads, which would outlive them otherwise
+		if (this.viewPanels != null) {
+			for (ViewPanel view : this.viewPanels) {
+				view.release();
+			}
+
+			this.viewPanels = null;
+		}
+		if (this.detailView != null) {
+			this.detailView.setVisible(false);
+			this.remove(this.detailView);
+			this.detailView.release();
+			this.detailView = null;
+		}
 	}
 
 	/**
@@ -4,6 +4,7 @@ import gui.settings.Settings;
 import gui.settings.SettingsDialog;
 import importexport.ExportLogic;
 import importexport.ImportLogic;
+import importexport.importing.ImportProgressListener;
 import importexport.util.InvalidFileException;
 import importexport.util.UnsupportedFileExtensionException;
 
@@ -12,9 +13,12 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,7 +34,9 @@ import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JTextField;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import db.Database;
@@ -347,6 +353,16 @@ public class MenuPanel extends JPanel {
 		 */
 		private JButton cancel;
 
+		/**
+		 * Shows the progress of the running import.
+		 */
+		private JProgressBar progress;
+
+		/**
+		 * Runs the import in the background, null if there is no running import.
+		 */
+		private SwingWorker<Void, Void> importWorker;
+
 		/*
 		 * Files
 		 */
@@ -419,6 +435,11 @@ public class MenuPanel extends JPanel {
 				cancel.setText(rb.getString("abortButton"));
 				cancel.setBounds(380, 200, 100, 25);
 
+				progress = new JProgressBar(0, 100);
+				progress.setStringPainted(true);
+				progress.setBounds(20, 170, 450, 20);
+				progress.setVisible(false);
+
 				importDialog.add(path1Label);
 				importDialog.add(path1);
 				importDialog.add(path2Label);
@@ -427,6 +448,7 @@ public class MenuPanel extends JPanel {
 				importDialog.add(second);
 				importDialog.add(ok);
 				importDialog.add(cancel);
+				importDialog.add(progress);
 
 				importDialog.pack();
 				importDialog.setVisible(true);
@@ -560,37 +582,96 @@ public class MenuPanel extends JPanel {
 						return;
 					}
 					
-					try {
-						file1 = new File(path1.getText());
-						file2 = new File(path2.getText());
-						ImportLogic.getInstance().importFile(file1, file2);
-					} catch (UnsupportedFileExtensionException ex) {
-						JOptionPane.showMessageDialog(mainWindow, rb.getString("importNotValidExtension"),
-								rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
-						ex.printStackTrace();
-					} catch (InvalidFileException ex) {
-						JOptionPane.showMessageDialog(mainWindow, rb.getString("importCorruptedFile"),
-								rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
-						ex.printStackTrace();
-					} catch (IOException ex) {
-						JOptionPane.showMessageDialog(mainWindow, rb.getString("SystemFailure"),
-								rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
-						ex.printStackTrace();
-					} catch (DatabaseAccessException ex) {
-						JOptionPane.showMessageDialog(mainWindow, rb.getString("DatabaseNoAccess"),
-								rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
-						ex.printStackTrace();
-					} catch (InterruptedException ex) {
-						JOptionPane.showMessageDialog(mainWindow, rb.getString("SystemFailure"),
-								rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
-						ex.printStackTrace();
-					}
+					file1 = new File(path1.getText());
+					file2 = new File(path2.getText());
+					startImport();
 				} else {
 					JOptionPane.showMessageDialog(null, rb.getString("DatabaseAlreadyLoaded"), rb.getString("error"),
 							JOptionPane.ERROR_MESSAGE);
+					closeImportDialog();
 				}
+			}
+
+			/**
+			 * Runs the import in the background, while the modal dialog shows its progress. The dialog is closed,
+			 * when the import is done.
+			 */
+			private void startImport() {
+				ok.setEnabled(false);
+				first.setEnabled(false);
+				second.setEnabled(false);
+				path1.setEditable(false);
+				path2.setEditable(false);
+				progress.setValue(0);
+				progress.setVisible(true);
+				importDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+
+				importWorker = new SwingWorker<Void, Void>() {
+					@Override
+					protected Void doInBackground() throws Exception {
+						ImportLogic.getInstance().importFile(file1, file2, new ImportProgressListener() {
+							@Override
+							public void progressChanged(int imported, int total) {
+								setProgress((int) (100L * imported / Math.max(total, 1)));
+							}
+						});
+
+						return null;
+					}
+
+					@Override
+					protected void done() {
+						importWorker = null;
+
+						try {
+							get();
+						} catch (ExecutionException ex) {
+							showImportFailure(ex.getCause());
+						} catch (InterruptedException ex) {
+							showImportFailure(ex);
+						}
+
+						closeImportDialog();
+					}
+				};
+
+				importWorker.addPropertyChangeListener(new PropertyChangeListener() {
+					@Override
+					public void propertyChange(PropertyChangeEvent evt) {
+						if ("progress".equals(evt.getPropertyName())) {
+							progress.setValue((Integer) evt.getNewValue());
+						}
+					}
+				});
 
-				closeImportDialog();
+				importWorker.execute();
+			}
+
+			/**
+			 * Shows the reason of a failed import.
+			 * 
+			 * @param cause
+			 *            the failure of the import.
+			 */
+			private void showImportFailure(Throwable cause) {
+				if (cause instanceof UnsupportedFileExtensionException) {
+					JOptionPane.showMessageDialog(mainWindow, rb.getString("importNotValidExtension"),
+							rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
+				} else if (cause instanceof InvalidFileException) {
+					JOptionPane.showMessageDialog(mainWindow, rb.getString("importCorruptedFile"),
+							rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
+				} else if (cause instanceof DatabaseAccessException) {
+					JOptionPane.showMessageDialog(mainWindow, rb.getString("DatabaseNoAccess"),
+							rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
+				} else if (cause instanceof InterruptedException) {
+					// the user cancelled the import, so there is nothing to report
+					return;
+				} else {
+					JOptionPane.showMessageDialog(mainWindow, rb.getString("SystemFailure"),
+							rb.getString("warning"), JOptionPane.WARNING_MESSAGE);
+				}
+
+				cause.printStackTrace();
 			}
 		}
 
@@ -610,7 +691,13 @@ public class MenuPanel extends JPanel {
 			 */
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				closeImportDialog();
+				if (importWorker != null) {
+					// the dialog is closed, when the import is aborted
+					cancel.setEnabled(false);
+					ImportLogic.getInstance().cancelImport();
+				} else {
+					closeImportDialog();
+				}
 			}
 		}
 	}
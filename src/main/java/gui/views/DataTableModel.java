@@ -2,15 +2,25 @@ package gui.views;
 
 import gui.settings.Settings;
 
+import java.awt.Color;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.swing.event.TableModelListener;
 import javax.swing.table.TableModel;
 
+import util.SortKeys;
+import controller.ColorEngine;
 import controller.ElementData;
 import controller.Feature;
 import controller.SelectionController;
 
 /**
  * This class provides the interface to build a table directly out of an ElementData array and a Feature array.
+ *
+ * The colors of the rows are calculated in advance, so painting a cell needs no calculation. The model offers primitive
+ * sort keys of its columns, which are used by the {@link DataTableRowSorter}.
  */
 public class DataTableModel implements TableModel {
 
@@ -44,6 +54,16 @@ public class DataTableModel implements TableModel {
 	 */
 	private final Feature[] features;
 
+	/**
+	 * Packed colors of the rows.
+	 */
+	private final int[] colors;
+
+	/**
+	 * Instances of the colors, indexed by the packed color. The rows usually share few colors.
+	 */
+	private final Map<Integer, Color> palette = new HashMap<Integer, Color>();
+
 	/**
 	 * Reference to the selectionController.
 	 */
@@ -63,6 +83,11 @@ public class DataTableModel implements TableModel {
 	 */
 	private final int offset = 3;
 
+	/**
+	 * Row of the elements plus 1, indexed by their id, 0 for elements without row. Created on demand.
+	 */
+	private int[] rowOfId;
+
 	/**
 	 * Constructs a new data table model.
 	 * 
@@ -77,17 +102,60 @@ public class DataTableModel implements TableModel {
 	 */
 	public DataTableModel(Feature[] features, ElementData[] elementData, SelectionController selectionController,
 			TableView tableView) {
+		this(features, elementData, calcColors(elementData), selectionController, tableView);
+	}
+
+	/**
+	 * Constructs a new data table model with precalculated colors.
+	 * 
+	 * @param features
+	 *            An array of Features, which will be used as columns.
+	 * @param elementData
+	 *            An array of elementData. Every ElementData provides the data for one row.
+	 * @param colors
+	 *            The packed colors of the elements, e.g. from the DataHub. The array must not be modified.
+	 * @param selectionController
+	 *            Instance of the selctionController to allow selections in the table.
+	 * @param tableView
+	 *            the tableView that is using this Model.
+	 */
+	public DataTableModel(Feature[] features, ElementData[] elementData, int[] colors,
+			SelectionController selectionController, TableView tableView) {
 
-		if (features == null || elementData == null || selectionController == null || tableView == null) {
+		if (features == null || elementData == null || colors == null || selectionController == null
+				|| tableView == null) {
 			throw new IllegalArgumentException("Argument cannot be null");
 		}
 
+		if (colors.length != elementData.length) {
+			throw new IllegalArgumentException("colors and elementData differ in length");
+		}
+
 		this.elementData = elementData;
 		this.features = features;
+		this.colors = colors;
 		this.selectionController = selectionController;
 		this.tableView = tableView;
 	}
 
+	/**
+	 * Calculates the colors of the elements.
+	 * 
+	 * @param elementData
+	 *            the elements.
+	 * @return the packed colors.
+	 */
+	private static int[] calcColors(ElementData[] elementData) {
+		if (elementData == null) {
+			throw new IllegalArgumentException("Argument cannot be null");
+		}
+
+		int[] colors = new int[elementData.length];
+		ColorEngine.calcColors(elementData, 0, elementData.length, colors);
+
+		return colors;
+	}
+
 	@Override
 	public int getColumnCount() {
 		return this.features.length + offset;
@@ -134,7 +202,7 @@ public class DataTableModel implements TableModel {
 		case IS_SELECTED_COLUMN:
 			return selectionController.isSelected(elementData[element].getId());
 		case COLOR_COLUMN:
-			return ViewUtils.calcColor(elementData[element]);
+			return this.getColor(this.colors[element]);
 		case ID_COLUMN:
 			return elementData[element].getId();
 		default:
@@ -142,6 +210,101 @@ public class DataTableModel implements TableModel {
 		}
 	}
 
+	/**
+	 * Returns the instance of a packed color, which is shared by all rows of this color.
+	 * 
+	 * @param packed
+	 *            the packed color.
+	 * @return the color.
+	 */
+	private Color getColor(int packed) {
+		Color color = this.palette.get(packed);
+
+		if (color == null) {
+			color = new Color(packed, true);
+			this.palette.put(packed, color);
+		}
+
+		return color;
+	}
+
+	/**
+	 * Returns the id of the element of a row, without boxing it like {@link #getValueAt(int, int)}.
+	 * 
+	 * @param element
+	 *            the index of the row in the model.
+	 * @return the id.
+	 */
+	public int getIdAt(int element) {
+		if (element < 0 || element >= this.elementData.length) {
+			throw new IllegalArgumentException("element is out of bounds");
+		}
+
+		return this.elementData[element].getId();
+	}
+
+	/**
+	 * Returns a key to sort the rows by a column. The signed order of the keys equals the order of the values: false
+	 * before true, ascending ids, ascending feature values with missing values (NaN) last. The colors are sorted by
+	 * their packed value. It may be called by any thread.
+	 * 
+	 * @param element
+	 *            the index of the row in the model.
+	 * @param column
+	 *            the column.
+	 * @param selection
+	 *            the ids of the selected elements, a copy of the current selection, as it may change meanwhile.
+	 * @return the key.
+	 */
+	int getSortKey(int element, int column, BitSet selection) {
+		switch (column) {
+		case IS_SELECTED_COLUMN:
+			return selection.get(this.elementData[element].getId()) ? 1 : 0;
+		case COLOR_COLUMN:
+			return this.colors[element];
+		case ID_COLUMN:
+			return this.elementData[element].getId();
+		default:
+			return SortKeys.sortableBits(this.elementData[element].getValue(features[column - FIRST_FEATURE_COLUMN]));
+		}
+	}
+
+	/**
+	 * Returns a copy of the current selection for {@link #getSortKey(int, int, BitSet)}.
+	 * 
+	 * @return the ids of the selected elements.
+	 */
+	BitSet getSelectionBits() {
+		return this.selectionController.getSelectionBits();
+	}
+
+	/**
+	 * Returns the row of an element.
+	 * 
+	 * @param id
+	 *            the id of the element.
+	 * @return the index of the row in the model or -1, if the element has no row.
+	 */
+	public int getRowOf(int id) {
+		if (this.rowOfId == null) {
+			int maxId = 0;
+
+			for (ElementData element : this.elementData) {
+				maxId = Math.max(maxId, element.getId());
+			}
+
+			int[] rows = new int[maxId + 1];
+
+			for (int i = 0; i < this.elementData.length; i++) {
+				rows[this.elementData[i].getId()] = i + 1;
+			}
+
+			this.rowOfId = rows;
+		}
+
+		return (id > 0 && id < this.rowOfId.length) ? this.rowOfId[id] - 1 : -1;
+	}
+
 	@Override
 	public boolean isCellEditable(int element, int feature) {
 		if (feature == IS_SELECTED_COLUMN) {
@@ -157,7 +320,7 @@ public class DataTableModel implements TableModel {
 			boolean newValue = (Boolean) value;
 
 			int[] changedID = new int[1];
-			changedID[0] = (Integer) getValueAt(element, ID_COLUMN);
+			changedID[0] = getIdAt(element);
 
 			selectionController.deleteObserver(tableView);
 
@@ -178,7 +341,16 @@ public class DataTableModel implements TableModel {
 
 	@Override
 	public Class<?> getColumnClass(int columnIndex) {
-		return getValueAt(1, columnIndex).getClass();
+		switch (columnIndex) {
+		case IS_SELECTED_COLUMN:
+			return Boolean.class;
+		case COLOR_COLUMN:
+			return Color.class;
+		case ID_COLUMN:
+			return Integer.class;
+		default:
+			return Float.class;
+		}
 	}
 
 	@Override
@@ -0,0 +1,398 @@
+package gui.views;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingWorker;
+
+import util.ParallelSort;
+import util.SortKeys;
+
+/**
+ * The class {@code DataTableRowSorter} sorts the rows of a {@link DataTableModel} by one column.
+ *
+ * Unlike the {@code TableRowSorter}, it neither boxes the values nor compares them on the event dispatch thread. The
+ * rows are sorted in the background by primitive keys, which are split into consecutive ranges sorted in parallel and
+ * merged afterwards. Until the sort is done, the table keeps the previous order, so it stays responsive for millions
+ * of rows. The model does not change its rows, so they are sorted on request only.
+ */
+public class DataTableRowSorter extends RowSorter<DataTableModel> {
+
+	/**
+	 * N<sup>o</sup> of threads, which sort the rows.
+	 */
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The sorted model.
+	 */
+	private final DataTableModel model;
+
+	/**
+	 * The current sort keys, empty if the rows are unsorted.
+	 */
+	private List<SortKey> sortKeys = Collections.emptyList();
+
+	/**
+	 * The model row of every view row, or null if the rows are unsorted.
+	 */
+	private int[] viewToModel;
+
+	/**
+	 * The view row of every model row, or null if the rows are unsorted.
+	 */
+	private int[] modelToView;
+
+	/**
+	 * The pending sort or null.
+	 */
+	private SwingWorker<int[], Object> sorting;
+
+	/**
+	 * Constructs a new {@code DataTableRowSorter}.
+	 *
+	 * @param model
+	 *            the sorted model.
+	 */
+	public DataTableRowSorter(DataTableModel model) {
+		if (model == null) {
+			throw new IllegalArgumentException("model is null");
+		}
+
+		this.model = model;
+	}
+
+	@Override
+	public DataTableModel getModel() {
+		return this.model;
+	}
+
+	@Override
+	public void toggleSortOrder(int column) {
+		this.checkColumn(column);
+
+		SortOrder order = SortOrder.ASCENDING;
+
+		if (!this.sortKeys.isEmpty() && this.sortKeys.get(0).getColumn() == column
+				&& this.sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING) {
+			order = SortOrder.DESCENDING;
+		}
+
+		this.setSortKeys(Collections.singletonList(new SortKey(column, order)));
+	}
+
+	@Override
+	public int convertRowIndexToModel(int index) {
+		if (index < 0 || index >= this.getViewRowCount()) {
+			throw new IndexOutOfBoundsException("index is out of bounds");
+		}
+
+		return (this.viewToModel == null) ? index : this.viewToModel[index];
+	}
+
+	@Override
+	public int convertRowIndexToView(int index) {
+		if (index < 0 || index >= this.getModelRowCount()) {
+			throw new IndexOutOfBoundsException("index is out of bounds");
+		}
+
+		return (this.modelToView == null) ? index : this.modelToView[index];
+	}
+
+	/**
+	 * Sets the sort keys and sorts the rows in the background. Only the first key is taken into account, further
+	 * ones are ignored.
+	 *
+	 * @param keys
+	 *            the sort keys, null or an empty list for unsorted rows.
+	 */
+	@Override
+	public void setSortKeys(List<? extends SortKey> keys) {
+		if (this.sorting != null) {
+			this.sorting.cancel(true);
+			this.sorting = null;
+		}
+
+		if (keys == null || keys.isEmpty() || keys.get(0).getSortOrder() == SortOrder.UNSORTED) {
+			this.apply(Collections.<SortKey> emptyList(), null);
+			return;
+		}
+
+		final SortKey key = keys.get(0);
+		final BitSet selection = this.model.getSelectionBits();
+
+		this.checkColumn(key.getColumn());
+
+		this.sorting = new SwingWorker<int[], Object>() {
+
+			@Override
+			protected int[] doInBackground() throws InterruptedException {
+				return sortRows(model, key, selection);
+			}
+
+			@Override
+			protected void done() {
+				if (this.isCancelled() || sorting != this) {
+					return;
+				}
+
+				sorting = null;
+
+				try {
+					apply(Collections.singletonList(key), this.get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					// the sort only works on arrays, so this is a programming error
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		};
+
+		this.sorting.execute();
+	}
+
+	@Override
+	public List<? extends SortKey> getSortKeys() {
+		return this.sortKeys;
+	}
+
+	@Override
+	public int getViewRowCount() {
+		return this.model.getRowCount();
+	}
+
+	@Override
+	public int getModelRowCount() {
+		return this.model.getRowCount();
+	}
+
+	@Override
+	public void modelStructureChanged() {
+		this.setSortKeys(null);
+	}
+
+	@Override
+	public void allRowsChanged() {
+		this.setSortKeys(this.sortKeys);
+	}
+
+	@Override
+	public void rowsInserted(int firstRow, int endRow) {
+		this.allRowsChanged();
+	}
+
+	@Override
+	public void rowsDeleted(int firstRow, int endRow) {
+		this.allRowsChanged();
+	}
+
+	@Override
+	public void rowsUpdated(int firstRow, int endRow) {
+		this.allRowsChanged();
+	}
+
+	@Override
+	public void rowsUpdated(int firstRow, int endRow, int column) {
+		this.allRowsChanged();
+	}
+
+	/**
+	 * Sorts the rows of a model by one column. Equal values keep the order of the model. It takes some time for
+	 * large models, so it should not be called by the event dispatch thread.
+	 *
+	 * @param model
+	 *            the model.
+	 * @param key
+	 *            the column and the order.
+	 * @param selection
+	 *            the ids of the selected elements, a copy of the current selection.
+	 * @return the model row of every view row.
+	 * @throws InterruptedException
+	 *             if the sort is interrupted.
+	 */
+	public static int[] sortRows(DataTableModel model, SortKey key, BitSet selection) throws InterruptedException {
+		if (model == null || key == null || selection == null) {
+			throw new IllegalArgumentException("model, key or selection is null");
+		}
+
+		boolean descending = key.getSortOrder() == SortOrder.DESCENDING;
+		int rows = model.getRowCount();
+		int chunks = ParallelSort.getChunkCount(rows, THREADS);
+
+		long[] keys = new long[rows];
+		List<KeyTask> jobsQ = new ArrayList<KeyTask>(chunks);
+
+		for (int i = 0; i < chunks; ++i) {
+			jobsQ.add(new KeyTask(model, key.getColumn(), descending, selection, keys, ParallelSort.getChunkStart(rows,
+					chunks, i), ParallelSort.getChunkStart(rows, chunks, i + 1)));
+		}
+
+		long[] sorted = keys;
+
+		if (chunks == 1) {
+			jobsQ.get(0).call();
+			Arrays.sort(keys);
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(chunks);
+
+			try {
+				ParallelSort.invokeAll(executor, jobsQ);
+				sorted = ParallelSort.sort(keys, executor, chunks);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		int[] result = new int[rows];
+
+		for (int i = 0; i < rows; ++i) {
+			result[i] = SortKeys.getIndex(sorted[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Shows a new order of the rows and notifies the listeners, e.g. the table and its header.
+	 *
+	 * @param keys
+	 *            the new sort keys.
+	 * @param rows
+	 *            the model row of every view row, or null if the rows are unsorted.
+	 */
+	private void apply(List<SortKey> keys, int[] rows) {
+		int[] last = this.viewToModel;
+
+		if (last == null) {
+			// the table restores its selection by the previous order
+			last = new int[this.getModelRowCount()];
+
+			for (int i = 0; i < last.length; ++i) {
+				last[i] = i;
+			}
+		}
+
+		this.sortKeys = Collections.unmodifiableList(new ArrayList<SortKey>(keys));
+		this.viewToModel = rows;
+		this.modelToView = null;
+
+		if (rows != null) {
+			this.modelToView = new int[rows.length];
+
+			for (int i = 0; i < rows.length; ++i) {
+				this.modelToView[rows[i]] = i;
+			}
+		}
+
+		this.fireSortOrderChanged();
+		this.fireRowSorterChanged(last);
+	}
+
+	/**
+	 * Checks, if a column exists.
+	 *
+	 * @param column
+	 *            the column.
+	 */
+	private void checkColumn(int column) {
+		if (column < 0 || column >= this.model.getColumnCount()) {
+			throw new IndexOutOfBoundsException("column is out of bounds");
+		}
+	}
+
+	/**
+	 * Calculates the keys of a range of rows.
+	 */
+	private static class KeyTask implements Callable<Object> {
+
+		/**
+		 * The model.
+		 */
+		private final DataTableModel model;
+
+		/**
+		 * The sorted column.
+		 */
+		private final int column;
+
+		/**
+		 * True, if the rows are sorted in descending order.
+		 */
+		private final boolean descending;
+
+		/**
+		 * The ids of the selected elements.
+		 */
+		private final BitSet selection;
+
+		/**
+		 * The keys of all rows.
+		 */
+		private final long[] keys;
+
+		/**
+		 * The first row of the range.
+		 */
+		private final int start;
+
+		/**
+		 * The row after the last one of the range.
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code KeyTask}.
+		 *
+		 * @param model
+		 *            the model.
+		 * @param column
+		 *            the sorted column.
+		 * @param descending
+		 *            true, if the rows are sorted in descending order.
+		 * @param selection
+		 *            the ids of the selected elements.
+		 * @param keys
+		 *            the keys of all rows.
+		 * @param start
+		 *            the first row of the range.
+		 * @param end
+		 *            the row after the last one of the range.
+		 */
+		public KeyTask(DataTableModel model, int column, boolean descending, BitSet selection, long[] keys,
+				int start, int end) {
+			this.model = model;
+			this.column = column;
+			this.descending = descending;
+			this.selection = selection;
+			this.keys = keys;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Object call() {
+			for (int row = this.start; row < this.end; ++row) {
+				int sortKey = this.model.getSortKey(row, this.column, this.selection);
+
+				if (this.descending) {
+					sortKey = ~sortKey;
+				}
+
+				// equal keys keep the order of the rows
+				this.keys[row] = SortKeys.pack(sortKey, row);
+			}
+
+			return null;
+		}
+	}
+}
@@ -228,12 +228,36 @@ public class DetailPanel extends JPanel {
 			}
 		});
 
+		JCheckBox exactMedianBox = new JCheckBox(Settings.getInstance().getResourceBundle().getString(
+				"detailLabelExactMedian"), detailView.isCalcExactMedian());
+		exactMedianBox.addActionListener(new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				JCheckBox checkBox = (JCheckBox) event.getSource();
+				detailView.setCalcExactMedian(checkBox.isSelected());
+			}
+		});
+
+		JCheckBox interquartileRangeBox = new JCheckBox(Settings.getInstance().getResourceBundle().getString(
+				"detailLabelInterquartileRange"), detailView.isCalcInterquartileRange());
+		interquartileRangeBox.addActionListener(new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				JCheckBox checkBox = (JCheckBox) event.getSource();
+				detailView.setCalcInterquartileRange(checkBox.isSelected());
+			}
+		});
+
 		this.detailMenu.add(minBox);
 		this.detailMenu.add(maxBox);
 		this.detailMenu.add(averageBox);
 		this.detailMenu.add(varianceBox);
 		this.detailMenu.add(standardDeviationBox);
 		this.detailMenu.add(medianBox);
+		this.detailMenu.add(exactMedianBox);
+		this.detailMenu.add(interquartileRangeBox);
 
 		detailMenu.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(), Settings
 				.getInstance().getResourceBundle().getString("detailLabelCharacteristics")));
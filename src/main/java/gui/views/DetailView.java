@@ -18,12 +18,15 @@ import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 
 import controller.DataHub;
 import controller.ElementData;
 import controller.Feature;
+import controller.FeatureStatistics;
 import controller.Group;
 import controller.SelectionController;
+import controller.StatisticsEngine;
 import controller.SubspaceController;
 import db.DatabaseAccessException;
 
@@ -120,6 +123,16 @@ public class DetailView extends ViewPanel {
 	 */
 	private boolean calcMedian = false;
 
+	/**
+	 * Calculate the exact median in the background, instead of showing the approximated one only.
+	 */
+	private boolean calcExactMedian = false;
+
+	/**
+	 * Calculate the interquartile range.
+	 */
+	private boolean calcInterquartileRange = false;
+
 	/**
 	 * Minimum column.
 	 */
@@ -150,6 +163,16 @@ public class DetailView extends ViewPanel {
 	 */
 	private int medianColumn;
 
+	/**
+	 * Interquartile range column.
+	 */
+	private int interquartileRangeColumn;
+
+	/**
+	 * True, if a shown median is approximated.
+	 */
+	private boolean medianApproximated;
+
 	/**
 	 * Number of shown columns.
 	 */
@@ -160,6 +183,11 @@ public class DetailView extends ViewPanel {
 	 */
 	private boolean errorOccured;
 
+	/**
+	 * Calculates and caches the statistics of the selection.
+	 */
+	private final StatisticsEngine statistics;
+
 	/**
 	 * Constructs a new detail view.
 	 *
@@ -173,6 +201,8 @@ public class DetailView extends ViewPanel {
 	public DetailView(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController) {
 		super(dataHub, selectionController, subspaceController);
 
+		this.statistics = new StatisticsEngine(dataHub, selectionController);
+
 		//Add shortcut
 		EventController.getInstance().registerKeyTarget(this);
 		EventController.getInstance().setAction(new ShowHideAction(), "eventShowHideDetailView");
@@ -226,8 +256,28 @@ public class DetailView extends ViewPanel {
 	private void updateDetailPanel() {
 		validateDetailColumnInfo();
 
-		featureData = calcData(featureFeatures);
-		subspaceData = calcData(outlierFeatures);
+		medianApproximated = false;
+
+		try {
+			featureData = calcData(featureFeatures);
+			subspaceData = calcData(outlierFeatures);
+
+			if (calcMedian && calcExactMedian && medianApproximated) {
+				requestExactMedians();
+			}
+		} catch (DatabaseAccessException e) {
+			this.showErrorMessage();
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.showErrorMessage();
+			return;
+		}
+
+		if (medianApproximated) {
+			this.detailTableHeaderStrings[medianColumn + 1] = Settings.getInstance().getResourceBundle().getString(
+					"detailLabelApproximateMedian");
+		}
 
 		groups = calcGroupNames();
 
@@ -253,6 +303,35 @@ public class DetailView extends ViewPanel {
 		this.validate();
 	}
 
+	/**
+	 * Starts the calculation of the exact medians in the background, which updates this view when it is done.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read.
+	 * @throws InterruptedException
+	 *             if the calculation is interrupted.
+	 */
+	private void requestExactMedians() throws DatabaseAccessException, InterruptedException {
+		Feature[] features = new Feature[featureFeatures.length + outlierFeatures.length];
+
+		System.arraycopy(featureFeatures, 0, features, 0, featureFeatures.length);
+		System.arraycopy(outlierFeatures, 0, features, featureFeatures.length, outlierFeatures.length);
+
+		statistics.requestExactMedians(features, new Runnable() {
+
+			@Override
+			public void run() {
+				SwingUtilities.invokeLater(new Runnable() {
+
+					@Override
+					public void run() {
+						update(null, null);
+					}
+				});
+			}
+		});
+	}
+
 	/**
 	 * Calculates which groups are involved.
 	 */
@@ -298,102 +377,58 @@ public class DetailView extends ViewPanel {
 		return Settings.getInstance().getResourceBundle().getString("detailName");
 	}
 
+	@Override
+	public void release() {
+		this.statistics.shutdown();
+
+		super.release();
+	}
+
 	/**
-	 * Calculates the data.
+	 * Calculates the data. The statistics are cached, so showing other columns of the same selection is cheap.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read.
+	 * @throws InterruptedException
+	 *             if the calculation is interrupted.
 	 */
-	private float[][] calcData(Feature[] features) {
+	private float[][] calcData(Feature[] features) throws DatabaseAccessException, InterruptedException {
 		float[][] calculatedData = new float[features.length][columnCount];
 
-		float min;
-		float max;
-		float average;
-
-		int featureCount = 0;
-		float value = 0;
-		float[] featureValues = new float[selectionController.getSelectedCount()];
-		int selectedCount = 0;
-
 		if (selectionController.isSomethingSelected()) {
-			for (Feature feature : features) {
-				min = Float.MAX_VALUE;
-				max = -Float.MAX_VALUE;
-				average = 0;
-				selectedCount = 0;
-
-				for (ElementData element : elementData) {
-					if (selectionController.isSelected(element.getId())) {
-						value = element.getValue(feature);
-
-						featureValues[selectedCount] = value;
-						selectedCount++;
-
-						// test min
-						if (calcMin && value < min) {
-							min = value;
-						}
-
-						// test max
-						if (calcMax && value > max) {
-							max = value;
-						}
-
-						// calc average
-						if (calcAverage || calcVariance || calcStandardDeviation) {
-							average += value;
-						}
-					}
-				}
+			FeatureStatistics[] stats = statistics.getStatistics(features, calcMedian || calcInterquartileRange);
+
+			for (int featureCount = 0; featureCount < features.length; featureCount++) {
+				FeatureStatistics stat = stats[featureCount];
 
 				if (calcMin) {
-					calculatedData[featureCount][minColumn] = min;
+					calculatedData[featureCount][minColumn] = stat.getMin();
 				}
 
 				if (calcMax) {
-					calculatedData[featureCount][maxColumn] = max;
-				}
-
-				if (calcAverage || calcVariance || calcStandardDeviation) {
-					average /= selectionController.getSelectedCount();
-				}
-
-				float variance = 0;
-				float tmpValue = 0;
-
-				for (ElementData element : elementData) {
-					if (selectionController.isSelected(element.getId())) {
-						tmpValue = element.getValue(feature) - average;
-						variance += tmpValue * tmpValue;
-					}
+					calculatedData[featureCount][maxColumn] = stat.getMax();
 				}
 
 				if (calcAverage) {
-					calculatedData[featureCount][averageColumn] = average;
+					calculatedData[featureCount][averageColumn] = stat.getMean();
 				}
 
 				if (calcVariance) {
-					calculatedData[featureCount][varianceColumn] = variance / (selectionController.getSelectedCount());
+					calculatedData[featureCount][varianceColumn] = stat.getVariance();
 				}
 
 				if (calcStandardDeviation) {
-					calculatedData[featureCount][standardDeviationColumn] = (float) Math.sqrt(variance
-							/ (selectionController.getSelectedCount()));
+					calculatedData[featureCount][standardDeviationColumn] = stat.getStandardDeviation();
 				}
 
-				float median;
-
 				if (calcMedian) {
-					java.util.Arrays.sort(featureValues);
-
-					if ((featureValues.length % 2) == 0) {
-						median = (featureValues[(featureValues.length / 2) - 1] + featureValues[(featureValues.length / 2)]) / 2;
-					} else {
-						median = featureValues[(featureValues.length / 2)];
-					}
-
-					calculatedData[featureCount][medianColumn] = median;
+					calculatedData[featureCount][medianColumn] = stat.getMedian();
+					medianApproximated |= !stat.isMedianExact();
 				}
 
-				featureCount++;
+				if (calcInterquartileRange) {
+					calculatedData[featureCount][interquartileRangeColumn] = stat.getInterquartileRange();
+				}
 			}
 		}
 
@@ -499,6 +534,13 @@ public class DetailView extends ViewPanel {
 			medianColumn = -1;
 		}
 
+		if (calcInterquartileRange) {
+			interquartileRangeColumn = columnCount;
+			columnCount++;
+		} else {
+			interquartileRangeColumn = -1;
+		}
+
 		this.detailTableHeaderStrings = new String[columnCount + 1];
 		this.detailTableHeaderStrings[0] = Settings.getInstance().getResourceBundle().getString("detailLabelFeature");
 
@@ -531,6 +573,11 @@ public class DetailView extends ViewPanel {
 			this.detailTableHeaderStrings[medianColumn + 1] = Settings.getInstance().getResourceBundle().getString(
 					"detailLabelMedian");
 		}
+
+		if (calcInterquartileRange) {
+			this.detailTableHeaderStrings[interquartileRangeColumn + 1] = Settings.getInstance().getResourceBundle()
+					.getString("detailLabelInterquartileRange");
+		}
 	}
 
 	/**
@@ -653,6 +700,47 @@ public class DetailView extends ViewPanel {
 		return this.calcMedian;
 	}
 
+	/**
+	 * Set if the exact median is calculated in the background. Otherwise the median of large selections is
+	 * approximated.
+	 *
+	 * @param calcExactMedian
+	 *            new calcExactMedian value.
+	 */
+	public void setCalcExactMedian(boolean calcExactMedian) {
+		this.calcExactMedian = calcExactMedian;
+		this.update(null, null);
+	}
+
+	/**
+	 * Returns true if the exact median is calculated.
+	 *
+	 * @return true if the exact median is calculated.
+	 */
+	public boolean isCalcExactMedian() {
+		return this.calcExactMedian;
+	}
+
+	/**
+	 * Set if the interquartile range is calculated.
+	 *
+	 * @param calcInterquartileRange
+	 *            new calcInterquartileRange value.
+	 */
+	public void setCalcInterquartileRange(boolean calcInterquartileRange) {
+		this.calcInterquartileRange = calcInterquartileRange;
+		this.update(null, null);
+	}
+
+	/**
+	 * Returns true if the interquartile range is calculated.
+	 *
+	 * @return true if the interquartile range is calculated.
+	 */
+	public boolean isCalcInterquartileRange() {
+		return this.calcInterquartileRange;
+	}
+
 	/**
 	 * Shows error message if an exception occurred.
 	 */
@@ -10,7 +10,9 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
+import java.util.BitSet;
 import java.util.Observable;
 
 import javax.swing.AbstractAction;
@@ -30,13 +32,15 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import controller.DataHub;
+import controller.ElementData;
+import controller.SelectionChange;
 import controller.SelectionController;
 import controller.SubspaceController;
 import db.DatabaseAccessException;
 
 /**
  * Provides a table view of the current data. Allows the user to sort it according to various parameters and do
- * operations on it.
+ * operations on it. The rows are sorted in the background by a {@link DataTableRowSorter}.
  */
 public class TableView extends ViewPanel {
 	private static final long serialVersionUID = 281259919304409364L;
@@ -174,6 +178,12 @@ public class TableView extends ViewPanel {
 	@Override
 	public void update(Observable arg0, Object arg1) {
 		if (this.isVisible()) {
+			// the rows stay the same, when only the selection changes
+			if (arg1 instanceof SelectionChange && this.scrollPane != null) {
+				this.repaintSelection((SelectionChange) arg1);
+				return;
+			}
+
 			boolean valid;
 
 			if (scrollPane != null) {
@@ -198,6 +208,37 @@ public class TableView extends ViewPanel {
 		}
 	}
 
+	/**
+	 * Repaints the selected column of the rows, whose selection changed.
+	 * 
+	 * @param change
+	 *            the change of the selection.
+	 */
+	private void repaintSelection(SelectionChange change) {
+		Rectangle visible = this.table.getVisibleRect();
+
+		// many changes are cheaper to repaint at once, only the visible part is painted anyway
+		if (change.size() > visible.height / Math.max(1, this.table.getRowHeight())) {
+			this.table.repaint(visible);
+			return;
+		}
+
+		BitSet changed = change.getChanged();
+		int column = this.table.convertColumnIndexToView(DataTableModel.IS_SELECTED_COLUMN);
+
+		for (int id = changed.nextSetBit(0); id >= 0; id = changed.nextSetBit(id + 1)) {
+			int row = this.dtm.getRowOf(id);
+
+			if (row >= 0) {
+				row = this.table.convertRowIndexToView(row);
+			}
+
+			if (row >= 0 && column >= 0) {
+				this.table.repaint(this.table.getCellRect(row, column, false));
+			}
+		}
+	}
+
 	@Override
 	public String getName() {
 		return Settings.getInstance().getResourceBundle().getString("tableName");
@@ -336,7 +377,7 @@ public class TableView extends ViewPanel {
 		int[] newSelection = new int[selectedRows.length];
 
 		for (int i = 0; i < newSelection.length; i++) {
-			newSelection[i] = new Integer(table.getValueAt(selectedRows[i], DataTableModel.ID_COLUMN).toString());
+			newSelection[i] = dtm.getIdAt(table.convertRowIndexToModel(selectedRows[i]));
 		}
 
 		selectionController.deleteObserver(this);
@@ -355,7 +396,7 @@ public class TableView extends ViewPanel {
 		int[] newSelection = new int[selectedRows.length];
 
 		for (int i = 0; i < newSelection.length; i++) {
-			newSelection[i] = new Integer(table.getValueAt(selectedRows[i], DataTableModel.ID_COLUMN).toString());
+			newSelection[i] = dtm.getIdAt(table.convertRowIndexToModel(selectedRows[i]));
 		}
 		selectionController.deleteObserver(this);
 		selectionController.unselect(newSelection);
@@ -369,10 +410,10 @@ public class TableView extends ViewPanel {
 	 * Notifies the SelectionController to select every row.
 	 */
 	private void selectAll() {
-		int[] selectedIds = new int[table.getRowCount()];
+		int[] selectedIds = new int[dtm.getRowCount()];
 
 		for (int i = 0; i < selectedIds.length; i++) {
-			selectedIds[i] = new Integer(table.getValueAt(i, DataTableModel.ID_COLUMN).toString());
+			selectedIds[i] = dtm.getIdAt(i);
 		}
 		selectionController.deleteObserver(this);
 		selectionController.select(selectedIds);
@@ -398,8 +439,10 @@ public class TableView extends ViewPanel {
 	 */
 	private boolean createNewTable() {
 		try {
-			dtm = new DataTableModel(this.subspaceController.getActiveSubspace().getFeatures(), this.dataHub.getData(),
-					selectionController, this);
+			ElementData[] data = this.dataHub.getData();
+
+			dtm = new DataTableModel(this.subspaceController.getActiveSubspace().getFeatures(), data,
+					this.dataHub.getColors(data), selectionController, this);
 		} catch (DatabaseAccessException e) {
 			return false;
 		}
@@ -408,7 +451,7 @@ public class TableView extends ViewPanel {
 
 		table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
 		table.setColumnSelectionAllowed(false);
-		table.setAutoCreateRowSorter(true);
+		table.setRowSorter(new DataTableRowSorter(dtm));
 		table.setAutoCreateColumnsFromModel(true);
 
 		return true;
@@ -60,4 +60,16 @@ public abstract class ViewPanel extends JPanel implements Observer {
 		this.selectionController.addObserver(this);
 		this.subspaceController.addObserver(this);
 	}
+
+	/**
+	 * Stops observing the controllers and releases the resources of this view, e.g. its threads. The view must not be
+	 * used afterwards.
+	 * 
+	 * Implementations with resources of their own must call this method, too.
+	 */
+	public void release() {
+		this.dataHub.deleteObserver(this);
+		this.selectionController.deleteObserver(this);
+		this.subspaceController.deleteObserver(this);
+	}
 }
@@ -5,10 +5,10 @@ import java.util.LinkedList;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import controller.ColorEngine;
 import controller.DataHub;
 import controller.ElementData;
 import controller.Feature;
-import controller.Group;
 import db.DatabaseAccessException;
 
 /**
@@ -37,50 +37,7 @@ public final class ViewUtils {
 	 * @return color of the element in rgba notation.
 	 */
 	public static Color calcColor(ElementData ed) {
-		Color c = new Color(0.f, 0.f, 0.f, 1.f);
-
-		Group[] groups = ed.getGroups();
-
-		if (groups.length > 0) {
-			int partsN = groups.length;
-
-			float[] partsRed = new float[partsN];
-			float[] partsGreen = new float[partsN];
-			float[] partsBlue = new float[partsN];
-			float[] partsAlpha = new float[partsN];
-
-			for (int i = 0; i < partsN; i++) {
-				int rgba = groups[i].getColor();
-
-				partsBlue[i] = (rgba & 0xff) / 255.f;
-				partsGreen[i] = ((rgba >> 8) & 0xff) / 255.f;
-				partsRed[i] = ((rgba >> 16) & 0xff) / 255.f;
-				partsAlpha[i] = ((rgba >> 24) & 0xff) / 255.f;
-
-				Feature feature = groups[i].getColorFeature();
-
-				if (feature != null) {
-					float value = ed.getValue(feature);
-
-					if (!Float.isNaN(value)) {
-						float min = feature.getMinValue();
-						float max = feature.getMaxValue();
-
-						// scale alpha linear
-						partsAlpha[i] *= (value - min) / (max - min);
-					}
-				}
-			}
-
-			float red = combineComponent(partsRed, partsAlpha, partsN);
-			float green = combineComponent(partsGreen, partsAlpha, partsN);
-			float blue = combineComponent(partsBlue, partsAlpha, partsN);
-			float alpha = combineAlpha(partsAlpha, partsN);
-
-			c = new Color(red, green, blue, alpha);
-		}
-
-		return c;
+		return new Color(ColorEngine.calcColor(ed), true);
 	}
 
 	/**
@@ -18,7 +18,9 @@ import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -26,8 +28,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.IntBuffer;
+import java.util.BitSet;
 import java.util.Observable;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -62,12 +66,18 @@ import org.apache.batik.dom.GenericDOMImplementation;
 import org.apache.batik.svggen.SVGGraphics2D;
 import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 import com.jogamp.opengl.util.awt.Screenshot;
 import com.jogamp.opengl.util.awt.TextRenderer;
 
+import controller.ChangeType;
+import controller.DataChunkListener;
 import controller.DataHub;
+import controller.ElementData;
 import controller.Feature;
+import controller.SelectionChange;
 import controller.SelectionController;
 import controller.SubspaceController;
 import db.DatabaseAccessException;
@@ -105,6 +115,11 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 */
 	private static final int SCREENSHOT_SIZE_MAX = 5000;
 
+	/**
+	 * Comment, which marks the position of the batches of the data in an exported svg.
+	 */
+	private static final String SVG_BATCH_MARKER = "bsv-batches";
+
 	/**
 	 * Action that shows export panel.
 	 */
@@ -126,10 +141,15 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	protected TextRenderer trenderer;
 
 	/**
-	 * Render target used as overlay.
+	 * Render target used as overlay, {@code null} for an offscreen plot.
 	 */
 	private final GLJPanel glJPanel;
 
+	/**
+	 * Receiver of the loading chunks, {@code null} for an offscreen plot.
+	 */
+	private final ChunkReceiver chunkReceiver;
+
 	/**
 	 * Sidebar for tools and settings.
 	 */
@@ -210,6 +230,31 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 */
 	private boolean newData = true;
 
+	/**
+	 * Flag, indicating the need to update the colors of the shown data only.
+	 */
+	private boolean newColors = false;
+
+	/**
+	 * Ids of the elements, whose selection changed since the colors were processed.
+	 */
+	private BitSet changedSelection = new BitSet();
+
+	/**
+	 * Flag, indicating that the colors of all elements may have changed since they were processed, e.g. by a group.
+	 */
+	private boolean allColorsChanged = false;
+
+	/**
+	 * Lock of {@link #changedSelection} and {@link #allColorsChanged}, which change while the colors are processed.
+	 */
+	private final Object changeLock = new Object();
+
+	/**
+	 * Stores if the current processing task updates the colors only.
+	 */
+	private boolean colorTask = false;
+
 	/**
 	 * Flag, indicating if this view is valid. Used for exception handling.
 	 */
@@ -230,6 +275,17 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 */
 	private boolean taskReady;
 
+	/**
+	 * Lock of the chunks, which are shown while the data is loaded. The lock of the plot must not be acquired, while
+	 * holding it.
+	 */
+	private final Object chunkLock = new Object();
+
+	/**
+	 * Flag, indicating that chunks of the loading data are available to be shown.
+	 */
+	private volatile boolean chunksAvailable = false;
+
 	/**
 	 * Multithreaded executor for renderer.
 	 */
@@ -260,6 +316,11 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 */
 	protected int[] vbo;
 
+	/**
+	 * The features of the active subspace, as passed to {@link #setFeatures(Feature[])}.
+	 */
+	private Feature[] subspaceFeatures = new Feature[0];
+
 	/**
 	 * Create Swing UI.
 	 */
@@ -324,6 +385,9 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	/**
 	 * Process all data for rendering.
 	 * 
+	 * Implementations must not hold the lock of the plot while the data is loaded, because
+	 * {@link #display(GLAutoDrawable)} needs it to draw the chunks meanwhile.
+	 * 
 	 * @throws DatabaseAccessException
 	 *             if there is an error when getting data.
 	 * @throws InterruptedException
@@ -340,13 +404,111 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	protected abstract void uploadData(GL2 gl);
 
 	/**
-	 * Draw plot using java Graphics2D (used for export).
+	 * Process the colors for rendering, when only the selection or the groups have changed.
+	 * 
+	 * The default implementation processes all data.
+	 * 
+	 * @throws DatabaseAccessException
+	 *             if there is an error when getting data.
+	 * @throws InterruptedException
+	 *             if process is interrupted.
+	 */
+	protected void processColors() throws DatabaseAccessException, InterruptedException {
+		this.processData();
+	}
+
+	/**
+	 * Transfer the colors processed by {@link #processColors()} to graphics card memory.
+	 * 
+	 * The default implementation transfers all data.
+	 * 
+	 * @param gl
+	 *            render context.
+	 */
+	protected void uploadColors(GL2 gl) {
+		this.uploadData(gl);
+	}
+
+	/**
+	 * Returns the changes of the colors since they were processed and forgets them. Called by {@link #processColors()}
+	 * to update the colors of the changed elements only, when only the selection changed.
+	 * 
+	 * @return the ids of the elements, whose selection changed, or {@code null}, if the colors of all elements may have
+	 *         changed.
+	 */
+	protected final BitSet takeSelectionChanges() {
+		synchronized (this.changeLock) {
+			BitSet changed = this.allColorsChanged ? null : this.changedSelection;
+			this.changedSelection = new BitSet();
+			this.allColorsChanged = false;
+
+			return changed;
+		}
+	}
+
+	/**
+	 * Drops the chunks of an earlier loading, because new data is loaded.
+	 * 
+	 * Called from the loading thread. Implementations must not acquire the lock of the plot, the chunk lock is held.
+	 * The default implementation does nothing.
+	 * 
+	 * @param count
+	 *            N<sup>o</sup> of elements, which will be loaded or 0, if the chunks are not needed anymore.
+	 */
+	protected void clearChunks(int count) {
+		// no progressive rendering by default
+	}
+
+	/**
+	 * Appends a chunk of loaded elements to the approximate picture, which is shown until the data is processed.
+	 * 
+	 * Called from the loading thread. Implementations must not acquire the lock of the plot, the chunk lock is held.
+	 * The default implementation does nothing.
+	 * 
+	 * @param elements
+	 *            the elements, which are loaded so far.
+	 * @param start
+	 *            the first element of the chunk.
+	 * @param end
+	 *            the element after the last one of the chunk.
+	 * @return true, if the chunk will be drawn by {@link #drawChunks(GL2)}.
+	 */
+	protected boolean appendChunk(ElementData[] elements, int start, int end) {
+		return false;
+	}
+
+	/**
+	 * Draw the chunks, which are loaded so far, using OpenGL.
+	 * 
+	 * The chunk lock is held. It is not called for screenshots. The default implementation does nothing.
+	 * 
+	 * @param gl
+	 *            the preinitialized and prepared rendering context.
+	 */
+	protected void drawChunks(GL2 gl) {
+		// no progressive rendering by default
+	}
+
+	/**
+	 * Draw plot using java Graphics2D (used for export). The shapes of {@link #batchData()} are drawn before.
 	 * 
 	 * @param g2d
 	 *            render context.
 	 */
 	protected abstract void draw(Graphics2D g2d);
 
+	/**
+	 * Collects the bulk of the plot for export, e.g. the points or lines of the elements, grouped by color. The shapes
+	 * are drawn below {@link #draw(Graphics2D)}, in the same coordinates.
+	 * 
+	 * The default implementation has no batches.
+	 * 
+	 * @return the batches or {@code null}.
+	 */
+	protected ShapeBatches batchData() {
+		return null;
+	}
+
 	/**
 	 * Constructs an GLPlot using a {@link DataHub} and a {@link SelectionController}.
 	 * 
@@ -358,6 +520,26 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 *            the preinitialized SubspaceController.
 	 */
 	public GLPlot(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController) {
+		this(dataHub, selectionController, subspaceController, false);
+	}
+
+	/**
+	 * Constructs an GLPlot using a {@link DataHub} and a {@link SelectionController}.
+	 * 
+	 * An offscreen plot has no OpenGL context, it is only drawn using java Graphics2D by
+	 * {@link #writeImage(File, int, int)} and {@link #writeSVG(File, int, int, boolean)}, so it works without a display.
+	 * 
+	 * @param dataHub
+	 *            the preinitialized DataHub.
+	 * @param selectionController
+	 *            the preinitialized SelectionController.
+	 * @param subspaceController
+	 *            the preinitialized SubspaceController.
+	 * @param offscreen
+	 *            true, if the plot is not shown.
+	 */
+	GLPlot(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController,
+			boolean offscreen) {
 		super(dataHub, selectionController, subspaceController);
 
 		// init actions
@@ -371,16 +553,26 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 		// initialize multithreaded environment
 		this.processorExecutor = Executors.newSingleThreadExecutor();
 
-		// initialize GL context
-		this.glJPanel = new GLJPanel(getGLCaps());
-		this.glJPanel.addGLEventListener(this);
-
 		// load some data
 		this.font = new Font("Arial", Font.BOLD, 10);
-		this.trenderer = new TextRenderer(this.font);
 
-		// add canvas to self
-		this.add(this.glJPanel, BorderLayout.CENTER);
+		if (offscreen) {
+			this.glJPanel = null;
+			this.chunkReceiver = null;
+		} else {
+			// initialize GL context
+			this.glJPanel = new GLJPanel(getGLCaps());
+			this.glJPanel.addGLEventListener(this);
+
+			// show an approximate picture, while the data is loaded
+			this.chunkReceiver = new ChunkReceiver();
+			this.dataHub.addChunkListener(this.chunkReceiver);
+
+			this.trenderer = new TextRenderer(this.font);
+
+			// add canvas to self
+			this.add(this.glJPanel, BorderLayout.CENTER);
+		}
 
 		// create sidebar
 		this.sidebar = new JPanel();
@@ -493,6 +685,27 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 * Generate svg using {@code screenshotFile}, {@code screenshotWidth} and {@code screenshotHeight}.
 	 */
 	private void genSVG() throws FileNotFoundException, IOException {
+		this.writeSVG(this.screenshotFile, this.screenshotWidth, this.screenshotHeight, false);
+	}
+
+	/**
+	 * Stores the plot as svg, drawn by {@link #batchData()} and {@link #draw(Graphics2D)}.
+	 * 
+	 * Only the shapes drawn by {@link #draw(Graphics2D)}, e.g. the axes, are built as DOM. The batches of the data are
+	 * streamed to the file, so the export of huge data sets does not run out of memory.
+	 * 
+	 * @param file
+	 *            the svg file.
+	 * @param width
+	 *            width of the image.
+	 * @param height
+	 *            height of the image.
+	 * @param rasterFallback
+	 *            true, if dense areas of the data should be embedded as raster image.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	final void writeSVG(File file, int width, int height, boolean rasterFallback) throws IOException {
 		// get DOM implementation
 		DOMImplementation domImpl = GenericDOMImplementation.getDOMImplementation();
 
@@ -502,38 +715,221 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 
 		// create 2d graphics
 		SVGGraphics2D svgGenerator = new SVGGraphics2D(document);
+		svgGenerator.setSVGCanvasSize(new Dimension(width, height));
 
+		// draw everything except of the batches
+		ShapeBatches batches = this.drawExport(svgGenerator, width, height, false);
+
+		// mark the position of the batches, below the drawing and after the definitions
+		Element root = svgGenerator.getRoot();
+		Node drawing = root.getFirstChild();
+
+		while (drawing != null && "defs".equals(drawing.getNodeName())) {
+			drawing = drawing.getNextSibling();
+		}
+
+		root.insertBefore(document.createComment(SVG_BATCH_MARKER), drawing);
+
+		// the DOM without the batches is small
+		boolean useCSS = true;
+		StringWriter dom = new StringWriter();
+		svgGenerator.stream(root, dom, useCSS, false);
+
+		String svg = dom.toString();
+		String marker = "<!--" + SVG_BATCH_MARKER + "-->";
+		int split = svg.indexOf(marker);
+
+		if (split < 0) {
+			split = svg.lastIndexOf("</svg>");
+			marker = "";
+		}
+
+		// store result
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF8"));
+
+		try {
+			out.write(svg, 0, split);
+
+			if (batches != null) {
+				batches.writeSVG(out, width, height, rasterFallback);
+			}
+
+			out.write(svg, split + marker.length(), svg.length() - split - marker.length());
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Stores the plot as raster image, drawn by {@link #batchData()} and {@link #draw(Graphics2D)} without an OpenGL
+	 * context.
+	 * 
+	 * @param file
+	 *            the image file, its suffix selects the format, e.g. png.
+	 * @param width
+	 *            width of the image.
+	 * @param height
+	 *            height of the image.
+	 * @throws IOException
+	 *             if the format is not supported or the file cannot be written.
+	 */
+	final void writeImage(File file, int width, int height) throws IOException {
+		String ext = file.getName().substring(file.getName().lastIndexOf(".") + 1);
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2d = image.createGraphics();
+
+		try {
+			// same background as the OpenGL context
+			g2d.setColor(Color.WHITE);
+			g2d.fillRect(0, 0, width, height);
+
+			this.drawExport(g2d, width, height, true);
+		} finally {
+			g2d.dispose();
+		}
+
+		if (!ImageIO.write(image, ext, file)) {
+			throw new IOException("No image writer for " + ext);
+		}
+	}
+
+	/**
+	 * Draws the plot with the given size using java Graphics2D.
+	 * 
+	 * @param g2d
+	 *            render context.
+	 * @param width
+	 *            width of the image.
+	 * @param height
+	 *            height of the image.
+	 * @param drawBatches
+	 *            true, if the batches of the data are drawn, too.
+	 * @return the batches of the data or {@code null}, if the plot has none.
+	 */
+	private ShapeBatches drawExport(Graphics2D g2d, int width, int height, boolean drawBatches) {
 		// set size
 		int oldWidth = this.shapeWidth;
 		int oldHeight = this.shapeHeight;
-		this.shapeWidth = this.screenshotWidth;
-		this.shapeHeight = this.screenshotHeight;
-		svgGenerator.setSVGCanvasSize(new Dimension(this.shapeWidth, this.shapeHeight));
+		this.shapeWidth = width;
+		this.shapeHeight = height;
 
 		// flip y axis
-		svgGenerator.translate(0, this.shapeHeight);
-		svgGenerator.scale(1, -1);
+		g2d.translate(0, this.shapeHeight);
+		g2d.scale(1, -1);
 
 		// set some defaults
-		svgGenerator.setFont(this.font);
+		g2d.setFont(this.font);
 
-		// draw
-		this.draw(svgGenerator);
+		// draw, the data below everything else
+		ShapeBatches batches = this.batchData();
+
+		if (batches != null && drawBatches) {
+			batches.draw(g2d);
+		}
+
+		this.draw(g2d);
 
 		// restore size
 		this.shapeWidth = oldWidth;
 		this.shapeHeight = oldHeight;
 
-		// store result
-		boolean useCSS = true;
-		Writer out = new OutputStreamWriter(new FileOutputStream(this.screenshotFile), "UTF8");
-		svgGenerator.stream(out, useCSS);
+		return batches;
+	}
+
+	/**
+	 * Processes the pending changes of the data at once, instead of in the background when the plot is rendered. Used
+	 * by offscreen plots before they are drawn.
+	 * 
+	 * @throws DatabaseAccessException
+	 *             if there is an error when getting data.
+	 * @throws InterruptedException
+	 *             if process is interrupted.
+	 */
+	final synchronized void processNow() throws DatabaseAccessException, InterruptedException {
+		if (this.newData) {
+			this.newColors = false;
+			this.takeSelectionChanges();
+			this.processData();
+			this.newData = false;
+		} else if (this.newColors) {
+			this.newColors = false;
+			this.processColors();
+		}
+	}
+
+	/**
+	 * Shows the given features, e.g. as axes. Used by offscreen plots instead of their user interface.
+	 * 
+	 * @param shown
+	 *            the features, which should be shown, found by their id in the active subspace.
+	 */
+	final void selectFeatures(Feature[] shown) {
+		Feature[] features = this.subspaceFeatures;
+		Feature[] own = new Feature[shown.length];
+
+		// the subspace creates new features on every request, the plot knows its own ones only
+		for (int i = 0; i < shown.length; i++) {
+			for (int j = 0; (j < features.length) && (own[i] == null); j++) {
+				if (features[j].getId() == shown[i].getId()) {
+					own[i] = features[j];
+				}
+			}
+
+			if (own[i] == null) {
+				throw new IllegalArgumentException("feature " + shown[i].getName() + " not in the active subspace");
+			}
+		}
+
+		this.showFeatures(own);
+	}
+
+	/**
+	 * Shows the given features, e.g. as axes, instead of the ones chosen by the user interface.
+	 * 
+	 * The default implementation does nothing.
+	 * 
+	 * @param shown
+	 *            features, as passed to {@link #setFeatures(Feature[])}.
+	 */
+	protected void showFeatures(Feature[] shown) {
+		// the plot chooses its features itself by default
+	}
+
+	/**
+	 * Stops observing the controllers and shuts down the threads of this plot, which must not be used afterwards.
+	 * 
+	 * Implementations with threads of their own must call this method, too.
+	 */
+	@Override
+	public void release() {
+		super.release();
+
+		if (this.chunkReceiver != null) {
+			this.dataHub.removeChunkListener(this.chunkReceiver);
+		}
+
+		this.processorExecutor.shutdownNow();
+		this.renderExecutor.shutdownNow();
+	}
+
+	/**
+	 * Checks, if this plot is only drawn using java Graphics2D, without a user interface.
+	 * 
+	 * @return true, if the plot is offscreen.
+	 */
+	protected final boolean isOffscreen() {
+		return this.glJPanel == null;
 	}
 
 	/**
 	 * Rerender OpenGL surface.
 	 */
 	protected final synchronized void rerender() {
+		// an offscreen plot is drawn on demand only
+		if (this.glJPanel == null) {
+			return;
+		}
+
 		this.renderExecutor.submit(new Runnable() {
 			@Override
 			public void run() {
@@ -549,7 +945,7 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 *            the new interaction controller, can be {@code null}.
 	 */
 	protected final void setInteractionHandler(InteractionHandler ihandler) {
-		if (this.ihandler != null) {
+		if (this.ihandler != null && this.glJPanel != null) {
 			this.glJPanel.removeMouseListener(this.ihandler);
 			this.glJPanel.removeMouseMotionListener(this.ihandler);
 			this.glJPanel.removeMouseWheelListener(this.ihandler);
@@ -557,7 +953,7 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 
 		this.ihandler = ihandler;
 
-		if (this.ihandler != null) {
+		if (this.ihandler != null && this.glJPanel != null) {
 			this.glJPanel.addMouseListener(this.ihandler);
 			this.glJPanel.addMouseMotionListener(this.ihandler);
 			this.glJPanel.addMouseWheelListener(this.ihandler);
@@ -1052,17 +1448,34 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 			this.updateFPS();
 		}
 
-		if (this.valid && taskReady) {
+		if (this.valid && (taskReady || (this.takeScreenshot && (this.processingTask == null)))) {
 			this.processingTask = null;
-			this.uploadData(gl);
+
+			if (this.takeScreenshot) {
+				// the screenshot context does not share any buffers, so it needs everything
+				this.uploadData(gl);
+			} else {
+				if (this.colorTask) {
+					this.uploadColors(gl);
+				} else {
+					this.uploadData(gl);
+				}
+
+				// the buffers stay on the graphics card until the next task is ready
+				taskReady = false;
+			}
 		}
 
-		if (this.valid && this.newData && (this.processingTask == null)) {
+		if (this.valid && (this.newData || this.newColors) && (this.processingTask == null)) {
 			taskReady = false;
-			this.processingTask = this.processorExecutor.submit(new Processor());
+			this.colorTask = !this.newData;
+			this.processingTask = this.processorExecutor.submit(new Processor(this.colorTask));
 		}
 
-		if (this.valid && (this.processingTask == null)) {
+		// while the colors get updated, the old ones are shown
+		boolean showData = (this.processingTask == null) || this.colorTask;
+
+		if (this.valid && showData) {
 			// store context
 			gl.glPushMatrix();
 
@@ -1078,7 +1491,21 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 			gl.glColor4f(0.f, 0.f, 0.f, 0.5f);
 		}
 
-		if (this.valid && (this.processingTask != null)) {
+		// the chunks may be stored on the graphics card, which is not shared with the context of a screenshot
+		if (this.valid && !showData && this.chunksAvailable && !this.takeScreenshot) {
+			gl.glPushMatrix();
+			gl.glTranslatef(0.f, this.shapeHeight, 0.f);
+			gl.glScalef(1.f, -1.f, 1.f);
+
+			synchronized (this.chunkLock) {
+				this.drawChunks(gl);
+			}
+
+			gl.glPopMatrix();
+			gl.glColor4f(0.f, 0.f, 0.f, 0.5f);
+		}
+
+		if (this.valid && !showData) {
 			this.drawMessage(gl, Settings.getInstance().getResourceBundle().getString("glPlotProcessing"));
 		}
 
@@ -1136,13 +1563,27 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	public final void update(Observable o, Object arg) {
 		if (o == this.subspaceController) {
 			try {
-				this.setFeatures(this.subspaceController.getActiveSubspace().getFeatures());
+				Feature[] features = this.subspaceController.getActiveSubspace().getFeatures();
+				this.subspaceFeatures = features;
+				this.setFeatures(features);
 			} catch (DatabaseAccessException ex) {
 				this.setInvalid();
 			}
 		}
 
-		this.newData = true;
+		if (isColorChange(o == this.selectionController, arg)) {
+			synchronized (this.changeLock) {
+				if (arg instanceof SelectionChange) {
+					this.changedSelection.or(((SelectionChange) arg).getChanged());
+				} else {
+					this.allColorsChanged = true;
+				}
+			}
+
+			this.newColors = true;
+		} else {
+			this.newData = true;
+		}
 
 		this.processingTask = null;
 
@@ -1151,6 +1592,19 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 		}
 	}
 
+	/**
+	 * Checks if a change affects the colors of the shown data only.
+	 * 
+	 * @param selectionChange
+	 *            true, if the selection has changed.
+	 * @param arg
+	 *            the argument of the notification.
+	 * @return true, if only the colors have to be updated.
+	 */
+	private static boolean isColorChange(boolean selectionChange, Object arg) {
+		return selectionChange || (arg == ChangeType.GROUP_METADATA) || (arg == ChangeType.GROUP_MEMBERSHIP);
+	}
+
 	/**
 	 * Get a prepared and selected GLProfile.
 	 * 
@@ -1342,6 +1796,21 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 	 * Processes data for rendering.
 	 */
 	private class Processor implements Callable<Boolean> {
+		/**
+		 * Flag, indicating if only the colors have to be processed.
+		 */
+		private final boolean colorsOnly;
+
+		/**
+		 * Constructs a new processor.
+		 * 
+		 * @param colorsOnly
+		 *            true, if only the colors have to be processed.
+		 */
+		public Processor(boolean colorsOnly) {
+			this.colorsOnly = colorsOnly;
+		}
+
 		@Override
 		public Boolean call() throws Exception {
 			Boolean result = Boolean.TRUE;
@@ -1352,8 +1821,16 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 				}
 
 				try {
-					processData();
-					newData = false;
+					newColors = false;
+
+					if (this.colorsOnly) {
+						processColors();
+					} else {
+						// all colors are processed anyway
+						takeSelectionChanges();
+						processData();
+						newData = false;
+					}
 
 					if (ihandler != null) {
 						ihandler.resume();
@@ -1370,6 +1847,12 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 				result = Boolean.FALSE;
 			}
 
+			// the processed data replaces the chunks
+			synchronized (chunkLock) {
+				chunksAvailable = false;
+				clearChunks(0);
+			}
+
 			valid = result;
 			taskReady = true;
 			rerender();
@@ -1377,4 +1860,32 @@ public abstract class GLPlot extends ViewPanel implements GLEventListener {
 			return result;
 		}
 	}
+
+	/**
+	 * Receives the chunks of the loading data and rerenders the plot for each of them.
+	 */
+	private class ChunkReceiver implements DataChunkListener {
+
+		@Override
+		public void loadingStarted(int count) {
+			synchronized (chunkLock) {
+				chunksAvailable = false;
+				clearChunks(count);
+			}
+		}
+
+		@Override
+		public void chunkLoaded(ElementData[] elements, int start, int end) {
+			boolean shown;
+
+			synchronized (chunkLock) {
+				shown = appendChunk(elements, start, end);
+				chunksAvailable |= shown;
+			}
+
+			if (shown && isVisible()) {
+				rerender();
+			}
+		}
+	}
 }
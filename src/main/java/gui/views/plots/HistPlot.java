@@ -3,7 +3,6 @@ package gui.views.plots;
 import gui.bsvComponents.BSVComboBox;
 import gui.bsvComponents.BSVSpinner;
 import gui.settings.Settings;
-import gui.views.ViewUtils;
 
 import java.awt.Color;
 import java.awt.Component;
@@ -14,7 +13,9 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.media.opengl.GL2;
 import javax.swing.AbstractAction;
@@ -26,8 +27,7 @@ import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 
-import org.apache.commons.lang3.ArrayUtils;
-
+import controller.ColorEngine;
 import controller.DataHub;
 import controller.ElementData;
 import controller.Feature;
@@ -56,6 +56,17 @@ public class HistPlot extends GLPlot {
 	 */
 	private static final float NON_SELECTED_ALPHA_FACTOR = 0.2f;
 
+	/**
+	 * N<sup>o</sup> of threads, which sort and bin the values.
+	 */
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Divisor of the N<sup>o</sup> of values, up to which changes of the selection are applied to the bins one by
+	 * one. Larger changes are binned again in parallel.
+	 */
+	private static final int INCREMENTAL_LIMIT = 16;
+
 	/**
 	 * Combo box for features selection.
 	 */
@@ -121,6 +132,59 @@ public class HistPlot extends GLPlot {
 	 */
 	private float maxFrequency;
 
+	/**
+	 * The values of the active feature in ascending order, reused until the data or the feature changes.
+	 */
+	private SortedColumn column;
+
+	/**
+	 * The bins of {@link #column}, which are updated, when the selection of a few elements changes.
+	 */
+	private Histogram histogram;
+
+	/**
+	 * Rank of the elements in {@link #column} plus 1, indexed by their id, 0 for elements without value. Created on
+	 * demand.
+	 */
+	private int[] rankOfId;
+
+	/**
+	 * Flag, indicating if {@link #histogram} was binned with a selection.
+	 */
+	private boolean selectionShown;
+
+	/**
+	 * The selection, which {@link #histogram} was binned with, including the changes applied to its bins since then.
+	 * The selection may have changed again until the changes are processed, so only the differences to this copy are
+	 * applied.
+	 */
+	private BitSet binnedSelection;
+
+	/**
+	 * Threads, which sort and bin the values.
+	 */
+	private final ExecutorService binExecutor = Executors.newFixedThreadPool(THREADS);
+
+	/**
+	 * The feature of the bars loaded so far, shown while the data is processed.
+	 */
+	private Feature chunkFeature;
+
+	/**
+	 * N<sup>o</sup> of elements loaded so far per bar.
+	 */
+	private int[] chunkFrequency;
+
+	/**
+	 * Sums of the alpha weighted colors and of the alpha values per bar.
+	 */
+	private float[] chunkColors;
+
+	/**
+	 * N<sup>o</sup> of elements loaded so far.
+	 */
+	private int chunkTotal;
+
 	/**
 	 * Constructs a histogram plot using a DataHub, a SelectionController and a SubspaceController.
 	 * 
@@ -132,7 +196,24 @@ public class HistPlot extends GLPlot {
 	 *            a preinitialized SubspaceController.
 	 */
 	public HistPlot(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController) {
-		super(dataHub, selectionController, subspaceController);
+		this(dataHub, selectionController, subspaceController, false);
+	}
+
+	/**
+	 * Constructs a histogram plot using a DataHub, a SelectionController and a SubspaceController.
+	 * 
+	 * @param dataHub
+	 *            a preinitialized DataHub.
+	 * @param selectionController
+	 *            a preinitialized SelectionController.
+	 * @param subspaceController
+	 *            a preinitialized SubspaceController.
+	 * @param offscreen
+	 *            true, if the plot is not shown and only drawn using java Graphics2D.
+	 */
+	HistPlot(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController,
+			boolean offscreen) {
+		super(dataHub, selectionController, subspaceController, offscreen);
 	}
 
 	@Override
@@ -213,6 +294,26 @@ public class HistPlot extends GLPlot {
 		this.activeFeature = (Feature) featureCombo.getSelectedItem();
 	}
 
+	@Override
+	protected void showFeatures(Feature[] shown) {
+		if (shown == null || shown.length != 1) {
+			throw new IllegalArgumentException("histogram shows one feature");
+		}
+
+		if (shown[0] != this.activeFeature) {
+			this.featureCombo.setSelectedItem(shown[0]);
+			this.activeFeature = shown[0];
+			this.update(null, null);
+		}
+	}
+
+	@Override
+	public void release() {
+		this.binExecutor.shutdownNow();
+
+		super.release();
+	}
+
 	@Override
 	protected void init(GL2 gl) {
 		// ignore
@@ -253,6 +354,99 @@ public class HistPlot extends GLPlot {
 		this.drawAxis(gl, BORDER_SIZE, BORDER_SIZE, width, this.featureName, this.min, this.min + this.range, true);
 	}
 
+	@Override
+	protected void clearChunks(int count) {
+		Feature feature = this.activeFeature;
+		int steps = this.stepCount;
+		this.chunkTotal = 0;
+
+		if (count > 0 && feature != null && steps > 0) {
+			this.chunkFeature = feature;
+			this.chunkFrequency = new int[steps];
+			this.chunkColors = new float[steps * 4];
+		} else {
+			this.chunkFeature = null;
+			this.chunkFrequency = null;
+			this.chunkColors = null;
+		}
+	}
+
+	@Override
+	protected boolean appendChunk(ElementData[] elements, int start, int end) {
+		if (this.chunkFeature == null) {
+			return false;
+		}
+
+		final int steps = this.chunkFrequency.length;
+		float min = this.chunkFeature.getMinValue();
+		float range = this.chunkFeature.getMaxValue() - min;
+
+		int[] colors = new int[end - start];
+		ColorEngine.calcColors(elements, start, end, colors);
+
+		for (int i = start; i < end; i++) {
+			float value = elements[i].getValue(this.chunkFeature);
+
+			if (!Float.isNaN(value)) {
+				int index = Histogram.binOf(value, min, range, steps);
+				int color = colors[i - start];
+				float alpha = ColorEngine.getAlpha(color);
+
+				// sum of the alpha weighted colors and of the alpha values of every bin
+				this.chunkColors[index * 4] += ColorEngine.getRed(color) * alpha;
+				this.chunkColors[index * 4 + 1] += ColorEngine.getGreen(color) * alpha;
+				this.chunkColors[index * 4 + 2] += ColorEngine.getBlue(color) * alpha;
+				this.chunkColors[index * 4 + 3] += alpha;
+				this.chunkFrequency[index]++;
+				this.chunkTotal++;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	protected void drawChunks(GL2 gl) {
+		if (this.chunkTotal == 0) {
+			return;
+		}
+
+		final int steps = this.chunkFrequency.length;
+		float width = this.getShapeWidth() - 2 * BORDER_SIZE;
+		float barWidth = width / steps;
+		float height = this.getShapeHeight() - 2 * BORDER_SIZE;
+		int maxCount = 0;
+
+		for (int i = 0; i < steps; i++) {
+			maxCount = Math.max(maxCount, this.chunkFrequency[i]);
+		}
+
+		// the bars are scaled like the processed ones, the frequencies so far are an estimate
+		gl.glPushMatrix();
+		gl.glTranslatef(BORDER_SIZE, BORDER_SIZE, 0.f);
+
+		for (int i = 0; i < steps; i++) {
+			if (this.chunkFrequency[i] == 0) {
+				continue;
+			}
+
+			float sumAlpha = this.chunkColors[i * 4 + 3];
+			float barHeight = height * this.chunkFrequency[i] / maxCount;
+
+			if (sumAlpha > 0.f) {
+				gl.glColor4f(this.chunkColors[i * 4] / sumAlpha, this.chunkColors[i * 4 + 1] / sumAlpha,
+						this.chunkColors[i * 4 + 2] / sumAlpha, sumAlpha / this.chunkFrequency[i]);
+			} else {
+				gl.glColor4f(0.f, 0.f, 0.f, 0.f);
+			}
+
+			gl.glRectf(i * barWidth, 0.f, (i + 1) * barWidth, barHeight);
+		}
+
+		gl.glPopMatrix();
+		gl.glColor4f(0.f, 0.f, 0.f, 1.f);
+	}
+
 	@Override
 	protected void dispose(GL2 gl) {
 		// ignore
@@ -264,92 +458,149 @@ public class HistPlot extends GLPlot {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
-	protected synchronized void processData() throws DatabaseAccessException, InterruptedException {
+	protected void processData() throws DatabaseAccessException, InterruptedException {
+		// the data is loaded without the lock of the plot, so the chunks can be drawn meanwhile
+		ElementData[] data = this.dataHub.getData();
+
+		this.processData(data, this.dataHub.getColors(data));
+	}
+
+	/**
+	 * Sorts the values of the active feature, if necessary, and bins them.
+	 * 
+	 * @param data
+	 *            the elements.
+	 * @param colors
+	 *            the colors of the elements.
+	 * @throws InterruptedException
+	 *             if sorting or binning is interrupted.
+	 */
+	private synchronized void processData(ElementData[] data, int[] colors) throws InterruptedException {
 		int steps = this.stepCount;
 		Feature feature = this.activeFeature;
-		boolean selection = this.selectionController.isSomethingSelected();
+
+		// the bins are replaced below
+		this.histogram = null;
 		this.values = new float[steps];
 		this.red = new float[steps];
 		this.green = new float[steps];
 		this.blue = new float[steps];
 		this.alpha = new float[steps];
-		int[] count = new int[steps];
 		this.min = feature.getMinValue();
 		this.range = feature.getMaxValue() - this.min;
 		this.featureName = feature.getName();
 
-		ArrayList<Float>[] redVars = new ArrayList[steps];
-		ArrayList<Float>[] greenVars = new ArrayList[steps];
-		ArrayList<Float>[] blueVars = new ArrayList[steps];
-		ArrayList<Float>[] alphaVars = new ArrayList[steps];
+		// the sorted column is kept, so changing the number of bars only bins it again
+		if (this.column == null || !this.column.matches(data, feature)) {
+			// do not hold the old and the new column at once
+			this.column = null;
+			this.rankOfId = null;
+			this.column = new SortedColumn(data, feature, this.binExecutor, THREADS);
+		}
 
-		for (int i = 0; i < steps; i++) {
-			redVars[i] = new ArrayList<Float>();
-			greenVars[i] = new ArrayList<Float>();
-			blueVars[i] = new ArrayList<Float>();
-			alphaVars[i] = new ArrayList<Float>();
+		BitSet selected = null;
+
+		if (this.selectionController.isSomethingSelected()) {
+			selected = this.selectionController.getSelectionBits();
 		}
 
+		this.histogram = new Histogram(this.column, colors, selected, NON_SELECTED_ALPHA_FACTOR, this.min, this.range,
+				steps, this.binExecutor, THREADS);
+		this.selectionShown = selected != null;
+		this.binnedSelection = (selected != null) ? selected : new BitSet();
+
+		this.copyBins(data.length);
+	}
+
+	@Override
+	protected void processColors() throws DatabaseAccessException, InterruptedException {
 		ElementData[] data = this.dataHub.getData();
-		float summand = 1.f / data.length;
+		int[] colors = this.dataHub.getColors(data);
 
-		for (int i = 0; i < data.length; i++) {
-			float value = data[i].getValue(feature);
+		this.processColors(data, colors);
+	}
 
-			if (!Float.isNaN(value)) {
-				int index = (int) Math.floor((value - this.min) / this.range * steps);
+	/**
+	 * Updates the bins of the elements, whose selection changed, or bins all values again.
+	 * 
+	 * @param data
+	 *            the elements.
+	 * @param colors
+	 *            the colors of the elements.
+	 * @throws InterruptedException
+	 *             if sorting or binning is interrupted.
+	 */
+	private synchronized void processColors(ElementData[] data, int[] colors) throws InterruptedException {
+		BitSet changed = this.takeSelectionChanges();
+
+		// the bins of a few changed elements are updated, otherwise all values are binned again
+		if (changed == null || this.histogram == null || !this.column.matches(data, this.activeFeature)
+				|| this.histogram.getSteps() != this.stepCount
+				|| this.selectionController.isSomethingSelected() != this.selectionShown
+				|| changed.cardinality() > this.column.size() / INCREMENTAL_LIMIT) {
+			this.processData(data, colors);
+			return;
+		}
 
-				if (index >= steps) {
-					index = steps - 1;
-				}
+		for (int id = changed.nextSetBit(0); id >= 0; id = changed.nextSetBit(id + 1)) {
+			boolean selected = this.selectionController.isSelected(id);
 
-				if (index < 0) {
-					index = 0;
-				}
+			// an element may be changed back or be part of several merged changes
+			if (selected == this.binnedSelection.get(id)) {
+				continue;
+			}
 
-				this.values[index] += summand;
+			this.binnedSelection.set(id, selected);
+			int rank = this.getRankOf(id);
 
-				float alphaFactor = 1.f;
+			if (rank >= 0) {
+				this.histogram.changeSelection(this.column.getValue(rank), colors[this.column.getRow(rank)], selected);
+			}
+		}
 
-				if (selection) {
-					alphaFactor = this.selectionController.isSelected(data[i].getId()) ? 1.f
-							: NON_SELECTED_ALPHA_FACTOR;
-				}
+		this.copyBins(data.length);
+	}
 
-				// get color
-				Color color = ViewUtils.calcColor(data[i]);
-				redVars[index].add(color.getRed() / 255.f);
-				greenVars[index].add(color.getGreen() / 255.f);
-				blueVars[index].add(color.getBlue() / 255.f);
-				alphaVars[index].add(color.getAlpha() / 255.f * alphaFactor);
+	/**
+	 * Returns the rank of an element in {@link #column}.
+	 * 
+	 * @param id
+	 *            the id of the element.
+	 * @return the rank or -1, if the element has no value.
+	 */
+	private int getRankOf(int id) {
+		if (this.rankOfId == null) {
+			int maxId = 0;
 
-				count[index]++;
+			for (int rank = 0; rank < this.column.size(); rank++) {
+				maxId = Math.max(maxId, this.column.getId(rank));
+			}
+
+			this.rankOfId = new int[maxId + 1];
+
+			for (int rank = 0; rank < this.column.size(); rank++) {
+				this.rankOfId[this.column.getId(rank)] = rank + 1;
 			}
 		}
 
-		// calc color
-		for (int i = 0; i < steps; i++) {
-			Float[] redVarsTmp = new Float[redVars[i].size()];
-			redVars[i].toArray(redVarsTmp);
-			float[] redVarsNative = ArrayUtils.toPrimitive(redVarsTmp);
-
-			Float[] greenVarsTmp = new Float[greenVars[i].size()];
-			greenVars[i].toArray(greenVarsTmp);
-			float[] greenVarsNative = ArrayUtils.toPrimitive(greenVarsTmp);
-
-			Float[] blueVarsTmp = new Float[blueVars[i].size()];
-			blueVars[i].toArray(blueVarsTmp);
-			float[] blueVarsNative = ArrayUtils.toPrimitive(blueVarsTmp);
-
-			Float[] alphaVarsTmp = new Float[alphaVars[i].size()];
-			alphaVars[i].toArray(alphaVarsTmp);
-			float[] alphaVarsNative = ArrayUtils.toPrimitive(alphaVarsTmp);
-
-			this.red[i] = ViewUtils.combineComponent(redVarsNative, alphaVarsNative, count[i]);
-			this.green[i] = ViewUtils.combineComponent(greenVarsNative, alphaVarsNative, count[i]);
-			this.blue[i] = ViewUtils.combineComponent(blueVarsNative, alphaVarsNative, count[i]);
-			this.alpha[i] = ViewUtils.combineAlpha(alphaVarsNative, count[i]);
+		return (id < this.rankOfId.length) ? this.rankOfId[id] - 1 : -1;
+	}
+
+	/**
+	 * Copies the bins of {@link #histogram} to the shown bars.
+	 * 
+	 * @param total
+	 *            N<sup>o</sup> of elements, the frequencies are relative to.
+	 */
+	private void copyBins(int total) {
+		int steps = this.histogram.getSteps();
+
+		for (int i = 0; (i < steps) && (total > 0); i++) {
+			this.values[i] = (float) this.histogram.getCount(i) / total;
+			this.red[i] = this.histogram.getRed(i);
+			this.green[i] = this.histogram.getGreen(i);
+			this.blue[i] = this.histogram.getBlue(i);
+			this.alpha[i] = this.histogram.getAlpha(i);
 		}
 
 		// scale up
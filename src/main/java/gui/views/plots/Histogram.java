@@ -0,0 +1,421 @@
+package gui.views.plots;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import util.ParallelSort;
+import controller.ColorEngine;
+
+/**
+ * The class {@code Histogram} bins the values of a {@link SortedColumn} into bins of equal width and combines the
+ * colors of the elements of every bin. Values beyond the range belong to the border bins.
+ *
+ * The bounds of the bins are found by binary search on the sorted values. The colors are summed up in parallel, every
+ * thread sums a consecutive range of values into accumulators of its own, which are merged at the end. The merged sums
+ * are kept, so a change of the selection of single elements only updates the bins of these elements.
+ */
+public final class Histogram {
+
+	/**
+	 * N<sup>o</sup> of sums per bin: alpha weighted red, green and blue, plain red, green and blue and alpha.
+	 */
+	private static final int SUMS = 7;
+
+	/**
+	 * N<sup>o</sup> of elements per bin.
+	 */
+	private final int[] counts;
+
+	/**
+	 * Combined red component per bin.
+	 */
+	private final float[] red;
+
+	/**
+	 * Combined green component per bin.
+	 */
+	private final float[] green;
+
+	/**
+	 * Combined blue component per bin.
+	 */
+	private final float[] blue;
+
+	/**
+	 * Combined alpha component per bin.
+	 */
+	private final float[] alpha;
+
+	/**
+	 * The merged sums of all bins, {@link #SUMS} per bin.
+	 */
+	private final double[] totals;
+
+	/**
+	 * Factor for the alpha value of elements, which are not selected.
+	 */
+	private final float nonSelectedAlpha;
+
+	/**
+	 * The lower bound of the first bin.
+	 */
+	private final float min;
+
+	/**
+	 * The width of all bins together.
+	 */
+	private final float range;
+
+	/**
+	 * Constructs a new {@code Histogram}.
+	 *
+	 * @param column
+	 *            the sorted values.
+	 * @param colors
+	 *            the packed colors of the elements, indexed like the elements of the column.
+	 * @param selected
+	 *            the ids of the selected elements, or null if nothing is selected.
+	 * @param nonSelectedAlpha
+	 *            factor for the alpha value of elements, which are not selected.
+	 * @param min
+	 *            the lower bound of the first bin.
+	 * @param range
+	 *            the width of all bins together.
+	 * @param steps
+	 *            N<sup>o</sup> of bins.
+	 * @param executor
+	 *            the executor, which sums up the colors.
+	 * @param threads
+	 *            the maximal number of concurrent tasks.
+	 * @throws InterruptedException
+	 *             if the binning is interrupted.
+	 */
+	public Histogram(SortedColumn column, int[] colors, BitSet selected, float nonSelectedAlpha, float min,
+			float range, int steps, ExecutorService executor, int threads) throws InterruptedException {
+		if (column == null || colors == null) {
+			throw new IllegalArgumentException("column or colors are null");
+		}
+
+		if (steps < 1 || threads < 1) {
+			throw new IllegalArgumentException("steps or threads less than 1");
+		}
+
+		// the bin index grows with the rank, so the first rank of every bin is found by binary search
+		int length = column.size();
+		int[] binStart = new int[steps + 1];
+		binStart[steps] = length;
+
+		for (int bin = 1; bin < steps; ++bin) {
+			int low = binStart[bin - 1];
+			int high = length;
+
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+
+				if (binOf(column.getValue(mid), min, range, steps) < bin) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+
+			binStart[bin] = low;
+		}
+
+		this.counts = new int[steps];
+		for (int bin = 0; bin < steps; ++bin) {
+			this.counts[bin] = binStart[bin + 1] - binStart[bin];
+		}
+
+		// sum up the colors per chunk
+		int chunks = ParallelSort.getChunkCount(length, threads);
+		List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(chunks);
+		double[][] sums = new double[chunks][];
+
+		for (int i = 0; i < chunks; ++i) {
+			sums[i] = new double[steps * SUMS];
+			jobsQ.add(new SumTask(column, colors, selected, nonSelectedAlpha, binStart, sums[i], ParallelSort
+					.getChunkStart(length, chunks, i), ParallelSort.getChunkStart(length, chunks, i + 1)));
+		}
+
+		ParallelSort.invokeAll(executor, jobsQ);
+
+		// merge the chunks
+		this.totals = new double[steps * SUMS];
+
+		for (int i = 0; i < chunks; ++i) {
+			for (int s = 0; s < this.totals.length; ++s) {
+				this.totals[s] += sums[i][s];
+			}
+		}
+
+		this.nonSelectedAlpha = nonSelectedAlpha;
+		this.min = min;
+		this.range = range;
+		this.red = new float[steps];
+		this.green = new float[steps];
+		this.blue = new float[steps];
+		this.alpha = new float[steps];
+
+		for (int bin = 0; bin < steps; ++bin) {
+			this.combine(bin);
+		}
+	}
+
+	/**
+	 * Updates the bin of an element, whose selection changed, without binning all values again. Must not be used to
+	 * change from no selection to a selection or back, because all elements change then.
+	 *
+	 * @param value
+	 *            the value of the element.
+	 * @param color
+	 *            the packed color of the element, as passed to the constructor.
+	 * @param selected
+	 *            true, if the element is selected now, false if it was selected before.
+	 */
+	public void changeSelection(float value, int color, boolean selected) {
+		int bin = binOf(value, this.min, this.range, this.counts.length);
+		float a = ColorEngine.getAlpha(color);
+		float delta = a - a * this.nonSelectedAlpha;
+
+		if (!selected) {
+			delta = -delta;
+		}
+
+		int offset = bin * SUMS;
+		this.totals[offset] += ColorEngine.getRed(color) * delta;
+		this.totals[offset + 1] += ColorEngine.getGreen(color) * delta;
+		this.totals[offset + 2] += ColorEngine.getBlue(color) * delta;
+		this.totals[offset + 6] += delta;
+
+		this.combine(bin);
+	}
+
+	/**
+	 * Combines the colors of a bin, the alpha weighted mean or the plain mean, if all are transparent.
+	 *
+	 * @param bin
+	 *            the bin.
+	 */
+	private void combine(int bin) {
+		if (this.counts[bin] == 0) {
+			return;
+		}
+
+		int base = bin * SUMS;
+
+		// rounding errors of changed selections must not turn transparent bins
+		double sumAlpha = Math.max(0., this.totals[base + 6]);
+		int offset = (sumAlpha > 0.) ? 0 : 3;
+		double divisor = (sumAlpha > 0.) ? sumAlpha : this.counts[bin];
+
+		this.red[bin] = (float) (this.totals[base + offset] / divisor);
+		this.green[bin] = (float) (this.totals[base + offset + 1] / divisor);
+		this.blue[bin] = (float) (this.totals[base + offset + 2] / divisor);
+		this.alpha[bin] = (float) (sumAlpha / this.counts[bin]);
+	}
+
+	/**
+	 * Returns the number of bins.
+	 *
+	 * @return N<sup>o</sup> of bins.
+	 */
+	public int getSteps() {
+		return this.counts.length;
+	}
+
+	/**
+	 * Returns the number of elements in a bin.
+	 *
+	 * @param bin
+	 *            the bin.
+	 * @return N<sup>o</sup> of elements.
+	 */
+	public int getCount(int bin) {
+		return this.counts[bin];
+	}
+
+	/**
+	 * Returns the combined red component of a bin.
+	 *
+	 * @param bin
+	 *            the bin.
+	 * @return the component in [0, 1].
+	 */
+	public float getRed(int bin) {
+		return this.red[bin];
+	}
+
+	/**
+	 * Returns the combined green component of a bin.
+	 *
+	 * @param bin
+	 *            the bin.
+	 * @return the component in [0, 1].
+	 */
+	public float getGreen(int bin) {
+		return this.green[bin];
+	}
+
+	/**
+	 * Returns the combined blue component of a bin.
+	 *
+	 * @param bin
+	 *            the bin.
+	 * @return the component in [0, 1].
+	 */
+	public float getBlue(int bin) {
+		return this.blue[bin];
+	}
+
+	/**
+	 * Returns the combined alpha component of a bin.
+	 *
+	 * @param bin
+	 *            the bin.
+	 * @return the component in [0, 1].
+	 */
+	public float getAlpha(int bin) {
+		return this.alpha[bin];
+	}
+
+	/**
+	 * Returns the bin of a value.
+	 *
+	 * @param value
+	 *            the value.
+	 * @param min
+	 *            the lower bound of the first bin.
+	 * @param range
+	 *            the width of all bins together.
+	 * @param steps
+	 *            N<sup>o</sup> of bins.
+	 * @return the bin, values beyond the range belong to the border bins.
+	 */
+	public static int binOf(float value, float min, float range, int steps) {
+		int index = (int) Math.floor((value - min) / range * steps);
+
+		if (index >= steps) {
+			index = steps - 1;
+		}
+
+		if (index < 0) {
+			index = 0;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Sums up the colors of a range of ranks per bin.
+	 */
+	private static class SumTask implements Callable<Object> {
+
+		/**
+		 * The sorted values.
+		 */
+		private final SortedColumn column;
+
+		/**
+		 * The packed colors of the elements.
+		 */
+		private final int[] colors;
+
+		/**
+		 * The ids of the selected elements, or null.
+		 */
+		private final BitSet selected;
+
+		/**
+		 * Factor for the alpha value of elements, which are not selected.
+		 */
+		private final float nonSelectedAlpha;
+
+		/**
+		 * The first rank of every bin, followed by the number of values.
+		 */
+		private final int[] binStart;
+
+		/**
+		 * Receives the sums of this range.
+		 */
+		private final double[] sums;
+
+		/**
+		 * The first rank of the range.
+		 */
+		private final int start;
+
+		/**
+		 * The rank after the last one of the range.
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code SumTask}.
+		 *
+		 * @param column
+		 *            the sorted values.
+		 * @param colors
+		 *            the packed colors of the elements.
+		 * @param selected
+		 *            the ids of the selected elements, or null.
+		 * @param nonSelectedAlpha
+		 *            factor for the alpha value of elements, which are not selected.
+		 * @param binStart
+		 *            the first rank of every bin, followed by the number of values.
+		 * @param sums
+		 *            receives the sums of this range.
+		 * @param start
+		 *            the first rank of the range.
+		 * @param end
+		 *            the rank after the last one of the range.
+		 */
+		public SumTask(SortedColumn column, int[] colors, BitSet selected, float nonSelectedAlpha, int[] binStart,
+				double[] sums, int start, int end) {
+			this.column = column;
+			this.colors = colors;
+			this.selected = selected;
+			this.nonSelectedAlpha = nonSelectedAlpha;
+			this.binStart = binStart;
+			this.sums = sums;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Object call() {
+			int bin = 0;
+
+			for (int rank = this.start; rank < this.end; ++rank) {
+				while (rank >= this.binStart[bin + 1]) {
+					++bin;
+				}
+
+				int color = this.colors[this.column.getRow(rank)];
+				float r = ColorEngine.getRed(color);
+				float g = ColorEngine.getGreen(color);
+				float b = ColorEngine.getBlue(color);
+				float a = ColorEngine.getAlpha(color);
+
+				if (this.selected != null && !this.selected.get(this.column.getId(rank))) {
+					a *= this.nonSelectedAlpha;
+				}
+
+				int offset = bin * SUMS;
+				this.sums[offset] += r * a;
+				this.sums[offset + 1] += g * a;
+				this.sums[offset + 2] += b * a;
+				this.sums[offset + 3] += r;
+				this.sums[offset + 4] += g;
+				this.sums[offset + 5] += b;
+				this.sums[offset + 6] += a;
+			}
+
+			return null;
+		}
+	}
+}
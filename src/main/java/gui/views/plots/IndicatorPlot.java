@@ -6,7 +6,6 @@ import gui.main.EventController;
 import gui.settings.Settings;
 import gui.views.ViewUtils;
 
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
@@ -15,13 +14,16 @@ import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 
 import javax.imageio.ImageIO;
 import javax.media.opengl.GL2;
+import javax.media.opengl.GLContext;
 import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -35,6 +37,7 @@ import javax.swing.event.ChangeListener;
 
 import com.jogamp.common.nio.Buffers;
 
+import controller.ColorEngine;
 import controller.DataHub;
 import controller.ElementData;
 import controller.Feature;
@@ -103,6 +106,48 @@ public class IndicatorPlot extends GLPlot {
 	 */
 	private static final float SELECTION_WIDTH = 20.f;
 
+	/**
+	 * Index of the values in the vertex buffer objects.
+	 */
+	private static final int VBO_VALUES = 0;
+
+	/**
+	 * Index of the colors in the vertex buffer objects.
+	 */
+	private static final int VBO_COLORS = 1;
+
+	/**
+	 * Index of the stored column of each axis in the vertex buffer objects.
+	 */
+	private static final int VBO_AXES = 2;
+
+	/**
+	 * Index of the vertices of all line strips in the vertex buffer objects, instead of {@link #VBO_VALUES}, if the
+	 * lines are not built by the graphics card.
+	 */
+	private static final int VBO_VERTICES = 0;
+
+	/**
+	 * Index of the colors of the vertices in the vertex buffer objects, instead of {@link #VBO_COLORS}, if the lines
+	 * are not built by the graphics card.
+	 */
+	private static final int VBO_VERTEX_COLORS = 1;
+
+	/**
+	 * Index of the texture of the values in the vertex buffer objects. The textures are deleted separately.
+	 */
+	private static final int TEXTURE_VALUES = 3;
+
+	/**
+	 * Index of the texture of the colors in the vertex buffer objects.
+	 */
+	private static final int TEXTURE_COLORS = 4;
+
+	/**
+	 * Index of the texture of the axes in the vertex buffer objects.
+	 */
+	private static final int TEXTURE_AXES = 5;
+
 	/**
 	 * Action that updates view after resorting features.
 	 */
@@ -119,15 +164,13 @@ public class IndicatorPlot extends GLPlot {
 	private AbstractAction clearSelectionAction;
 
 	/**
-	 * Vertex buffer that stores the location of the points.
-	 *
-	 * Is used for fast redrawing and represents a buffer on graphics card memory. It is not used global but is a member
-	 * variable to avoid garbage collection and buffer freeing.
+	 * Buffer that stores the normalized values of every element once, {@link #columnCount} values per element in the
+	 * order of {@link #storedFeatures}.
 	 */
-	private FloatBuffer vbuffer;
+	private FloatBuffer values;
 
 	/**
-	 * Color buffer that stores the color and transparency of points. See {@link #vbuffer} for more details.
+	 * Color buffer that stores the color and transparency of every element.
 	 */
 	private FloatBuffer cbuffer;
 
@@ -136,6 +179,177 @@ public class IndicatorPlot extends GLPlot {
 	 */
 	private IntBuffer ibuffer;
 
+	/**
+	 * The packed colors of the elements without selection, the base of {@link #cbuffer}.
+	 */
+	private int[] colors = new int[0];
+
+	/**
+	 * Position of the elements in {@link #ibuffer} plus 1, indexed by their id, 0 for elements not shown.
+	 */
+	private int[] indexOfId = new int[0];
+
+	/**
+	 * Flag, indicating if {@link #cbuffer} shows a selection, otherwise no element is faded.
+	 */
+	private boolean selectionShown;
+
+	/**
+	 * First element, whose color has changed since {@link #cbuffer} was uploaded.
+	 */
+	private int colorsDirtyFrom;
+
+	/**
+	 * Element after the last one, whose color has changed since {@link #cbuffer} was uploaded.
+	 */
+	private int colorsDirtyTo;
+
+	/**
+	 * The features, whose values are stored in {@link #values}.
+	 */
+	private Feature[] storedFeatures = new Feature[0];
+
+	/**
+	 * Stores the number of values per element.
+	 */
+	private int columnCount;
+
+	/**
+	 * Stores the minimum value of every stored feature.
+	 */
+	private float[] storedMin = new float[0];
+
+	/**
+	 * Stores the range of every stored feature.
+	 */
+	private float[] storedRange = new float[0];
+
+	/**
+	 * Stores the column in {@link #values} of every shown axis.
+	 */
+	private int[] axisColumns = new int[0];
+
+	/**
+	 * Flag, indicating that the order of the axes has changed since the last upload.
+	 */
+	private volatile boolean axesChanged;
+
+	/**
+	 * Flag, indicating that lines are built by the graphics card from the stored values.
+	 */
+	private boolean instancing;
+
+	/**
+	 * Stores the maximal number of texels of a texture buffer.
+	 */
+	private int maxTextureBufferSize;
+
+	/**
+	 * Flag, indicating that the uploaded lines are built by the graphics card, otherwise they are drawn from
+	 * {@link #VBO_VERTICES}.
+	 */
+	private boolean instanced;
+
+	/**
+	 * The first vertex of the line strip of every element in {@link #VBO_VERTICES}.
+	 */
+	private IntBuffer firstVertices;
+
+	/**
+	 * The number of vertices of the line strip of every element in {@link #VBO_VERTICES}.
+	 */
+	private IntBuffer vertexCounts;
+
+	/**
+	 * Stores OpenGL id of the shader program, which builds the lines.
+	 */
+	private int instanceProgram;
+
+	/**
+	 * Stores pointer for the alpha parameter of {@link #instanceProgram}.
+	 */
+	private int instanceUniformAlpha;
+
+	/**
+	 * Stores pointer for the number of values per element.
+	 */
+	private int instanceUniformColumnCount;
+
+	/**
+	 * Stores pointer for the distance of neighboring axes.
+	 */
+	private int instanceUniformDeltaX;
+
+	/**
+	 * Stores pointer for the texture of the values.
+	 */
+	private int instanceUniformValues;
+
+	/**
+	 * Stores pointer for the texture of the colors.
+	 */
+	private int instanceUniformColors;
+
+	/**
+	 * Stores pointer for the texture of the axes.
+	 */
+	private int instanceUniformAxes;
+
+	/**
+	 * The features of the lines loaded so far, shown while the data is processed.
+	 */
+	private Feature[] chunkFeatures;
+
+	/**
+	 * Normalized values of the lines loaded so far, one per element and feature.
+	 */
+	private FloatBuffer chunkValues;
+
+	/**
+	 * Colors of the lines loaded so far, one per element.
+	 */
+	private FloatBuffer chunkColors;
+
+	/**
+	 * The first vertex of the line strip of every element loaded so far, if the chunks are drawn from vertices.
+	 */
+	private IntBuffer chunkFirstVertices;
+
+	/**
+	 * The number of vertices of the line strip of every element loaded so far.
+	 */
+	private IntBuffer chunkVertexCounts;
+
+	/**
+	 * N<sup>o</sup> of lines loaded so far.
+	 */
+	private int chunkCount;
+
+	/**
+	 * Flag, indicating that the chunk buffers on the graphics card belong to an earlier loading.
+	 */
+	private boolean chunksCleared;
+
+	/**
+	 * Buffers and textures of the chunks on the graphics card, sized for all elements of the loading.
+	 */
+	private int[] chunkVbo;
+
+	/**
+	 * The render context of {@link #chunkVbo}.
+	 */
+	private GLContext chunkContext;
+
+	/**
+	 * Flag, indicating that {@link #chunkVbo} holds texture buffers, whose lines are built by the graphics card.
+	 */
+	private boolean chunksInstanced;
+
+	/**
+	 * N<sup>o</sup> of lines transferred to {@link #chunkVbo}.
+	 */
+	private int chunksUploaded;
+
 	/**
 	 * Stores the number of elements to draw.
 	 */
@@ -212,7 +426,24 @@ public class IndicatorPlot extends GLPlot {
 	 *            a preinitialized SubspaceController.
 	 */
 	public IndicatorPlot(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController) {
-		super(dataHub, selectionController, subspaceController);
+		this(dataHub, selectionController, subspaceController, false);
+	}
+
+	/**
+	 * Constructs a indicator plot using a DataHub, a SelectionController and a SubspaceController.
+	 *
+	 * @param dataHub
+	 *            a preinitialized DataHub.
+	 * @param selectionController
+	 *            a preinitialized SelectionController.
+	 * @param subspaceController
+	 *            a preinitialized SubspaceController.
+	 * @param offscreen
+	 *            true, if the plot is not shown and only drawn using java Graphics2D.
+	 */
+	IndicatorPlot(DataHub dataHub, SelectionController selectionController, SubspaceController subspaceController,
+			boolean offscreen) {
+		super(dataHub, selectionController, subspaceController, offscreen);
 	}
 
 	@Override
@@ -324,6 +555,20 @@ public class IndicatorPlot extends GLPlot {
 		this.sortButton.doClick();
 	}
 
+	@Override
+	protected void showFeatures(Feature[] shown) {
+		if (shown == null || shown.length < 2) {
+			throw new IllegalArgumentException("indicator plot shows at least two features");
+		}
+
+		this.features = shown.clone();
+
+		// the values of reordered or hidden features are already stored
+		if (!this.applyOrder(this.features)) {
+			this.update(null, null);
+		}
+	}
+
 	@Override
 	protected void init(GL2 gl) {
 		gl.glEnable(GL2.GL_LINE_SMOOTH);
@@ -336,6 +581,33 @@ public class IndicatorPlot extends GLPlot {
 		gl.glValidateProgram(shaderProgram);
 
 		this.shaderUniformAlpha = gl.glGetUniformLocation(this.shaderProgram, "alpha");
+
+		// lines are built from the stored values with texture buffers and instancing, if available
+		this.instancing = false;
+
+		if (gl.isFunctionAvailable("glDrawArraysInstanced") && gl.isFunctionAvailable("glTexBuffer")) {
+			int v = this.setupShader(gl, GL2.GL_VERTEX_SHADER, "/indicatorplot_vertex.glsl");
+
+			this.instanceProgram = gl.glCreateProgram();
+			gl.glAttachShader(this.instanceProgram, v);
+			gl.glLinkProgram(this.instanceProgram);
+
+			int[] status = new int[1];
+			gl.glGetProgramiv(this.instanceProgram, GL2.GL_LINK_STATUS, status, 0);
+			this.instancing = v != 0 && status[0] == GL2.GL_TRUE;
+
+			this.instanceUniformAlpha = gl.glGetUniformLocation(this.instanceProgram, "alpha");
+			this.instanceUniformColumnCount = gl.glGetUniformLocation(this.instanceProgram, "columnCount");
+			this.instanceUniformDeltaX = gl.glGetUniformLocation(this.instanceProgram, "deltaX");
+			this.instanceUniformValues = gl.glGetUniformLocation(this.instanceProgram, "values");
+			this.instanceUniformColors = gl.glGetUniformLocation(this.instanceProgram, "colors");
+			this.instanceUniformAxes = gl.glGetUniformLocation(this.instanceProgram, "axes");
+
+			// large data does not fit into texture buffers, it is drawn from vertices instead
+			int[] size = new int[1];
+			gl.glGetIntegerv(GL2.GL_MAX_TEXTURE_BUFFER_SIZE, size, 0);
+			this.maxTextureBufferSize = size[0];
+		}
 	}
 
 	@Override
@@ -353,9 +625,6 @@ public class IndicatorPlot extends GLPlot {
 
 		// draw lines
 		if ((this.elementCount > 0) && (this.featureCount > 1)) {
-			gl.glUseProgram(this.shaderProgram);
-			gl.glUniform1f(this.shaderUniformAlpha, lineAlpha);
-
 			float scaleFactorX = this.getShapeWidth() - 2 * BORDER_SIZE;
 			float scaleFactorY = this.getShapeHeight() - 2 * BORDER_SIZE;
 
@@ -363,15 +632,17 @@ public class IndicatorPlot extends GLPlot {
 			gl.glTranslatef(BORDER_SIZE, BORDER_SIZE, 0.f);
 			gl.glScalef(scaleFactorX, scaleFactorY, 1.f);
 			gl.glLineWidth(LINES_WIDTH);
-			gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
-			gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
-			gl.glDrawArrays(GL2.GL_LINES, 0, this.elementCount * (this.featureCount - 1) * 2);
-			gl.glDisableClientState(GL2.GL_VERTEX_ARRAY);
-			gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
+
+			if (this.vbo == null) {
+				// nothing uploaded yet
+			} else if (this.instanced) {
+				this.drawInstanced(gl);
+			} else {
+				this.drawVertices(gl);
+			}
+
 			gl.glLineWidth(1.f);
 			gl.glPopMatrix();
-
-			gl.glUseProgram(0);
 		}
 
 		// draw selection
@@ -407,9 +678,332 @@ public class IndicatorPlot extends GLPlot {
 		}
 	}
 
+	/**
+	 * Draws one line strip per element, whose vertices are looked up by the shader.
+	 *
+	 * @param gl
+	 *            the render context.
+	 */
+	private synchronized void drawInstanced(GL2 gl) {
+		if (this.axesChanged) {
+			this.axesChanged = false;
+			this.uploadAxes(gl, this.vbo, this.axisColumns);
+		}
+
+		this.drawLines(gl, this.vbo, this.columnCount, this.featureCount, this.elementCount);
+	}
+
+	/**
+	 * Draws one line strip per element from texture buffers, whose vertices are looked up by the shader.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers and textures of the values, the colors and the axes.
+	 * @param columnCount
+	 *            N<sup>o</sup> of values per element.
+	 * @param featureCount
+	 *            N<sup>o</sup> of shown axes, at least 2.
+	 * @param elementCount
+	 *            N<sup>o</sup> of elements.
+	 */
+	private void drawLines(GL2 gl, int[] buffers, int columnCount, int featureCount, int elementCount) {
+		gl.glUseProgram(this.instanceProgram);
+		gl.glUniform1f(this.instanceUniformAlpha, this.lineAlpha);
+		gl.glUniform1i(this.instanceUniformColumnCount, columnCount);
+		gl.glUniform1f(this.instanceUniformDeltaX, 1.f / (featureCount - 1));
+
+		gl.glActiveTexture(GL2.GL_TEXTURE0);
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, buffers[TEXTURE_VALUES]);
+		gl.glUniform1i(this.instanceUniformValues, 0);
+		gl.glActiveTexture(GL2.GL_TEXTURE1);
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, buffers[TEXTURE_COLORS]);
+		gl.glUniform1i(this.instanceUniformColors, 1);
+		gl.glActiveTexture(GL2.GL_TEXTURE2);
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, buffers[TEXTURE_AXES]);
+		gl.glUniform1i(this.instanceUniformAxes, 2);
+
+		gl.glDrawArraysInstanced(GL2.GL_LINE_STRIP, 0, featureCount, elementCount);
+
+		for (int i = 2; i >= 0; i--) {
+			gl.glActiveTexture(GL2.GL_TEXTURE0 + i);
+			gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, 0);
+		}
+
+		gl.glUseProgram(0);
+	}
+
+	/**
+	 * Draws one line strip per element from the uploaded vertices, if the graphics card can not build them.
+	 *
+	 * @param gl
+	 *            the render context.
+	 */
+	private synchronized void drawVertices(GL2 gl) {
+		if (this.axesChanged) {
+			this.uploadVertices(gl);
+		}
+
+		this.drawLineStrips(gl, this.vbo, this.firstVertices, this.vertexCounts, this.elementCount);
+	}
+
+	/**
+	 * Draws one line strip per element from vertex buffers.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers of the vertices and their colors.
+	 * @param firstVertices
+	 *            the first vertex of every line strip.
+	 * @param vertexCounts
+	 *            the number of vertices of every line strip.
+	 * @param elementCount
+	 *            N<sup>o</sup> of line strips.
+	 */
+	private void drawLineStrips(GL2 gl, int[] buffers, IntBuffer firstVertices, IntBuffer vertexCounts,
+			int elementCount) {
+		gl.glUseProgram(this.shaderProgram);
+		gl.glUniform1f(this.shaderUniformAlpha, this.lineAlpha);
+
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffers[VBO_VERTICES]);
+		gl.glVertexPointer(2, GL2.GL_FLOAT, 0, 0);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffers[VBO_VERTEX_COLORS]);
+		gl.glColorPointer(4, GL2.GL_UNSIGNED_BYTE, 0, 0);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+
+		gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
+		gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
+		gl.glMultiDrawArrays(GL2.GL_LINE_STRIP, firstVertices, vertexCounts, elementCount);
+		gl.glDisableClientState(GL2.GL_VERTEX_ARRAY);
+		gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
+
+		gl.glUseProgram(0);
+	}
+
+	@Override
+	protected void clearChunks(int count) {
+		Feature[] features = this.features;
+		this.chunkCount = 0;
+		this.chunksCleared = true;
+
+		if (count > 0 && features != null && features.length > 1) {
+			// the vertices are built on the graphics card, so one value per feature and one color suffice
+			this.chunkFeatures = features;
+			this.chunkValues = Buffers.newDirectFloatBuffer(count * features.length);
+			this.chunkColors = Buffers.newDirectFloatBuffer(count * 4);
+			this.chunkFirstVertices = Buffers.newDirectIntBuffer(count);
+			this.chunkVertexCounts = Buffers.newDirectIntBuffer(count);
+		} else {
+			this.chunkFeatures = null;
+			this.chunkValues = null;
+			this.chunkColors = null;
+			this.chunkFirstVertices = null;
+			this.chunkVertexCounts = null;
+		}
+	}
+
+	@Override
+	protected boolean appendChunk(ElementData[] elements, int start, int end) {
+		if (this.chunkFeatures == null) {
+			return false;
+		}
+
+		final Feature[] features = this.chunkFeatures;
+		float[] min = new float[features.length];
+		float[] range = new float[features.length];
+
+		for (int j = 0; j < features.length; j++) {
+			min[j] = features[j].getMinValue();
+			range[j] = features[j].getMaxValue() - min[j];
+
+			if (range[j] == 0) {
+				range[j] = 1;
+			}
+		}
+
+		int[] colors = new int[end - start];
+		ColorEngine.calcColors(elements, start, end, colors);
+		putLineStrips(this.chunkFirstVertices, this.chunkVertexCounts, features.length, this.chunkCount,
+				this.chunkCount + end - start);
+
+		for (int i = start; i < end; i++) {
+			int value = this.chunkCount * features.length;
+
+			for (int j = 0; j < features.length; j++) {
+				this.chunkValues.put(value + j, (elements[i].getValue(features[j]) - min[j]) / range[j]);
+			}
+
+			this.chunkColors.position(this.chunkCount * 4);
+			ColorEngine.putColor(this.chunkColors, colors[i - start], 1.f);
+			this.chunkCount++;
+		}
+
+		this.chunkColors.rewind();
+
+		return true;
+	}
+
+	@Override
+	protected void drawChunks(GL2 gl) {
+		if (this.chunksCleared) {
+			this.chunksCleared = false;
+			this.deleteChunkBuffers(gl);
+		}
+
+		if (this.chunkCount == 0) {
+			return;
+		}
+
+		final int featureCount = this.chunkFeatures.length;
+
+		if (this.chunkVbo == null) {
+			this.createChunkBuffers(gl);
+		}
+
+		// only the lines loaded since the last frame are transferred
+		if (this.chunksUploaded < this.chunkCount) {
+			this.uploadChunks(gl, this.chunksUploaded, this.chunkCount);
+			this.chunksUploaded = this.chunkCount;
+		}
+
+		// same layout as the processed lines
+		gl.glPushMatrix();
+		gl.glTranslatef(BORDER_SIZE, BORDER_SIZE, 0.f);
+		gl.glScalef(this.getShapeWidth() - 2 * BORDER_SIZE, this.getShapeHeight() - 2 * BORDER_SIZE, 1.f);
+		gl.glLineWidth(LINES_WIDTH);
+
+		if (this.chunksInstanced) {
+			this.drawLines(gl, this.chunkVbo, featureCount, featureCount, this.chunkCount);
+		} else {
+			this.drawLineStrips(gl, this.chunkVbo, this.chunkFirstVertices, this.chunkVertexCounts, this.chunkCount);
+		}
+
+		gl.glLineWidth(1.f);
+		gl.glPopMatrix();
+	}
+
+	/**
+	 * Allocates graphics card memory for all elements of the loading, so the chunks are transferred only once.
+	 *
+	 * @param gl
+	 *            the render context.
+	 */
+	private void createChunkBuffers(GL2 gl) {
+		final int featureCount = this.chunkFeatures.length;
+		final int capacity = this.chunkColors.capacity() / 4;
+
+		this.chunkVbo = new int[TEXTURE_AXES + 1];
+		this.chunkContext = gl.getContext();
+		this.chunksUploaded = 0;
+		this.chunksInstanced = this.instancing && ((long) capacity * featureCount <= this.maxTextureBufferSize);
+
+		if (!this.chunksInstanced) {
+			gl.glGenBuffers(VBO_VERTEX_COLORS + 1, this.chunkVbo, 0);
+			this.allocateVertices(gl, this.chunkVbo, capacity, featureCount);
+
+			return;
+		}
+
+		gl.glGenBuffers(TEXTURE_VALUES, this.chunkVbo, 0);
+		gl.glGenTextures(TEXTURE_AXES + 1 - TEXTURE_VALUES, this.chunkVbo, TEXTURE_VALUES);
+
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.chunkVbo[VBO_VALUES]);
+		gl.glBufferData(GL2.GL_TEXTURE_BUFFER, (long) capacity * featureCount * Buffers.SIZEOF_FLOAT, null,
+				GL2.GL_DYNAMIC_DRAW);
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.chunkVbo[VBO_COLORS]);
+		gl.glBufferData(GL2.GL_TEXTURE_BUFFER, (long) capacity * 4 * Buffers.SIZEOF_FLOAT, null, GL2.GL_DYNAMIC_DRAW);
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, 0);
+
+		this.uploadAxes(gl, this.chunkVbo, getChunkColumns(featureCount));
+		this.attachTextures(gl, this.chunkVbo);
+	}
+
+	/**
+	 * Transfers a range of loaded lines to graphics card memory.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param from
+	 *            the first line.
+	 * @param to
+	 *            the line after the last one.
+	 */
+	private void uploadChunks(GL2 gl, int from, int to) {
+		final int featureCount = this.chunkFeatures.length;
+
+		if (!this.chunksInstanced) {
+			this.putVertices(gl, this.chunkVbo, this.chunkValues, featureCount, getChunkColumns(featureCount), from,
+					to);
+			this.putVertexColors(gl, this.chunkVbo, this.chunkColors, featureCount, from, to);
+
+			return;
+		}
+
+		FloatBuffer values = this.chunkValues.duplicate();
+		values.position(from * featureCount);
+		FloatBuffer colors = this.chunkColors.duplicate();
+		colors.position(from * 4);
+
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.chunkVbo[VBO_VALUES]);
+		gl.glBufferSubData(GL2.GL_TEXTURE_BUFFER, (long) from * featureCount * Buffers.SIZEOF_FLOAT,
+				(long) (to - from) * featureCount * Buffers.SIZEOF_FLOAT, values);
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.chunkVbo[VBO_COLORS]);
+		gl.glBufferSubData(GL2.GL_TEXTURE_BUFFER, (long) from * 4 * Buffers.SIZEOF_FLOAT,
+				(long) (to - from) * 4 * Buffers.SIZEOF_FLOAT, colors);
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, 0);
+	}
+
+	/**
+	 * Returns the columns of the axes of the chunks, which store every feature in the order of the axes.
+	 *
+	 * @param featureCount
+	 *            N<sup>o</sup> of features.
+	 * @return the column of every axis.
+	 */
+	private static int[] getChunkColumns(int featureCount) {
+		int[] columns = new int[featureCount];
+
+		for (int j = 0; j < featureCount; j++) {
+			columns[j] = j;
+		}
+
+		return columns;
+	}
+
+	/**
+	 * Frees the graphics card memory of the chunks, if it belongs to the given render context.
+	 *
+	 * @param gl
+	 *            the render context.
+	 */
+	private void deleteChunkBuffers(GL2 gl) {
+		// screenshots are rendered with a context of their own, which does not know the buffers
+		if ((this.chunkVbo != null) && (gl.getContext() == this.chunkContext)) {
+			gl.glDeleteTextures(TEXTURE_AXES + 1 - TEXTURE_VALUES, this.chunkVbo, TEXTURE_VALUES);
+			gl.glDeleteBuffers(TEXTURE_VALUES, this.chunkVbo, 0);
+			this.chunkVbo = null;
+			this.chunkContext = null;
+		}
+	}
+
+	/**
+	 * Returns the normalized value of an element on an axis.
+	 *
+	 * @param element
+	 *            the index of the element.
+	 * @param axis
+	 *            the index of the shown axis.
+	 * @return the value.
+	 */
+	private float getValue(int element, int axis) {
+		return this.values.get(element * this.columnCount + this.axisColumns[axis]);
+	}
+
 	@Override
 	protected void dispose(GL2 gl) {
 		this.cleanupVBO(gl);
+		this.deleteChunkBuffers(gl);
 	}
 
 	@Override
@@ -418,124 +1012,537 @@ public class IndicatorPlot extends GLPlot {
 	}
 
 	@Override
-	protected synchronized void processData() throws DatabaseAccessException, InterruptedException {
+	protected void processData() throws DatabaseAccessException, InterruptedException {
+		// the data is loaded without the lock of the plot, so the chunks can be drawn meanwhile
+		ElementData[] data = this.dataHub.getData();
+
+		this.processData(data, this.dataHub.getColors(data));
+	}
+
+	/**
+	 * Stores the normalized values and the colors of the elements.
+	 *
+	 * @param data
+	 *            the elements.
+	 * @param colors
+	 *            the colors of the elements.
+	 */
+	private synchronized void processData(ElementData[] data, int[] colors) {
 		final Feature[] features = this.features;
-		final boolean selection = this.selectionController.isSomethingSelected();
-		this.featureCount = features.length;
-		this.featureNames = new String[this.featureCount];
-		this.min = new float[this.featureCount];
-		this.range = new float[this.featureCount];
+		this.storedFeatures = features;
+		this.columnCount = features.length;
+		this.storedMin = new float[this.columnCount];
+		this.storedRange = new float[this.columnCount];
 
-		for (int i = 0; i < this.featureCount; i++) {
-			this.featureNames[i] = features[i].getName();
-			this.min[i] = features[i].getMinValue();
-			this.range[i] = features[i].getMaxValue() - this.min[i];
+		for (int j = 0; j < this.columnCount; j++) {
+			this.storedMin[j] = features[j].getMinValue();
+			this.storedRange[j] = features[j].getMaxValue() - this.storedMin[j];
 
-			if (this.range[i] == 0) {
-				this.range[i] = 1;
+			if (this.storedRange[j] == 0) {
+				this.storedRange[j] = 1;
 			}
 		}
 
-		ElementData[] data = this.dataHub.getData();
 		this.elementCount = data.length;
 
-		if ((this.elementCount > 0) && (this.featureCount > 1)) {
-			this.vbuffer = Buffers.newDirectFloatBuffer(this.elementCount * (this.featureCount - 1) * 2 * 2);
-			this.cbuffer = Buffers.newDirectFloatBuffer(this.elementCount * (this.featureCount - 1) * 2 * 4);
+		if ((this.elementCount > 0) && (this.columnCount > 0)) {
+			this.values = Buffers.newDirectFloatBuffer(this.elementCount * this.columnCount);
+			this.cbuffer = Buffers.newDirectFloatBuffer(this.elementCount * 4);
 			this.ibuffer = Buffers.newDirectIntBuffer(this.elementCount);
-			final float nonSelectedAlphaFactor = (float) (NON_SELECTED_ALPHA * Math.min(1.f, (Math
-					.log(NON_SELECTED_ALPHA_BASE) / Math.log(this.elementCount))));
-			final float deltaX = 1.f / (this.featureCount - 1);
+			int maxId = 0;
+
+			for (int i = 0; i < this.elementCount; i++) {
+				for (int j = 0; j < this.columnCount; j++) {
+					this.values.put((data[i].getValue(features[j]) - this.storedMin[j]) / this.storedRange[j]);
+				}
+
+				this.ibuffer.put(data[i].getId());
+				maxId = Math.max(maxId, data[i].getId());
+			}
+
+			this.values.rewind();
+			this.ibuffer.rewind();
+
+			this.indexOfId = new int[maxId + 1];
 
 			for (int i = 0; i < this.elementCount; i++) {
-				float alphaFactor = 1.f;
+				this.indexOfId[data[i].getId()] = i + 1;
+			}
+
+			this.fillColors(data, colors);
+		}
+
+		this.applyOrder(features);
+	}
+
+	@Override
+	protected void processColors() throws DatabaseAccessException, InterruptedException {
+		ElementData[] data = this.dataHub.getData();
+		int[] colors = this.dataHub.getColors(data);
 
-				if (selection) {
-					alphaFactor = this.selectionController.isSelected(data[i].getId()) ? 1.f : nonSelectedAlphaFactor;
+		synchronized (this) {
+			// the shown elements have changed, so the values are outdated, too
+			if (data.length != this.elementCount || this.ibuffer == null || !this.hasSameIds(data)) {
+				this.processData(data, colors);
+				return;
+			}
+
+			BitSet changed = this.takeSelectionChanges();
+
+			if ((this.elementCount > 0) && (this.columnCount > 0)) {
+				if (changed == null) {
+					this.fillColors(data, colors);
+				} else {
+					this.fillSelection(changed);
 				}
+			}
+		}
+	}
 
-				Color color = ViewUtils.calcColor(data[i]);
+	/**
+	 * Checks if the given elements are the ones stored in {@link #ibuffer}.
+	 *
+	 * @param data
+	 *            the elements, which have the same length as the buffer.
+	 * @return true, if the ids are the same and in the same order.
+	 */
+	private boolean hasSameIds(ElementData[] data) {
+		for (int i = 0; i < data.length; i++) {
+			if (this.ibuffer.get(i) != data[i].getId()) {
+				return false;
+			}
+		}
 
-				final float red = color.getRed() / 255.f;
-				final float green = color.getGreen() / 255.f;
-				final float blue = color.getBlue() / 255.f;
-				final float alpha = color.getAlpha() / 255.f * alphaFactor;
+		return true;
+	}
 
-				for (int j = 0; j < this.featureCount - 1; j++) {
-					for (int k = 0; k < 2; k++) {
-						this.vbuffer.put((j + k) * deltaX);
-						this.vbuffer.put((data[i].getValue(features[j + k]) - this.min[j + k]) / this.range[j + k]);
+	/**
+	 * Writes the color of every element into {@link #cbuffer}, taking the current selection into account.
+	 *
+	 * @param data
+	 *            the elements in the same order as the ids.
+	 * @param colors
+	 *            the colors of the elements.
+	 */
+	private void fillColors(ElementData[] data, int[] colors) {
+		final boolean selection = this.selectionController.isSomethingSelected();
+		final float nonSelectedAlphaFactor = this.getNonSelectedAlphaFactor();
 
-						// color
-						this.cbuffer.put(red);
-						this.cbuffer.put(green);
-						this.cbuffer.put(blue);
-						this.cbuffer.put(alpha);
-					}
+		this.colors = colors;
+
+		this.cbuffer.rewind();
+
+		for (int i = 0; i < this.elementCount; i++) {
+			float alphaFactor = 1.f;
+
+			if (selection) {
+				alphaFactor = this.selectionController.isSelected(data[i].getId()) ? 1.f : nonSelectedAlphaFactor;
+			}
+
+			ColorEngine.putColor(this.cbuffer, colors[i], alphaFactor);
+		}
+
+		this.cbuffer.rewind();
+
+		this.selectionShown = selection;
+		this.colorsDirtyFrom = 0;
+		this.colorsDirtyTo = this.elementCount;
+	}
+
+	/**
+	 * Updates the alpha of the elements in {@link #cbuffer}, whose selection changed. The colors of the groups are
+	 * reused.
+	 *
+	 * @param changed
+	 *            the ids of the elements, whose selection changed.
+	 */
+	private void fillSelection(BitSet changed) {
+		final boolean selection = this.selectionController.isSomethingSelected();
+		final float nonSelectedAlphaFactor = this.getNonSelectedAlphaFactor();
+
+		if (selection != this.selectionShown) {
+			// the first selected or last unselected element changes the alpha of all elements
+			for (int i = 0; i < this.elementCount; i++) {
+				this.putAlpha(i, selection, nonSelectedAlphaFactor);
+			}
+
+			this.selectionShown = selection;
+			this.colorsDirtyFrom = 0;
+			this.colorsDirtyTo = this.elementCount;
+
+			return;
+		}
+
+		for (int id = changed.nextSetBit(0); id >= 0 && id < this.indexOfId.length; id = changed.nextSetBit(id + 1)) {
+			int i = this.indexOfId[id] - 1;
+
+			if (i >= 0) {
+				this.putAlpha(i, selection, nonSelectedAlphaFactor);
+
+				if (this.colorsDirtyFrom >= this.colorsDirtyTo) {
+					this.colorsDirtyFrom = i;
+					this.colorsDirtyTo = i + 1;
+				} else {
+					this.colorsDirtyFrom = Math.min(this.colorsDirtyFrom, i);
+					this.colorsDirtyTo = Math.max(this.colorsDirtyTo, i + 1);
 				}
+			}
+		}
+	}
 
-				this.ibuffer.put(data[i].getId());
+	/**
+	 * Writes the alpha of an element into {@link #cbuffer}, taking the current selection into account.
+	 *
+	 * @param index
+	 *            the position of the element.
+	 * @param selection
+	 *            true, if something is selected.
+	 * @param nonSelectedAlphaFactor
+	 *            factor for the alpha of elements, which are not selected.
+	 */
+	private void putAlpha(int index, boolean selection, float nonSelectedAlphaFactor) {
+		float alphaFactor = 1.f;
+
+		if (selection && !this.selectionController.isSelected(this.ibuffer.get(index))) {
+			alphaFactor = nonSelectedAlphaFactor;
+		}
+
+		this.cbuffer.put(index * 4 + 3, ColorEngine.getAlpha(this.colors[index]) * alphaFactor);
+	}
+
+	/**
+	 * Returns the factor for the alpha of elements, which are not selected. The more elements are shown, the more they
+	 * are faded.
+	 *
+	 * @return the factor.
+	 */
+	private float getNonSelectedAlphaFactor() {
+		return (float) (NON_SELECTED_ALPHA * Math.min(1.f, (Math.log(NON_SELECTED_ALPHA_BASE) / Math
+				.log(this.elementCount))));
+	}
+
+	/**
+	 * Shows the given features as axes, if their values are already stored. Reordering or hiding axes only changes the
+	 * lookup of the stored values.
+	 *
+	 * @param shown
+	 *            the features of the axes, in order.
+	 * @return true, if all features are stored, false if the data has to be processed again.
+	 */
+	private synchronized boolean applyOrder(Feature[] shown) {
+		int[] columns = new int[shown.length];
+
+		for (int i = 0; i < shown.length; i++) {
+			columns[i] = -1;
+
+			for (int j = 0; j < this.storedFeatures.length; j++) {
+				if (this.storedFeatures[j] == shown[i]) {
+					columns[i] = j;
+				}
 			}
 
-			this.vbuffer.rewind();
-			this.cbuffer.rewind();
-			this.ibuffer.rewind();
+			if (columns[i] < 0) {
+				return false;
+			}
 		}
 
+		this.featureCount = shown.length;
+		this.featureNames = new String[this.featureCount];
+		this.min = new float[this.featureCount];
+		this.range = new float[this.featureCount];
+
+		for (int i = 0; i < this.featureCount; i++) {
+			this.featureNames[i] = shown[i].getName();
+			this.min[i] = this.storedMin[columns[i]];
+			this.range[i] = this.storedRange[columns[i]];
+		}
+
+		this.axisColumns = columns;
+		this.axesChanged = true;
 		this.icontroller.setAxisCount(this.featureCount);
+
+		return true;
 	}
 
 	@Override
 	protected synchronized void uploadData(GL2 gl) {
 		this.cleanupVBO(gl);
+		this.deleteChunkBuffers(gl);
+		this.colorsDirtyFrom = 0;
+		this.colorsDirtyTo = 0;
 
-		int nVBO = 2;
-		this.vbo = new int[nVBO];
-		gl.glGenBuffers(nVBO, vbo, 0);
+		if ((this.elementCount == 0) || (this.columnCount == 0)) {
+			return;
+		}
 
-		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[0]);
-		gl.glBufferData(GL2.GL_ARRAY_BUFFER, this.vbuffer.limit() * Buffers.SIZEOF_FLOAT, this.vbuffer,
+		this.vbo = new int[TEXTURE_AXES + 1];
+
+		// the values and the colors of all elements have to fit into texture buffers
+		this.instanced = this.instancing && ((long) this.elementCount * this.columnCount <= this.maxTextureBufferSize);
+
+		if (!this.instanced) {
+			gl.glGenBuffers(VBO_VERTEX_COLORS + 1, this.vbo, 0);
+			this.uploadVertices(gl);
+
+			return;
+		}
+
+		gl.glGenBuffers(TEXTURE_VALUES, this.vbo, 0);
+		gl.glGenTextures(TEXTURE_AXES + 1 - TEXTURE_VALUES, this.vbo, TEXTURE_VALUES);
+
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.vbo[VBO_VALUES]);
+		gl.glBufferData(GL2.GL_TEXTURE_BUFFER, this.values.limit() * Buffers.SIZEOF_FLOAT, this.values,
 				GL2.GL_STATIC_DRAW);
-		gl.glVertexPointer(2, GL2.GL_FLOAT, 0, 0);
 
-		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[1]);
-		gl.glBufferData(GL2.GL_ARRAY_BUFFER, this.cbuffer.limit() * Buffers.SIZEOF_FLOAT, this.cbuffer,
+		// colors change with every selection, so they are updated in place
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.vbo[VBO_COLORS]);
+		gl.glBufferData(GL2.GL_TEXTURE_BUFFER, this.cbuffer.limit() * Buffers.SIZEOF_FLOAT, this.cbuffer,
+				GL2.GL_DYNAMIC_DRAW);
+
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, 0);
+		this.axesChanged = false;
+		this.uploadAxes(gl, this.vbo, this.axisColumns);
+		this.attachTextures(gl, this.vbo);
+	}
+
+	/**
+	 * Attaches the textures, which are read by the shader, to the buffers of the values, the colors and the axes.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers and textures.
+	 */
+	private void attachTextures(GL2 gl, int[] buffers) {
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, buffers[TEXTURE_VALUES]);
+		gl.glTexBuffer(GL2.GL_TEXTURE_BUFFER, GL2.GL_R32F, buffers[VBO_VALUES]);
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, buffers[TEXTURE_COLORS]);
+		gl.glTexBuffer(GL2.GL_TEXTURE_BUFFER, GL2.GL_RGBA32F, buffers[VBO_COLORS]);
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, buffers[TEXTURE_AXES]);
+		gl.glTexBuffer(GL2.GL_TEXTURE_BUFFER, GL2.GL_R32F, buffers[VBO_AXES]);
+		gl.glBindTexture(GL2.GL_TEXTURE_BUFFER, 0);
+	}
+
+	@Override
+	protected synchronized void uploadColors(GL2 gl) {
+		if (this.vbo == null) {
+			this.uploadData(gl);
+			return;
+		}
+
+		// only the range of changed colors is transferred
+		if (this.colorsDirtyFrom < this.colorsDirtyTo) {
+			if (this.instanced) {
+				FloatBuffer range = this.cbuffer.duplicate();
+				range.position(this.colorsDirtyFrom * 4);
+
+				gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, this.vbo[VBO_COLORS]);
+				gl.glBufferSubData(GL2.GL_TEXTURE_BUFFER, this.colorsDirtyFrom * 4 * Buffers.SIZEOF_FLOAT,
+						(this.colorsDirtyTo - this.colorsDirtyFrom) * 4 * Buffers.SIZEOF_FLOAT, range);
+				gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, 0);
+			} else if (this.axesChanged) {
+				// the colors are stored per vertex, so they are transferred with the new axes
+				this.uploadVertices(gl);
+			} else {
+				this.putVertexColors(gl, this.vbo, this.cbuffer, this.featureCount, this.colorsDirtyFrom,
+						this.colorsDirtyTo);
+			}
+
+			this.colorsDirtyFrom = 0;
+			this.colorsDirtyTo = 0;
+		}
+	}
+
+	/**
+	 * Transfers the stored column of every axis to graphics card memory.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers, whose axes buffer is filled.
+	 * @param columns
+	 *            the stored column of every axis.
+	 */
+	private void uploadAxes(GL2 gl, int[] buffers, int[] columns) {
+		// the texture needs at least one value
+		FloatBuffer axes = Buffers.newDirectFloatBuffer(Math.max(1, columns.length));
+		for (int column : columns) {
+			axes.put(column);
+		}
+		axes.rewind();
+
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, buffers[VBO_AXES]);
+		gl.glBufferData(GL2.GL_TEXTURE_BUFFER, axes.limit() * Buffers.SIZEOF_FLOAT, axes, GL2.GL_DYNAMIC_DRAW);
+		gl.glBindBuffer(GL2.GL_TEXTURE_BUFFER, 0);
+	}
+
+	/**
+	 * Transfers one line strip per element over the shown axes to graphics card memory, if the graphics card can not
+	 * build the lines. The vertices depend on the order of the axes, so they are transferred again, when it changes.
+	 *
+	 * @param gl
+	 *            the render context.
+	 */
+	private void uploadVertices(GL2 gl) {
+		this.axesChanged = false;
+
+		this.firstVertices = Buffers.newDirectIntBuffer(this.elementCount);
+		this.vertexCounts = Buffers.newDirectIntBuffer(this.elementCount);
+		putLineStrips(this.firstVertices, this.vertexCounts, this.featureCount, 0, this.elementCount);
+
+		this.allocateVertices(gl, this.vbo, this.elementCount, this.featureCount);
+		this.putVertices(gl, this.vbo, this.values, this.columnCount, this.axisColumns, 0, this.elementCount);
+		this.putVertexColors(gl, this.vbo, this.cbuffer, this.featureCount, 0, this.elementCount);
+	}
+
+	/**
+	 * Stores the first vertex and the number of vertices of the line strips of a range of elements.
+	 *
+	 * @param firstVertices
+	 *            receives the first vertex of every line strip.
+	 * @param vertexCounts
+	 *            receives the number of vertices of every line strip.
+	 * @param featureCount
+	 *            N<sup>o</sup> of shown axes.
+	 * @param from
+	 *            the first element.
+	 * @param to
+	 *            the element after the last one.
+	 */
+	private static void putLineStrips(IntBuffer firstVertices, IntBuffer vertexCounts, int featureCount, int from,
+			int to) {
+		for (int i = from; i < to; i++) {
+			firstVertices.put(i, i * featureCount);
+			vertexCounts.put(i, featureCount);
+		}
+	}
+
+	/**
+	 * Allocates graphics card memory for the line strips of elements and their colors.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers of the vertices and their colors.
+	 * @param elementCount
+	 *            N<sup>o</sup> of elements.
+	 * @param featureCount
+	 *            N<sup>o</sup> of shown axes.
+	 */
+	private void allocateVertices(GL2 gl, int[] buffers, int elementCount, int featureCount) {
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffers[VBO_VERTICES]);
+		gl.glBufferData(GL2.GL_ARRAY_BUFFER, (long) elementCount * featureCount * 2 * Buffers.SIZEOF_FLOAT, null,
 				GL2.GL_STATIC_DRAW);
-		gl.glColorPointer(4, GL2.GL_FLOAT, 0, 0);
 
+		// every vertex needs the color of its line, so they are stored as bytes
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffers[VBO_VERTEX_COLORS]);
+		gl.glBufferData(GL2.GL_ARRAY_BUFFER, (long) elementCount * featureCount * 4, null, GL2.GL_DYNAMIC_DRAW);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Transfers the line strips of a range of elements over the shown axes.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers of the vertices and their colors.
+	 * @param values
+	 *            the normalized values, {@code columnCount} per element.
+	 * @param columnCount
+	 *            N<sup>o</sup> of values per element.
+	 * @param columns
+	 *            the column of every shown axis.
+	 * @param from
+	 *            the first element.
+	 * @param to
+	 *            the element after the last one.
+	 */
+	private void putVertices(GL2 gl, int[] buffers, FloatBuffer values, int columnCount, int[] columns, int from,
+			int to) {
+		final int featureCount = columns.length;
+		final float deltaX = 1.f / Math.max(1, featureCount - 1);
+		FloatBuffer vertices = Buffers.newDirectFloatBuffer((to - from) * featureCount * 2);
+
+		for (int i = from; i < to; i++) {
+			for (int j = 0; j < featureCount; j++) {
+				vertices.put(j * deltaX);
+				vertices.put(values.get(i * columnCount + columns[j]));
+			}
+		}
+
+		vertices.rewind();
+
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffers[VBO_VERTICES]);
+		gl.glBufferSubData(GL2.GL_ARRAY_BUFFER, (long) from * featureCount * 2 * Buffers.SIZEOF_FLOAT,
+				(long) vertices.limit() * Buffers.SIZEOF_FLOAT, vertices);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Transfers the colors of a range of elements to the vertices of their line strips.
+	 *
+	 * @param gl
+	 *            the render context.
+	 * @param buffers
+	 *            the buffers of the vertices and their colors.
+	 * @param colors
+	 *            the colors, one per element.
+	 * @param featureCount
+	 *            N<sup>o</sup> of shown axes.
+	 * @param from
+	 *            the first element.
+	 * @param to
+	 *            the element after the last one.
+	 */
+	private void putVertexColors(GL2 gl, int[] buffers, FloatBuffer colors, int featureCount, int from, int to) {
+		ByteBuffer vertexColors = Buffers.newDirectByteBuffer((to - from) * featureCount * 4);
+
+		for (int i = from; i < to; i++) {
+			for (int j = 0; j < featureCount; j++) {
+				for (int c = 0; c < 4; c++) {
+					vertexColors.put((byte) Math.round(colors.get(i * 4 + c) * 255.f));
+				}
+			}
+		}
+
+		vertexColors.rewind();
+
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffers[VBO_VERTEX_COLORS]);
+		gl.glBufferSubData(GL2.GL_ARRAY_BUFFER, (long) from * featureCount * 4, vertexColors.limit(), vertexColors);
 		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
 	}
 
 	@Override
-	protected void draw(Graphics2D g2d) {
+	protected ShapeBatches batchData() {
 		float stepSize = (float) (this.getShapeWidth() - 2 * BORDER_SIZE) / (float) (this.featureCount - 1);
-		float axisLength = this.getShapeHeight() - 2 * BORDER_SIZE;
-
-		// draw lines
-		float scaleFactorX = this.getShapeWidth() - 2 * BORDER_SIZE;
 		float scaleFactorY = this.getShapeHeight() - 2 * BORDER_SIZE;
-		g2d.setStroke(new BasicStroke(LINES_WIDTH));
-		for (int i = 0; i < this.elementCount; i++) {
-			g2d.setColor(new Color(this.cbuffer.get(i * (this.featureCount - 1) * 2 * 4), this.cbuffer.get(i
-					* (this.featureCount - 1) * 2 * 4 + 1), this.cbuffer.get(i * (this.featureCount - 1) * 2 * 4 + 2),
-					this.cbuffer.get(i * (this.featureCount - 1) * 2 * 4 + 3) * this.lineAlpha));
+		ShapeBatches batches = new ShapeBatches(1.f, LINES_WIDTH);
 
-			int coordElementOffset = i * (this.featureCount - 1) * 2 * 2;
+		// the segments of a line share their ends, so they are written as one path
+		for (int i = 0; (i < this.elementCount) && (this.featureCount > 1); i++) {
+			int color = ColorEngine.pack(this.cbuffer.get(i * 4), this.cbuffer.get(i * 4 + 1), this.cbuffer
+					.get(i * 4 + 2), this.cbuffer.get(i * 4 + 3) * this.lineAlpha);
+			float x = BORDER_SIZE;
+			float y = this.getValue(i, 0) * scaleFactorY + BORDER_SIZE;
 
 			for (int j = 0; j < this.featureCount - 1; j++) {
-				int k = coordElementOffset + j * 2 * 2;
-
-				g2d.drawLine(Math.round(this.vbuffer.get(k) * scaleFactorX) + BORDER_SIZE, Math.round(this.vbuffer
-						.get(k + 1)
-						* scaleFactorY)
-						+ BORDER_SIZE, Math.round(this.vbuffer.get(k + 2) * scaleFactorX) + BORDER_SIZE, Math
-						.round(this.vbuffer.get(k + 3) * scaleFactorY)
-						+ BORDER_SIZE);
+				float nextX = (j + 1) * stepSize + BORDER_SIZE;
+				float nextY = this.getValue(i, j + 1) * scaleFactorY + BORDER_SIZE;
+
+				batches.addLine(color, x, y, nextX, nextY);
+				x = nextX;
+				y = nextY;
 			}
 		}
 
-		g2d.setColor(Color.BLACK);
-		g2d.setStroke(new BasicStroke());
+		return batches;
+	}
+
+	@Override
+	protected void draw(Graphics2D g2d) {
+		float stepSize = (float) (this.getShapeWidth() - 2 * BORDER_SIZE) / (float) (this.featureCount - 1);
+		float axisLength = this.getShapeHeight() - 2 * BORDER_SIZE;
 
 		// draw selection
 		g2d.setColor(new Color(0.f, 0.f, 0.f, SELECTION_ALPHA));
@@ -569,7 +1576,8 @@ public class IndicatorPlot extends GLPlot {
 	 */
 	private void cleanupVBO(GL2 gl) {
 		if (this.vbo != null) {
-			gl.glDeleteBuffers(this.vbo.length, this.vbo, 0);
+			gl.glDeleteTextures(TEXTURE_AXES + 1 - TEXTURE_VALUES, this.vbo, TEXTURE_VALUES);
+			gl.glDeleteBuffers(TEXTURE_VALUES, this.vbo, 0);
 			this.vbo = null;
 		}
 	}
@@ -814,12 +1822,7 @@ public class IndicatorPlot extends GLPlot {
 
 					for (int j = 0; (j < featureCount) && inSelection; j++) {
 						if (this.selection[j]) {
-							int offset = i * 2 * (featureCount - 1) * 2;
-							int pos = offset + 2 * j * 2 + 1;
-							if (j == featureCount - 1) {
-								pos -= 2;
-							}
-							float value = vbuffer.get(pos);
+							float value = getValue(i, j);
 							if (!((value >= this.selectionMin[j]) && (value <= this.selectionMax[j]))) {
 								inSelection = false;
 							}
@@ -883,7 +1886,12 @@ public class IndicatorPlot extends GLPlot {
 			features = new Feature[n];
 			System.arraycopy(tmp, 0, features, 0, n);
 
-			update(null, null);
+			// the values of reordered or hidden features are already stored
+			if (applyOrder(features)) {
+				rerender();
+			} else {
+				update(null, null);
+			}
 		}
 
 	}
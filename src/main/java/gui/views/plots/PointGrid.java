@@ -0,0 +1,426 @@
+package gui.views.plots;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import util.ParallelSort;
+
+/**
+ * The class {@code PointGrid} bins the points of a plot into a regular grid over the value ranges of two features.
+ * The indices of the points are stored ordered by bin, row by row, so the points of neighboring bins in a row form
+ * one consecutive range.
+ *
+ * Points with a missing value are not part of the grid, points beyond the value ranges belong to the border bins. A
+ * grid is built in parallel and immutable afterwards.
+ */
+public final class PointGrid {
+
+	/**
+	 * N<sup>o</sup> of bins per row and per column.
+	 */
+	private final int resolution;
+
+	/**
+	 * Position of the first point of each bin in {@link #order}, followed by the number of points in the grid.
+	 */
+	private final int[] binStart;
+
+	/**
+	 * The indices of the points, ordered by bin.
+	 */
+	private final int[] order;
+
+	/**
+	 * The bin of every point, -1 if a value is missing.
+	 */
+	private final int[] bins;
+
+	/**
+	 * Constructs a new {@code PointGrid}.
+	 *
+	 * @param columnX
+	 *            the x values of the points.
+	 * @param columnY
+	 *            the y values of the points, which has the same length as {@code columnX}.
+	 * @param minX
+	 *            the lower bound of the x values.
+	 * @param maxX
+	 *            the upper bound of the x values.
+	 * @param minY
+	 *            the lower bound of the y values.
+	 * @param maxY
+	 *            the upper bound of the y values.
+	 * @param resolution
+	 *            N<sup>o</sup> of bins per row and per column.
+	 * @param executor
+	 *            the executor, which bins the points.
+	 * @param threads
+	 *            the maximal number of concurrent tasks.
+	 * @throws InterruptedException
+	 *             if the binning is interrupted.
+	 */
+	public PointGrid(FloatBuffer columnX, FloatBuffer columnY, float minX, float maxX, float minY, float maxY,
+			int resolution, ExecutorService executor, int threads) throws InterruptedException {
+		if (columnX == null || columnY == null || columnX.limit() != columnY.limit()) {
+			throw new IllegalArgumentException("columns are null or have not same length");
+		}
+
+		if (resolution < 1 || threads < 1) {
+			throw new IllegalArgumentException("resolution or threads less than 1");
+		}
+
+		this.resolution = resolution;
+
+		int length = columnX.limit();
+		int chunks = ParallelSort.getChunkCount(length, threads);
+		this.bins = new int[length];
+
+		// count the points of each bin per chunk
+		List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(chunks);
+		int[][] counts = new int[chunks][];
+		float[] bounds = { minX, maxX, minY, maxY };
+
+		for (int i = 0; i < chunks; ++i) {
+			counts[i] = new int[resolution * resolution];
+			jobsQ.add(new CountTask(columnX, columnY, bounds, resolution, this.bins, counts[i], ParallelSort
+					.getChunkStart(length, chunks, i), ParallelSort.getChunkStart(length, chunks, i + 1)));
+		}
+
+		ParallelSort.invokeAll(executor, jobsQ);
+
+		// turn the counts into the start position of each chunk in each bin
+		this.binStart = new int[resolution * resolution + 1];
+		int position = 0;
+
+		for (int bin = 0; bin < resolution * resolution; ++bin) {
+			this.binStart[bin] = position;
+
+			for (int i = 0; i < chunks; ++i) {
+				int count = counts[i][bin];
+				counts[i][bin] = position;
+				position += count;
+			}
+		}
+
+		this.binStart[resolution * resolution] = position;
+		this.order = new int[position];
+
+		// the chunks are disjoint, so every chunk writes its own slots
+		jobsQ.clear();
+		for (int i = 0; i < chunks; ++i) {
+			jobsQ.add(new OrderTask(this.bins, counts[i], this.order, ParallelSort.getChunkStart(length, chunks, i),
+					ParallelSort.getChunkStart(length, chunks, i + 1)));
+		}
+
+		ParallelSort.invokeAll(executor, jobsQ);
+	}
+
+	/**
+	 * Returns the number of bins per row and per column.
+	 *
+	 * @return the resolution.
+	 */
+	public int getResolution() {
+		return this.resolution;
+	}
+
+	/**
+	 * Returns the number of points in the grid.
+	 *
+	 * @return the number of points without missing values.
+	 */
+	public int size() {
+		return this.order.length;
+	}
+
+	/**
+	 * Returns the index of the point at the given position.
+	 *
+	 * @param position
+	 *            the position in the order of the bins.
+	 * @return the index of the point.
+	 */
+	public int getIndex(int position) {
+		return this.order[position];
+	}
+
+	/**
+	 * Returns the bin of a point.
+	 *
+	 * @param index
+	 *            the index of the point.
+	 * @return the bin, row by row, or -1, if the point is not part of the grid.
+	 */
+	public int getBin(int index) {
+		return this.bins[index];
+	}
+
+	/**
+	 * Copies the indices of all points in the order of the bins.
+	 *
+	 * @return the indices.
+	 */
+	public int[] getOrder() {
+		return this.order.clone();
+	}
+
+	/**
+	 * Returns the position of the first point of a bin.
+	 *
+	 * @param column
+	 *            the column of the bin.
+	 * @param row
+	 *            the row of the bin.
+	 * @return the position in the order of the bins.
+	 */
+	public int getStart(int column, int row) {
+		return this.binStart[row * this.resolution + column];
+	}
+
+	/**
+	 * Returns the position after the last point of a bin.
+	 *
+	 * @param column
+	 *            the column of the bin.
+	 * @param row
+	 *            the row of the bin.
+	 * @return the position in the order of the bins.
+	 */
+	public int getEnd(int column, int row) {
+		return this.binStart[row * this.resolution + column + 1];
+	}
+
+	/**
+	 * Counts the points in a rectangle of bins.
+	 *
+	 * @param fromColumn
+	 *            the first column.
+	 * @param fromRow
+	 *            the first row.
+	 * @param toColumn
+	 *            the last column, inclusive.
+	 * @param toRow
+	 *            the last row, inclusive.
+	 * @return the number of points.
+	 */
+	public int count(int fromColumn, int fromRow, int toColumn, int toRow) {
+		int count = 0;
+
+		for (int row = fromRow; row <= toRow; ++row) {
+			count += this.getEnd(toColumn, row) - this.getStart(fromColumn, row);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the column or row of a normalized value.
+	 *
+	 * @param normalized
+	 *            the value, scaled to [0, 1] by its value range.
+	 * @return the column or row, values beyond the range belong to the border.
+	 */
+	public int toCell(float normalized) {
+		int cell = (int) Math.floor(normalized * this.resolution);
+
+		return Math.max(0, Math.min(this.resolution - 1, cell));
+	}
+
+	/**
+	 * Returns the bin of a point.
+	 *
+	 * @param x
+	 *            the x value.
+	 * @param y
+	 *            the y value.
+	 * @param minX
+	 *            the lower bound of the x values.
+	 * @param maxX
+	 *            the upper bound of the x values.
+	 * @param minY
+	 *            the lower bound of the y values.
+	 * @param maxY
+	 *            the upper bound of the y values.
+	 * @param resolution
+	 *            N<sup>o</sup> of bins per row and per column.
+	 * @return the bin or -1, if a value is missing.
+	 */
+	private static int binOf(float x, float y, float minX, float maxX, float minY, float maxY, int resolution) {
+		if (Float.isNaN(x) || Float.isNaN(y)) {
+			return -1;
+		}
+
+		int column = (int) Math.floor((x - minX) / (maxX - minX) * resolution);
+		int row = (int) Math.floor((y - minY) / (maxY - minY) * resolution);
+
+		// also covers an empty value range, which yields NaN
+		column = (column < 0) ? 0 : Math.min(resolution - 1, column);
+		row = (row < 0) ? 0 : Math.min(resolution - 1, row);
+
+		return row * resolution + column;
+	}
+
+	/**
+	 * Computes the bins of a range of points and counts the points per bin.
+	 */
+	private static class CountTask implements Callable<Object> {
+
+		/**
+		 * The x values.
+		 */
+		private final FloatBuffer columnX;
+
+		/**
+		 * The y values.
+		 */
+		private final FloatBuffer columnY;
+
+		/**
+		 * The bounds of the values, minX, maxX, minY and maxY.
+		 */
+		private final float[] bounds;
+
+		/**
+		 * N<sup>o</sup> of bins per row and per column.
+		 */
+		private final int resolution;
+
+		/**
+		 * Receives the bin of every point.
+		 */
+		private final int[] bins;
+
+		/**
+		 * Receives the number of points per bin of this range.
+		 */
+		private final int[] counts;
+
+		/**
+		 * The first point of the range.
+		 */
+		private final int start;
+
+		/**
+		 * The point after the last one of the range.
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code CountTask}.
+		 *
+		 * @param columnX
+		 *            the x values.
+		 * @param columnY
+		 *            the y values.
+		 * @param bounds
+		 *            the bounds of the values, minX, maxX, minY and maxY.
+		 * @param resolution
+		 *            N<sup>o</sup> of bins per row and per column.
+		 * @param bins
+		 *            receives the bin of every point.
+		 * @param counts
+		 *            receives the number of points per bin of this range.
+		 * @param start
+		 *            the first point of the range.
+		 * @param end
+		 *            the point after the last one of the range.
+		 */
+		public CountTask(FloatBuffer columnX, FloatBuffer columnY, float[] bounds, int resolution, int[] bins,
+				int[] counts, int start, int end) {
+			this.columnX = columnX;
+			this.columnY = columnY;
+			this.bounds = bounds;
+			this.resolution = resolution;
+			this.bins = bins;
+			this.counts = counts;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Object call() {
+			float[] b = this.bounds;
+
+			for (int i = this.start; i < this.end; ++i) {
+				int bin = binOf(this.columnX.get(i), this.columnY.get(i), b[0], b[1], b[2], b[3], this.resolution);
+
+				this.bins[i] = bin;
+
+				if (bin >= 0) {
+					++this.counts[bin];
+				}
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the indices of a range of points to their positions.
+	 */
+	private static class OrderTask implements Callable<Object> {
+
+		/**
+		 * The bin of every point.
+		 */
+		private final int[] bins;
+
+		/**
+		 * The next free position of this range per bin.
+		 */
+		private final int[] positions;
+
+		/**
+		 * Receives the indices.
+		 */
+		private final int[] order;
+
+		/**
+		 * The first point of the range.
+		 */
+		private final int start;
+
+		/**
+		 * The point after the last one of the range.
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code OrderTask}.
+		 *
+		 * @param bins
+		 *            the bin of every point.
+		 * @param positions
+		 *            the next free position of this range per bin.
+		 * @param order
+		 *            receives the indices.
+		 * @param start
+		 *            the first point of the range.
+		 * @param end
+		 *            the point after the last one of the range.
+		 */
+		public OrderTask(int[] bins, int[] positions, int[] order, int start, int end) {
+			this.bins = bins;
+			this.positions = positions;
+			this.order = order;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Object call() {
+			for (int i = this.start; i < this.end; ++i) {
+				int bin = this.bins[i];
+
+				if (bin >= 0) {
+					this.order[this.positions[bin]++] = i;
+				}
+			}
+
+			return null;
+		}
+	}
+}
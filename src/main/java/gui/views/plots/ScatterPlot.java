@@ -1,14 +1,15 @@
 package gui.views.plots;
 
 import gui.bsvComponents.BSVComboBox;
+import gui.bsvComponents.BSVSlider;
 import gui.main.EventController;
 import gui.settings.Settings;
-import gui.views.ViewUtils;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.Polygon;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
@@ -16,9 +17,16 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.imageio.ImageIO;
 import javax.media.opengl.GL2;
@@ -31,12 +39,16 @@ import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JSlider;
 import javax.swing.JToggleButton;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import com.jogamp.common.nio.Buffers;
 
+import util.ParallelSort;
+import controller.ColorEngine;
 import controller.DataHub;
 import controller.ElementData;
 import controller.Feature;
@@ -82,6 +94,72 @@ public class ScatterPlot extends GLPlot {
 	 */
 	private static final float NON_SELECTED_ALPHA_BASE = 500.f;
 
+	/**
+	 * Index of the color buffer in the vertex buffer objects.
+	 */
+	private static final int VBO_COLOR = 0;
+
+	/**
+	 * Index of the selection flag buffer in the vertex buffer objects.
+	 */
+	private static final int VBO_SELECTED = 1;
+
+	/**
+	 * Index of the point indices ordered by the bins of {@link #grid} in the vertex buffer objects.
+	 */
+	private static final int VBO_ORDER = 2;
+
+	/**
+	 * Index of the point indices of the outliers in the vertex buffer objects.
+	 */
+	private static final int VBO_OUTLIERS = 3;
+
+	/**
+	 * Index of the density texture in the vertex buffer objects. It is the only texture and deleted separately.
+	 */
+	private static final int VBO_DENSITY = 4;
+
+	/**
+	 * Index of the first feature column in the vertex buffer objects, followed by the other features of
+	 * {@link #columnFeatures}.
+	 */
+	private static final int VBO_COLUMNS = 5;
+
+	/**
+	 * Maximal number of points, which are drawn exactly. If more points are visible, their density is drawn instead.
+	 */
+	private static final int LOD_POINT_LIMIT = 250000;
+
+	/**
+	 * N<sup>o</sup> of bins of the density per row and per column.
+	 */
+	private static final int GRID_RESOLUTION = 512;
+
+	/**
+	 * Steps of the outlier threshold slider, which covers the range of the effective outlierness.
+	 */
+	private static final int OUTLIER_SLIDER_STEPS = 100;
+
+	/**
+	 * Initial position of the outlier threshold slider.
+	 */
+	private static final int OUTLIER_SLIDER_DEFAULT = 90;
+
+	/**
+	 * Shader attribute location of the x values.
+	 */
+	private static final int ATTRIBUTE_X = 0;
+
+	/**
+	 * Shader attribute location of the y values.
+	 */
+	private static final int ATTRIBUTE_Y = 1;
+
+	/**
+	 * Shader attribute location of the selection flags.
+	 */
+	private static final int ATTRIBUTE_SELECTED = 2;
+
 	/**
 	 * Action that sets mode to scroll and zoom.
 	 */
@@ -108,23 +186,195 @@ public class ScatterPlot extends GLPlot {
 	private AbstractAction clearSelectionAction;
 
 	/**
-	 * Vertex buffer that stores the location of the points.
-	 * 
-	 * Is used for fast redrawing and represents a buffer on graphics card memory. It is not used global but is a member
-	 * variable to avoid garbage collection and buffer freeing.
+	 * The shown elements, in the order of the buffers.
 	 */
-	private FloatBuffer vbuffer;
+	private ElementData[] data;
 
 	/**
-	 * Color buffer that stores the color and transparency of points. See {@link #vbuffer} for more details.
+	 * The features, whose values may be stored in {@link #columns}.
+	 */
+	private Feature[] columnFeatures = new Feature[0];
+
+	/**
+	 * Raw values of the shown elements per feature of {@link #columnFeatures}. They are created when a feature is
+	 * shown the first time and uploaded once as vertex attribute, so switching an axis only rebinds a buffer.
+	 */
+	private FloatBuffer[] columns = new FloatBuffer[0];
+
+	/**
+	 * Color buffer that stores the color and transparency of points, without the selection.
 	 */
 	private FloatBuffer cbuffer;
 
+	/**
+	 * Selection buffer that stores 1 for selected points and 0 otherwise.
+	 */
+	private FloatBuffer sbuffer;
+
 	/**
 	 * Id buffer that stores ids of points.
 	 */
 	private IntBuffer ibuffer;
 
+	/**
+	 * Alpha factor of non selected points, 1 if nothing is selected.
+	 */
+	private float nonSelectedAlpha = 1.f;
+
+	/**
+	 * Flag, indicating that the shown elements have changed since the last upload, so that all buffers have to be
+	 * transferred.
+	 */
+	private boolean elementsChanged = true;
+
+	/**
+	 * The features of the active subspace.
+	 */
+	private Feature[] features;
+
+	/**
+	 * Grid of the shown points for the level of detail and the selection, built in the background for
+	 * {@link #gridFeatureX} and {@link #gridFeatureY}.
+	 */
+	private PointGrid grid;
+
+	/**
+	 * The x-axis feature of {@link #grid}, whose points are drawn until the grid of the chosen axes is ready.
+	 */
+	private Feature gridFeatureX;
+
+	/**
+	 * The y-axis feature of {@link #grid}, whose points are drawn until the grid of the chosen axes is ready.
+	 */
+	private Feature gridFeatureY;
+
+	/**
+	 * The grid, whose order and density are stored in the vertex buffer objects.
+	 */
+	private PointGrid uploadedGrid;
+
+	/**
+	 * Outlierness, above which points are drawn exactly over the density, relative to the range of the effective
+	 * outlierness.
+	 */
+	private float outlierThreshold;
+
+	/**
+	 * Flag, indicating that the outlier threshold has changed.
+	 */
+	private volatile boolean outliersChanged;
+
+	/**
+	 * N<sup>o</sup> of uploaded outliers.
+	 */
+	private int outlierCount;
+
+	/**
+	 * The grid of {@link #density}, null if the density has to be computed again.
+	 */
+	private PointGrid densityGrid;
+
+	/**
+	 * Color and alpha of every bin of {@link #densityGrid}, as transferred to the density texture.
+	 */
+	private ByteBuffer density;
+
+	/**
+	 * Logarithm of the maximal number of points in a bin of {@link #densityGrid} plus 1.
+	 */
+	private double densityLogMax;
+
+	/**
+	 * The positions of the elements, whose selection changed since the density was computed.
+	 */
+	private final BitSet densityChanges = new BitSet();
+
+	/**
+	 * Normalized positions of the points loaded so far, shown while the data is processed.
+	 */
+	private FloatBuffer chunkPoints;
+
+	/**
+	 * Colors of the points loaded so far.
+	 */
+	private FloatBuffer chunkColors;
+
+	/**
+	 * N<sup>o</sup> of points loaded so far.
+	 */
+	private int chunkCount;
+
+	/**
+	 * Position of the elements in {@link #ibuffer} plus 1, indexed by their id, 0 for elements not shown.
+	 */
+	private int[] indexOfId = new int[0];
+
+	/**
+	 * Flag, indicating if {@link #sbuffer} shows a selection, otherwise every element is marked as selected.
+	 */
+	private boolean selectionShown;
+
+	/**
+	 * Flag, indicating that {@link #cbuffer} has changed since it was uploaded.
+	 */
+	private boolean colorsDirty;
+
+	/**
+	 * First position of {@link #sbuffer}, which has changed since it was uploaded.
+	 */
+	private int selectionDirtyFrom;
+
+	/**
+	 * Position after the last one of {@link #sbuffer}, which has changed since it was uploaded.
+	 */
+	private int selectionDirtyTo;
+
+	/**
+	 * Threads, which build the grid.
+	 */
+	private final ExecutorService gridExecutor = Executors.newFixedThreadPool(Runtime.getRuntime()
+			.availableProcessors());
+
+	/**
+	 * Thread, which computes the lasso selection.
+	 */
+	private final ExecutorService selectionExecutor = Executors.newSingleThreadExecutor();
+
+	/**
+	 * Thread, which prepares the columns and the grid of the chosen axes.
+	 */
+	private final ExecutorService axisExecutor = Executors.newSingleThreadExecutor();
+
+	/**
+	 * Shader program, that normalizes the values and applies the selection.
+	 */
+	private int shaderProgram;
+
+	/**
+	 * Shader variable for the minimum values.
+	 */
+	private int shaderUniformMinimum;
+
+	/**
+	 * Shader variable for the maximum values.
+	 */
+	private int shaderUniformMaximum;
+
+	/**
+	 * Shader variable for the zoom.
+	 */
+	private int shaderUniformScale;
+
+	/**
+	 * Shader variable for the pan.
+	 */
+	private int shaderUniformOffset;
+
+	/**
+	 * Shader variable for the alpha factor of non selected points.
+	 */
+	private int shaderUniformAlpha;
+
 	/**
 	 * Stores the number of points that should be drawn.
 	 */
@@ -216,7 +466,24 @@ public class ScatterPlot extends GLPlot {
 	 *            a preinitialized SubspaceController.
 	 */
 	public ScatterPlot(DataHub dataHub, SelectionController selController, SubspaceController subController) {
-		super(dataHub, selController, subController);
+		this(dataHub, selController, subController, false);
+	}
+
+	/**
+	 * Constructs a scatter plot using a DataHub, a SelectionController and a SubspaceController.
+	 * 
+	 * @param dataHub
+	 *            a preinitialized DataHub.
+	 * @param selController
+	 *            a preinitialized SelectionController.
+	 * @param subController
+	 *            a preinitialized SubspaceController.
+	 * @param offscreen
+	 *            true, if the plot is not shown and only drawn using java Graphics2D.
+	 */
+	ScatterPlot(DataHub dataHub, SelectionController selController, SubspaceController subController,
+			boolean offscreen) {
+		super(dataHub, selController, subController, offscreen);
 	}
 
 	@Override
@@ -255,6 +522,30 @@ public class ScatterPlot extends GLPlot {
 
 		this.addToSidebar(featurePanel);
 
+		// outliers stay visible over the density of large data sets
+		this.outlierThreshold = (float) OUTLIER_SLIDER_DEFAULT / OUTLIER_SLIDER_STEPS;
+
+		JSlider outlierSlider = new BSVSlider(0, OUTLIER_SLIDER_STEPS, OUTLIER_SLIDER_DEFAULT);
+		outlierSlider.addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				JSlider source = (JSlider) e.getSource();
+
+				if (!source.getValueIsAdjusting()) {
+					outlierThreshold = (float) source.getValue() / OUTLIER_SLIDER_STEPS;
+					outliersChanged = true;
+					rerender();
+				}
+			}
+		});
+
+		JPanel outlierPanel = new JPanel(new GridLayout(0, 1));
+		outlierPanel.setBorder(BorderFactory.createTitledBorder(Settings.getInstance().getResourceBundle().getString(
+				"scatterPlotOutlierThreshold")));
+		outlierPanel.add(outlierSlider);
+
+		this.addToSidebar(outlierPanel);
+
 		this.setInteractionHandler(this.icontroller);
 
 		this.comboX.addItemListener(new ItemListener() {
@@ -262,7 +553,7 @@ public class ScatterPlot extends GLPlot {
 			public void itemStateChanged(ItemEvent e) {
 				JComboBox cb = (JComboBox) e.getSource();
 				featureX = (Feature) cb.getSelectedItem();
-				update(null, null);
+				axesChanged();
 			}
 		});
 
@@ -271,7 +562,7 @@ public class ScatterPlot extends GLPlot {
 			public void itemStateChanged(ItemEvent e) {
 				JComboBox cb = (JComboBox) e.getSource();
 				featureY = (Feature) cb.getSelectedItem();
-				update(null, null);
+				axesChanged();
 			}
 		});
 
@@ -344,260 +635,1289 @@ public class ScatterPlot extends GLPlot {
 			public void stateChanged(ChangeEvent e) {
 				JToggleButton source = (JToggleButton) e.getSource();
 
-				if (source.isSelected()) {
-					icontroller.setMode(MODES.LASSO);
-				}
+				if (source.isSelected()) {
+					icontroller.setMode(MODES.LASSO);
+				}
+			}
+		});
+
+		this.resetMode();
+
+		// reset button
+		JButton resetButton = new JButton(this.resetViewportAction);
+		resetButton.setText(Settings.getInstance().getResourceBundle().getString("plotReset"));
+
+		JButton clearselectionButton = new JButton(this.clearSelectionAction);
+		clearselectionButton.setText(Settings.getInstance().getResourceBundle().getString("scatterPlotResetSelection"));
+
+		JPanel controlPanel = new JPanel(new GridLayout(0, 1));
+		controlPanel.setBorder(BorderFactory.createTitledBorder(Settings.getInstance().getResourceBundle().getString(
+				"scatterPlatControlPanel")));
+		controlPanel.add(resetButton);
+		controlPanel.add(clearselectionButton);
+		this.addToSidebar(controlPanel);
+	}
+
+	@Override
+	protected void registerShortcuts() {
+		EventController.getInstance().setAction(this.setModeScrollzoomAction, "eventModeZoomdrag");
+		EventController.getInstance().setAction(this.setModeBoxzoomAction, "eventModeBox");
+		EventController.getInstance().setAction(this.setModeLassoAction, "eventModeLasso");
+		EventController.getInstance().setAction(this.setModeLassoAction, "eventSetSelection");
+		EventController.getInstance().setAction(this.clearSelectionAction, "eventResetSelection");
+	}
+
+	@Override
+	protected void unregisterShortcuts() {
+		EventController.getInstance().removeAction("eventModeZoomdrag");
+		EventController.getInstance().removeAction("eventModeBox");
+		EventController.getInstance().removeAction("eventModeLasso");
+		EventController.getInstance().removeAction("eventSetSelection");
+		EventController.getInstance().removeAction("eventResetSelection");
+	}
+
+	/**
+	 * Reset mode
+	 */
+	private void resetMode() {
+		this.scrollZoomButton.setSelected(true);
+	}
+
+	@Override
+	protected void setFeatures(Feature[] features) {
+		this.features = features;
+		this.comboX.setModel(new DefaultComboBoxModel(features));
+		this.comboY.setModel(new DefaultComboBoxModel(features));
+
+		this.featureX = (Feature) comboX.getSelectedItem();
+		this.featureY = (Feature) comboY.getSelectedItem();
+	}
+
+	@Override
+	protected void showFeatures(Feature[] shown) {
+		if (shown == null || shown.length != 2) {
+			throw new IllegalArgumentException("scatter plot shows two features");
+		}
+
+		this.comboX.setSelectedItem(shown[0]);
+		this.comboY.setSelectedItem(shown[1]);
+
+		// the values of both axes are created on demand
+		this.featureX = shown[0];
+		this.featureY = shown[1];
+	}
+
+	/**
+	 * Prepares the columns and the grid of the chosen axes in the background, the previous axes are drawn until they
+	 * are ready.
+	 */
+	private void axesChanged() {
+		// offscreen plots draw the values directly
+		if (!this.isOffscreen()) {
+			this.axisExecutor.submit(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						prepareAxes();
+					} catch (InterruptedException e) {
+						// the plot is released
+						return;
+					}
+
+					rerender();
+				}
+			});
+		}
+
+		this.rerender();
+	}
+
+	@Override
+	public void release() {
+		this.axisExecutor.shutdownNow();
+		this.gridExecutor.shutdownNow();
+		this.selectionExecutor.shutdownNow();
+
+		super.release();
+	}
+
+	@Override
+	protected void init(GL2 gl) {
+		// enable smooth point/line drawing
+		gl.glEnable(GL2.GL_POINT_SMOOTH);
+		gl.glEnable(GL2.GL_LINE_SMOOTH);
+
+		int v = this.setupShader(gl, GL2.GL_VERTEX_SHADER, "/scatterplot_vertex.glsl");
+
+		this.shaderProgram = gl.glCreateProgram();
+		gl.glAttachShader(this.shaderProgram, v);
+		gl.glBindAttribLocation(this.shaderProgram, ATTRIBUTE_X, "valueX");
+		gl.glBindAttribLocation(this.shaderProgram, ATTRIBUTE_Y, "valueY");
+		gl.glBindAttribLocation(this.shaderProgram, ATTRIBUTE_SELECTED, "selected");
+		gl.glLinkProgram(this.shaderProgram);
+		gl.glValidateProgram(this.shaderProgram);
+
+		this.shaderUniformMinimum = gl.glGetUniformLocation(this.shaderProgram, "minimum");
+		this.shaderUniformMaximum = gl.glGetUniformLocation(this.shaderProgram, "maximum");
+		this.shaderUniformScale = gl.glGetUniformLocation(this.shaderProgram, "scale");
+		this.shaderUniformOffset = gl.glGetUniformLocation(this.shaderProgram, "offset");
+		this.shaderUniformAlpha = gl.glGetUniformLocation(this.shaderProgram, "nonSelectedAlpha");
+	}
+
+	@Override
+	protected void rescale(GL2 gl) {
+		this.size = Math.min(this.getShapeWidth(), this.getShapeHeight()) - 2 * AXIS_PART_SIZE;
+		this.icontroller.setShapeX(this.getShapeX() + AXIS_PART_SIZE);
+		this.icontroller.setShapeY(this.getShapeY());
+		this.icontroller.setShapeWidth(this.getShapeWidth() - AXIS_PART_SIZE);
+		this.icontroller.setShapeHeight(this.getShapeHeight() - AXIS_PART_SIZE);
+	}
+
+	@Override
+	protected void draw(GL2 gl) {
+		// get values from icontroller
+		final float scaleX = this.icontroller.getScaleX();
+		final float scaleY = this.icontroller.getScaleY();
+		final float dx = this.icontroller.getDX();
+		final float dy = this.icontroller.getDY();
+
+		// the chosen axes are drawn, once their columns and grid are prepared
+		PointGrid grid = this.grid;
+		Feature shownX = (this.gridFeatureX != null) ? this.gridFeatureX : this.featureX;
+		Feature shownY = (this.gridFeatureY != null) ? this.gridFeatureY : this.featureY;
+
+		this.updateAxes(shownX, shownY);
+
+		// draw dots, the shader normalizes the raw values
+		int columnX = this.uploadColumn(gl, shownX);
+		int columnY = this.uploadColumn(gl, shownY);
+
+		if (this.n > 0 && columnX != 0 && columnY != 0) {
+			if (this.n <= LOD_POINT_LIMIT || grid == null) {
+				this.beginPoints(gl, columnX, columnY);
+				gl.glDrawArrays(GL2.GL_POINTS, 0, this.n);
+				this.endPoints(gl);
+			} else {
+				this.drawLevelOfDetail(gl, grid, columnX, columnY);
+			}
+		}
+
+		// draw box
+		if (this.icontroller.isBoxActive()) {
+			gl.glLineWidth(TOOL_LINES_WIDTH);
+			gl.glBegin(GL2.GL_LINE_LOOP);
+			gl.glVertex2f(this.icontroller.getBoxStartX(), this.icontroller.getBoxStartY() + AXIS_PART_SIZE);
+			gl.glVertex2f(this.icontroller.getBoxEndX(), this.icontroller.getBoxStartY() + AXIS_PART_SIZE);
+			gl.glVertex2f(this.icontroller.getBoxEndX(), this.icontroller.getBoxEndY() + AXIS_PART_SIZE);
+			gl.glVertex2f(this.icontroller.getBoxStartX(), this.icontroller.getBoxEndY() + AXIS_PART_SIZE);
+			gl.glEnd();
+			gl.glLineWidth(1.f);
+		}
+
+		// draw lasso
+		if (this.icontroller.isLassoActive()) {
+			int[] xcoords = this.icontroller.getLassoPointsX();
+			int[] ycoords = this.icontroller.getLassoPointsY();
+
+			gl.glColor4f(0.f, 0.f, 0.f, 1.f);
+			gl.glLineWidth(TOOL_LINES_WIDTH);
+			gl.glPolygonMode(GL2.GL_FRONT_AND_BACK, GL2.GL_LINE);
+			gl.glBegin(GL2.GL_POLYGON);
+
+			for (int i = 0; (i < xcoords.length) && (i < ycoords.length); i++) {
+				gl.glVertex2f(xcoords[i], ycoords[i] + AXIS_PART_SIZE);
+			}
+
+			gl.glEnd();
+			gl.glColor4f(0.f, 0.f, 0.f, 1.f);
+			gl.glLineWidth(1.f);
+			gl.glPolygonMode(GL2.GL_FRONT_AND_BACK, GL2.GL_FILL);
+		}
+
+		// draw white background beyond axis
+		gl.glColor3f(1.f, 1.f, 1.f);
+		gl.glRectf(0, 0, AXIS_PART_SIZE, this.getShapeHeight());
+		gl.glRectf(0, 0, this.getShapeWidth(), AXIS_PART_SIZE);
+
+		// draw axis
+		gl.glPushMatrix();
+		float drawWidth = this.getShapeWidth() - 2 * AXIS_PART_SIZE;
+		float drawHeight = this.getShapeHeight() - 2 * AXIS_PART_SIZE;
+		float drawRangeX = this.rangeX * drawWidth / this.size;
+		float drawRangeY = this.rangeY * drawHeight / this.size;
+		float minLabelY = (0 - dy) / (scaleY * drawHeight) * drawRangeY + this.minY;
+		float maxLabelY = (drawHeight - dy) / (scaleY * drawHeight) * drawRangeY + this.minY;
+		float minLabelX = (0 - dx) / (scaleX * drawWidth) * drawRangeX + this.minX;
+		float maxLabelX = (drawWidth - dx) / (scaleX * drawWidth) * drawRangeX + this.minX;
+
+		if (minLabelX > maxLabelX) {
+			minLabelX = maxLabelX;
+		}
+
+		if (minLabelY > maxLabelY) {
+			minLabelY = maxLabelY;
+		}
+
+		this.drawAxis(gl, AXIS_PART_SIZE, AXIS_PART_SIZE, drawHeight, nameY, minLabelY, maxLabelY, false);
+		this.drawAxis(gl, AXIS_PART_SIZE, AXIS_PART_SIZE, drawWidth, nameX, minLabelX, maxLabelX, true);
+
+		gl.glPopMatrix();
+	}
+
+	@Override
+	protected void clearChunks(int count) {
+		this.chunkCount = 0;
+
+		if (count > 0) {
+			this.chunkPoints = Buffers.newDirectFloatBuffer(count * 2);
+			this.chunkColors = Buffers.newDirectFloatBuffer(count * 4);
+		} else {
+			this.chunkPoints = null;
+			this.chunkColors = null;
+		}
+	}
+
+	@Override
+	protected boolean appendChunk(ElementData[] elements, int start, int end) {
+		Feature featureX = this.featureX;
+		Feature featureY = this.featureY;
+
+		if (this.chunkPoints == null || featureX == null || featureY == null) {
+			return false;
+		}
+
+		float minX = featureX.getMinValue();
+		float minY = featureY.getMinValue();
+		float rangeX = featureX.getMaxValue() - minX;
+		float rangeY = featureY.getMaxValue() - minY;
+		int[] colors = new int[end - start];
+		ColorEngine.calcColors(elements, start, end, colors);
+
+		for (int i = start; i < end; ++i) {
+			float x = elements[i].getValue(featureX);
+			float y = elements[i].getValue(featureY);
+
+			if (Float.isNaN(x) || Float.isNaN(y)) {
+				continue;
+			}
+
+			this.chunkPoints.put(this.chunkCount * 2, (x - minX) / rangeX);
+			this.chunkPoints.put(this.chunkCount * 2 + 1, (y - minY) / rangeY);
+			this.chunkColors.position(this.chunkCount * 4);
+			ColorEngine.putColor(this.chunkColors, colors[i - start], 1.f);
+			++this.chunkCount;
+		}
+
+		// the buffer is drawn from its position
+		this.chunkColors.rewind();
+
+		return true;
+	}
+
+	@Override
+	protected void drawChunks(GL2 gl) {
+		if (this.chunkCount == 0) {
+			return;
+		}
+
+		// same viewport as the processed points, but without shader and buffer objects
+		gl.glPushMatrix();
+		gl.glTranslatef(AXIS_PART_SIZE + this.icontroller.getDX(), AXIS_PART_SIZE + this.icontroller.getDY(), 0.f);
+		gl.glScalef(this.icontroller.getScaleX() * this.size, this.icontroller.getScaleY() * this.size, 1.f);
+
+		gl.glPointSize(DOTSIZE);
+		gl.glVertexPointer(2, GL2.GL_FLOAT, 0, this.chunkPoints);
+		gl.glColorPointer(4, GL2.GL_FLOAT, 0, this.chunkColors);
+		gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
+		gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
+		gl.glDrawArrays(GL2.GL_POINTS, 0, this.chunkCount);
+		gl.glDisableClientState(GL2.GL_VERTEX_ARRAY);
+		gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
+		gl.glPointSize(1.f);
+
+		gl.glPopMatrix();
+	}
+
+	/**
+	 * Binds the shader and the attributes of the points.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 * @param columnX
+	 *            the vertex buffer object of the x values.
+	 * @param columnY
+	 *            the vertex buffer object of the y values.
+	 */
+	private void beginPoints(GL2 gl, int columnX, int columnY) {
+		final float scaleX = this.icontroller.getScaleX();
+		final float scaleY = this.icontroller.getScaleY();
+		final float dx = this.icontroller.getDX();
+		final float dy = this.icontroller.getDY();
+
+		gl.glUseProgram(this.shaderProgram);
+		gl.glUniform2f(this.shaderUniformMinimum, this.minX, this.minY);
+		gl.glUniform2f(this.shaderUniformMaximum, this.minX + this.rangeX, this.minY + this.rangeY);
+		gl.glUniform2f(this.shaderUniformScale, scaleX * this.size, scaleY * this.size);
+		gl.glUniform2f(this.shaderUniformOffset, AXIS_PART_SIZE + dx, AXIS_PART_SIZE + dy);
+		gl.glUniform1f(this.shaderUniformAlpha, this.nonSelectedAlpha);
+
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, columnX);
+		gl.glVertexAttribPointer(ATTRIBUTE_X, 1, GL2.GL_FLOAT, false, 0, 0);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, columnY);
+		gl.glVertexAttribPointer(ATTRIBUTE_Y, 1, GL2.GL_FLOAT, false, 0, 0);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_SELECTED]);
+		gl.glVertexAttribPointer(ATTRIBUTE_SELECTED, 1, GL2.GL_FLOAT, false, 0, 0);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_COLOR]);
+		gl.glColorPointer(4, GL2.GL_FLOAT, 0, 0);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+
+		gl.glPointSize(DOTSIZE);
+		gl.glEnableVertexAttribArray(ATTRIBUTE_X);
+		gl.glEnableVertexAttribArray(ATTRIBUTE_Y);
+		gl.glEnableVertexAttribArray(ATTRIBUTE_SELECTED);
+		gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
+	}
+
+	/**
+	 * Unbinds the shader and the attributes of the points.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 */
+	private void endPoints(GL2 gl) {
+		gl.glDisableVertexAttribArray(ATTRIBUTE_X);
+		gl.glDisableVertexAttribArray(ATTRIBUTE_Y);
+		gl.glDisableVertexAttribArray(ATTRIBUTE_SELECTED);
+		gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
+		gl.glPointSize(1.f);
+
+		gl.glUseProgram(0);
+	}
+
+	/**
+	 * Draws a large number of points depending on the viewport. If only a few points are visible, exactly these are
+	 * drawn. Otherwise the density of the points is drawn, together with the outliers.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 * @param grid
+	 *            the grid of the points.
+	 * @param columnX
+	 *            the vertex buffer object of the x values.
+	 * @param columnY
+	 *            the vertex buffer object of the y values.
+	 */
+	private void drawLevelOfDetail(GL2 gl, PointGrid grid, int columnX, int columnY) {
+		final float scaleX = this.icontroller.getScaleX() * this.size;
+		final float scaleY = this.icontroller.getScaleY() * this.size;
+		final float dx = this.icontroller.getDX();
+		final float dy = this.icontroller.getDY();
+
+		if (grid != this.uploadedGrid) {
+			// order and density belong to the old grid
+			this.deleteBuffer(gl, VBO_ORDER);
+			this.deleteDensity(gl);
+			this.uploadedGrid = grid;
+		}
+
+		// visible bins
+		float drawWidth = this.getShapeWidth() - 2 * AXIS_PART_SIZE;
+		float drawHeight = this.getShapeHeight() - 2 * AXIS_PART_SIZE;
+		int fromColumn = grid.toCell(-dx / scaleX);
+		int toColumn = grid.toCell((drawWidth - dx) / scaleX);
+		int fromRow = grid.toCell(-dy / scaleY);
+		int toRow = grid.toCell((drawHeight - dy) / scaleY);
+
+		if (grid.count(fromColumn, fromRow, toColumn, toRow) <= LOD_POINT_LIMIT) {
+			// the points of neighboring bins are consecutive, so there is one range per row
+			this.uploadOrder(gl, grid);
+			this.beginPoints(gl, columnX, columnY);
+			gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, this.vbo[VBO_ORDER]);
+
+			for (int row = fromRow; row <= toRow; ++row) {
+				int start = grid.getStart(fromColumn, row);
+				int count = grid.getEnd(toColumn, row) - start;
+
+				if (count > 0) {
+					gl.glDrawElements(GL2.GL_POINTS, count, GL2.GL_UNSIGNED_INT, (long) start * Buffers.SIZEOF_INT);
+				}
+			}
+
+			gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, 0);
+			this.endPoints(gl);
+		} else {
+			this.uploadDensity(gl, grid);
+
+			gl.glEnable(GL2.GL_TEXTURE_2D);
+			gl.glBindTexture(GL2.GL_TEXTURE_2D, this.vbo[VBO_DENSITY]);
+			gl.glColor4f(1.f, 1.f, 1.f, 1.f);
+			gl.glBegin(GL2.GL_QUADS);
+			gl.glTexCoord2f(0.f, 0.f);
+			gl.glVertex2f(AXIS_PART_SIZE + dx, AXIS_PART_SIZE + dy);
+			gl.glTexCoord2f(1.f, 0.f);
+			gl.glVertex2f(AXIS_PART_SIZE + dx + scaleX, AXIS_PART_SIZE + dy);
+			gl.glTexCoord2f(1.f, 1.f);
+			gl.glVertex2f(AXIS_PART_SIZE + dx + scaleX, AXIS_PART_SIZE + dy + scaleY);
+			gl.glTexCoord2f(0.f, 1.f);
+			gl.glVertex2f(AXIS_PART_SIZE + dx, AXIS_PART_SIZE + dy + scaleY);
+			gl.glEnd();
+			gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+			gl.glDisable(GL2.GL_TEXTURE_2D);
+
+			// outliers are drawn exactly
+			this.uploadOutliers(gl);
+
+			if (this.outlierCount > 0) {
+				this.beginPoints(gl, columnX, columnY);
+				gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, this.vbo[VBO_OUTLIERS]);
+				gl.glDrawElements(GL2.GL_POINTS, this.outlierCount, GL2.GL_UNSIGNED_INT, 0);
+				gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, 0);
+				this.endPoints(gl);
+			}
+		}
+	}
+
+	/**
+	 * Creates the columns and the grid of the chosen axes, if they are not prepared yet. The work is done without
+	 * holding the lock of the plot, the results are dropped, if the data changed in the meantime.
+	 * 
+	 * @throws InterruptedException
+	 *             if building the grid is interrupted.
+	 */
+	private void prepareAxes() throws InterruptedException {
+		Feature featureX;
+		Feature featureY;
+		ElementData[] data;
+		FloatBuffer[] columns;
+		int indexX;
+		int indexY;
+
+		synchronized (this) {
+			featureX = this.featureX;
+			featureY = this.featureY;
+			data = this.data;
+			columns = this.columns;
+			indexX = this.getColumnIndex(featureX);
+			indexY = this.getColumnIndex(featureY);
+
+			if (this.n == 0 || indexX < 0 || indexY < 0
+					|| (this.gridFeatureX == featureX && this.gridFeatureY == featureY)) {
+				return;
+			}
+		}
+
+		FloatBuffer columnX = (columns[indexX] != null) ? columns[indexX] : createColumn(data, featureX);
+		FloatBuffer columnY = (columns[indexY] != null) ? columns[indexY] : createColumn(data, featureY);
+
+		PointGrid grid = new PointGrid(columnX, columnY, featureX.getMinValue(), featureX.getMaxValue(), featureY
+				.getMinValue(), featureY.getMaxValue(), GRID_RESOLUTION, this.gridExecutor, Runtime.getRuntime()
+				.availableProcessors());
+
+		synchronized (this) {
+			if (this.columns != columns) {
+				return;
+			}
+
+			columns[indexX] = columnX;
+			columns[indexY] = columnY;
+			this.grid = grid;
+			this.gridFeatureX = featureX;
+			this.gridFeatureY = featureY;
+		}
+	}
+
+	/**
+	 * Returns the ids of all points inside a polygon.
+	 * 
+	 * Only the bins in the bounding box of the polygon are considered. Bins inside the polygon are taken as a whole,
+	 * only the points of bins on its boundary and of the border bins, which also hold the points beyond the value
+	 * ranges, are tested one by one.
+	 * 
+	 * @param shape
+	 *            the polygon in screen coordinates.
+	 * @param scaleX
+	 *            the zoom of the x-axis.
+	 * @param scaleY
+	 *            the zoom of the y-axis.
+	 * @param dx
+	 *            the pan of the x-axis.
+	 * @param dy
+	 *            the pan of the y-axis.
+	 * @return the ids of the points.
+	 */
+	private int[] selectInPolygon(Polygon shape, float scaleX, float scaleY, float dx, float dy) {
+		PointGrid grid;
+		FloatBuffer columnX;
+		FloatBuffer columnY;
+		IntBuffer ids;
+		float minX;
+		float minY;
+		float rangeX;
+		float rangeY;
+
+		// take a consistent snapshot of the drawn data
+		synchronized (this) {
+			Feature featureX = this.gridFeatureX;
+			Feature featureY = this.gridFeatureY;
+
+			if (featureX == null || featureY == null) {
+				return new int[0];
+			}
+
+			grid = this.grid;
+			columnX = this.getColumn(featureX);
+			columnY = this.getColumn(featureY);
+			ids = this.ibuffer;
+			minX = featureX.getMinValue();
+			minY = featureY.getMinValue();
+			rangeX = featureX.getMaxValue() - minX;
+			rangeY = featureY.getMaxValue() - minY;
+		}
+
+		if (grid == null || columnX == null || columnY == null) {
+			return new int[0];
+		}
+
+		// normalized coordinates to screen coordinates
+		float factorX = this.size * scaleX;
+		float factorY = this.size * scaleY;
+		float offsetX = dx + AXIS_PART_SIZE;
+		float offsetY = dy;
+
+		int resolution = grid.getResolution();
+		float cellWidth = factorX / resolution;
+		float cellHeight = factorY / resolution;
+
+		Rectangle bounds = shape.getBounds();
+		int fromColumn = grid.toCell((bounds.x - offsetX) / factorX);
+		int toColumn = grid.toCell((bounds.x + bounds.width - offsetX) / factorX);
+		int fromRow = grid.toCell((bounds.y - offsetY) / factorY);
+		int toRow = grid.toCell((bounds.y + bounds.height - offsetY) / factorY);
+
+		int[] selection = new int[grid.count(fromColumn, fromRow, toColumn, toRow)];
+		int spos = 0;
+
+		for (int row = fromRow; row <= toRow; ++row) {
+			for (int column = fromColumn; column <= toColumn; ++column) {
+				int start = grid.getStart(column, row);
+				int end = grid.getEnd(column, row);
+
+				if (start == end) {
+					continue;
+				}
+
+				boolean border = column == 0 || row == 0 || column == resolution - 1 || row == resolution - 1;
+				float cellX = column * cellWidth + offsetX;
+				float cellY = row * cellHeight + offsetY;
+
+				if (!border && shape.contains(cellX, cellY, cellWidth, cellHeight)) {
+					for (int p = start; p < end; ++p) {
+						selection[spos++] = ids.get(grid.getIndex(p));
+					}
+				} else if (border || shape.intersects(cellX, cellY, cellWidth, cellHeight)) {
+					for (int p = start; p < end; ++p) {
+						int i = grid.getIndex(p);
+						float x = (columnX.get(i) - minX) / rangeX;
+						float y = (columnY.get(i) - minY) / rangeY;
+
+						if (shape.contains(x * factorX + offsetX, y * factorY + offsetY)) {
+							selection[spos++] = ids.get(i);
+						}
+					}
+				}
+			}
+		}
+
+		return Arrays.copyOf(selection, spos);
+	}
+
+	/**
+	 * Transfers the point indices ordered by bin to graphics card memory, if this has not happened yet.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 * @param grid
+	 *            the grid.
+	 */
+	private void uploadOrder(GL2 gl, PointGrid grid) {
+		if (this.vbo[VBO_ORDER] != 0) {
+			return;
+		}
+
+		IntBuffer order = Buffers.newDirectIntBuffer(grid.getOrder());
+
+		gl.glGenBuffers(1, this.vbo, VBO_ORDER);
+		gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, this.vbo[VBO_ORDER]);
+		gl.glBufferData(GL2.GL_ELEMENT_ARRAY_BUFFER, order.limit() * Buffers.SIZEOF_INT, order, GL2.GL_STATIC_DRAW);
+		gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Transfers the indices of the points above the outlier threshold to graphics card memory, if this has not
+	 * happened yet.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 */
+	private synchronized void uploadOutliers(GL2 gl) {
+		if (this.outliersChanged) {
+			this.outliersChanged = false;
+			this.deleteBuffer(gl, VBO_OUTLIERS);
+		}
+
+		if (this.vbo[VBO_OUTLIERS] != 0) {
+			return;
+		}
+
+		// the effective outlierness is the virtual feature
+		Feature outlierness = null;
+		for (Feature feature : this.columnFeatures) {
+			if (feature.isVirtual()) {
+				outlierness = feature;
+			}
+		}
+
+		FloatBuffer column = (outlierness != null) ? this.getColumn(outlierness) : null;
+		int[] outliers = new int[0];
+		this.outlierCount = 0;
+
+		if (column != null) {
+			float min = outlierness.getMinValue();
+			float limit = min + this.outlierThreshold * (outlierness.getMaxValue() - min);
+			outliers = new int[this.n];
+
+			for (int i = 0; i < this.n; i++) {
+				if (column.get(i) > limit) {
+					outliers[this.outlierCount++] = i;
+				}
+			}
+		}
+
+		IntBuffer buffer = Buffers.newDirectIntBuffer(this.outlierCount);
+		buffer.put(outliers, 0, this.outlierCount);
+		buffer.rewind();
+
+		gl.glGenBuffers(1, this.vbo, VBO_OUTLIERS);
+		gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, this.vbo[VBO_OUTLIERS]);
+		gl.glBufferData(GL2.GL_ELEMENT_ARRAY_BUFFER, this.outlierCount * Buffers.SIZEOF_INT, buffer,
+				GL2.GL_STATIC_DRAW);
+		gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Transfers the density of the points to graphics card memory as texture. The density is computed in parallel
+	 * for a new grid or new colors, after a selection only the bins of the elements, whose selection changed, are
+	 * computed and transferred again.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 * @param grid
+	 *            the grid.
+	 */
+	private synchronized void uploadDensity(GL2 gl, PointGrid grid) {
+		int resolution = grid.getResolution();
+		int fromRow = 0;
+		int toRow = 0;
+
+		if (grid != this.densityGrid) {
+			try {
+				this.computeDensity(grid);
+			} catch (InterruptedException e) {
+				// the plot is released
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			toRow = resolution;
+		} else if (!this.densityChanges.isEmpty()) {
+			BitSet bins = new BitSet(resolution * resolution);
+			fromRow = resolution;
+
+			for (int i = this.densityChanges.nextSetBit(0); i >= 0 && i < this.n; i = this.densityChanges
+					.nextSetBit(i + 1)) {
+				int bin = grid.getBin(i);
+
+				if (bin >= 0 && !bins.get(bin)) {
+					bins.set(bin);
+					this.putDensity(grid, bin % resolution, bin / resolution);
+
+					fromRow = Math.min(fromRow, bin / resolution);
+					toRow = Math.max(toRow, bin / resolution + 1);
+				}
+			}
+
+			this.densityChanges.clear();
+		}
+
+		if (this.vbo[VBO_DENSITY] == 0) {
+			gl.glGenTextures(1, this.vbo, VBO_DENSITY);
+			gl.glBindTexture(GL2.GL_TEXTURE_2D, this.vbo[VBO_DENSITY]);
+			gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_MIN_FILTER, GL2.GL_NEAREST);
+			gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_MAG_FILTER, GL2.GL_NEAREST);
+			gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_WRAP_S, GL2.GL_CLAMP_TO_EDGE);
+			gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_WRAP_T, GL2.GL_CLAMP_TO_EDGE);
+			gl.glTexImage2D(GL2.GL_TEXTURE_2D, 0, GL2.GL_RGBA, resolution, resolution, 0, GL2.GL_RGBA,
+					GL2.GL_UNSIGNED_BYTE, this.density);
+			gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+		} else if (fromRow < toRow) {
+			// only the rows of changed bins are transferred
+			ByteBuffer rows = this.density.duplicate();
+			rows.position(fromRow * resolution * 4);
+
+			gl.glBindTexture(GL2.GL_TEXTURE_2D, this.vbo[VBO_DENSITY]);
+			gl.glTexSubImage2D(GL2.GL_TEXTURE_2D, 0, 0, fromRow, resolution, toRow - fromRow, GL2.GL_RGBA,
+					GL2.GL_UNSIGNED_BYTE, rows);
+			gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+		}
+	}
+
+	/**
+	 * Computes the density of all bins of a grid into {@link #density}. The rows are computed in parallel.
+	 * 
+	 * @param grid
+	 *            the grid.
+	 * @throws InterruptedException
+	 *             if the computation is interrupted.
+	 */
+	private void computeDensity(PointGrid grid) throws InterruptedException {
+		int resolution = grid.getResolution();
+		int maxCount = 1;
+
+		for (int row = 0; row < resolution; ++row) {
+			for (int column = 0; column < resolution; ++column) {
+				maxCount = Math.max(maxCount, grid.getEnd(column, row) - grid.getStart(column, row));
+			}
+		}
+
+		if (this.density == null || this.density.capacity() != resolution * resolution * 4) {
+			this.density = Buffers.newDirectByteBuffer(resolution * resolution * 4);
+		}
+
+		this.densityGrid = null;
+		this.densityLogMax = Math.log(1 + maxCount);
+		this.densityChanges.clear();
+
+		int chunks = ParallelSort.getChunkCount(grid.size(), Runtime.getRuntime().availableProcessors());
+		List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(chunks);
+
+		for (int i = 0; i < chunks; ++i) {
+			jobsQ.add(new DensityTask(grid, ParallelSort.getChunkStart(resolution, chunks, i), ParallelSort
+					.getChunkStart(resolution, chunks, i + 1)));
+		}
+
+		ParallelSort.invokeAll(this.gridExecutor, jobsQ);
+		this.densityGrid = grid;
+	}
+
+	/**
+	 * Writes the density of a bin into {@link #density}.
+	 * 
+	 * Each bin gets the average color of its points, its alpha grows logarithmic with the number of points. Bins
+	 * without selected points are faded like non selected points.
+	 * 
+	 * @param grid
+	 *            the grid.
+	 * @param column
+	 *            the column of the bin.
+	 * @param row
+	 *            the row of the bin.
+	 */
+	private void putDensity(PointGrid grid, int column, int row) {
+		int start = grid.getStart(column, row);
+		int end = grid.getEnd(column, row);
+		float red = 0.f;
+		float green = 0.f;
+		float blue = 0.f;
+		boolean selected = false;
+
+		for (int p = start; p < end; ++p) {
+			int i = grid.getIndex(p);
+			red += this.cbuffer.get(i * 4);
+			green += this.cbuffer.get(i * 4 + 1);
+			blue += this.cbuffer.get(i * 4 + 2);
+			selected |= this.sbuffer.get(i) > 0.f;
+		}
+
+		int count = Math.max(1, end - start);
+		float alpha = (float) (Math.log(1 + end - start) / this.densityLogMax)
+				* (selected ? 1.f : this.nonSelectedAlpha);
+		int offset = (row * grid.getResolution() + column) * 4;
+
+		this.density.put(offset, (byte) Math.round(red / count * 255));
+		this.density.put(offset + 1, (byte) Math.round(green / count * 255));
+		this.density.put(offset + 2, (byte) Math.round(blue / count * 255));
+		this.density.put(offset + 3, (byte) Math.round(alpha * 255));
+	}
+
+	/**
+	 * Deletes the density texture, which will be created again on demand.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 */
+	private void deleteDensity(GL2 gl) {
+		if (this.vbo[VBO_DENSITY] != 0) {
+			gl.glDeleteTextures(1, this.vbo, VBO_DENSITY);
+			this.vbo[VBO_DENSITY] = 0;
+		}
+	}
+
+	@Override
+	protected void dispose(GL2 gl) {
+		this.cleanupVBO(gl);
+	}
+
+	@Override
+	public String getName() {
+		return Settings.getInstance().getResourceBundle().getString("scatterplot");
+	}
+
+	@Override
+	protected void processData() throws DatabaseAccessException, InterruptedException {
+		// the data is loaded without the lock of the plot, so the chunks can be drawn meanwhile
+		ElementData[] data = this.dataHub.getData();
+
+		this.processData(data, this.dataHub.getColors(data));
+	}
+
+	/**
+	 * Replaces the shown elements and prepares the chosen axes.
+	 * 
+	 * @param data
+	 *            the elements.
+	 * @param colors
+	 *            the colors of the elements.
+	 * @throws InterruptedException
+	 *             if building the grid is interrupted.
+	 */
+	private void processData(ElementData[] data, int[] colors) throws InterruptedException {
+		synchronized (this) {
+			this.storeData(data, colors);
+		}
+
+		// prepare the shown axes and their grid, further features are prepared on demand
+		this.prepareAxes();
+	}
+
+	/**
+	 * Stores the ids, colors and selection of the elements, the values are created later on.
+	 * 
+	 * @param data
+	 *            the elements.
+	 * @param colors
+	 *            the colors of the elements.
+	 */
+	private void storeData(ElementData[] data, int[] colors) {
+		this.data = data;
+		this.n = data.length;
+		this.elementsChanged = true;
+
+		// the values of the old elements are worthless now
+		this.columnFeatures = (this.features != null) ? this.features : new Feature[0];
+		this.columns = new FloatBuffer[this.columnFeatures.length];
+		this.grid = null;
+		this.gridFeatureX = null;
+		this.gridFeatureY = null;
+
+		if (this.n > 0) {
+			this.cbuffer = Buffers.newDirectFloatBuffer(this.n * 4);
+			this.sbuffer = Buffers.newDirectFloatBuffer(this.n);
+			this.ibuffer = Buffers.newDirectIntBuffer(this.n);
+			int maxId = 0;
+
+			for (int i = 0; i < this.n; i++) {
+				// store id for later usage
+				this.ibuffer.put(data[i].getId());
+				maxId = Math.max(maxId, data[i].getId());
+			}
+
+			this.ibuffer.rewind();
+
+			this.indexOfId = new int[maxId + 1];
+
+			for (int i = 0; i < this.n; i++) {
+				this.indexOfId[data[i].getId()] = i + 1;
+			}
+
+			this.fillColors(data, colors);
+
+			// the outliers over the density are found by the effective outlierness
+			if (this.n > LOD_POINT_LIMIT) {
+				for (Feature feature : this.columnFeatures) {
+					if (feature.isVirtual()) {
+						this.getColumn(feature);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void processColors() throws DatabaseAccessException, InterruptedException {
+		ElementData[] data = this.dataHub.getData();
+		int[] colors = this.dataHub.getColors(data);
+
+		synchronized (this) {
+			if (data.length == this.n && this.hasSameIds(data)) {
+				this.data = data;
+
+				BitSet changed = this.takeSelectionChanges();
+
+				if (this.n > 0) {
+					if (changed == null) {
+						this.fillColors(data, colors);
+					} else {
+						this.fillSelection(changed);
+					}
+				}
+
+				return;
+			}
+		}
+
+		// the shown elements have changed, e.g. by a new group, so the positions are outdated, too
+		this.processData(data, colors);
+	}
+
+	/**
+	 * Checks if the given elements are the ones stored in {@link #ibuffer}.
+	 * 
+	 * @param data
+	 *            the elements, which have the same length as the buffer.
+	 * @return true, if the ids are the same and in the same order.
+	 */
+	private boolean hasSameIds(ElementData[] data) {
+		for (int i = 0; i < data.length; i++) {
+			if (this.ibuffer.get(i) != data[i].getId()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Writes the colors of the given elements into {@link #cbuffer} and their selection into {@link #sbuffer}.
+	 * 
+	 * @param data
+	 *            the elements in the same order as the ids.
+	 * @param colors
+	 *            the colors of the elements.
+	 */
+	private void fillColors(ElementData[] data, int[] colors) {
+		boolean selection = this.selectionController.isSomethingSelected();
+		this.updateNonSelectedAlpha(selection);
+
+		this.cbuffer.rewind();
+		this.sbuffer.rewind();
+
+		for (int i = 0; i < this.n; i++) {
+			ColorEngine.putColor(this.cbuffer, colors[i], 1.f);
+
+			this.sbuffer.put(!selection || this.selectionController.isSelected(data[i].getId()) ? 1.f : 0.f);
+		}
+
+		this.cbuffer.rewind();
+		this.sbuffer.rewind();
+
+		this.selectionShown = selection;
+		this.colorsDirty = true;
+		this.densityGrid = null;
+		this.selectionDirtyFrom = 0;
+		this.selectionDirtyTo = this.n;
+	}
+
+	/**
+	 * Updates {@link #sbuffer} after the selection of some elements changed, the colors stay the same.
+	 * 
+	 * @param changed
+	 *            the ids of the elements, whose selection changed.
+	 */
+	private void fillSelection(BitSet changed) {
+		boolean selection = this.selectionController.isSomethingSelected();
+		this.updateNonSelectedAlpha(selection);
+
+		if (selection != this.selectionShown) {
+			// the first selected or last unselected element changes the state of all elements
+			for (int i = 0; i < this.n; i++) {
+				this.sbuffer.put(i, !selection || this.selectionController.isSelected(this.ibuffer.get(i)) ? 1.f : 0.f);
 			}
-		});
-
-		this.resetMode();
 
-		// reset button
-		JButton resetButton = new JButton(this.resetViewportAction);
-		resetButton.setText(Settings.getInstance().getResourceBundle().getString("plotReset"));
+			this.selectionShown = selection;
+			this.selectionDirtyFrom = 0;
+			this.selectionDirtyTo = this.n;
+			this.densityGrid = null;
 
-		JButton clearselectionButton = new JButton(this.clearSelectionAction);
-		clearselectionButton.setText(Settings.getInstance().getResourceBundle().getString("scatterPlotResetSelection"));
+			return;
+		}
 
-		JPanel controlPanel = new JPanel(new GridLayout(0, 1));
-		controlPanel.setBorder(BorderFactory.createTitledBorder(Settings.getInstance().getResourceBundle().getString(
-				"scatterPlatControlPanel")));
-		controlPanel.add(resetButton);
-		controlPanel.add(clearselectionButton);
-		this.addToSidebar(controlPanel);
-	}
+		for (int id = changed.nextSetBit(0); id >= 0 && id < this.indexOfId.length; id = changed.nextSetBit(id + 1)) {
+			int i = this.indexOfId[id] - 1;
 
-	@Override
-	protected void registerShortcuts() {
-		EventController.getInstance().setAction(this.setModeScrollzoomAction, "eventModeZoomdrag");
-		EventController.getInstance().setAction(this.setModeBoxzoomAction, "eventModeBox");
-		EventController.getInstance().setAction(this.setModeLassoAction, "eventModeLasso");
-		EventController.getInstance().setAction(this.setModeLassoAction, "eventSetSelection");
-		EventController.getInstance().setAction(this.clearSelectionAction, "eventResetSelection");
-	}
+			if (i >= 0) {
+				this.sbuffer.put(i, !selection || this.selectionController.isSelected(id) ? 1.f : 0.f);
+				this.densityChanges.set(i);
 
-	@Override
-	protected void unregisterShortcuts() {
-		EventController.getInstance().removeAction("eventModeZoomdrag");
-		EventController.getInstance().removeAction("eventModeBox");
-		EventController.getInstance().removeAction("eventModeLasso");
-		EventController.getInstance().removeAction("eventSetSelection");
-		EventController.getInstance().removeAction("eventResetSelection");
+				if (this.selectionDirtyFrom >= this.selectionDirtyTo) {
+					this.selectionDirtyFrom = i;
+					this.selectionDirtyTo = i + 1;
+				} else {
+					this.selectionDirtyFrom = Math.min(this.selectionDirtyFrom, i);
+					this.selectionDirtyTo = Math.max(this.selectionDirtyTo, i + 1);
+				}
+			}
+		}
 	}
 
 	/**
-	 * Reset mode
+	 * Updates the alpha of non selected elements, which fades them more, the more elements are shown.
+	 * 
+	 * @param selection
+	 *            true, if something is selected.
 	 */
-	private void resetMode() {
-		this.scrollZoomButton.setSelected(true);
+	private void updateNonSelectedAlpha(boolean selection) {
+		this.nonSelectedAlpha = 1.f;
+		if (selection) {
+			this.nonSelectedAlpha = (float) (NON_SELECTED_ALPHA * Math.min(1.f, (Math.log(NON_SELECTED_ALPHA_BASE) / Math
+					.log(this.n))));
+		}
 	}
 
-	@Override
-	protected void setFeatures(Feature[] features) {
-		this.comboX.setModel(new DefaultComboBoxModel(features));
-		this.comboY.setModel(new DefaultComboBoxModel(features));
+	/**
+	 * Returns the raw values of a feature for the shown elements and creates them, if necessary.
+	 * 
+	 * @param feature
+	 *            the feature.
+	 * @return the values in the order of the ids or {@code null}, if the feature is not part of the processed data.
+	 */
+	private synchronized FloatBuffer getColumn(Feature feature) {
+		int index = this.getColumnIndex(feature);
 
-		this.featureX = (Feature) comboX.getSelectedItem();
-		this.featureY = (Feature) comboY.getSelectedItem();
-	}
+		if (index < 0) {
+			return null;
+		}
 
-	@Override
-	protected void init(GL2 gl) {
-		// enable smooth point/line drawing
-		gl.glEnable(GL2.GL_POINT_SMOOTH);
-		gl.glEnable(GL2.GL_LINE_SMOOTH);
-	}
+		if (this.columns[index] == null) {
+			this.columns[index] = createColumn(this.data, feature);
+		}
 
-	@Override
-	protected void rescale(GL2 gl) {
-		this.size = Math.min(this.getShapeWidth(), this.getShapeHeight()) - 2 * AXIS_PART_SIZE;
-		this.icontroller.setShapeX(this.getShapeX() + AXIS_PART_SIZE);
-		this.icontroller.setShapeY(this.getShapeY());
-		this.icontroller.setShapeWidth(this.getShapeWidth() - AXIS_PART_SIZE);
-		this.icontroller.setShapeHeight(this.getShapeHeight() - AXIS_PART_SIZE);
+		return this.columns[index];
 	}
 
-	@Override
-	protected void draw(GL2 gl) {
-		// get values from icontroller
-		final float scaleX = this.icontroller.getScaleX();
-		final float scaleY = this.icontroller.getScaleY();
-		final float dx = this.icontroller.getDX();
-		final float dy = this.icontroller.getDY();
-
-		// draw dots
-		if (this.n > 0) {
-			float scaleFactorX = scaleX * this.size;
-			float scaleFactorY = scaleY * this.size;
-
-			gl.glPushMatrix();
-			gl.glTranslatef(AXIS_PART_SIZE, AXIS_PART_SIZE, 0.f);
-			gl.glTranslatef(dx, dy, 0);
-			gl.glScalef(scaleFactorX, scaleFactorY, 1.f);
-			gl.glPointSize(DOTSIZE);
-			gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
-			gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
-			gl.glDrawArrays(GL2.GL_POINTS, 0, this.n);
-			gl.glDisableClientState(GL2.GL_VERTEX_ARRAY);
-			gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
-			gl.glPointSize(1.f);
-			gl.glPopMatrix();
-		}
+	/**
+	 * Creates the raw values of a feature for the given elements.
+	 * 
+	 * @param data
+	 *            the elements.
+	 * @param feature
+	 *            the feature.
+	 * @return the values in the order of the elements.
+	 */
+	private static FloatBuffer createColumn(ElementData[] data, Feature feature) {
+		FloatBuffer column = Buffers.newDirectFloatBuffer(data.length);
 
-		// draw box
-		if (this.icontroller.isBoxActive()) {
-			gl.glLineWidth(TOOL_LINES_WIDTH);
-			gl.glBegin(GL2.GL_LINE_LOOP);
-			gl.glVertex2f(this.icontroller.getBoxStartX(), this.icontroller.getBoxStartY() + AXIS_PART_SIZE);
-			gl.glVertex2f(this.icontroller.getBoxEndX(), this.icontroller.getBoxStartY() + AXIS_PART_SIZE);
-			gl.glVertex2f(this.icontroller.getBoxEndX(), this.icontroller.getBoxEndY() + AXIS_PART_SIZE);
-			gl.glVertex2f(this.icontroller.getBoxStartX(), this.icontroller.getBoxEndY() + AXIS_PART_SIZE);
-			gl.glEnd();
-			gl.glLineWidth(1.f);
+		for (int i = 0; i < data.length; i++) {
+			column.put(data[i].getValue(feature));
 		}
 
-		// draw lasso
-		if (this.icontroller.isLassoActive()) {
-			int[] xcoords = this.icontroller.getLassoPointsX();
-			int[] ycoords = this.icontroller.getLassoPointsY();
+		column.rewind();
 
-			gl.glColor4f(0.f, 0.f, 0.f, 1.f);
-			gl.glLineWidth(TOOL_LINES_WIDTH);
-			gl.glPolygonMode(GL2.GL_FRONT_AND_BACK, GL2.GL_LINE);
-			gl.glBegin(GL2.GL_POLYGON);
+		return column;
+	}
 
-			for (int i = 0; (i < xcoords.length) && (i < ycoords.length); i++) {
-				gl.glVertex2f(xcoords[i], ycoords[i] + AXIS_PART_SIZE);
+	/**
+	 * Returns the position of a feature in {@link #columnFeatures}.
+	 * 
+	 * @param feature
+	 *            the feature.
+	 * @return the position or -1, if it is not part of the processed data.
+	 */
+	private int getColumnIndex(Feature feature) {
+		for (int i = 0; i < this.columnFeatures.length; i++) {
+			if (this.columnFeatures[i] == feature) {
+				return i;
 			}
-
-			gl.glEnd();
-			gl.glColor4f(0.f, 0.f, 0.f, 1.f);
-			gl.glLineWidth(1.f);
-			gl.glPolygonMode(GL2.GL_FRONT_AND_BACK, GL2.GL_FILL);
 		}
 
-		// draw white background beyond axis
-		gl.glColor3f(1.f, 1.f, 1.f);
-		gl.glRectf(0, 0, AXIS_PART_SIZE, this.getShapeHeight());
-		gl.glRectf(0, 0, this.getShapeWidth(), AXIS_PART_SIZE);
+		return -1;
+	}
 
-		// draw axis
-		gl.glPushMatrix();
-		float drawWidth = this.getShapeWidth() - 2 * AXIS_PART_SIZE;
-		float drawHeight = this.getShapeHeight() - 2 * AXIS_PART_SIZE;
-		float drawRangeX = this.rangeX * drawWidth / this.size;
-		float drawRangeY = this.rangeY * drawHeight / this.size;
-		float minLabelY = (0 - dy) / (scaleY * drawHeight) * drawRangeY + this.minY;
-		float maxLabelY = (drawHeight - dy) / (scaleY * drawHeight) * drawRangeY + this.minY;
-		float minLabelX = (0 - dx) / (scaleX * drawWidth) * drawRangeX + this.minX;
-		float maxLabelX = (drawWidth - dx) / (scaleX * drawWidth) * drawRangeX + this.minX;
+	/**
+	 * Transfers the values of a feature to graphics card memory, if this has not happened yet. The values are not
+	 * created here, this is done in the background.
+	 * 
+	 * @param gl
+	 *            the render context.
+	 * @param feature
+	 *            the feature.
+	 * @return the vertex buffer object or 0, if there is nothing to draw.
+	 */
+	private synchronized int uploadColumn(GL2 gl, Feature feature) {
+		int index = this.getColumnIndex(feature);
 
-		if (minLabelX > maxLabelX) {
-			minLabelX = maxLabelX;
+		if (this.vbo == null || index < 0 || VBO_COLUMNS + index >= this.vbo.length) {
+			return 0;
 		}
 
-		if (minLabelY > maxLabelY) {
-			minLabelY = maxLabelY;
-		}
+		if (this.vbo[VBO_COLUMNS + index] == 0) {
+			FloatBuffer column = this.columns[index];
 
-		this.drawAxis(gl, AXIS_PART_SIZE, AXIS_PART_SIZE, drawHeight, nameY, minLabelY, maxLabelY, false);
-		this.drawAxis(gl, AXIS_PART_SIZE, AXIS_PART_SIZE, drawWidth, nameX, minLabelX, maxLabelX, true);
+			if (column == null) {
+				return 0;
+			}
 
-		gl.glPopMatrix();
-	}
+			gl.glGenBuffers(1, this.vbo, VBO_COLUMNS + index);
+			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_COLUMNS + index]);
+			gl.glBufferData(GL2.GL_ARRAY_BUFFER, column.limit() * Buffers.SIZEOF_FLOAT, column, GL2.GL_STATIC_DRAW);
+			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+		}
 
-	@Override
-	protected void dispose(GL2 gl) {
-		// nothing to do
+		return this.vbo[VBO_COLUMNS + index];
 	}
 
-	@Override
-	public String getName() {
-		return Settings.getInstance().getResourceBundle().getString("scatterplot");
+	/**
+	 * Updates names, minimum and range of the axes from the chosen features.
+	 */
+	private void updateAxes() {
+		this.updateAxes(this.featureX, this.featureY);
 	}
 
-	@Override
-	protected synchronized void processData() throws DatabaseAccessException, InterruptedException {
-		Feature featureX = this.featureX;
-		Feature featureY = this.featureY;
+	/**
+	 * Updates names, minimum and range of the axes from the given features.
+	 * 
+	 * @param featureX
+	 *            the feature of the x-axis.
+	 * @param featureY
+	 *            the feature of the y-axis.
+	 */
+	private void updateAxes(Feature featureX, Feature featureY) {
+		if (featureX == null || featureY == null) {
+			return;
+		}
 
 		this.nameX = featureX.getName();
 		this.nameY = featureY.getName();
 
 		this.minX = featureX.getMinValue();
 		this.minY = featureY.getMinValue();
-		float maxX = featureX.getMaxValue();
-		float maxY = featureY.getMaxValue();
-		this.rangeX = maxX - this.minX;
-		this.rangeY = maxY - this.minY;
-		boolean selection = this.selectionController.isSomethingSelected();
+		this.rangeX = featureX.getMaxValue() - this.minX;
+		this.rangeY = featureY.getMaxValue() - this.minY;
+	}
 
-		ElementData[] data = this.dataHub.getData();
+	@Override
+	protected synchronized void uploadData(GL2 gl) {
+		this.cleanupVBO(gl);
+		this.elementsChanged = false;
+		this.colorsDirty = false;
+		this.selectionDirtyFrom = 0;
+		this.selectionDirtyTo = 0;
+
+		if (this.n == 0) {
+			return;
+		}
 
-		this.n = data.length;
-		if (this.n > 0) {
-			this.vbuffer = Buffers.newDirectFloatBuffer(this.n * 2);
-			this.cbuffer = Buffers.newDirectFloatBuffer(this.n * 4);
-			this.ibuffer = Buffers.newDirectIntBuffer(this.n);
-			float nonSelectedAlphaFactor = (float) (NON_SELECTED_ALPHA * Math.min(1.f, (Math
-					.log(NON_SELECTED_ALPHA_BASE) / Math.log(this.n))));
+		// the columns and the level of detail are uploaded on demand
+		this.uploadedGrid = null;
+		this.vbo = new int[VBO_COLUMNS + this.columnFeatures.length];
+		gl.glGenBuffers(VBO_COLUMNS, this.vbo, 0);
 
-			for (int i = 0; i < this.n; i++) {
-				this.vbuffer.put((data[i].getValue(featureX) - this.minX) / this.rangeX);
-				this.vbuffer.put((data[i].getValue(featureY) - this.minY) / this.rangeY);
+		// colors and selection change with every selection, so they are updated in place
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_COLOR]);
+		gl.glBufferData(GL2.GL_ARRAY_BUFFER, this.cbuffer.limit() * Buffers.SIZEOF_FLOAT, this.cbuffer,
+				GL2.GL_DYNAMIC_DRAW);
 
-				float alphaFactor = 1.f;
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_SELECTED]);
+		gl.glBufferData(GL2.GL_ARRAY_BUFFER, this.sbuffer.limit() * Buffers.SIZEOF_FLOAT, this.sbuffer,
+				GL2.GL_DYNAMIC_DRAW);
 
-				if (selection) {
-					alphaFactor = this.selectionController.isSelected(data[i].getId()) ? 1.f : nonSelectedAlphaFactor;
-				}
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+	}
 
-				// color
-				Color color = ViewUtils.calcColor(data[i]);
-				this.cbuffer.put(color.getRed() / 255.f);
-				this.cbuffer.put(color.getGreen() / 255.f);
-				this.cbuffer.put(color.getBlue() / 255.f);
-				this.cbuffer.put(color.getAlpha() / 255.f * alphaFactor);
+	@Override
+	protected synchronized void uploadColors(GL2 gl) {
+		if (this.elementsChanged || this.vbo == null) {
+			this.uploadData(gl);
+			return;
+		}
 
-				// store id for later usage
-				this.ibuffer.put(data[i].getId());
-			}
+		if (this.colorsDirty) {
+			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_COLOR]);
+			gl.glBufferSubData(GL2.GL_ARRAY_BUFFER, 0, this.cbuffer.limit() * Buffers.SIZEOF_FLOAT, this.cbuffer);
+			this.colorsDirty = false;
+		}
 
-			this.vbuffer.rewind();
-			this.cbuffer.rewind();
-			this.ibuffer.rewind();
+		// only the range of changed selections is transferred
+		if (this.selectionDirtyFrom < this.selectionDirtyTo) {
+			FloatBuffer range = this.sbuffer.duplicate();
+			range.position(this.selectionDirtyFrom);
+
+			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, this.vbo[VBO_SELECTED]);
+			gl.glBufferSubData(GL2.GL_ARRAY_BUFFER, this.selectionDirtyFrom * Buffers.SIZEOF_FLOAT,
+					(this.selectionDirtyTo - this.selectionDirtyFrom) * Buffers.SIZEOF_FLOAT, range);
+			this.selectionDirtyFrom = 0;
+			this.selectionDirtyTo = 0;
 		}
+
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
 	}
 
-	@Override
-	protected synchronized void uploadData(GL2 gl) {
-		gl.glVertexPointer(2, GL2.GL_FLOAT, 0, this.vbuffer);
-		gl.glColorPointer(4, GL2.GL_FLOAT, 0, this.cbuffer);
+	/**
+	 * Cleanup GL memory.
+	 *
+	 * @param gl
+	 *            the render context.
+	 */
+	private void cleanupVBO(GL2 gl) {
+		if (this.vbo != null) {
+			this.deleteDensity(gl);
+
+			// unused buffers are 0, which is ignored
+			gl.glDeleteBuffers(this.vbo.length, this.vbo, 0);
+			this.vbo = null;
+		}
 	}
 
 	@Override
-	protected void draw(Graphics2D g2d) {
+	protected ShapeBatches batchData() {
 		// get values from icontroller
 		final float scaleX = this.icontroller.getScaleX();
 		final float scaleY = this.icontroller.getScaleY();
 		final float dx = this.icontroller.getDX();
 		final float dy = this.icontroller.getDY();
 		int size = Math.min(this.getShapeWidth(), this.getShapeHeight()) - 2 * AXIS_PART_SIZE;
+		this.updateAxes();
+		FloatBuffer columnX = this.getColumn(this.featureX);
+		FloatBuffer columnY = this.getColumn(this.featureY);
+		int count = (columnX != null && columnY != null) ? this.n : 0;
+		ShapeBatches batches = new ShapeBatches(DOTSIZE, 1.f);
 
-		// draw dots
-		for (int i = 0; i < this.n; i++) {
-			float x = this.vbuffer.get(i * 2) * scaleX * size + dx;
-			float y = this.vbuffer.get(i * 2 + 1) * scaleY * size + dy;
+		// dots with equal colors are drawn together
+		for (int i = 0; i < count; i++) {
+			float x = (columnX.get(i) - this.minX) / this.rangeX * scaleX * size + dx;
+			float y = (columnY.get(i) - this.minY) / this.rangeY * scaleY * size + dy;
 
 			if ((x >= 0.f) && (x <= this.getShapeWidth() - 2 * AXIS_PART_SIZE) && (y >= 0.f)
 					&& (y <= this.getShapeHeight() - 2 * AXIS_PART_SIZE)) {
-				g2d.setColor(new Color(this.cbuffer.get(i * 4), this.cbuffer.get(i * 4 + 1), this.cbuffer
-						.get(i * 4 + 2), this.cbuffer.get(i * 4 + 3)));
-				g2d.fillOval(Math.round(x + AXIS_PART_SIZE - DOTSIZE / 2.f), Math.round(y + AXIS_PART_SIZE - DOTSIZE
-						/ 2.f), Math.round(DOTSIZE), Math.round(DOTSIZE));
+				float alpha = this.sbuffer.get(i) > 0.f ? 1.f : this.nonSelectedAlpha;
+				int color = ColorEngine.pack(this.cbuffer.get(i * 4), this.cbuffer.get(i * 4 + 1), this.cbuffer
+						.get(i * 4 + 2), this.cbuffer.get(i * 4 + 3) * alpha);
+				batches.addDot(color, x + AXIS_PART_SIZE, y + AXIS_PART_SIZE);
 			}
 		}
 
+		return batches;
+	}
+
+	@Override
+	protected void draw(Graphics2D g2d) {
+		// get values from icontroller
+		final float scaleX = this.icontroller.getScaleX();
+		final float scaleY = this.icontroller.getScaleY();
+		final float dx = this.icontroller.getDX();
+		final float dy = this.icontroller.getDY();
+		int size = Math.min(this.getShapeWidth(), this.getShapeHeight()) - 2 * AXIS_PART_SIZE;
+		this.updateAxes();
+
 		g2d.setColor(Color.BLACK);
 
 		// draw axis
@@ -1103,22 +2423,12 @@ public class ScatterPlot extends GLPlot {
 					resetMode();
 				} else if (this.imode == MODES.LASSO) {
 					Polygon shape = new Polygon(this.getLassoPointsX(), this.getLassoPointsY(), this.lassoX.size());
-					int[] selection = new int[n];
-					int spos = 0;
-
-					for (int i = 0; i < n; i++) {
-						float x = vbuffer.get(i * 2);
-						float y = vbuffer.get(i * 2 + 1);
-						if (shape.contains(x * size * this.scaleX + this.dX + AXIS_PART_SIZE, y * size * this.scaleY
-								+ this.dY)) {
-							selection[spos++] = ibuffer.get(i);
-						}
-					}
 
 					this.lassoActive = false;
 					resetMode();
 
-					selectionController.select(selection);
+					// large data sets would block the ui
+					selectionExecutor.submit(new LassoSelection(shape, this.scaleX, this.scaleY, this.dX, this.dY));
 				}
 			}
 		}
@@ -1191,6 +2501,122 @@ public class ScatterPlot extends GLPlot {
 		}
 	}
 
+	/**
+	 * Computes the density of a range of rows of a grid.
+	 */
+	private class DensityTask implements Callable<Object> {
+
+		/**
+		 * The grid.
+		 */
+		private final PointGrid grid;
+
+		/**
+		 * The first row of the range.
+		 */
+		private final int fromRow;
+
+		/**
+		 * The row after the last one of the range.
+		 */
+		private final int toRow;
+
+		/**
+		 * Constructs a new {@code DensityTask}.
+		 * 
+		 * @param grid
+		 *            the grid.
+		 * @param fromRow
+		 *            the first row of the range.
+		 * @param toRow
+		 *            the row after the last one of the range.
+		 */
+		public DensityTask(PointGrid grid, int fromRow, int toRow) {
+			this.grid = grid;
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+		}
+
+		@Override
+		public Object call() {
+			int resolution = this.grid.getResolution();
+
+			// the rows of the tasks are disjoint, so every task writes its own bytes
+			for (int row = this.fromRow; row < this.toRow; ++row) {
+				for (int column = 0; column < resolution; ++column) {
+					putDensity(this.grid, column, row);
+				}
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Selects the points inside a lasso.
+	 */
+	private class LassoSelection implements Runnable {
+
+		/**
+		 * The lasso in screen coordinates.
+		 */
+		private final Polygon shape;
+
+		/**
+		 * The zoom of the x-axis, when the lasso was drawn.
+		 */
+		private final float scaleX;
+
+		/**
+		 * The zoom of the y-axis, when the lasso was drawn.
+		 */
+		private final float scaleY;
+
+		/**
+		 * The pan of the x-axis, when the lasso was drawn.
+		 */
+		private final float dx;
+
+		/**
+		 * The pan of the y-axis, when the lasso was drawn.
+		 */
+		private final float dy;
+
+		/**
+		 * Constructs a new {@code LassoSelection}.
+		 * 
+		 * @param shape
+		 *            the lasso in screen coordinates.
+		 * @param scaleX
+		 *            the zoom of the x-axis.
+		 * @param scaleY
+		 *            the zoom of the y-axis.
+		 * @param dx
+		 *            the pan of the x-axis.
+		 * @param dy
+		 *            the pan of the y-axis.
+		 */
+		public LassoSelection(Polygon shape, float scaleX, float scaleY, float dx, float dy) {
+			this.shape = shape;
+			this.scaleX = scaleX;
+			this.scaleY = scaleY;
+			this.dx = dx;
+			this.dy = dy;
+		}
+
+		@Override
+		public void run() {
+			final int[] selection = selectInPolygon(this.shape, this.scaleX, this.scaleY, this.dx, this.dy);
+
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					selectionController.select(selection);
+				}
+			});
+		}
+	}
+
 	/**
 	 * Set mode to scroll and zoom.
 	 */
@@ -0,0 +1,646 @@
+package gui.views.plots;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.apache.batik.util.Base64EncoderStream;
+
+/**
+ * The class {@code ShapeBatches} collects the bulk of a plot, dots and lines, grouped by their packed ARGB color.
+ *
+ * The shapes are stored as primitive coordinates only. They are drawn using java Graphics2D with one color change per
+ * batch, or written as svg with one path per batch of shapes, directly to a {@link Writer} instead of building a DOM.
+ * Optionally, dense areas are written as an embedded raster image, which keeps the svg small for huge data sets.
+ *
+ * The coordinates have their origin in the lower left corner, like the ones of {@link GLPlot#draw(Graphics2D)}.
+ */
+public final class ShapeBatches {
+
+	/**
+	 * N<sup>o</sup> of shapes per svg path, so viewers do not have to parse one huge path.
+	 */
+	private static final int SHAPES_PER_PATH = 10000;
+
+	/**
+	 * Size of the tiles, which decide about the raster fallback of dots, in pixel.
+	 */
+	private static final int TILE_SIZE = 16;
+
+	/**
+	 * N<sup>o</sup> of dots of a tile, from which on the tile is rasterized.
+	 */
+	private static final int DENSE_TILE_DOTS = 32;
+
+	/**
+	 * N<sup>o</sup> of lines, from which on all lines are rasterized. Lines cross many tiles, so they are rasterized
+	 * all or none.
+	 */
+	private static final int DENSE_LINES = 100000;
+
+	/**
+	 * Size of chars buffered before they are written.
+	 */
+	private static final int WRITE_BUFFER_SIZE = 65536;
+
+	/**
+	 * Diameter of the dots.
+	 */
+	private final float dotSize;
+
+	/**
+	 * Width of the lines.
+	 */
+	private final float lineWidth;
+
+	/**
+	 * Dot centers per color, x and y alternating.
+	 */
+	private final Map<Integer, Batch> dots = new LinkedHashMap<Integer, Batch>();
+
+	/**
+	 * Line ends per color, x1, y1, x2 and y2 of every line.
+	 */
+	private final Map<Integer, Batch> lines = new LinkedHashMap<Integer, Batch>();
+
+	/**
+	 * Color of the last added dot.
+	 */
+	private int lastDotColor;
+
+	/**
+	 * Batch of the last added dot, saves looking up the color of consecutive dots.
+	 */
+	private Batch lastDotBatch;
+
+	/**
+	 * Color of the last added line.
+	 */
+	private int lastLineColor;
+
+	/**
+	 * Batch of the last added line, saves looking up the color of consecutive lines.
+	 */
+	private Batch lastLineBatch;
+
+	/**
+	 * N<sup>o</sup> of dots.
+	 */
+	private int dotCount;
+
+	/**
+	 * N<sup>o</sup> of lines.
+	 */
+	private int lineCount;
+
+	/**
+	 * Constructs new, empty {@code ShapeBatches}.
+	 *
+	 * @param dotSize
+	 *            diameter of the dots.
+	 * @param lineWidth
+	 *            width of the lines.
+	 */
+	public ShapeBatches(float dotSize, float lineWidth) {
+		if (dotSize <= 0.f || lineWidth <= 0.f) {
+			throw new IllegalArgumentException("dotSize or lineWidth not positive");
+		}
+
+		this.dotSize = dotSize;
+		this.lineWidth = lineWidth;
+	}
+
+	/**
+	 * Adds a dot.
+	 *
+	 * @param color
+	 *            the packed ARGB color.
+	 * @param x
+	 *            x position of the center.
+	 * @param y
+	 *            y position of the center.
+	 */
+	public void addDot(int color, float x, float y) {
+		// invisible shapes are not worth storing
+		if ((color >>> 24) == 0) {
+			return;
+		}
+
+		if (this.lastDotBatch == null || this.lastDotColor != color) {
+			this.lastDotBatch = getBatch(this.dots, color);
+			this.lastDotColor = color;
+		}
+
+		this.lastDotBatch.add(x, y);
+		this.dotCount++;
+	}
+
+	/**
+	 * Adds a line.
+	 *
+	 * @param color
+	 *            the packed ARGB color.
+	 * @param x1
+	 *            x position of the start.
+	 * @param y1
+	 *            y position of the start.
+	 * @param x2
+	 *            x position of the end.
+	 * @param y2
+	 *            y position of the end.
+	 */
+	public void addLine(int color, float x1, float y1, float x2, float y2) {
+		if ((color >>> 24) == 0) {
+			return;
+		}
+
+		if (this.lastLineBatch == null || this.lastLineColor != color) {
+			this.lastLineBatch = getBatch(this.lines, color);
+			this.lastLineColor = color;
+		}
+
+		this.lastLineBatch.add(x1, y1);
+		this.lastLineBatch.add(x2, y2);
+		this.lineCount++;
+	}
+
+	/**
+	 * Returns the number of shapes.
+	 *
+	 * @return N<sup>o</sup> of dots and lines.
+	 */
+	public int size() {
+		return this.dotCount + this.lineCount;
+	}
+
+	/**
+	 * Draws all shapes using java Graphics2D, the lines below the dots.
+	 *
+	 * @param g2d
+	 *            render context, its color and stroke are restored afterwards.
+	 */
+	public void draw(Graphics2D g2d) {
+		Color oldColor = g2d.getColor();
+		Stroke oldStroke = g2d.getStroke();
+
+		this.drawLines(g2d);
+		this.drawDots(g2d, null, 0, 0);
+
+		g2d.setColor(oldColor);
+		g2d.setStroke(oldStroke);
+	}
+
+	/**
+	 * Writes all shapes as svg group.
+	 *
+	 * @param out
+	 *            receives the svg elements.
+	 * @param width
+	 *            width of the image.
+	 * @param height
+	 *            height of the image.
+	 * @param rasterFallback
+	 *            true, if dense areas should be written as embedded raster image.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	public void writeSVG(Writer out, int width, int height, boolean rasterFallback) throws IOException {
+		boolean[] denseTiles = null;
+		boolean denseLines = false;
+		int tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+		int tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+		if (rasterFallback) {
+			denseTiles = this.findDenseTiles(tilesX, tilesY);
+			denseLines = this.lineCount >= DENSE_LINES;
+
+			if (denseTiles != null || denseLines) {
+				this.writeRaster(out, width, height, denseTiles, tilesX, tilesY, denseLines);
+			}
+		}
+
+		// flip y axis
+		out.write("<g transform=\"matrix(1 0 0 -1 0 " + height + ")\">\n");
+
+		if (!denseLines) {
+			for (Map.Entry<Integer, Batch> entry : this.lines.entrySet()) {
+				this.writeLines(out, entry.getKey(), entry.getValue());
+			}
+		}
+
+		for (Map.Entry<Integer, Batch> entry : this.dots.entrySet()) {
+			this.writeDots(out, entry.getKey(), entry.getValue(), denseTiles, tilesX, tilesY);
+		}
+
+		out.write("</g>\n");
+	}
+
+	/**
+	 * Draws the lines using java Graphics2D.
+	 *
+	 * @param g2d
+	 *            render context.
+	 */
+	private void drawLines(Graphics2D g2d) {
+		g2d.setStroke(new BasicStroke(this.lineWidth));
+
+		for (Map.Entry<Integer, Batch> entry : this.lines.entrySet()) {
+			float[] coords = entry.getValue().coords;
+			int size = entry.getValue().size;
+			g2d.setColor(new Color(entry.getKey(), true));
+
+			for (int i = 0; i < size; i += 4) {
+				g2d.drawLine(Math.round(coords[i]), Math.round(coords[i + 1]), Math.round(coords[i + 2]), Math
+						.round(coords[i + 3]));
+			}
+		}
+	}
+
+	/**
+	 * Finds the tiles, which contain too many dots to be written as vectors.
+	 *
+	 * @param tilesX
+	 *            N<sup>o</sup> of tiles in x direction.
+	 * @param tilesY
+	 *            N<sup>o</sup> of tiles in y direction.
+	 * @return true for every dense tile, row by row, or null if no tile is dense.
+	 */
+	private boolean[] findDenseTiles(int tilesX, int tilesY) {
+		if (this.dotCount < DENSE_TILE_DOTS) {
+			return null;
+		}
+
+		int[] counts = new int[tilesX * tilesY];
+
+		for (Batch batch : this.dots.values()) {
+			for (int i = 0; i < batch.size; i += 2) {
+				counts[tileOf(batch.coords[i], batch.coords[i + 1], tilesX, tilesY)]++;
+			}
+		}
+
+		boolean[] dense = new boolean[counts.length];
+		boolean any = false;
+
+		for (int i = 0; i < counts.length; i++) {
+			dense[i] = counts[i] >= DENSE_TILE_DOTS;
+			any |= dense[i];
+		}
+
+		return any ? dense : null;
+	}
+
+	/**
+	 * Writes the dense shapes as embedded png image.
+	 *
+	 * @param out
+	 *            receives the svg element.
+	 * @param width
+	 *            width of the image.
+	 * @param height
+	 *            height of the image.
+	 * @param denseTiles
+	 *            the tiles, whose dots are rasterized, or null for none.
+	 * @param tilesX
+	 *            N<sup>o</sup> of tiles in x direction.
+	 * @param tilesY
+	 *            N<sup>o</sup> of tiles in y direction.
+	 * @param denseLines
+	 *            true, if the lines are rasterized.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	private void writeRaster(Writer out, int width, int height, boolean[] denseTiles, int tilesX, int tilesY,
+			boolean denseLines) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2d = image.createGraphics();
+
+		try {
+			// flip y axis
+			g2d.translate(0, height);
+			g2d.scale(1, -1);
+
+			if (denseLines) {
+				this.drawLines(g2d);
+			}
+
+			if (denseTiles != null) {
+				this.drawDots(g2d, denseTiles, tilesX, tilesY);
+			}
+		} finally {
+			g2d.dispose();
+		}
+
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		OutputStream base64 = new Base64EncoderStream(png);
+		ImageIO.write(image, "png", base64);
+		base64.close();
+
+		out.write("<image x=\"0\" y=\"0\" width=\"" + width + "\" height=\"" + height
+				+ "\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" xlink:href=\"data:image/png;base64,");
+		out.write(png.toString("US-ASCII"));
+		out.write("\"/>\n");
+	}
+
+	/**
+	 * Draws the dots using java Graphics2D.
+	 *
+	 * @param g2d
+	 *            render context.
+	 * @param denseTiles
+	 *            the tiles, whose dots are drawn, or null for all dots.
+	 * @param tilesX
+	 *            N<sup>o</sup> of tiles in x direction.
+	 * @param tilesY
+	 *            N<sup>o</sup> of tiles in y direction.
+	 */
+	private void drawDots(Graphics2D g2d, boolean[] denseTiles, int tilesX, int tilesY) {
+		int diameter = Math.round(this.dotSize);
+
+		for (Map.Entry<Integer, Batch> entry : this.dots.entrySet()) {
+			float[] coords = entry.getValue().coords;
+			int size = entry.getValue().size;
+			g2d.setColor(new Color(entry.getKey(), true));
+
+			for (int i = 0; i < size; i += 2) {
+				if (denseTiles == null || denseTiles[tileOf(coords[i], coords[i + 1], tilesX, tilesY)]) {
+					g2d.fillOval(Math.round(coords[i] - this.dotSize / 2.f), Math.round(coords[i + 1] - this.dotSize
+							/ 2.f), diameter, diameter);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the lines of one color as svg paths, connected lines continue the path.
+	 *
+	 * @param out
+	 *            receives the svg elements.
+	 * @param color
+	 *            the packed color.
+	 * @param batch
+	 *            the lines.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	private void writeLines(Writer out, int color, Batch batch) throws IOException {
+		String start = "<path fill=\"none\" stroke=\"" + toHex(color) + "\" stroke-opacity=\"" + toOpacity(color)
+				+ "\" stroke-width=\"" + this.lineWidth + "\" d=\"";
+		StringBuilder buffer = new StringBuilder();
+		float[] coords = batch.coords;
+		int shapes = 0;
+
+		for (int i = 0; i < batch.size; i += 4) {
+			if (shapes % SHAPES_PER_PATH == 0) {
+				buffer.append((shapes > 0) ? "\"/>\n" : "").append(start);
+			}
+
+			boolean connected = (shapes % SHAPES_PER_PATH != 0) && (coords[i] == coords[i - 2])
+					&& (coords[i + 1] == coords[i - 1]);
+
+			if (!connected) {
+				buffer.append('M');
+				appendNumber(buffer, coords[i]);
+				buffer.append(' ');
+				appendNumber(buffer, coords[i + 1]);
+			}
+
+			buffer.append('L');
+			appendNumber(buffer, coords[i + 2]);
+			buffer.append(' ');
+			appendNumber(buffer, coords[i + 3]);
+			shapes++;
+
+			flush(out, buffer, false);
+		}
+
+		if (shapes > 0) {
+			buffer.append("\"/>\n");
+		}
+
+		flush(out, buffer, true);
+	}
+
+	/**
+	 * Writes the dots of one color as svg paths of circles.
+	 *
+	 * @param out
+	 *            receives the svg elements.
+	 * @param color
+	 *            the packed color.
+	 * @param batch
+	 *            the dots.
+	 * @param denseTiles
+	 *            the rasterized tiles, whose dots are skipped, or null.
+	 * @param tilesX
+	 *            N<sup>o</sup> of tiles in x direction.
+	 * @param tilesY
+	 *            N<sup>o</sup> of tiles in y direction.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	private void writeDots(Writer out, int color, Batch batch, boolean[] denseTiles, int tilesX, int tilesY)
+			throws IOException {
+		String start = "<path fill=\"" + toHex(color) + "\" fill-opacity=\"" + toOpacity(color) + "\" d=\"";
+		StringBuilder buffer = new StringBuilder();
+		float[] coords = batch.coords;
+		float radius = this.dotSize / 2.f;
+		int shapes = 0;
+
+		// a circle is drawn by two arcs, relative to its leftmost point
+		StringBuilder arcs = new StringBuilder();
+		arcs.append('a');
+		appendNumber(arcs, radius);
+		arcs.append(' ');
+		appendNumber(arcs, radius);
+		arcs.append(" 0 1 0 ");
+		appendNumber(arcs, this.dotSize);
+		arcs.append(" 0a");
+		appendNumber(arcs, radius);
+		arcs.append(' ');
+		appendNumber(arcs, radius);
+		arcs.append(" 0 1 0 ");
+		appendNumber(arcs, -this.dotSize);
+		arcs.append(" 0");
+		String circle = arcs.toString();
+
+		for (int i = 0; i < batch.size; i += 2) {
+			if (denseTiles != null && denseTiles[tileOf(coords[i], coords[i + 1], tilesX, tilesY)]) {
+				continue;
+			}
+
+			if (shapes % SHAPES_PER_PATH == 0) {
+				buffer.append((shapes > 0) ? "\"/>\n" : "").append(start);
+			}
+
+			buffer.append('M');
+			appendNumber(buffer, coords[i] - radius);
+			buffer.append(' ');
+			appendNumber(buffer, coords[i + 1]);
+			buffer.append(circle);
+			shapes++;
+
+			flush(out, buffer, false);
+		}
+
+		if (shapes > 0) {
+			buffer.append("\"/>\n");
+		}
+
+		flush(out, buffer, true);
+	}
+
+	/**
+	 * Returns the batch of a color and creates it, if necessary.
+	 *
+	 * @param batches
+	 *            the batches per color.
+	 * @param color
+	 *            the packed color.
+	 * @return the batch.
+	 */
+	private static Batch getBatch(Map<Integer, Batch> batches, int color) {
+		Batch batch = batches.get(color);
+
+		if (batch == null) {
+			batch = new Batch();
+			batches.put(color, batch);
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Returns the tile of a position.
+	 *
+	 * @param x
+	 *            x position.
+	 * @param y
+	 *            y position.
+	 * @param tilesX
+	 *            N<sup>o</sup> of tiles in x direction.
+	 * @param tilesY
+	 *            N<sup>o</sup> of tiles in y direction.
+	 * @return the index of the tile, positions beyond the image belong to the border tiles.
+	 */
+	private static int tileOf(float x, float y, int tilesX, int tilesY) {
+		int tx = Math.max(0, Math.min(tilesX - 1, (int) Math.floor(x / TILE_SIZE)));
+		int ty = Math.max(0, Math.min(tilesY - 1, (int) Math.floor(y / TILE_SIZE)));
+
+		return ty * tilesX + tx;
+	}
+
+	/**
+	 * Writes the buffer, if it is full or if forced.
+	 *
+	 * @param out
+	 *            the writer.
+	 * @param buffer
+	 *            the buffer, which is cleared when written.
+	 * @param force
+	 *            true, if the buffer should be written in any case.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	private static void flush(Writer out, StringBuilder buffer, boolean force) throws IOException {
+		if (force || buffer.length() >= WRITE_BUFFER_SIZE) {
+			out.append(buffer);
+			buffer.setLength(0);
+		}
+	}
+
+	/**
+	 * Appends a number with one decimal place, which is exact enough for pixel, without formatting overhead.
+	 *
+	 * @param buffer
+	 *            the buffer.
+	 * @param value
+	 *            the number.
+	 */
+	private static void appendNumber(StringBuilder buffer, float value) {
+		int fixed = Math.round(value * 10.f);
+
+		if (fixed < 0) {
+			buffer.append('-');
+			fixed = -fixed;
+		}
+
+		buffer.append(fixed / 10);
+
+		if (fixed % 10 != 0) {
+			buffer.append('.').append(fixed % 10);
+		}
+	}
+
+	/**
+	 * Returns the svg notation of the rgb components of a packed color.
+	 *
+	 * @param color
+	 *            the packed color.
+	 * @return the color, e.g. #ff0000.
+	 */
+	private static String toHex(int color) {
+		return String.format("#%06x", color & 0xffffff);
+	}
+
+	/**
+	 * Returns the alpha component of a packed color for svg.
+	 *
+	 * @param color
+	 *            the packed color.
+	 * @return the opacity in [0, 1].
+	 */
+	private static String toOpacity(int color) {
+		return String.format(Locale.US, "%.3f", (color >>> 24) / 255.f);
+	}
+
+	/**
+	 * Coordinates of shapes of one color.
+	 */
+	private static class Batch {
+
+		/**
+		 * Initial N<sup>o</sup> of coordinates.
+		 */
+		private static final int INITIAL_CAPACITY = 64;
+
+		/**
+		 * The coordinates.
+		 */
+		private float[] coords = new float[INITIAL_CAPACITY];
+
+		/**
+		 * N<sup>o</sup> of used coordinates.
+		 */
+		private int size;
+
+		/**
+		 * Appends a position.
+		 *
+		 * @param x
+		 *            x position.
+		 * @param y
+		 *            y position.
+		 */
+		public void add(float x, float y) {
+			if (this.size + 2 > this.coords.length) {
+				float[] grown = new float[this.coords.length * 2];
+				System.arraycopy(this.coords, 0, grown, 0, this.size);
+				this.coords = grown;
+			}
+
+			this.coords[this.size++] = x;
+			this.coords[this.size++] = y;
+		}
+	}
+}
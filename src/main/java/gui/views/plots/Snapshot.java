@@ -0,0 +1,149 @@
+package gui.views.plots;
+
+import java.io.File;
+
+import controller.Feature;
+
+/**
+ * The class {@code Snapshot} describes an image of a plot, which is rendered by a {@link SnapshotRenderer}.
+ *
+ * The format of the image is selected by the suffix of its file, svg or any format supported by ImageIO, e.g. png.
+ */
+public final class Snapshot {
+
+	/**
+	 * The kinds of plots, which can be rendered.
+	 */
+	public enum Kind {
+		/**
+		 * A scatter plot of two features, the x axis first.
+		 */
+		SCATTER,
+
+		/**
+		 * An indicator plot of at least two features, in the order of the axes.
+		 */
+		INDICATOR,
+
+		/**
+		 * A histogram of one feature.
+		 */
+		HISTOGRAM
+	}
+
+	/**
+	 * The kind of the plot.
+	 */
+	private final Kind kind;
+
+	/**
+	 * The shown features.
+	 */
+	private final Feature[] features;
+
+	/**
+	 * Width of the image.
+	 */
+	private final int width;
+
+	/**
+	 * Height of the image.
+	 */
+	private final int height;
+
+	/**
+	 * The image file.
+	 */
+	private final File file;
+
+	/**
+	 * Constructs a new {@code Snapshot}.
+	 *
+	 * @param kind
+	 *            the kind of the plot.
+	 * @param features
+	 *            the shown features, which must belong to the rendered subspace.
+	 * @param width
+	 *            width of the image.
+	 * @param height
+	 *            height of the image.
+	 * @param file
+	 *            the image file, svg or any format supported by ImageIO.
+	 */
+	public Snapshot(Kind kind, Feature[] features, int width, int height, File file) {
+		if (kind == null || features == null || file == null) {
+			throw new IllegalArgumentException("kind, features or file is null");
+		}
+
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("width or height less than 1");
+		}
+
+		int count = features.length;
+
+		if ((kind == Kind.SCATTER && count != 2) || (kind == Kind.INDICATOR && count < 2)
+				|| (kind == Kind.HISTOGRAM && count != 1)) {
+			throw new IllegalArgumentException("wrong number of features for " + kind);
+		}
+
+		this.kind = kind;
+		this.features = features.clone();
+		this.width = width;
+		this.height = height;
+		this.file = file;
+	}
+
+	/**
+	 * Returns the kind of the plot.
+	 *
+	 * @return the kind.
+	 */
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	/**
+	 * Returns the shown features.
+	 *
+	 * @return the features.
+	 */
+	public Feature[] getFeatures() {
+		return this.features.clone();
+	}
+
+	/**
+	 * Returns the width of the image.
+	 *
+	 * @return the width in pixel.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Returns the height of the image.
+	 *
+	 * @return the height in pixel.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Returns the image file.
+	 *
+	 * @return the file.
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Checks, if the image is stored as svg.
+	 *
+	 * @return true for svg, false for a raster image.
+	 */
+	public boolean isSVG() {
+		return this.file.getName().endsWith(".svg");
+	}
+}
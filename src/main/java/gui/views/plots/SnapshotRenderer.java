@@ -0,0 +1,295 @@
+package gui.views.plots;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import controller.DataHub;
+import controller.Group;
+import controller.GroupController;
+import controller.SelectionController;
+import controller.Subspace;
+import controller.SubspaceController;
+import db.Database;
+import db.DatabaseAccessException;
+
+/**
+ * The class {@code SnapshotRenderer} renders images of plots of a workspace without a user interface, e.g. on servers
+ * without display.
+ *
+ * The plots are offscreen {@link GLPlot}s, which are drawn using their java Graphics2D implementation, so no OpenGL
+ * context is needed. The snapshots are rendered in parallel, every thread reuses its plots for all of its snapshots.
+ */
+public class SnapshotRenderer {
+
+	/**
+	 * The workspace.
+	 */
+	private final Database database;
+
+	/**
+	 * Controller of the subspaces of the workspace.
+	 */
+	private final SubspaceController subspaceController;
+
+	/**
+	 * Controller of the groups of the workspace.
+	 */
+	private final GroupController groupController;
+
+	/**
+	 * Selection of the plots, which stays empty.
+	 */
+	private final SelectionController selectionController;
+
+	/**
+	 * The data of the plots.
+	 */
+	private final DataHub dataHub;
+
+	/**
+	 * Flag, indicating if dense areas of svg snapshots are embedded as raster image.
+	 */
+	private boolean rasterFallback = false;
+
+	/**
+	 * Constructs a new {@code SnapshotRenderer}.
+	 *
+	 * @param database
+	 *            the workspace.
+	 * @throws DatabaseAccessException
+	 *             if the subspaces or groups cannot be read.
+	 */
+	public SnapshotRenderer(Database database) throws DatabaseAccessException {
+		if (database == null) {
+			throw new IllegalArgumentException("database is null");
+		}
+
+		this.database = database;
+		this.selectionController = new SelectionController();
+		this.subspaceController = new SubspaceController(this.database);
+		this.groupController = new GroupController(this.database, this.subspaceController);
+		this.dataHub = new DataHub(this.database, this.groupController, this.subspaceController);
+	}
+
+	/**
+	 * Returns the controller of the subspaces, e.g. to find the subspaces and features to render.
+	 *
+	 * @return the controller.
+	 */
+	public SubspaceController getSubspaceController() {
+		return this.subspaceController;
+	}
+
+	/**
+	 * Returns the controller of the groups, e.g. to find the groups to render.
+	 *
+	 * @return the controller.
+	 */
+	public GroupController getGroupController() {
+		return this.groupController;
+	}
+
+	/**
+	 * Sets, if dense areas of svg snapshots, e.g. overlapping points, are embedded as raster image instead of vectors.
+	 * This keeps the files of huge data sets small. Disabled by default.
+	 *
+	 * @param rasterFallback
+	 *            true, if dense areas are rasterized.
+	 */
+	public synchronized void setRasterFallback(boolean rasterFallback) {
+		this.rasterFallback = rasterFallback;
+	}
+
+	/**
+	 * Renders snapshots of a subspace, showing the elements of the given groups.
+	 *
+	 * The groups are only filtered by the data of this renderer, their visibility in the workspace is not changed.
+	 *
+	 * @param subspace
+	 *            the subspace, the features of all snapshots belong to.
+	 * @param groups
+	 *            the shown groups.
+	 * @param snapshots
+	 *            the snapshots.
+	 * @param threads
+	 *            N<sup>o</sup> of snapshots, which are rendered in parallel.
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read.
+	 * @throws IOException
+	 *             if an image cannot be written.
+	 * @throws InterruptedException
+	 *             if rendering is interrupted.
+	 */
+	public synchronized void render(Subspace subspace, Group[] groups, Snapshot[] snapshots, int threads)
+			throws DatabaseAccessException, IOException, InterruptedException {
+		if (subspace == null || groups == null || snapshots == null) {
+			throw new IllegalArgumentException("subspace, groups or snapshots is null");
+		}
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads less than 1");
+		}
+
+		if (!subspace.equals(this.subspaceController.getActiveSubspace())) {
+			this.subspaceController.setActiveSubspace(subspace);
+		}
+
+		Set<Integer> visibleIds = new HashSet<Integer>();
+
+		for (Group group : groups) {
+			visibleIds.add(group.getId());
+		}
+
+		this.dataHub.setGroupFilter(visibleIds);
+
+		int tasks = Math.max(1, Math.min(threads, snapshots.length));
+		ExecutorService executor = Executors.newFixedThreadPool(tasks);
+
+		try {
+			// load the data once, before the plots ask for it
+			this.dataHub.getData();
+
+			List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(tasks);
+
+			for (int i = 0; i < tasks; ++i) {
+				List<Snapshot> share = new ArrayList<Snapshot>();
+
+				for (int j = i; j < snapshots.length; j += tasks) {
+					share.add(snapshots[j]);
+				}
+
+				jobsQ.add(new RenderTask(share, this.rasterFallback));
+			}
+
+			for (Future<Object> result : executor.invokeAll(jobsQ)) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					rethrow(e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Rethrows the failure of a render task.
+	 *
+	 * @param cause
+	 *            the failure.
+	 * @throws DatabaseAccessException
+	 *             if the data could not be read.
+	 * @throws IOException
+	 *             if an image could not be written.
+	 * @throws InterruptedException
+	 *             if the task was interrupted.
+	 */
+	private static void rethrow(Throwable cause) throws DatabaseAccessException, IOException, InterruptedException {
+		if (cause instanceof DatabaseAccessException) {
+			throw (DatabaseAccessException) cause;
+		} else if (cause instanceof IOException) {
+			throw (IOException) cause;
+		} else if (cause instanceof InterruptedException) {
+			throw (InterruptedException) cause;
+		} else if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		} else {
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Renders a share of the snapshots, one after another.
+	 */
+	private class RenderTask implements Callable<Object> {
+
+		/**
+		 * The snapshots of this task.
+		 */
+		private final List<Snapshot> snapshots;
+
+		/**
+		 * Flag, indicating if dense areas of svg snapshots are embedded as raster image.
+		 */
+		private final boolean rasterFallback;
+
+		/**
+		 * Constructs a new {@code RenderTask}.
+		 *
+		 * @param snapshots
+		 *            the snapshots of this task.
+		 * @param rasterFallback
+		 *            true, if dense areas of svg snapshots are embedded as raster image.
+		 */
+		public RenderTask(List<Snapshot> snapshots, boolean rasterFallback) {
+			this.snapshots = snapshots;
+			this.rasterFallback = rasterFallback;
+		}
+
+		@Override
+		public Object call() throws DatabaseAccessException, IOException, InterruptedException {
+			// one plot per kind, which keeps its processed data for the next snapshot
+			GLPlot[] plots = new GLPlot[Snapshot.Kind.values().length];
+
+			try {
+				for (Snapshot snapshot : this.snapshots) {
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+
+					int kind = snapshot.getKind().ordinal();
+
+					if (plots[kind] == null) {
+						plots[kind] = createPlot(snapshot.getKind());
+					}
+
+					GLPlot plot = plots[kind];
+					plot.selectFeatures(snapshot.getFeatures());
+					plot.processNow();
+
+					if (snapshot.isSVG()) {
+						plot.writeSVG(snapshot.getFile(), snapshot.getWidth(), snapshot.getHeight(),
+								this.rasterFallback);
+					} else {
+						plot.writeImage(snapshot.getFile(), snapshot.getWidth(), snapshot.getHeight());
+					}
+				}
+			} finally {
+				for (GLPlot plot : plots) {
+					if (plot != null) {
+						plot.release();
+					}
+				}
+			}
+
+			return null;
+		}
+
+		/**
+		 * Creates an offscreen plot.
+		 *
+		 * @param kind
+		 *            the kind of the plot.
+		 * @return the plot.
+		 */
+		private GLPlot createPlot(Snapshot.Kind kind) {
+			switch (kind) {
+			case SCATTER:
+				return new ScatterPlot(dataHub, selectionController, subspaceController, true);
+			case INDICATOR:
+				return new IndicatorPlot(dataHub, selectionController, subspaceController, true);
+			default:
+				return new HistPlot(dataHub, selectionController, subspaceController, true);
+			}
+		}
+	}
+}
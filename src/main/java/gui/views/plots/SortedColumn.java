@@ -0,0 +1,151 @@
+package gui.views.plots;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import util.ParallelSort;
+import util.SortKeys;
+import controller.ElementData;
+import controller.Feature;
+
+/**
+ * The class {@code SortedColumn} holds the values of one {@link Feature} for the shown elements in ascending order,
+ * together with the index of each element. Every range of values is a consecutive range of ranks, so a histogram can
+ * be binned again with another number of bins without touching the elements.
+ *
+ * Missing values (NaN) are not part of the column. A column is sorted in parallel and immutable afterwards.
+ */
+public final class SortedColumn {
+
+	/**
+	 * The elements, the column was built from.
+	 */
+	private final ElementData[] data;
+
+	/**
+	 * The feature, the column was built from.
+	 */
+	private final Feature feature;
+
+	/**
+	 * The values in ascending order.
+	 */
+	private final float[] values;
+
+	/**
+	 * The index of the element of every value.
+	 */
+	private final int[] rows;
+
+	/**
+	 * The id of the element of every value.
+	 */
+	private final int[] ids;
+
+	/**
+	 * Constructs a new {@code SortedColumn}.
+	 *
+	 * @param data
+	 *            the elements.
+	 * @param feature
+	 *            the feature.
+	 * @param executor
+	 *            the executor, which sorts the values.
+	 * @param threads
+	 *            the maximal number of concurrent tasks.
+	 * @throws InterruptedException
+	 *             if the sorting is interrupted.
+	 */
+	public SortedColumn(ElementData[] data, Feature feature, ExecutorService executor, int threads)
+			throws InterruptedException {
+		if (data == null || feature == null) {
+			throw new IllegalArgumentException("data or feature is null");
+		}
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads less than 1");
+		}
+
+		this.data = data;
+		this.feature = feature;
+
+		// the key of a value is its order preserving bits, followed by the index of its element
+		long[] keys = new long[data.length];
+		int length = 0;
+
+		for (int i = 0; i < data.length; ++i) {
+			float value = data[i].getValue(feature);
+
+			if (!Float.isNaN(value)) {
+				keys[length++] = SortKeys.pack(SortKeys.sortableBits(value), i);
+			}
+		}
+
+		keys = ParallelSort.sort(Arrays.copyOf(keys, length), executor, threads);
+
+		this.values = new float[length];
+		this.rows = new int[length];
+		this.ids = new int[length];
+
+		for (int i = 0; i < length; ++i) {
+			this.rows[i] = SortKeys.getIndex(keys[i]);
+			this.values[i] = SortKeys.toFloat(SortKeys.getSortKey(keys[i]));
+			this.ids[i] = data[this.rows[i]].getId();
+		}
+	}
+
+	/**
+	 * Checks, if the column was built for the given elements and feature.
+	 *
+	 * @param data
+	 *            the elements.
+	 * @param feature
+	 *            the feature.
+	 * @return true, if the column can be reused.
+	 */
+	public boolean matches(ElementData[] data, Feature feature) {
+		return this.data == data && this.feature == feature;
+	}
+
+	/**
+	 * Returns the number of values, which is the number of elements without missing value.
+	 *
+	 * @return N<sup>o</sup> of values.
+	 */
+	public int size() {
+		return this.values.length;
+	}
+
+	/**
+	 * Returns the value of a rank.
+	 *
+	 * @param rank
+	 *            the position in ascending order.
+	 * @return the value.
+	 */
+	public float getValue(int rank) {
+		return this.values[rank];
+	}
+
+	/**
+	 * Returns the index of the element of a rank.
+	 *
+	 * @param rank
+	 *            the position in ascending order.
+	 * @return the index of the element in the array, the column was built from.
+	 */
+	public int getRow(int rank) {
+		return this.rows[rank];
+	}
+
+	/**
+	 * Returns the id of the element of a rank.
+	 *
+	 * @param rank
+	 *            the position in ascending order.
+	 * @return the id of the element.
+	 */
+	public int getId(int rank) {
+		return this.ids[rank];
+	}
+}
@@ -3,6 +3,7 @@ package importexport;
 import importexport.importing.ArffFileInfoExtractor;
 import importexport.importing.CSVBasedImporter;
 import importexport.importing.CSVFileInfoExtractor;
+import importexport.importing.ImportProgressListener;
 import importexport.importing.Importer;
 import importexport.util.InvalidFileException;
 import importexport.util.UnsupportedFileExtensionException;
@@ -35,6 +36,11 @@ public final class ImportLogic {
 	 */
 	private Database db = null;
 
+	/**
+	 * The importer of the running import, null if there is none.
+	 */
+	private volatile Importer activeImporter = null;
+
 	/**
 	 * Creates the Instance for the import logic.
 	 */
@@ -107,6 +113,33 @@ public final class ImportLogic {
 	 */
 	public void importFile(final File input, final File algoOutput) throws IOException, DatabaseAccessException,
 			UnsupportedFileExtensionException, InvalidFileException, InterruptedException {
+		this.importFile(input, algoOutput, null);
+	}
+
+	/**
+	 * Imports a csv-based file with a valid output file of an datamining algorithm and reports the progress.
+	 * 
+	 * @param input
+	 *            File which should be imported.
+	 * @param algoOutput
+	 *            Algorithm output.
+	 * @param listener
+	 *            Listener informed about the progress, may be null.
+	 * 
+	 * @throws IOException
+	 *             threw if something other is going wrong.
+	 * @throws DatabaseAccessException
+	 *             threw if connection to Database failed.
+	 * @throws UnsupportedFileExtensionException
+	 *             threw if someone is trying to import a file with an unsupported file extension.
+	 * @throws InvalidFileException
+	 *             threw if a not-importable file is imported.
+	 * @throws InterruptedException
+	 *             threw if the import was cancelled by {@link #cancelImport()}.
+	 */
+	public void importFile(final File input, final File algoOutput, final ImportProgressListener listener)
+			throws IOException, DatabaseAccessException, UnsupportedFileExtensionException, InvalidFileException,
+			InterruptedException {
 
 		String extension = "";
 		int lastDot = input.getName().lastIndexOf('.');
@@ -116,7 +149,15 @@ public final class ImportLogic {
 			Importer actImporter = importer.get(extension);
 
 			if (actImporter != null) {
-				actImporter.importFile(input, algoOutput);
+				actImporter.setProgressListener(listener);
+				this.activeImporter = actImporter;
+
+				try {
+					actImporter.importFile(input, algoOutput);
+				} finally {
+					this.activeImporter = null;
+					actImporter.setProgressListener(null);
+				}
 			} else {
 				throw new UnsupportedFileExtensionException();
 			}
@@ -125,6 +166,17 @@ public final class ImportLogic {
 		}
 	}
 
+	/**
+	 * Aborts the running import, if there is one. It may be called from any thread.
+	 */
+	public void cancelImport() {
+		Importer actImporter = this.activeImporter;
+
+		if (actImporter != null) {
+			actImporter.cancel();
+		}
+	}
+
 	/**
 	 * Returns a String[] with all available format endings.
 	 * 
@@ -7,9 +7,20 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import au.com.bytecode.opencsv.CSVParser;
 import au.com.bytecode.opencsv.CSVReader;
+import db.ColumnFileWriter;
 import db.Database;
 import db.DatabaseAccessException;
 
@@ -18,6 +29,16 @@ import db.DatabaseAccessException;
  */
 public class CSVBasedImporter extends Importer {
 
+	/**
+	 * N<sup>o</sup> of transactions, which are parsed ahead of the writer.
+	 */
+	private static final int PENDING_TRANSACTIONS = 2;
+
+	/**
+	 * The character, which quotes values containing delimiters or line breaks.
+	 */
+	private static final char QUOTE = '\'';
+
 	/**
 	 * Constructs a new instance of Importer which is specialized for csv-based file formats.
 	 * 
@@ -34,6 +55,11 @@ public class CSVBasedImporter extends Importer {
 	/**
 	 * Imports an csv-based file and a belonging .ssd-file.
 	 * 
+	 * The import is pipelined: the calling thread reads chunks of records, a pool of workers parses their values
+	 * concurrently and a single writer stores the parsed objects in large transactions, in the order of the file. At
+	 * most {@link #PENDING_TRANSACTIONS} transactions are in flight, so the memory consumption does not depend on the
+	 * size of the file.
+	 * 
 	 * @param input
 	 *            Reference of the file which should be imported.
 	 * @param algoOut
@@ -45,27 +71,61 @@ public class CSVBasedImporter extends Importer {
 	 *             threw if something went wrong with the Database connection.
 	 * @throws InvalidFileException
 	 *             threw if importing file isn't valid.
+	 * @throws InterruptedException
+	 *             threw if the import was cancelled, the Database is empty afterwards.
 	 */
 	@Override
 	public void importFile(final File input, final File algoOut) throws IOException, DatabaseAccessException,
-			InvalidFileException {
+			InvalidFileException, InterruptedException {
+		try {
+			this.importPipelined(input, algoOut);
+		} finally {
+			this.resetCancelled();
+		}
+	}
+
+	/**
+	 * Does the actual import, see {@link #importFile(File, File)}.
+	 * 
+	 * @param input
+	 *            Reference of the file which should be imported.
+	 * @param algoOut
+	 *            Reference of the .ssd file which is made by a Datamining algorithm.
+	 * 
+	 * @throws IOException
+	 *             threw if something other is going wrong.
+	 * @throws DatabaseAccessException
+	 *             threw if something went wrong with the Database connection.
+	 * @throws InvalidFileException
+	 *             threw if importing file isn't valid.
+	 * @throws InterruptedException
+	 *             threw if the import was cancelled.
+	 */
+	private void importPipelined(final File input, final File algoOut) throws IOException, DatabaseAccessException,
+			InvalidFileException, InterruptedException {
 		if (input == null || algoOut == null || !input.exists() || !algoOut.exists()) {
 			throw new FileNotFoundException();
 		}
 
 		CSVFileInfo info = (CSVFileInfo) this.getFileInfoExtractor().extractFileInfo(input);
-		CSVReader cr = new CSVReader(new FileReader(input), info.getDelimiter(), '\'',
-				info.getFirstLineOfDataSegment() - 1);
+
+		// files without a detected delimiter are rejected, before anything is stored
+		char delimiter = info.getDelimiter();
+
+		if (delimiter == CSVParser.NULL_CHARACTER || delimiter == QUOTE
+				|| delimiter == CSVParser.DEFAULT_ESCAPE_CHARACTER) {
+			throw new UnsupportedOperationException("The file has no valid delimiter.");
+		}
 
 		if (info.getFeatures().length < 2) {
 			throw new InvalidFileException();
 		}
 		
-		//amount of queues is equal to the amount of defined subspaces.
-		LinkedBlockingQueue<Float>[] queues = this.parseAlgoOut(algoOut, info.noOfFeatures());
+		//one column per defined subspace.
+		OutliernessTable outlierness = this.parseAlgoOut(algoOut, info.noOfFeatures());
 
 		//number of all features (natural features + outlierness values.
-		int amountFeatures = queues.length + info.noOfFeatures();
+		int amountFeatures = outlierness.getSubspaceCount() + info.noOfFeatures();
 		int infoNoOfFeatures = info.noOfFeatures();
 
 		//because the class array is no real feature.
@@ -74,8 +134,8 @@ public class CSVBasedImporter extends Importer {
 			--infoNoOfFeatures;
 		}
 
-		//amount of all features which are detected in ssd.
-		int amountObjects = queues[0].size();
+		//amount of all objects which are detected in ssd.
+		int amountObjects = outlierness.getObjectCount();
 
 		String[] allFeatures = new String[amountFeatures];
 		boolean[] featureTypes = new boolean[amountFeatures];
@@ -92,67 +152,342 @@ public class CSVBasedImporter extends Importer {
 			featureTypes[i] = true;
 		}
 
+		if (this.isCancelled()) {
+			this.abortImport();
+		}
+
 		getDB().initFeatures(allFeatures, featureTypes);
 
-		String[] line = null;
-		//buffervector of build objects which will be stored next.
-		float[][] batch = new float[BATCH_SIZE][];
-		//current built object.
-		float[] actObj = null;
-
-		int actBatchSize = 0;
-
-		for (int k = 0; k < amountObjects; ++k) {
-			int pos = 0;
-			actObj = new float[amountFeatures];
-			line = cr.readNext();
-			
-			if (line.length == 0 || (line.length == 1  & (line[0] == null || line[0].isEmpty()))
-					|| line.length == 2 & (line[0] == null || line[0].isEmpty()) & (line[1] == null || line[1].isEmpty())) {
-				--k;
-				continue;
+		// the values are stored in the column file as well, so they can be mapped when the workspace is opened
+		ColumnFileWriter columns = getDB().createColumnFile(amountObjects);
+
+		try {
+			if (!this.storeObjects(input, info, outlierness, infoNoOfFeatures, amountObjects, columns)) {
+				if (columns != null) {
+					columns.close();
+				}
+				this.abortImport();
+			}
+
+			// update db min/max values
+			this.getDB().updateFeaturesMinMax();
+
+			if (columns != null) {
+				columns.finish();
+			}
+		} finally {
+			if (columns != null) {
+				columns.close();
 			}
+		}
+	}
 
-			for (; pos < infoNoOfFeatures; ++pos) {
-				try {
-					actObj[pos] = Float.parseFloat(line[pos]);
-				} catch (NumberFormatException e) {
-					actObj[pos] = Float.NaN;
+	/**
+	 * Reads, parses and stores all objects of the data segment.
+	 * 
+	 * @param input
+	 *            Reference of the file which should be imported.
+	 * @param info
+	 *            The informations extracted from the file.
+	 * @param outlierness
+	 *            The outlierness values of all objects.
+	 * @param noOfFeatures
+	 *            N<sup>o</sup> of features read from a record.
+	 * @param amountObjects
+	 *            N<sup>o</sup> of objects to store.
+	 * @param columns
+	 *            The column file, which receives the objects as well, may be null.
+	 * @return true if all objects were stored, false if the import was cancelled.
+	 * 
+	 * @throws IOException
+	 *             threw if something other is going wrong.
+	 * @throws DatabaseAccessException
+	 *             threw if something went wrong with the Database connection.
+	 * @throws InterruptedException
+	 *             threw if the current thread got interrupted.
+	 */
+	private boolean storeObjects(final File input, final CSVFileInfo info, final OutliernessTable outlierness,
+			final int noOfFeatures, final int amountObjects, final ColumnFileWriter columns) throws IOException,
+			DatabaseAccessException, InterruptedException {
+		// quoted values may span several lines, so the records are split on this thread
+		CSVReader reader = new CSVReader(new FileReader(input), info.getDelimiter(), QUOTE,
+				info.getFirstLineOfDataSegment() - 1);
+		ExecutorService parsers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		ExecutorService writer = Executors.newSingleThreadExecutor();
+		LinkedList<Future<?>> transactions = new LinkedList<Future<?>>();
+		boolean completed = false;
+
+		try {
+			int read = 0;
+
+			while (read < amountObjects && !this.isCancelled()) {
+				// parse the batches of one transaction concurrently
+				ArrayList<Future<float[][]>> batches = new ArrayList<Future<float[][]>>(BATCHES_PER_TRANSACTION);
+
+				for (int b = 0; b < BATCHES_PER_TRANSACTION && read < amountObjects; ++b) {
+					String[][] records = readRecords(reader, Math.min(BATCH_SIZE, amountObjects - read));
+
+					batches.add(parsers.submit(new ParseTask(records, read, outlierness, noOfFeatures)));
+					read += records.length;
+				}
+
+				// wait for the oldest transaction, if too many of them are in flight
+				if (transactions.size() >= PENDING_TRANSACTIONS) {
+					waitFor(transactions.removeFirst());
 				}
+
+				transactions.add(writer.submit(new WriteTask(batches, read, amountObjects, columns)));
+			}
+
+			while (!transactions.isEmpty()) {
+				waitFor(transactions.removeFirst());
 			}
 
-			for (int m = 0; m < queues.length; ++m, ++pos) {
-				actObj[pos] = queues[m].poll();
+			completed = !this.isCancelled();
+		} finally {
+			parsers.shutdownNow();
+			writer.shutdownNow();
+
+			try {
+				// a transaction may still finish after shutdownNow, so wait before the data is removed
+				writer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} finally {
+				reader.close();
 			}
+		}
+
+		return completed;
+	}
+
+	/**
+	 * Reads the next records of the data segment, skipping empty ones. A record may span several lines, if a quoted
+	 * value contains line breaks.
+	 * 
+	 * @param reader
+	 *            the reader of the file.
+	 * @param count
+	 *            the number of records to read.
+	 * @return the values of the records.
+	 * @throws IOException
+	 *             threw if the file could not be read.
+	 * @throws InvalidFileException
+	 *             threw if the file contains less objects than the .ssd-file.
+	 */
+	private static String[][] readRecords(CSVReader reader, int count) throws IOException {
+		String[][] records = new String[count][];
+
+		for (int k = 0; k < count;) {
+			String[] line = reader.readNext();
 
-			batch[actBatchSize++] = actObj;
+			if (line == null) {
+				throw new InvalidFileException();
+			}
 
-			if (actBatchSize >= BATCH_SIZE) {
-				getDB().pushObject(batch);
-				actBatchSize = 0;
-				batch = new float[BATCH_SIZE][];
-				System.gc();
+			if (!(line.length == 0 || (line.length == 1 && isEmpty(line[0]))
+					|| (line.length == 2 && isEmpty(line[0]) && isEmpty(line[1])))) {
+				records[k++] = line;
 			}
 		}
 
-		// removing null vectors from last batch matrix.
-		int noVectors = 0;
-		while (noVectors < BATCH_SIZE && batch[noVectors] != null) {
-			noVectors++;
+		return records;
+	}
+
+	/**
+	 * Checks, if a value of a record is missing.
+	 * 
+	 * @param value
+	 *            the value.
+	 * @return true, if the value is null or empty.
+	 */
+	private static boolean isEmpty(String value) {
+		return value == null || value.isEmpty();
+	}
+
+	/**
+	 * Waits for a submitted task and rethrows its failure.
+	 * 
+	 * @param task
+	 *            the task.
+	 * @throws IOException
+	 *             threw if the task failed to read.
+	 * @throws DatabaseAccessException
+	 *             threw if the task failed to write.
+	 * @throws InterruptedException
+	 *             threw if the current thread got interrupted.
+	 */
+	private static void waitFor(Future<?> task) throws IOException, DatabaseAccessException, InterruptedException {
+		try {
+			task.get();
+		} catch (ExecutionException e) {
+			rethrow(e.getCause());
+		}
+	}
+
+	/**
+	 * Rethrows the failure of a task.
+	 * 
+	 * @param cause
+	 *            the failure.
+	 * @throws IOException
+	 *             threw if the task failed to read.
+	 * @throws DatabaseAccessException
+	 *             threw if the task failed to write.
+	 */
+	private static void rethrow(Throwable cause) throws IOException, DatabaseAccessException {
+		if (cause instanceof IOException) {
+			throw (IOException) cause;
+		} else if (cause instanceof DatabaseAccessException) {
+			throw (DatabaseAccessException) cause;
+		} else if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		} else if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		throw new IllegalStateException(cause);
+	}
+
+	/**
+	 * Parses the values of a batch of records to objects.
+	 */
+	private static class ParseTask implements Callable<float[][]> {
+
+		/**
+		 * The values of the records to parse.
+		 */
+		private final String[][] records;
+
+		/**
+		 * The object id of the first record, starting at 0.
+		 */
+		private final int firstId;
+
+		/**
+		 * The outlierness values of all objects, which are not modified anymore.
+		 */
+		private final OutliernessTable outlierness;
+
+		/**
+		 * N<sup>o</sup> of features read from a record.
+		 */
+		private final int noOfFeatures;
+
+		/**
+		 * Constructs a new ParseTask.
+		 * 
+		 * @param records
+		 *            the values of the records to parse.
+		 * @param firstId
+		 *            the object id of the first record, starting at 0.
+		 * @param outlierness
+		 *            the outlierness values of all objects.
+		 * @param noOfFeatures
+		 *            N<sup>o</sup> of features read from a record.
+		 */
+		ParseTask(String[][] records, int firstId, OutliernessTable outlierness, int noOfFeatures) {
+			this.records = records;
+			this.firstId = firstId;
+			this.outlierness = outlierness;
+			this.noOfFeatures = noOfFeatures;
+		}
+
+		@Override
+		public float[][] call() {
+			float[][] batch = new float[this.records.length][];
+
+			for (int k = 0; k < this.records.length; ++k) {
+				String[] line = this.records[k];
+				float[] actObj = new float[this.noOfFeatures + this.outlierness.getSubspaceCount()];
+				int pos = 0;
+
+				if (line.length < this.noOfFeatures) {
+					throw new InvalidFileException();
+				}
+
+				for (; pos < this.noOfFeatures; ++pos) {
+					try {
+						actObj[pos] = Float.parseFloat(line[pos]);
+					} catch (NumberFormatException e) {
+						actObj[pos] = Float.NaN;
+					}
+				}
+
+				this.outlierness.copyRow(this.firstId + k, actObj, pos);
+				batch[k] = actObj;
+			}
+
+			return batch;
 		}
+	}
+
+	/**
+	 * Stores the parsed batches of one transaction.
+	 */
+	private class WriteTask implements Callable<Void> {
 
-		float[][] batchOle = new float[noVectors][amountFeatures];
+		/**
+		 * The batches in the order of the file.
+		 */
+		private final List<Future<float[][]>> batches;
 
-		for (int k = 0; k < noVectors; ++k) {
-			batchOle[k] = batch[k];
+		/**
+		 * N<sup>o</sup> of objects stored after this transaction.
+		 */
+		private final int imported;
+
+		/**
+		 * N<sup>o</sup> of objects to store.
+		 */
+		private final int total;
+
+		/**
+		 * The column file, which receives the objects as well, may be null.
+		 */
+		private final ColumnFileWriter columns;
+
+		/**
+		 * Constructs a new WriteTask.
+		 * 
+		 * @param batches
+		 *            the batches in the order of the file.
+		 * @param imported
+		 *            N<sup>o</sup> of objects stored after this transaction.
+		 * @param total
+		 *            N<sup>o</sup> of objects to store.
+		 * @param columns
+		 *            The column file, which receives the objects as well, may be null.
+		 */
+		WriteTask(List<Future<float[][]>> batches, int imported, int total, ColumnFileWriter columns) {
+			this.batches = batches;
+			this.imported = imported;
+			this.total = total;
+			this.columns = columns;
 		}
 
-		// push last batch matrix.
-		this.getDB().pushObject(batchOle);
+		@Override
+		public Void call() throws Exception {
+			ArrayList<float[]> objects = new ArrayList<float[]>(this.batches.size() * BATCH_SIZE);
+
+			for (Future<float[][]> batch : this.batches) {
+				try {
+					objects.addAll(Arrays.asList(batch.get()));
+				} catch (ExecutionException e) {
+					rethrow(e.getCause());
+				}
+			}
+
+			if (!CSVBasedImporter.this.isCancelled() && !objects.isEmpty()) {
+				float[][] rows = objects.toArray(new float[objects.size()][]);
+				getDB().pushObject(rows);
 
-		// update db min/max values
-		this.getDB().updateFeaturesMinMax();
+				if (this.columns != null) {
+					this.columns.writeRows(this.imported - rows.length, rows);
+				}
+
+				fireProgress(this.imported, this.total);
+			}
 
-		cr.close();
+			return null;
+		}
 	}
-}
\ No newline at end of file
+}
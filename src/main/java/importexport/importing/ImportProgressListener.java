@@ -0,0 +1,17 @@
+package importexport.importing;
+
+/**
+ * The interface {@code ImportProgressListener} is informed about the progress of an {@link Importer}.
+ */
+public interface ImportProgressListener {
+
+	/**
+	 * Invoked after a range of objects was stored. The importer may call it from any of its threads.
+	 *
+	 * @param imported
+	 *            N<sup>o</sup> of objects stored so far.
+	 * @param total
+	 *            N<sup>o</sup> of objects to store.
+	 */
+	void progressChanged(int imported, int total);
+}
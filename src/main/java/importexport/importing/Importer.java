@@ -9,7 +9,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import au.com.bytecode.opencsv.CSVReader;
 import db.Database;
@@ -26,6 +25,11 @@ public abstract class Importer {
 	 */
 	public static final int BATCH_SIZE = DatabaseConfiguration.TRANSACTIONSIZE;
 
+	/**
+	 * N<sup>o</sup> of batches which are written in one transaction.
+	 */
+	public static final int BATCHES_PER_TRANSACTION = 20;
+
 	/**
 	 * Position where definition of a subspace base begins.
 	 */
@@ -46,6 +50,16 @@ public abstract class Importer {
 	 */
 	private final FileInfoExtractor infoExtractor;
 
+	/**
+	 * Flags, if the running import should be aborted.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Listener informed about the progress of an import, may be null.
+	 */
+	private volatile ImportProgressListener progressListener = null;
+
 	/**
 	 * Constructs an Importer.
 	 *
@@ -77,9 +91,74 @@ public abstract class Importer {
 	 *             threw if something went wrong with the Database connection.
 	 * @throws InvalidFileException
 	 *             threw if importing file isn't valid.
+	 * @throws InterruptedException
+	 *             threw if the import was cancelled, the Database is empty afterwards.
 	 */
 	public abstract void importFile(File input, File algoOut) throws IOException, DatabaseAccessException,
-			InvalidFileException;
+			InvalidFileException, InterruptedException;
+
+	/**
+	 * Sets the listener, which is informed about the progress of the following imports.
+	 *
+	 * @param listener
+	 *            the listener or null, if nobody is interested in the progress.
+	 */
+	public void setProgressListener(final ImportProgressListener listener) {
+		this.progressListener = listener;
+	}
+
+	/**
+	 * Requests to abort the running import. It may be called from any thread, the request is consumed by the import.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	/**
+	 * Checks, if the running import should be aborted.
+	 *
+	 * @return true if the import was cancelled.
+	 */
+	protected final boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Consumes a pending cancel request, needs to be called when an import ends.
+	 */
+	protected final void resetCancelled() {
+		this.cancelled = false;
+	}
+
+	/**
+	 * Removes all imported data and signals the abort of the import.
+	 *
+	 * @throws DatabaseAccessException
+	 *             threw if the imported data could not be removed.
+	 * @throws InterruptedException
+	 *             always, to signal the abort.
+	 */
+	protected final void abortImport() throws DatabaseAccessException, InterruptedException {
+		this.database.clear();
+
+		throw new InterruptedException("import cancelled");
+	}
+
+	/**
+	 * Informs the listener about the progress of the import.
+	 *
+	 * @param imported
+	 *            N<sup>o</sup> of objects stored so far.
+	 * @param total
+	 *            N<sup>o</sup> of objects to store.
+	 */
+	protected final void fireProgress(final int imported, final int total) {
+		ImportProgressListener listener = this.progressListener;
+
+		if (listener != null) {
+			listener.progressChanged(imported, total);
+		}
+	}
 
 	/**
 	 * Parses .ssd-Files and submits subspaces to Database.
@@ -87,15 +166,14 @@ public abstract class Importer {
 	 * @param algoOut
 	 *            Output file of an Dataminig algortihm containing detected subspaces.
 	 *
-	 * @return a queue of with outlierness values to each object in each subspace.
+	 * @return the outlierness values of each object in each subspace.
 	 *
 	 * @throws IOException
 	 *             threw if something other is going wrong.
 	 * @throws DatabaseAccessException
 	 *             threw if something went wrong with the Database connection.
 	 */
-	@SuppressWarnings(value = { "unchecked" })
-	protected final LinkedBlockingQueue<Float>[] parseAlgoOut(final File algoOut, int startOutliernessRef)
+	protected final OutliernessTable parseAlgoOut(final File algoOut, int startOutliernessRef)
 			throws IOException, DatabaseAccessException {
 		if (algoOut == null || !algoOut.exists()) {
 			throw new FileNotFoundException(Settings.getInstance().getResourceBundle().getString("noFile"));
@@ -138,12 +216,11 @@ public abstract class Importer {
 			throw new InvalidFileException();
 		}
 
-		// Pos in Array is equal to the idx - 1 of a subspace
-		LinkedBlockingQueue<Float>[] queue = new LinkedBlockingQueue[noSubspaces];
+		// column in table is equal to the idx - 1 of a subspace
+		OutliernessTable table = new OutliernessTable(noSubspaces);
 
 		// first line of dataseg is a specialcase.
 		String[] sa = line.split("" + delimiter);
-		int tmp;
 		CSVReader cr = new CSVReader(reader, delimiter);
 
 		while (sa != null) {
@@ -153,20 +230,20 @@ public abstract class Importer {
 				continue;
 			}			
 			
-			tmp = Integer.parseInt(sa[1].trim());
-
-			if (queue[tmp] == null) {
-				queue[tmp] = new LinkedBlockingQueue<Float>();
+			// the records may come in any order, they are placed by the object id
+			try {
+				table.set(Integer.parseInt(sa[1].trim()), Integer.parseInt(sa[0].trim()), Float.parseFloat(sa[2]));
+			} catch (IllegalArgumentException e) {
+				reader.close();
+				throw new InvalidFileException();
 			}
 
-			queue[tmp].offer(Float.parseFloat(sa[2]));
 			sa = cr.readNext();
 		}
 
 		reader.close();
-		System.gc();
 
-		return queue;
+		return table;
 	}
 
 	/**
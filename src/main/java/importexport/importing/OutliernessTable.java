@@ -0,0 +1,148 @@
+package importexport.importing;
+
+import java.util.Arrays;
+
+/**
+ * The class {@code OutliernessTable} holds the outlierness values of a .ssd-file. There is one primitive column per
+ * subspace, which is indexed by the object id and grows on demand, so the records of the file may come in any order.
+ * Values, which are not part of the file, are NaN.
+ */
+public final class OutliernessTable {
+
+	/**
+	 * Initial length of a column.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The values of each subspace, indexed by the object id.
+	 */
+	private final float[][] columns;
+
+	/**
+	 * N<sup>o</sup> of objects, which is the highest object id plus one.
+	 */
+	private int objectCount = 0;
+
+	/**
+	 * Constructs a new, empty {@code OutliernessTable}.
+	 *
+	 * @param subspaceCount
+	 *            N<sup>o</sup> of subspaces.
+	 */
+	public OutliernessTable(final int subspaceCount) {
+		if (subspaceCount < 0) {
+			throw new IllegalArgumentException("subspaceCount is negative");
+		}
+
+		this.columns = new float[subspaceCount][];
+	}
+
+	/**
+	 * Sets the outlierness of an object in a subspace.
+	 *
+	 * @param subspace
+	 *            the index of the subspace, starting at 0.
+	 * @param objectId
+	 *            the id of the object, starting at 0.
+	 * @param value
+	 *            the outlierness.
+	 */
+	public void set(final int subspace, final int objectId, final float value) {
+		if (subspace < 0 || subspace >= this.columns.length || objectId < 0) {
+			throw new IllegalArgumentException("subspace or object id out of range");
+		}
+
+		float[] column = this.columns[subspace];
+
+		if (column == null || objectId >= column.length) {
+			int length = column == null ? INITIAL_CAPACITY : column.length;
+
+			while (length <= objectId) {
+				length = length * 2 > 0 ? length * 2 : Integer.MAX_VALUE;
+			}
+
+			column = grow(column, length);
+			this.columns[subspace] = column;
+		}
+
+		column[objectId] = value;
+		this.objectCount = Math.max(this.objectCount, objectId + 1);
+	}
+
+	/**
+	 * Returns the outlierness of an object in a subspace.
+	 *
+	 * @param subspace
+	 *            the index of the subspace, starting at 0.
+	 * @param objectId
+	 *            the id of the object, starting at 0.
+	 * @return the outlierness or NaN, if it is unknown.
+	 */
+	public float get(final int subspace, final int objectId) {
+		float[] column = this.columns[subspace];
+
+		if (column == null || objectId >= column.length) {
+			return Float.NaN;
+		}
+
+		return column[objectId];
+	}
+
+	/**
+	 * Copies the outlierness of an object in all subspaces.
+	 *
+	 * @param objectId
+	 *            the id of the object, starting at 0.
+	 * @param dest
+	 *            the destination array.
+	 * @param offset
+	 *            the position of the first subspace in the destination array.
+	 */
+	public void copyRow(final int objectId, final float[] dest, final int offset) {
+		for (int s = 0; s < this.columns.length; ++s) {
+			dest[offset + s] = this.get(s, objectId);
+		}
+	}
+
+	/**
+	 * Returns the number of subspaces.
+	 *
+	 * @return N<sup>o</sup> of subspaces.
+	 */
+	public int getSubspaceCount() {
+		return this.columns.length;
+	}
+
+	/**
+	 * Returns the number of objects, which is the highest object id plus one.
+	 *
+	 * @return N<sup>o</sup> of objects.
+	 */
+	public int getObjectCount() {
+		return this.objectCount;
+	}
+
+	/**
+	 * Copies a column into a longer one and fills the new values with NaN.
+	 *
+	 * @param column
+	 *            the column or null, if there is none yet.
+	 * @param length
+	 *            the new length.
+	 * @return the new column.
+	 */
+	private static float[] grow(final float[] column, final int length) {
+		float[] result = new float[length];
+		int old = 0;
+
+		if (column != null) {
+			System.arraycopy(column, 0, result, 0, column.length);
+			old = column.length;
+		}
+
+		Arrays.fill(result, old, length, Float.NaN);
+
+		return result;
+	}
+}
@@ -0,0 +1,265 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * The class {@code ParallelSort} sorts primitive keys in parallel and offers the helpers of all tasks, which split an
+ * array into consecutive chunks for several threads.
+ *
+ * The keys are split into chunks, which are sorted in parallel and merged pairwise afterwards, until one is left. A
+ * key is usually built by {@link SortKeys#pack(int, int)}, so equal values keep the order of their elements.
+ */
+public final class ParallelSort {
+
+	/**
+	 * Minimal number of items per thread, smaller inputs are not worth the thread overhead.
+	 */
+	public static final int MIN_CHUNK_SIZE = 65536;
+
+	/**
+	 * Private constructor to avoid construction.
+	 */
+	private ParallelSort() {
+		// utility class, do not construct
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns the number of chunks, an array is split into.
+	 *
+	 * @param length
+	 *            the length of the array.
+	 * @param threads
+	 *            the maximal number of concurrent tasks.
+	 * @return N<sup>o</sup> of chunks, at least 1.
+	 */
+	public static int getChunkCount(int length, int threads) {
+		return Math.max(1, Math.min(threads, length / MIN_CHUNK_SIZE));
+	}
+
+	/**
+	 * Returns the first index of a chunk. The chunks differ in length by at most one.
+	 *
+	 * @param length
+	 *            the length of the array.
+	 * @param chunks
+	 *            N<sup>o</sup> of chunks.
+	 * @param chunk
+	 *            the chunk, {@code chunks} returns the length of the array.
+	 * @return the first index.
+	 */
+	public static int getChunkStart(int length, int chunks, int chunk) {
+		return (int) ((long) length * chunk / chunks);
+	}
+
+	/**
+	 * Runs the given tasks and waits for them.
+	 *
+	 * @param <T>
+	 *            the result type of the tasks.
+	 * @param executor
+	 *            the executor.
+	 * @param jobsQ
+	 *            the tasks, which only work on arrays, so a failure is a programming error.
+	 * @throws InterruptedException
+	 *             if waiting is interrupted.
+	 */
+	public static <T> void invokeAll(ExecutorService executor, List<? extends Callable<T>> jobsQ)
+			throws InterruptedException {
+		try {
+			for (Future<T> result : executor.invokeAll(jobsQ)) {
+				result.get();
+			}
+		} catch (ExecutionException e) {
+			// the tasks only work on arrays, so this is a programming error
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Sorts keys in ascending order.
+	 *
+	 * @param keys
+	 *            the keys, they may be overwritten.
+	 * @param executor
+	 *            the executor, which sorts and merges the chunks. It is not used for less than two chunks.
+	 * @param threads
+	 *            the maximal number of concurrent tasks.
+	 * @return the sorted keys, either the given array or a new one.
+	 * @throws InterruptedException
+	 *             if the sort is interrupted.
+	 */
+	public static long[] sort(long[] keys, ExecutorService executor, int threads) throws InterruptedException {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys are null");
+		}
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads less than 1");
+		}
+
+		int chunks = getChunkCount(keys.length, threads);
+
+		if (chunks == 1) {
+			Arrays.sort(keys);
+
+			return keys;
+		}
+
+		int[] bounds = new int[chunks + 1];
+
+		for (int i = 0; i <= chunks; ++i) {
+			bounds[i] = getChunkStart(keys.length, chunks, i);
+		}
+
+		List<Callable<Object>> jobsQ = new ArrayList<Callable<Object>>(chunks);
+
+		for (int i = 0; i < chunks; ++i) {
+			jobsQ.add(new SortTask(keys, bounds[i], bounds[i + 1]));
+		}
+
+		invokeAll(executor, jobsQ);
+
+		// merge neighboring chunks until one is left
+		long[] source = keys;
+		long[] dest = new long[keys.length];
+
+		for (int width = 1; width < chunks; width *= 2) {
+			jobsQ.clear();
+
+			for (int i = 0; i < chunks; i += 2 * width) {
+				int middle = Math.min(i + width, chunks);
+				int end = Math.min(i + 2 * width, chunks);
+
+				jobsQ.add(new MergeTask(source, dest, bounds[i], bounds[middle], bounds[end]));
+			}
+
+			invokeAll(executor, jobsQ);
+
+			long[] swap = source;
+			source = dest;
+			dest = swap;
+		}
+
+		return source;
+	}
+
+	/**
+	 * Sorts a range of keys.
+	 */
+	private static class SortTask implements Callable<Object> {
+
+		/**
+		 * The keys.
+		 */
+		private final long[] keys;
+
+		/**
+		 * The first key of the range.
+		 */
+		private final int start;
+
+		/**
+		 * The key after the last one of the range.
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code SortTask}.
+		 *
+		 * @param keys
+		 *            the keys.
+		 * @param start
+		 *            the first key of the range.
+		 * @param end
+		 *            the key after the last one of the range.
+		 */
+		public SortTask(long[] keys, int start, int end) {
+			this.keys = keys;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Object call() {
+			Arrays.sort(this.keys, this.start, this.end);
+
+			return null;
+		}
+	}
+
+	/**
+	 * Merges two neighboring sorted ranges of keys.
+	 */
+	private static class MergeTask implements Callable<Object> {
+
+		/**
+		 * The sorted ranges.
+		 */
+		private final long[] source;
+
+		/**
+		 * Receives the merged range at the same position.
+		 */
+		private final long[] dest;
+
+		/**
+		 * The first key of the first range.
+		 */
+		private final int start;
+
+		/**
+		 * The first key of the second range.
+		 */
+		private final int middle;
+
+		/**
+		 * The key after the last one of the second range.
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code MergeTask}.
+		 *
+		 * @param source
+		 *            the sorted ranges.
+		 * @param dest
+		 *            receives the merged range at the same position.
+		 * @param start
+		 *            the first key of the first range.
+		 * @param middle
+		 *            the first key of the second range, which may be empty.
+		 * @param end
+		 *            the key after the last one of the second range.
+		 */
+		public MergeTask(long[] source, long[] dest, int start, int middle, int end) {
+			this.source = source;
+			this.dest = dest;
+			this.start = start;
+			this.middle = middle;
+			this.end = end;
+		}
+
+		@Override
+		public Object call() {
+			int i = this.start;
+			int j = this.middle;
+
+			for (int k = this.start; k < this.end; ++k) {
+				if (j >= this.end || (i < this.middle && this.source[i] <= this.source[j])) {
+					this.dest[k] = this.source[i++];
+				} else {
+					this.dest[k] = this.source[j++];
+				}
+			}
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package util;
+
+/**
+ * The class {@code SortKeys} builds primitive sort keys, so values can be sorted without boxing or comparators.
+ *
+ * A float is mapped to an int, whose signed order is the order of the floats. Such an int and the index of its
+ * element are packed into one long key, so sorting the keys orders the elements by value and equal values by index.
+ */
+public final class SortKeys {
+
+	/**
+	 * Private constructor to avoid construction.
+	 */
+	private SortKeys() {
+		// utility class, do not construct
+		throw new AssertionError();
+	}
+
+	/**
+	 * Maps a float to an int, whose signed order is the order of the floats. NaN is greater than all other values.
+	 *
+	 * @param value
+	 *            the float.
+	 * @return the order preserving bits.
+	 */
+	public static int sortableBits(float value) {
+		int bits = Float.floatToIntBits(value);
+
+		// negative floats are stored as sign and magnitude, so their magnitude bits have to be flipped
+		return bits ^ ((bits >> 31) & 0x7fffffff);
+	}
+
+	/**
+	 * Returns the float of bits returned by {@link #sortableBits(float)}.
+	 *
+	 * @param bits
+	 *            the order preserving bits.
+	 * @return the float.
+	 */
+	public static float toFloat(int bits) {
+		return Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7fffffff));
+	}
+
+	/**
+	 * Packs a sort key and the index of its element into one key, which is ordered by the sort key first.
+	 *
+	 * @param sortKey
+	 *            the sort key, e.g. from {@link #sortableBits(float)}.
+	 * @param index
+	 *            the index of the element, not negative.
+	 * @return the key.
+	 */
+	public static long pack(int sortKey, int index) {
+		return ((long) sortKey << 32) | (index & 0xffffffffL);
+	}
+
+	/**
+	 * Returns the sort key of a packed key.
+	 *
+	 * @param key
+	 *            the packed key.
+	 * @return the sort key.
+	 */
+	public static int getSortKey(long key) {
+		return (int) (key >> 32);
+	}
+
+	/**
+	 * Returns the index of the element of a packed key.
+	 *
+	 * @param key
+	 *            the packed key.
+	 * @return the index.
+	 */
+	public static int getIndex(long key) {
+		return (int) key;
+	}
+}
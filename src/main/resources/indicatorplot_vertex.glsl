@@ -0,0 +1,18 @@
+#version 140
+#extension GL_ARB_compatibility : enable
+
+uniform samplerBuffer values;
+uniform samplerBuffer colors;
+uniform samplerBuffer axes;
+uniform int columnCount;
+uniform float deltaX;
+uniform float alpha;
+
+void main() {
+	int column = int(texelFetch(axes, gl_VertexID).r);
+	float value = texelFetch(values, gl_InstanceID * columnCount + column).r;
+
+	gl_Position = gl_ModelViewProjectionMatrix * vec4(float(gl_VertexID) * deltaX, value, 0.0, 1.0);
+	gl_FrontColor = texelFetch(colors, gl_InstanceID);
+	gl_FrontColor.a *= alpha;
+}
@@ -0,0 +1,17 @@
+attribute float valueX;
+attribute float valueY;
+attribute float selected;
+
+uniform vec2 minimum;
+uniform vec2 maximum;
+uniform vec2 scale;
+uniform vec2 offset;
+uniform float nonSelectedAlpha;
+
+void main() {
+	vec2 position = (vec2(valueX, valueY) - minimum) / (maximum - minimum);
+
+	gl_Position = gl_ModelViewProjectionMatrix * vec4(position * scale + offset, 0.0, 1.0);
+	gl_FrontColor = gl_Color;
+	gl_FrontColor.a *= mix(nonSelectedAlpha, 1.0, selected);
+}
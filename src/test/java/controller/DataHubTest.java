@@ -1,14 +1,18 @@
 package controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.Collections;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import util.Operator;
 import db.Database;
 import db.DatabaseAccessException;
 import db.IncompatibleVersionException;
@@ -172,4 +176,350 @@ public class DataHubTest {
 			fail("Unexpected exception.");
 		}
 	}
+
+	/**
+	 * Tests the batched fetch of sparse selections, including ids which do not exist.
+	 */
+	@Test
+	public void sparseSelectionTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		int[] selection = { 3, 1000, 1 };
+		int[] expected = { 1, 3, 1000 };
+
+		try {
+			Group group = groupController.createGroup("Sparse");
+			group.createStaticConstraint(selection);
+
+			ElementData[] data = datahub.getData();
+			assertEquals(expected.length, data.length);
+
+			Feature feature = subspaceController.getActiveSubspace().getFeatures()[1];
+
+			// elements are sorted by id
+			for (int i = 0; i < expected.length; ++i) {
+				assertEquals(expected[i], data[i].getId());
+			}
+
+			assertEquals(objects[0][feature.getId() - 1], data[0].getValue(feature), 0.0001f);
+			assertEquals(objects[2][feature.getId() - 1], data[1].getValue(feature), 0.0001f);
+			assertEquals(Float.NaN, data[2].getValue(feature), 0.0001f);
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests the incremental updates of the cache, depending on the kind of change.
+	 */
+	@Test
+	public void incrementalUpdateTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			assertEquals(objects.length, datahub.getData().length);
+
+			// a group without constraints selects all objects
+			Group group = groupController.createGroup("Incremental");
+			ElementData[] data = datahub.getData();
+			assertEquals(objects.length, data.length);
+			assertEquals(group.getId(), data[0].getGroups()[0].getId());
+
+			// metadata changes keep the elements, but refresh their groups
+			group.setColor(0xff00ff00);
+			assertSame(data[0], datahub.getData()[0]);
+			assertEquals(0xff00ff00, datahub.getData()[0].getGroups()[0].getColor());
+
+			// membership changes re-evaluate the constraints
+			StaticConstraint constraint = group.createStaticConstraint(new int[] { 2 });
+			data = datahub.getData();
+			assertEquals(1, data.length);
+			assertEquals(2, data[0].getId());
+
+			constraint.setActive(false);
+			assertEquals(0, datahub.getData().length);
+
+			// elements, which are not cached anymore, are fetched again
+			constraint.setActive(true);
+			data = datahub.getData();
+			assertEquals(1, data.length);
+
+			Feature feature = subspaceController.getActiveSubspace().getFeatures()[1];
+			assertEquals(objects[1][feature.getId() - 1], data[0].getValue(feature), 0.0001f);
+
+			// a new strategy only recalculates the effective outlierness
+			subspaceController.setCalculateEffectiveOutliernessBy(subspaceController.getAllCalculations()[1]);
+			assertSame(data[0], datahub.getData()[0]);
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests the combination of constraints and the resolution of groups.
+	 */
+	@Test
+	public void groupMembershipTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			Feature feature = subspaceController.getActiveSubspace().getFeatures()[1];
+
+			// static constraints are united, dynamic constraints intersect them
+			Group first = groupController.createGroup("First");
+			first.createStaticConstraint(new int[] { 1 });
+			first.createStaticConstraint(new int[] { 2, 3 });
+			first.createDynamicConstraint(feature, Operator.GREATER, 1.5f);
+
+			Group second = groupController.createGroup("Second");
+			second.createStaticConstraint(new int[] { 1, 2 });
+
+			ElementData[] data = datahub.getData();
+			assertEquals(3, data.length);
+
+			// element 1 is only selected by the second group
+			assertEquals(1, data[0].getGroups().length);
+			assertEquals(second.getId(), data[0].getGroups()[0].getId());
+
+			// element 2 is selected by both groups, in the order of the groups
+			assertEquals(2, data[1].getGroups().length);
+			assertEquals(first.getId(), data[1].getGroups()[0].getId());
+			assertEquals(second.getId(), data[1].getGroups()[1].getId());
+
+			// element 3 is only selected by the first group
+			assertEquals(1, data[2].getGroups().length);
+			assertEquals(first.getId(), data[2].getGroups()[0].getId());
+
+			// invisible groups neither select elements nor are assigned to them
+			first.setVisible(false);
+			data = datahub.getData();
+			assertEquals(2, data.length);
+			assertEquals(1, data[1].getGroups().length);
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests the evaluation of several dynamic constraints on the in-memory columns.
+	 */
+	@Test
+	public void dynamicConstraintTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			Feature[] features = subspaceController.getActiveSubspace().getFeatures();
+
+			Group group = groupController.createGroup("Dynamic");
+			group.createDynamicConstraint(features[1], Operator.GREATER_OR_EQUAL, objects[1][0]);
+			DynamicConstraint upper = group.createDynamicConstraint(features[2], Operator.LESS, objects[2][1]);
+
+			// all constraints have to be fulfilled
+			ElementData[] data = datahub.getData();
+			assertEquals(1, data.length);
+			assertEquals(2, data[0].getId());
+
+			// changing the limit re-evaluates the cached columns
+			upper.setValue(10f);
+			data = datahub.getData();
+			assertEquals(2, data.length);
+			assertEquals(3, data[1].getId());
+
+			upper.setOperator(Operator.EQUAL);
+			assertEquals(0, datahub.getData().length);
+
+			upper.setOperator(Operator.LESS);
+			upper.setValue(objects[2][1]);
+			data = datahub.getData();
+			assertEquals(1, data.length);
+			assertEquals(2, data[0].getId());
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests, that dynamic constraints excluding each other select nothing, even if a further constraint matches.
+	 */
+	@Test
+	public void disjointDynamicConstraintTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			Feature[] features = subspaceController.getActiveSubspace().getFeatures();
+
+			Group group = groupController.createGroup("Disjoint");
+			group.createDynamicConstraint(features[1], Operator.LESS, objects[1][0]);
+			DynamicConstraint lower = group.createDynamicConstraint(features[1], Operator.GREATER_OR_EQUAL,
+					objects[2][0]);
+			group.createDynamicConstraint(features[2], Operator.GREATER_OR_EQUAL, objects[0][1]);
+
+			// the first two constraints are disjoint, so the third one is not used on its own
+			assertEquals(0, datahub.getData().length);
+
+			lower.setActive(false);
+			ElementData[] data = datahub.getData();
+			assertEquals(1, data.length);
+			assertEquals(1, data[0].getId());
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests, that the columns of features are dropped, once they are no longer used by a constraint.
+	 */
+	@Test
+	public void columnCacheTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			Feature[] features = subspaceController.getActiveSubspace().getFeatures();
+
+			Group group = groupController.createGroup("Cached");
+			group.createDynamicConstraint(features[1], Operator.GREATER_OR_EQUAL, objects[0][0]);
+			DynamicConstraint second = group.createDynamicConstraint(features[2], Operator.GREATER_OR_EQUAL,
+					objects[0][1]);
+
+			assertEquals(objects.length, datahub.getData().length);
+			assertEquals(2, datahub.getCachedColumnCount());
+
+			second.setActive(false);
+			assertEquals(objects.length, datahub.getData().length);
+			assertEquals(1, datahub.getCachedColumnCount());
+
+			groupController.removeGroup(group);
+			datahub.getData();
+			assertEquals(0, datahub.getCachedColumnCount());
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests, that the group filter selects the shown groups without changing their visibility.
+	 */
+	@Test
+	public void groupFilterTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			Feature[] features = subspaceController.getActiveSubspace().getFeatures();
+
+			Group low = groupController.createGroup("Low");
+			low.createDynamicConstraint(features[1], Operator.LESS, objects[1][0]);
+			Group high = groupController.createGroup("High");
+			high.createDynamicConstraint(features[1], Operator.GREATER_OR_EQUAL, objects[2][0]);
+
+			assertEquals(2, datahub.getData().length);
+
+			datahub.setGroupFilter(Collections.singleton(high.getId()));
+			ElementData[] data = datahub.getData();
+			assertEquals(1, data.length);
+			assertEquals(3, data[0].getId());
+			assertTrue(low.isVisible());
+
+			datahub.setGroupFilter(null);
+			assertEquals(2, datahub.getData().length);
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests the chunks, which are published while the elements are loaded.
+	 */
+	@Test
+	public void chunkListenerTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			datahub.addChunkListener(null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		final int[] started = { -1 };
+		final boolean[] loaded = new boolean[objects.length];
+
+		DataChunkListener listener = new DataChunkListener() {
+			@Override
+			public void loadingStarted(int count) {
+				started[0] = count;
+			}
+
+			@Override
+			public void chunkLoaded(ElementData[] elements, int start, int end) {
+				for (int i = start; i < end; ++i) {
+					assertEquals(false, loaded[i]);
+					assertEquals(i + 1, elements[i].getId());
+					loaded[i] = true;
+				}
+			}
+		};
+
+		datahub.addChunkListener(listener);
+
+		try {
+			ElementData[] data = datahub.getData();
+			assertEquals(objects.length, started[0]);
+
+			// every element is published exactly once
+			for (int i = 0; i < data.length; ++i) {
+				assertEquals(true, loaded[i]);
+			}
+
+			// a cached result is not loaded again
+			started[0] = -1;
+			datahub.getData();
+			assertEquals(-1, started[0]);
+
+			datahub.removeChunkListener(listener);
+			datahub.update(subspaceController, null);
+			datahub.getData();
+			assertEquals(-1, started[0]);
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
+
+	/**
+	 * Tests the cached colors of the elements.
+	 */
+	@Test
+	public void colorCacheTest() {
+		this.datahub = new DataHub(database, groupController, subspaceController);
+
+		try {
+			datahub.getColors(null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			ElementData[] data = datahub.getData();
+			int[] colors = datahub.getColors(data);
+
+			// elements without groups are black and the colors are calculated once
+			assertEquals(objects.length, colors.length);
+			assertEquals(ColorEngine.NO_GROUP_COLOR, colors[0]);
+			assertSame(colors, datahub.getColors(data));
+
+			Group group = groupController.createGroup("Colored");
+			group.createStaticConstraint(new int[] { 1, 2 });
+			group.setColor(0xff00ff00);
+
+			data = datahub.getData();
+			colors = datahub.getColors(data);
+			assertEquals(2, colors.length);
+			assertEquals(0xff00ff00, colors[1]);
+
+			// a new group color invalidates the cached colors
+			group.setColor(0x80ff0000);
+			colors = datahub.getColors(datahub.getData());
+			assertEquals(0x80ff0000, colors[0]);
+		} catch (DatabaseAccessException e) {
+			fail("Unexpected exception.");
+		}
+	}
 }
@@ -0,0 +1,106 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class {@code FeatureStoreTest} offers tests for the columnar feature store.
+ */
+public class FeatureStoreTest {
+	// valid data
+	private final int size = 3;
+	private final int[] featureIds = { -1, 1, 2 };
+
+	// common valid store
+	private FeatureStore store = null;
+
+	/**
+	 * Initialize a valid store for the majority of our tests.
+	 */
+	@Before
+	public void setup() {
+		this.store = new FeatureStore(size, featureIds);
+	}
+
+	/**
+	 * Tests the constructor, by passing invalid data.
+	 */
+	@Test
+	public void invalidCtorTest() {
+		try {
+			new FeatureStore(-1, featureIds);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new FeatureStore(size, null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new FeatureStore(size, new int[] { -2 });
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests reading and writing values.
+	 */
+	@Test
+	public void valueTest() {
+		assertEquals(size, store.size());
+
+		for (int row = 0; row < size; ++row) {
+			store.setValue(-1, row, row * 0.5f);
+			store.setValue(2, row, row + 10f);
+		}
+
+		for (int row = 0; row < size; ++row) {
+			assertEquals(row * 0.5f, store.getValue(-1, row), 0.0001f);
+			assertEquals(row + 10f, store.getColumn(2)[row], 0.0001f);
+		}
+
+		// unknown columns
+		assertNull(store.getColumn(42));
+
+		try {
+			store.getValue(42, 0);
+			fail("Expected exception.");
+		} catch (NullPointerException e) {
+		}
+
+		// columns are allocated on demand
+		store.setValue(42, 1, 4.2f);
+		assertEquals(size, store.getColumn(42).length);
+		assertEquals(4.2f, store.getValue(42, 1), 0.0001f);
+		assertEquals(10f, store.getValue(2, 0), 0.0001f);
+	}
+
+	/**
+	 * Tests elements sharing one store.
+	 */
+	@Test
+	public void sharedElementTest() {
+		ElementData first = new ElementData(1, store, 0, new Group[0]);
+		ElementData second = new ElementData(2, store, 1, new Group[0]);
+
+		first.addValue(1, 1.5f);
+		second.addValue(1, 2.5f);
+
+		assertEquals(1.5f, store.getValue(1, 0), 0.0001f);
+		assertEquals(2.5f, store.getValue(1, 1), 0.0001f);
+
+		try {
+			new ElementData(3, store, size, new Group[0]);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The class {@code QuantileSketchTest} offers tests for the {@code QuantileSketch}.
+ */
+public class QuantileSketchTest {
+
+	/**
+	 * Tests the constructor and the quantiles, by passing invalid data.
+	 */
+	@Test
+	public void invalidDataTest() {
+		try {
+			new QuantileSketch(1);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		QuantileSketch sketch = new QuantileSketch();
+
+		try {
+			sketch.getQuantile(1.5);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			sketch.merge(null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			sketch.merge(new QuantileSketch(100));
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the quantiles of small streams, which are exact.
+	 */
+	@Test
+	public void exactTest() {
+		QuantileSketch sketch = new QuantileSketch();
+
+		assertTrue(Float.isNaN(sketch.getQuantile(0.5)));
+
+		sketch.add(8.f);
+		sketch.add(Float.NaN);
+		sketch.add(1.f);
+		sketch.add(4.f);
+
+		assertEquals(3, sketch.getCount());
+		assertTrue(sketch.isExact());
+		assertEquals(4.f, sketch.getQuantile(0.5), 0.f);
+
+		sketch.add(2.f);
+
+		assertEquals(1.f, sketch.getQuantile(0.), 0.f);
+		assertEquals(3.f, sketch.getQuantile(0.5), 0.f);
+		assertEquals(8.f, sketch.getQuantile(1.), 0.f);
+		assertEquals(1.75f, sketch.getQuantile(0.25), 0.f);
+	}
+
+	/**
+	 * Tests the rank error of large streams, which are added in one sketch or merged from several ones.
+	 */
+	@Test
+	public void approximationTest() {
+		int n = 100000;
+		float[] values = new float[n];
+
+		for (int i = 0; i < n; ++i) {
+			values[i] = i;
+		}
+
+		// shuffle, so the order of the stream does not help
+		Random random = new Random(42);
+
+		for (int i = n - 1; i > 0; --i) {
+			int j = random.nextInt(i + 1);
+			float swap = values[i];
+			values[i] = values[j];
+			values[j] = swap;
+		}
+
+		QuantileSketch sketch = new QuantileSketch();
+		QuantileSketch[] parts = { new QuantileSketch(), new QuantileSketch(), new QuantileSketch() };
+
+		for (int i = 0; i < n; ++i) {
+			sketch.add(values[i]);
+			parts[i % parts.length].add(values[i]);
+		}
+
+		QuantileSketch merged = new QuantileSketch();
+
+		for (QuantileSketch part : parts) {
+			merged.merge(part);
+		}
+
+		assertFalse(sketch.isExact());
+		assertEquals(n, sketch.getCount());
+		assertEquals(n, merged.getCount());
+
+		// the value equals its rank, so the rank error is the difference to the exact quantile
+		for (double q = 0.; q <= 1.; q += 0.05) {
+			assertEquals(q * (n - 1), sketch.getQuantile(q), 0.02 * n);
+			assertEquals(q * (n - 1), merged.getQuantile(q), 0.02 * n);
+		}
+	}
+}
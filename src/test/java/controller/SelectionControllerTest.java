@@ -3,7 +3,13 @@ package controller;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Observable;
+import java.util.Observer;
+
 import junit.framework.Assert;
 
 import org.junit.Test;
@@ -107,4 +113,76 @@ public class SelectionControllerTest {
 		} catch (NullPointerException e) {
 		}
 	}
+
+	/**
+	 * Test the selection by bitsets and ranges
+	 */
+	@Test
+	public void bulkSelectionTest() {
+		SelectionController selectionController = new SelectionController();
+		BitSet bits = new BitSet();
+		bits.set(0, 4);
+
+		// id 0 is no element
+		selectionController.select(bits);
+		assertArrayEquals("Selection was different", new int[] { 1, 2, 3 }, selectionController.getSelection());
+
+		selectionController.selectRange(-5, 6);
+		assertEquals("Incorrect count of elements", 5, selectionController.getSelectedCount());
+		assertFalse("Item 6 is not selected", selectionController.isSelected(6));
+		assertFalse("Item 0 is not selected", selectionController.isSelected(0));
+
+		selectionController.unselectRange(2, 4);
+		assertArrayEquals("Selection was different after unselection", new int[] { 1, 4, 5 },
+				selectionController.getSelection());
+		assertEquals("Selection bits were different", 3, selectionController.getSelectionBits().cardinality());
+
+		bits.clear();
+		bits.set(4);
+		bits.set(9);
+		selectionController.reselect(bits);
+		assertArrayEquals("Selection was different after reselection", new int[] { 4, 9 },
+				selectionController.getSelection());
+
+		try {
+			selectionController.selectRange(3, 2);
+			Assert.fail("The range was empty");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Test the changes reported to the observers
+	 */
+	@Test
+	public void changeTest() {
+		SelectionController selectionController = new SelectionController();
+		final SelectionChange[] last = new SelectionChange[1];
+
+		selectionController.addObserver(new Observer() {
+			@Override
+			public void update(Observable o, Object arg) {
+				last[0] = (SelectionChange) arg;
+			}
+		});
+
+		selectionController.select(new int[] { 1, 2, 3 });
+		assertArrayEquals("Added ids were different", new int[] { 1, 2, 3 }, last[0].getAdded());
+		assertEquals("Removed ids were different", 0, last[0].getRemoved().length);
+
+		selectionController.reselect(new int[] { 3, 4 });
+		assertArrayEquals("Added ids were different", new int[] { 4 }, last[0].getAdded());
+		assertArrayEquals("Removed ids were different", new int[] { 1, 2 }, last[0].getRemoved());
+		assertEquals("Incorrect count of changes", 3, last[0].size());
+		assertEquals("Incorrect changed ids", 3, last[0].getChanged().cardinality());
+
+		// nothing changes, so nothing is reported
+		last[0] = null;
+		selectionController.select(new int[] { 3 });
+		selectionController.unselect(new int[] { 7, -1 });
+		assertNull("Nothing was changed", last[0]);
+
+		selectionController.reset();
+		assertArrayEquals("Removed ids were different", new int[] { 3, 4 }, last[0].getRemoved());
+	}
 }
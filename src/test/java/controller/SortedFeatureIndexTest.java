@@ -0,0 +1,81 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import util.Operator;
+
+/**
+ * The class {@code SortedFeatureIndexTest} offers tests for the sorted index of a feature.
+ */
+public class SortedFeatureIndexTest {
+	// column indexed by the object id, id 0 and 4 are missing
+	private final float[] column = { Float.NaN, 3.0f, -1.5f, 3.0f, Float.NaN, 0.0f, 7.25f };
+
+	// common valid index
+	private SortedFeatureIndex index = null;
+
+	/**
+	 * Initialize a valid index for the majority of our tests.
+	 */
+	@Before
+	public void setup() {
+		this.index = new SortedFeatureIndex(column);
+	}
+
+	/**
+	 * Tests the constructor, by passing invalid data.
+	 */
+	@Test
+	public void invalidCtorTest() {
+		try {
+			new SortedFeatureIndex(null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the order of the index.
+	 */
+	@Test
+	public void orderTest() {
+		float[] expected = { -1.5f, 0.0f, 3.0f, 3.0f, 7.25f };
+
+		// missing values are not indexed
+		assertEquals(expected.length, index.size());
+
+		for (int i = 0; i < expected.length; ++i) {
+			assertEquals(expected[i], index.getValue(i), 0.0001f);
+			assertEquals(expected[i], column[index.getId(i)], 0.0001f);
+		}
+	}
+
+	/**
+	 * Tests the range predicates, by comparing them to a scan.
+	 */
+	@Test
+	public void selectTest() {
+		float[] limits = { -2f, -1.5f, 0.0f, 3.0f, 5f, 7.25f, 8f };
+
+		for (Operator operator : Operator.values()) {
+			for (float limit : limits) {
+				BitSet expected = new BitSet();
+
+				for (int id = 0; id < column.length; ++id) {
+					if (DynamicConstraintScan.matches(column[id], operator, limit)) {
+						expected.set(id);
+					}
+				}
+
+				assertEquals(operator + " " + limit, expected, index.select(operator, limit));
+				assertEquals(operator + " " + limit, expected.cardinality(), index.count(operator, limit));
+			}
+		}
+	}
+}
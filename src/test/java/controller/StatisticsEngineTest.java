@@ -0,0 +1,177 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import db.Database;
+import db.DatabaseAccessException;
+import db.IncompatibleVersionException;
+import db.InvalidDriverException;
+
+/**
+ * The class {@code StatisticsEngineTest} offers tests for the {@code StatisticsEngine}.
+ */
+public class StatisticsEngineTest {
+	// environment
+	private final String path = System.getProperty("java.io.tmpdir") + "/bsv_controller_tests";
+	private final String dbFile = this.path + "/database-junit-statistics.bsv";
+	private Database database = null;
+	private SubspaceController subspaceController;
+	private SelectionController selectionController;
+	private StatisticsEngine engine;
+
+	// dummy values
+	private final float[][] objects = { { 1.f, 10.f }, { 2.f, 20.f }, { 4.f, 30.f }, { 8.f, 40.f } };
+
+	/**
+	 * Initialize a valid environment for the tests.
+	 */
+	@Before
+	public void setup() {
+		(new File(path)).mkdirs();
+		(new File(dbFile)).delete();
+
+		try {
+			database = new Database(dbFile);
+
+			String[] features = { "Feature 1", "Feature 2" };
+			boolean[] outlier = { false, false };
+
+			this.database.initFeatures(features, outlier);
+			this.database.pushObject(objects);
+			this.database.pushSubspace(1, new int[] { 1, 2 }, "feature 1 and feature 2");
+
+			subspaceController = new SubspaceController(database);
+			GroupController groupController = new GroupController(database, subspaceController);
+			DataHub dataHub = new DataHub(database, groupController, subspaceController);
+			selectionController = new SelectionController();
+			engine = new StatisticsEngine(dataHub, selectionController);
+		} catch (InvalidDriverException e) {
+			fail(e.getMessage());
+		} catch (IncompatibleVersionException e) {
+			fail(e.getMessage());
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Clean up the environment.
+	 */
+	@After
+	public void tearDown() {
+		engine.shutdown();
+
+		try {
+			database.shutdown();
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		}
+
+		assertEquals(true, (new File(dbFile)).delete());
+	}
+
+	/**
+	 * Tests the constructor, by passing invalid data.
+	 */
+	@Test
+	public void invalidCtorTest() {
+		try {
+			new StatisticsEngine(null, selectionController);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the statistics of a selection and their cache.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read
+	 * @throws InterruptedException
+	 *             if the calculation is interrupted
+	 */
+	@Test
+	public void statisticsTest() throws DatabaseAccessException, InterruptedException {
+		Feature[] features = findFeatures();
+
+		selectionController.select(new int[] { 1, 2, 3 });
+		FeatureStatistics[] stats = engine.getStatistics(features, false);
+
+		assertEquals(3, stats[0].getCount());
+		assertEquals(1.f, stats[0].getMin(), 0.f);
+		assertEquals(4.f, stats[0].getMax(), 0.f);
+		assertEquals(7.f / 3.f, stats[0].getMean(), 0.0001f);
+		assertEquals(14.f / 9.f, stats[0].getVariance(), 0.0001f);
+		assertEquals((float) Math.sqrt(14.f / 9.f), stats[0].getStandardDeviation(), 0.0001f);
+		assertFalse(stats[0].hasMedian());
+		assertEquals(20.f, stats[1].getMean(), 0.0001f);
+
+		// the median is added to the cached statistics
+		stats = engine.getStatistics(features, true);
+		assertTrue(stats[0].hasMedian());
+		assertTrue(stats[0].isMedianExact());
+		assertEquals(2.f, stats[0].getMedian(), 0.f);
+		assertEquals(1.5f, stats[0].getInterquartileRange(), 0.f);
+		assertEquals(3.6f, stats[0].getQuantile(0.9), 0.0001f);
+		assertSame(stats[1], engine.getStatistics(features, false)[1]);
+
+		// a new selection is calculated again, the median of an even count is the mean of the middle values
+		selectionController.select(new int[] { 4 });
+		stats = engine.getStatistics(features, true);
+		assertEquals(4, stats[0].getCount());
+		assertEquals(3.f, stats[0].getMedian(), 0.f);
+		assertEquals(25.f, stats[1].getMedian(), 0.f);
+	}
+
+	/**
+	 * Tests the request of exact medians, which are exact for small selections already.
+	 *
+	 * @throws DatabaseAccessException
+	 *             if the data cannot be read
+	 * @throws InterruptedException
+	 *             if the calculation is interrupted
+	 */
+	@Test
+	public void exactMedianTest() throws DatabaseAccessException, InterruptedException {
+		Feature[] features = findFeatures();
+
+		selectionController.select(new int[] { 1, 2, 3, 4 });
+		assertNull(engine.requestExactMedians(features, null));
+
+		try {
+			engine.requestExactMedians(null, null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Returns the features of the active subspace in the order of their ids.
+	 *
+	 * @return the two features
+	 * @throws DatabaseAccessException
+	 *             if the features cannot be read
+	 */
+	private Feature[] findFeatures() throws DatabaseAccessException {
+		Feature[] result = new Feature[2];
+
+		for (Feature feature : subspaceController.getActiveSubspace().getFeatures()) {
+			if (!feature.isVirtual()) {
+				result[feature.getId() - 1] = feature;
+			}
+		}
+
+		return result;
+	}
+}
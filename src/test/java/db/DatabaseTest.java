@@ -1,9 +1,17 @@
 package db;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 
 import junit.framework.Assert;
 
@@ -134,6 +142,69 @@ public class DatabaseTest {
 		}
 	}
 
+	/**
+	 * Test the binary column file of the objects.
+	 */
+	@Test
+	public void columnFileTest() throws DatabaseAccessException, IOException {
+		initFeaturesTest();
+
+		float[][] objects = { { 1.0f, 2.0f, 3.0f }, { 4.0f, Float.NaN, 6.0f }, { 7.0f, 8.0f, 9.0f } };
+		this.database.pushObject(objects);
+
+		// an incomplete file is not used
+		ColumnFileWriter writer = this.database.createColumnFile(objects.length);
+		writer.writeRows(0, new float[][] { objects[0] });
+		writer.writeRows(1, new float[][] { objects[1], objects[2] });
+		assertNull(this.database.getColumnFile());
+
+		writer.finish();
+
+		ColumnFile columnFile = this.database.getColumnFile();
+		assertNotNull(columnFile);
+		assertEquals(objects.length, columnFile.getObjectCount());
+		assertNull(columnFile.getColumn(42));
+
+		for (int featureId = 1; featureId <= 3; ++featureId) {
+			FloatBuffer column = columnFile.getColumn(featureId);
+
+			for (int row = 0; row < objects.length; ++row) {
+				assertEquals(objects[row][featureId - 1], column.get(row), 0.0001f);
+			}
+		}
+
+		// another database, which has the same size, does not use the file
+		Database other = null;
+
+		try {
+			other = new Database(this.dbFile);
+			assertNotNull(other.getColumnFile());
+
+			Statement stmt = other.getConnection().createStatement();
+			stmt.execute("PRAGMA user_version = 42;");
+			stmt.close();
+			other.shutdown();
+
+			other = new Database(this.dbFile);
+			assertNull(other.getColumnFile());
+		} catch (InvalidDriverException e) {
+			fail(e.getMessage());
+		} catch (IncompatibleVersionException e) {
+			fail(e.getMessage());
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		} finally {
+			if (other != null) {
+				other.shutdown();
+			}
+		}
+
+		// clearing the database removes the stale file
+		this.database.clear();
+		assertNull(this.database.getColumnFile());
+		assertFalse(new File(this.dbFile + DatabaseConfiguration.COLUMNFILEEXTENSION).exists());
+	}
+
 	/**
 	 * Test return path of the database.
 	 */
@@ -163,6 +234,54 @@ public class DatabaseTest {
 		}
 	}
 
+	/**
+	 * Test the pool of read-only connections.
+	 */
+	@Test
+	public void readConnectionTest() {
+		try {
+			this.database.initFeatures(new String[] { "dim0" }, new boolean[] { false });
+			this.database.pushObject(new float[][] { { 1.1f }, { 2.1f } });
+
+			Connection first = this.database.acquireReadConnection();
+			Connection second = this.database.acquireReadConnection();
+
+			// concurrent readers get their own connection
+			Assert.assertNotSame(first, second);
+			Assert.assertNotSame(this.database.getConnection(), first);
+
+			// readers see the committed objects
+			Statement stmt = first.createStatement();
+			assertEquals(2, stmt.executeQuery("SELECT COUNT(Id) FROM Objects;").getInt(1));
+			stmt.close();
+
+			// but are not allowed to write
+			stmt = second.createStatement();
+			try {
+				stmt.executeUpdate("DELETE FROM Objects;");
+				fail("Expected exception.");
+			} catch (SQLException e) {
+			}
+			stmt.close();
+
+			// the workspace stays a single file without write-ahead log
+			stmt = this.database.getConnection().createStatement();
+			assertEquals("memory", stmt.executeQuery("PRAGMA journal_mode;").getString(1).toLowerCase());
+			stmt.close();
+
+			// released connections are reused
+			this.database.releaseReadConnection(first);
+			Assert.assertSame(first, this.database.acquireReadConnection());
+
+			this.database.releaseReadConnection(first);
+			this.database.releaseReadConnection(second);
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+
 	/**
 	 * Test the correct behavior of a in-memory database.
 	 */
@@ -3,11 +3,17 @@ package gui;
 import static org.junit.Assert.assertEquals;
 import gui.settings.Settings;
 import gui.views.DataTableModel;
+import gui.views.DataTableRowSorter;
 import gui.views.TableView;
 
+import java.awt.Color;
 import java.io.File;
+import java.util.BitSet;
 import java.util.Locale;
 
+import javax.swing.RowSorter.SortKey;
+import javax.swing.SortOrder;
+
 import junit.framework.Assert;
 
 import org.junit.After;
@@ -210,4 +216,54 @@ public class DataTableModelTest {
 		Assert.assertEquals(false, this.dtm.isCellEditable(0, 5));
 	}
 
+	/**
+	 * Tests the corresponding method - getColumnClass.
+	 */
+	@Test
+	public void testGetColumnClass() {
+		Assert.assertEquals(Boolean.class, this.dtm.getColumnClass(0));
+		Assert.assertEquals(Color.class, this.dtm.getColumnClass(1));
+		Assert.assertEquals(Integer.class, this.dtm.getColumnClass(2));
+		Assert.assertEquals(Float.class, this.dtm.getColumnClass(4));
+	}
+
+	/**
+	 * Tests the corresponding method - getIdAt.
+	 */
+	@Test
+	public void testGetIdAt() {
+		Assert.assertEquals(11, this.dtm.getIdAt(0));
+		Assert.assertEquals(12, this.dtm.getIdAt(1));
+
+		try {
+			this.dtm.getIdAt(2);
+			Assert.fail("Argument was out of bounds");
+		} catch (IllegalArgumentException e) {
+			// ok
+		}
+	}
+
+	/**
+	 * Tests the sort of the rows by the DataTableRowSorter.
+	 * 
+	 * @throws InterruptedException
+	 *             if the sort is interrupted.
+	 */
+	@Test
+	public void testSortRows() throws InterruptedException {
+		BitSet selection = new BitSet();
+		selection.set(12);
+
+		int[] rows = DataTableRowSorter.sortRows(this.dtm, new SortKey(2, SortOrder.DESCENDING), selection);
+		Assert.assertEquals(1, rows[0]);
+		Assert.assertEquals(0, rows[1]);
+
+		rows = DataTableRowSorter.sortRows(this.dtm, new SortKey(0, SortOrder.DESCENDING), selection);
+		Assert.assertEquals(1, rows[0]);
+
+		// equal values keep the order of the model
+		rows = DataTableRowSorter.sortRows(this.dtm, new SortKey(4, SortOrder.DESCENDING), selection);
+		Assert.assertEquals(0, rows[0]);
+		Assert.assertEquals(1, rows[1]);
+	}
 }
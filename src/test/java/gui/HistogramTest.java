@@ -0,0 +1,264 @@
+package gui;
+
+import gui.views.plots.Histogram;
+import gui.views.plots.SortedColumn;
+
+import java.io.File;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.ElementData;
+import controller.Feature;
+import controller.Group;
+import controller.SubspaceController;
+import db.Database;
+import db.DatabaseAccessException;
+import db.IncompatibleVersionException;
+import db.InvalidDriverException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the SortedColumn and Histogram classes
+ */
+public class HistogramTest {
+	/**
+	 * Threads used for sorting and binning
+	 */
+	private static final int THREADS = 4;
+
+	/**
+	 * Path of the database
+	 */
+	private final String dbPath = System.getProperty("java.io.tmpdir") + "/bsv_gui_tests/database-junit-histogram.bsv";
+
+	/**
+	 * The database, which the feature belongs to
+	 */
+	private Database db;
+
+	/**
+	 * The feature of the elements
+	 */
+	private Feature feature;
+
+	/**
+	 * Executor used for sorting and binning
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Create the database, the feature and the executor
+	 */
+	@Before
+	public void setUp() {
+		(new File(this.dbPath)).getParentFile().mkdirs();
+		(new File(this.dbPath)).delete();
+
+		try {
+			this.db = new Database(this.dbPath);
+			this.db.initFeatures(new String[] { "featureA" }, new boolean[] { false });
+
+			for (Feature f : new SubspaceController(this.db).getActiveSubspace().getFeatures()) {
+				if (!f.isVirtual()) {
+					this.feature = f;
+				}
+			}
+		} catch (InvalidDriverException ex) {
+			fail("unexpected InvalidDriverException");
+		} catch (IncompatibleVersionException ex) {
+			fail("unexpected IncompatibleVersionException");
+		} catch (DatabaseAccessException ex) {
+			fail("unexpected DatabaseAccessException");
+		}
+
+		this.executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	/**
+	 * Shut down the executor and remove the database
+	 */
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+
+		try {
+			this.db.shutdown();
+			assertEquals("Cannot remove database file", true, (new File(this.dbPath)).delete());
+		} catch (DatabaseAccessException ex) {
+			fail("unexpected DatabaseAccessException");
+		}
+	}
+
+	/**
+	 * Tests the constructors, by passing invalid data
+	 *
+	 * @throws InterruptedException
+	 *             if the sorting is interrupted
+	 */
+	@Test
+	public void invalidCtorTest() throws InterruptedException {
+		try {
+			new SortedColumn(null, this.feature, this.executor, THREADS);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		SortedColumn column = new SortedColumn(this.createElements(new float[] { 1.f }), this.feature, this.executor,
+				THREADS);
+
+		try {
+			new Histogram(column, new int[1], null, 1.f, 0.f, 1.f, 0, this.executor, THREADS);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the order of the column, including missing and negative values
+	 *
+	 * @throws InterruptedException
+	 *             if the sorting is interrupted
+	 */
+	@Test
+	public void sortedColumnTest() throws InterruptedException {
+		Random random = new Random(42);
+		float[] values = new float[300000];
+
+		for (int i = 0; i < values.length; ++i) {
+			values[i] = (i % 100 == 0) ? Float.NaN : random.nextFloat() * 20.f - 10.f;
+		}
+
+		ElementData[] data = this.createElements(values);
+		SortedColumn column = new SortedColumn(data, this.feature, this.executor, THREADS);
+
+		// missing values are not part of the column
+		assertEquals(values.length - values.length / 100, column.size());
+		assertTrue(column.matches(data, this.feature));
+
+		for (int rank = 0; rank < column.size(); ++rank) {
+			assertEquals(values[column.getRow(rank)], column.getValue(rank), 0.f);
+			assertEquals(column.getRow(rank) + 1, column.getId(rank));
+
+			if (rank > 0) {
+				assertTrue(column.getValue(rank - 1) <= column.getValue(rank));
+			}
+		}
+	}
+
+	/**
+	 * Tests the bins and colors, by comparing them to the bin of each value
+	 *
+	 * @throws InterruptedException
+	 *             if the binning is interrupted
+	 */
+	@Test
+	public void histogramTest() throws InterruptedException {
+		Random random = new Random(7);
+		float[] values = new float[200000];
+		int[] colors = new int[values.length];
+		BitSet selected = new BitSet();
+
+		for (int i = 0; i < values.length; ++i) {
+			values[i] = (float) random.nextGaussian();
+			colors[i] = (i % 3 == 0) ? 0xffff0000 : 0x800000ff;
+
+			if (i % 5 == 0) {
+				selected.set(i + 1);
+			}
+		}
+
+		ElementData[] data = this.createElements(values);
+		SortedColumn column = new SortedColumn(data, this.feature, this.executor, THREADS);
+
+		for (int steps : new int[] { 1, 7, 50 }) {
+			Histogram histogram = new Histogram(column, colors, selected, 0.2f, -1.f, 2.f, steps, this.executor,
+					THREADS);
+			int[] counts = new int[steps];
+			double[] sumAlpha = new double[steps];
+
+			for (int i = 0; i < values.length; ++i) {
+				int bin = Histogram.binOf(values[i], -1.f, 2.f, steps);
+				counts[bin]++;
+				sumAlpha[bin] += ((colors[i] >>> 24) / 255.f) * (selected.get(i + 1) ? 1.f : 0.2f);
+			}
+
+			assertEquals(steps, histogram.getSteps());
+
+			for (int bin = 0; bin < steps; ++bin) {
+				assertEquals(counts[bin], histogram.getCount(bin));
+				assertEquals(sumAlpha[bin] / counts[bin], histogram.getAlpha(bin), 0.0001f);
+				assertEquals(0.f, histogram.getGreen(bin), 0.f);
+				assertEquals(1.f, histogram.getRed(bin) + histogram.getBlue(bin), 0.0001f);
+			}
+		}
+	}
+
+	/**
+	 * Tests the update of single elements, by comparing it to binning the changed selection again
+	 *
+	 * @throws InterruptedException
+	 *             if the binning is interrupted
+	 */
+	@Test
+	public void changeSelectionTest() throws InterruptedException {
+		Random random = new Random(11);
+		float[] values = new float[100000];
+		int[] colors = new int[values.length];
+		BitSet selected = new BitSet();
+
+		for (int i = 0; i < values.length; ++i) {
+			values[i] = random.nextFloat();
+			colors[i] = (i % 2 == 0) ? 0xffff0000 : 0x4000ff00;
+
+			if (i % 3 == 0) {
+				selected.set(i + 1);
+			}
+		}
+
+		ElementData[] data = this.createElements(values);
+		SortedColumn column = new SortedColumn(data, this.feature, this.executor, THREADS);
+		Histogram histogram = new Histogram(column, colors, selected, 0.2f, 0.f, 1.f, 20, this.executor, THREADS);
+
+		for (int i = 0; i < values.length; i += 7) {
+			boolean now = !selected.get(i + 1);
+			selected.set(i + 1, now);
+			histogram.changeSelection(values[i], colors[i], now);
+		}
+
+		Histogram expected = new Histogram(column, colors, selected, 0.2f, 0.f, 1.f, 20, this.executor, THREADS);
+
+		for (int bin = 0; bin < 20; ++bin) {
+			assertEquals(expected.getCount(bin), histogram.getCount(bin));
+			assertEquals(expected.getRed(bin), histogram.getRed(bin), 0.0001f);
+			assertEquals(expected.getGreen(bin), histogram.getGreen(bin), 0.0001f);
+			assertEquals(expected.getAlpha(bin), histogram.getAlpha(bin), 0.0001f);
+		}
+	}
+
+	/**
+	 * Creates elements with a value of the feature each
+	 *
+	 * @param values
+	 *            the values
+	 * @return the elements, their ids start at 1
+	 */
+	private ElementData[] createElements(float[] values) {
+		ElementData[] data = new ElementData[values.length];
+
+		for (int i = 0; i < values.length; ++i) {
+			data[i] = new ElementData(i + 1, new int[] { this.feature.getId() }, new float[] { values[i] },
+					new Group[0]);
+		}
+
+		return data;
+	}
+}
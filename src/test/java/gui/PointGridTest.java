@@ -0,0 +1,145 @@
+package gui;
+
+import gui.views.plots.PointGrid;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the PointGrid class
+ */
+public class PointGridTest {
+	/**
+	 * Threads used for binning
+	 */
+	private static final int THREADS = 4;
+
+	/**
+	 * Executor used for binning
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Create the executor
+	 */
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	/**
+	 * Shut down the executor
+	 */
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Tests the constructor, by passing invalid data
+	 *
+	 * @throws InterruptedException
+	 *             if the binning is interrupted
+	 */
+	@Test
+	public void invalidCtorTest() throws InterruptedException {
+		try {
+			new PointGrid(FloatBuffer.allocate(2), FloatBuffer.allocate(3), 0, 1, 0, 1, 4, this.executor, THREADS);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new PointGrid(FloatBuffer.allocate(2), FloatBuffer.allocate(2), 0, 1, 0, 1, 0, this.executor, THREADS);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the bins of a few points, including missing values and values beyond the range
+	 *
+	 * @throws InterruptedException
+	 *             if the binning is interrupted
+	 */
+	@Test
+	public void smallGridTest() throws InterruptedException {
+		FloatBuffer x = FloatBuffer.wrap(new float[] { 0.f, 0.9f, Float.NaN, 5.f, -3.f, 0.4f });
+		FloatBuffer y = FloatBuffer.wrap(new float[] { 0.f, 0.9f, 0.5f, 0.1f, 2.f, 0.1f });
+		PointGrid grid = new PointGrid(x, y, 0.f, 1.f, 0.f, 1.f, 2, this.executor, THREADS);
+
+		// the point with a missing value is not part of the grid
+		assertEquals(5, grid.size());
+
+		// bin (0, 0) holds point 0 and 5 in their original order
+		assertEquals(2, grid.getEnd(0, 0) - grid.getStart(0, 0));
+		assertEquals(0, grid.getIndex(grid.getStart(0, 0)));
+		assertEquals(5, grid.getIndex(grid.getStart(0, 0) + 1));
+
+		// values beyond the range belong to the border bins
+		assertEquals(3, grid.getIndex(grid.getStart(1, 0)));
+		assertEquals(4, grid.getIndex(grid.getStart(0, 1)));
+		assertEquals(1, grid.getIndex(grid.getStart(1, 1)));
+
+		assertEquals(5, grid.count(0, 0, 1, 1));
+		assertEquals(3, grid.count(0, 0, 1, 0));
+		assertEquals(0, grid.toCell(-1.f));
+		assertEquals(1, grid.toCell(0.5f));
+		assertEquals(1, grid.toCell(7.f));
+	}
+
+	/**
+	 * Tests the parallel binning, by comparing it to the bin of each point
+	 *
+	 * @throws InterruptedException
+	 *             if the binning is interrupted
+	 */
+	@Test
+	public void parallelGridTest() throws InterruptedException {
+		int count = 300000;
+		int resolution = 16;
+		Random random = new Random(42);
+		FloatBuffer x = FloatBuffer.allocate(count);
+		FloatBuffer y = FloatBuffer.allocate(count);
+
+		for (int i = 0; i < count; ++i) {
+			x.put(random.nextFloat() * 10.f - 5.f);
+			y.put(random.nextFloat() * 4.f);
+		}
+
+		PointGrid grid = new PointGrid(x, y, -5.f, 5.f, 0.f, 4.f, resolution, this.executor, THREADS);
+		assertEquals(count, grid.size());
+
+		boolean[] seen = new boolean[count];
+
+		for (int row = 0; row < resolution; ++row) {
+			for (int column = 0; column < resolution; ++column) {
+				int last = -1;
+
+				for (int p = grid.getStart(column, row); p < grid.getEnd(column, row); ++p) {
+					int i = grid.getIndex(p);
+
+					assertEquals(column, grid.toCell((x.get(i) + 5.f) / 10.f));
+					assertEquals(row, grid.toCell(y.get(i) / 4.f));
+
+					// every bin keeps the order of the points
+					assertTrue(i > last);
+					assertTrue(!seen[i]);
+
+					seen[i] = true;
+					last = i;
+				}
+			}
+		}
+	}
+}
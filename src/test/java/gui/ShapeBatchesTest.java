@@ -0,0 +1,113 @@
+package gui;
+
+import gui.views.plots.ShapeBatches;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the ShapeBatches class
+ */
+public class ShapeBatchesTest {
+
+	/**
+	 * Tests the constructor, by passing invalid data
+	 */
+	@Test
+	public void invalidCtorTest() {
+		try {
+			new ShapeBatches(0.f, 1.f);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new ShapeBatches(1.f, -1.f);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests that shapes are grouped by color and connected lines share one path
+	 *
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	@Test
+	public void vectorTest() throws IOException {
+		ShapeBatches batches = new ShapeBatches(4.f, 2.f);
+		batches.addLine(0xff0000ff, 0.f, 0.f, 10.f, 10.f);
+		batches.addLine(0xff0000ff, 10.f, 10.f, 20.f, 5.f);
+		batches.addDot(0xff00ff00, 5.f, 5.f);
+		batches.addDot(0x80ff0000, 6.f, 6.f);
+		batches.addDot(0xff00ff00, 7.f, 7.f);
+
+		// invisible shapes are dropped
+		batches.addDot(0x0000ff00, 8.f, 8.f);
+
+		assertEquals(5, batches.size());
+
+		StringWriter out = new StringWriter();
+		batches.writeSVG(out, 100, 50, false);
+		String svg = out.toString();
+
+		assertEquals(3, count(svg, "<path"));
+		assertTrue(svg.contains("d=\"M0 0L10 10L20 5\""));
+		assertTrue(svg.contains("matrix(1 0 0 -1 0 50)"));
+		assertFalse(svg.contains("<image"));
+	}
+
+	/**
+	 * Tests that dense areas are rasterized and sparse dots stay vectors
+	 *
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	@Test
+	public void rasterFallbackTest() throws IOException {
+		ShapeBatches batches = new ShapeBatches(4.f, 2.f);
+		Random random = new Random(3);
+
+		for (int i = 0; i < 10000; i++) {
+			batches.addDot(0xff000000, 50.f + random.nextFloat() * 10.f, 50.f + random.nextFloat() * 10.f);
+		}
+
+		batches.addDot(0xffff0000, 190.f, 190.f);
+
+		StringWriter out = new StringWriter();
+		batches.writeSVG(out, 200, 200, true);
+		String svg = out.toString();
+
+		assertEquals(1, count(svg, "<image"));
+		assertEquals(1, count(svg, "<path"));
+		assertTrue(svg.contains("fill=\"#ff0000\""));
+	}
+
+	/**
+	 * Counts the occurrences of a string
+	 *
+	 * @param text
+	 *            the text
+	 * @param part
+	 *            the string
+	 * @return the number of occurrences
+	 */
+	private static int count(String text, String part) {
+		int result = 0;
+
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+			result++;
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,75 @@
+package gui;
+
+import gui.views.plots.Snapshot;
+import gui.views.plots.Snapshot.Kind;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import controller.Feature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the Snapshot class
+ */
+public class SnapshotTest {
+
+	/**
+	 * Tests the constructor, by passing invalid data
+	 */
+	@Test
+	public void invalidCtorTest() {
+		File file = new File("snapshot.png");
+
+		try {
+			new Snapshot(null, new Feature[2], 100, 100, file);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new Snapshot(Kind.SCATTER, new Feature[3], 100, 100, file);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new Snapshot(Kind.INDICATOR, new Feature[1], 100, 100, file);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new Snapshot(Kind.HISTOGRAM, new Feature[2], 100, 100, file);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			new Snapshot(Kind.HISTOGRAM, new Feature[1], 0, 100, file);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the getters and the format of the file
+	 */
+	@Test
+	public void snapshotTest() {
+		Snapshot svg = new Snapshot(Kind.INDICATOR, new Feature[5], 300, 200, new File("snapshot.svg"));
+		Snapshot png = new Snapshot(Kind.SCATTER, new Feature[2], 300, 200, new File("snapshot.png"));
+
+		assertEquals(Kind.INDICATOR, svg.getKind());
+		assertEquals(5, svg.getFeatures().length);
+		assertEquals(300, svg.getWidth());
+		assertEquals(200, svg.getHeight());
+		assertTrue(svg.isSVG());
+		assertFalse(png.isSVG());
+	}
+}
@@ -0,0 +1,155 @@
+package gui.views.plots;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.DataHub;
+import controller.ElementData;
+import controller.GroupController;
+import controller.SelectionController;
+import controller.SubspaceController;
+import db.Database;
+import db.DatabaseAccessException;
+import db.IncompatibleVersionException;
+import db.InvalidDriverException;
+
+/**
+ * The class {@code GLPlotTest} offers tests for the processing of the {@code GLPlot}s.
+ */
+public class GLPlotTest {
+	// environment
+	private final String path = System.getProperty("java.io.tmpdir") + "/bsv_plot_tests";
+	private final String dbFile = this.path + "/database-junit-glplot.bsv";
+	private Database database = null;
+	private SubspaceController subspaceController;
+	private GroupController groupController;
+
+	// dummy values
+	private final float[][] objects = { { 1.1f, 1.2f }, { 2.1f, 2.2f }, { 3.1f, 3.2f } };
+
+	/**
+	 * Initialize a valid environment for our tests.
+	 */
+	@Before
+	public void setup() {
+		// create working directory
+		(new File(path)).mkdirs();
+
+		// make sure the old file is deleted
+		(new File(dbFile)).delete();
+
+		try {
+			database = new Database(dbFile);
+
+			String[] features = { "Feature 1", "Feature 2" };
+			boolean[] outlier = { false, false };
+			int[] featureReference = { 1, 2 };
+
+			this.database.initFeatures(features, outlier);
+			this.database.pushObject(objects);
+			this.database.pushSubspace(1, featureReference, "feature 1 and feature 2");
+
+			subspaceController = new SubspaceController(database);
+			groupController = new GroupController(database, subspaceController);
+		} catch (InvalidDriverException e) {
+			fail(e.getMessage());
+		} catch (IncompatibleVersionException e) {
+			fail(e.getMessage());
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Clean up the environment.
+	 */
+	@After
+	public void tearDown() {
+		try {
+			database.shutdown();
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		}
+
+		if (database != null) {
+			assertEquals(true, (new File(dbFile)).delete());
+		}
+	}
+
+	/**
+	 * Tests, that the chunks can be drawn while the plots wait for their data, which needs the lock of the plot.
+	 */
+	@Test(timeout = 30000)
+	public void chunksWhileLoadingTest() throws Exception {
+		SelectionController selectionController = new SelectionController();
+		ElementData[] elements = new DataHub(database, groupController, subspaceController).getData();
+
+		for (int kind = 0; kind < 3; ++kind) {
+			final CountDownLatch loading = new CountDownLatch(1);
+			final CountDownLatch loaded = new CountDownLatch(1);
+
+			// the data is not returned, until the chunks are drawn
+			DataHub slowHub = new DataHub(database, groupController, subspaceController) {
+				@Override
+				public ElementData[] getData() throws DatabaseAccessException {
+					loading.countDown();
+
+					try {
+						loaded.await();
+					} catch (InterruptedException e) {
+						throw new DatabaseAccessException();
+					}
+
+					return super.getData();
+				}
+			};
+
+			final GLPlot plot;
+
+			if (kind == 0) {
+				plot = new ScatterPlot(slowHub, selectionController, subspaceController, true);
+			} else if (kind == 1) {
+				plot = new IndicatorPlot(slowHub, selectionController, subspaceController, true);
+			} else {
+				plot = new HistPlot(slowHub, selectionController, subspaceController, true);
+			}
+
+			final Exception[] failure = new Exception[1];
+			Thread processor = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						plot.processData();
+					} catch (Exception e) {
+						failure[0] = e;
+					}
+				}
+			});
+
+			processor.start();
+			assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+			// the render thread holds the lock of the plot, while it draws the chunks
+			synchronized (plot) {
+				plot.clearChunks(elements.length);
+				assertTrue(plot.appendChunk(elements, 0, elements.length));
+			}
+
+			loaded.countDown();
+			processor.join();
+			assertNull(failure[0]);
+
+			plot.release();
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package gui.views.plots;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import gui.views.plots.Snapshot.Kind;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.Feature;
+import controller.Group;
+import controller.GroupController;
+import controller.SubspaceController;
+import db.Database;
+import db.DatabaseAccessException;
+import db.IncompatibleVersionException;
+import db.InvalidDriverException;
+
+/**
+ * The class {@code SnapshotRendererTest} offers tests for the headless rendering of snapshots.
+ */
+public class SnapshotRendererTest {
+	// environment
+	private final String path = System.getProperty("java.io.tmpdir") + "/bsv_plot_tests";
+	private final String dbFile = this.path + "/database-junit-snapshot.bsv";
+	private Database database = null;
+	private final File[] files = { new File(this.path + "/snapshot-scatter.png"),
+			new File(this.path + "/snapshot-indicator.svg"), new File(this.path + "/snapshot-histogram.png") };
+
+	// dummy values
+	private final float[][] objects = { { 1.1f, 1.2f }, { 2.1f, 2.2f }, { 3.1f, 3.2f } };
+
+	// colors of the groups, which are not mixed up with the black axes and the white background
+	private static final int SHOWN_COLOR = 0xffc81e28;
+	private static final int HIDDEN_COLOR = 0xff1428d2;
+
+	/**
+	 * Initialize a valid environment for our tests.
+	 */
+	@Before
+	public void setup() {
+		// create working directory
+		(new File(path)).mkdirs();
+
+		// make sure the old files are deleted
+		(new File(dbFile)).delete();
+		for (File file : files) {
+			file.delete();
+		}
+
+		try {
+			database = new Database(dbFile);
+
+			String[] features = { "Feature 1", "Feature 2" };
+			boolean[] outlier = { false, false };
+			int[] featureReference = { 1, 2 };
+
+			this.database.initFeatures(features, outlier);
+			this.database.pushObject(objects);
+			this.database.pushSubspace(1, featureReference, "feature 1 and feature 2");
+
+			// the first two elements are rendered, the last one belongs to a group, which is filtered out
+			GroupController groupController = new GroupController(database, new SubspaceController(database));
+			Group shown = groupController.createGroup("Shown");
+			shown.createStaticConstraint(new int[] { 1, 2 });
+			shown.setColor(SHOWN_COLOR);
+
+			Group hidden = groupController.createGroup("Hidden");
+			hidden.createStaticConstraint(new int[] { 3 });
+			hidden.setColor(HIDDEN_COLOR);
+		} catch (InvalidDriverException e) {
+			fail(e.getMessage());
+		} catch (IncompatibleVersionException e) {
+			fail(e.getMessage());
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Clean up the environment.
+	 */
+	@After
+	public void tearDown() {
+		try {
+			database.shutdown();
+		} catch (DatabaseAccessException e) {
+			fail(e.getMessage());
+		}
+
+		if (database != null) {
+			assertEquals(true, (new File(dbFile)).delete());
+		}
+
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests the constructor, by passing invalid data
+	 */
+	@Test
+	public void invalidCtorTest() throws DatabaseAccessException {
+		try {
+			new SnapshotRenderer(null);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests, that every kind of snapshot is written and that the elements of a filtered group are not drawn.
+	 */
+	@Test(timeout = 30000)
+	public void renderTest() throws Exception {
+		SnapshotRenderer renderer = new SnapshotRenderer(database);
+		Group shown = null;
+
+		for (Group group : renderer.getGroupController().getGroups()) {
+			if (group.getName().equals("Shown")) {
+				shown = group;
+			}
+		}
+
+		assertNotNull(shown);
+
+		List<Feature> features = new ArrayList<Feature>();
+
+		for (Feature feature : renderer.getSubspaceController().getActiveSubspace().getFeatures()) {
+			if (!feature.isVirtual()) {
+				features.add(feature);
+			}
+		}
+
+		assertEquals(2, features.size());
+
+		Feature[] both = features.toArray(new Feature[2]);
+		Snapshot[] snapshots = { new Snapshot(Kind.SCATTER, both, 200, 200, files[0]),
+				new Snapshot(Kind.INDICATOR, both, 200, 200, files[1]),
+				new Snapshot(Kind.HISTOGRAM, new Feature[] { both[0] }, 200, 200, files[2]) };
+
+		renderer.render(renderer.getSubspaceController().getActiveSubspace(), new Group[] { shown }, snapshots, 2);
+
+		for (File file : files) {
+			assertTrue(file.exists());
+			assertTrue(file.length() > 0);
+		}
+
+		// the points of the shown group are drawn, the point of the filtered group is not
+		assertTrue(containsColor(files[0], SHOWN_COLOR));
+		assertFalse(containsColor(files[0], HIDDEN_COLOR));
+	}
+
+	/**
+	 * Checks, if an image contains a pixel of about the given color, whose dominant component is kept, even if it is
+	 * blended with the background at the border of a point.
+	 *
+	 * @param file
+	 *            the image.
+	 * @param color
+	 *            the packed color, which is either mainly red or mainly blue.
+	 * @return true, if such a pixel is found.
+	 */
+	private static boolean containsColor(File file, int color) throws IOException {
+		BufferedImage image = ImageIO.read(file);
+		boolean red = ((color >> 16) & 0xff) > (color & 0xff);
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				int rgb = image.getRGB(x, y);
+				int r = (rgb >> 16) & 0xff;
+				int g = (rgb >> 8) & 0xff;
+				int b = rgb & 0xff;
+
+				if (red ? (r > g + 80 && r > b + 80) : (b > r + 80 && b > g + 80)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
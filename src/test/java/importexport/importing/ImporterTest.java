@@ -290,6 +290,86 @@ public class ImporterTest {
 		Assert.assertTrue(succ);
 	}
 
+	@Test
+	public void multiLineRecordTest() throws Exception {
+		float[][] expected = { { 1.5f, 2.5f, 0.25f }, { 3.5f, 4.5f, 0.75f } };
+
+		// the quoted class value of the first object spans two lines
+		CSVBasedImporter csv = new CSVBasedImporter(database, new CSVFileInfoExtractor());
+		csv.importFile(new File(RESPATH + "importFiles/borderTests/multiLine.csv"), new File(RESPATH
+				+ "importFiles/borderTests/multiLine.ssd"));
+
+		SubspaceController subCon = new SubspaceController(database);
+		DataHub dHub = new DataHub(database, new GroupController(database, subCon), subCon);
+		ElementData[] data = dHub.getData();
+		Feature[] allFeats = subCon.getSubspaces()[0].getFeatures();
+
+		Assert.assertEquals(expected.length, data.length);
+
+		for (int i = 0; i < data.length; ++i) {
+			for (int j = 1; j < allFeats.length; ++j) {
+				Assert.assertEquals(expected[i][j - 1], data[i].getValue(allFeats[j]), 0.f);
+			}
+		}
+	}
+
+	@Test
+	public void unorderedSSDTest() throws Exception {
+		float[] expected = { 0.385896387491947f, 0.526838378442537f, 0.216665836806271f, 0.16653227931975f,
+				0.126494212444904f, 0.854828750401612f, 0.865829938004325f, 0.241111958104565f, 0.84632708456882f,
+				0.757529632891082f };
+
+		CSVBasedImporter csv = new CSVBasedImporter(database, new ArffFileInfoExtractor());
+		csv.importFile(new File(RESPATH + "csv_arff_ssd_files/nantest.arff"), new File(RESPATH
+				+ "csv_arff_ssd_files/nantest_shuffled.ssd"));
+
+		SubspaceController subCon = new SubspaceController(database);
+		DataHub dHub = new DataHub(database, new GroupController(database, subCon), subCon);
+		ElementData[] data = dHub.getData();
+		Feature[] features = subCon.getSubspaces()[0].getFeatures();
+		Feature outlierness = features[features.length - 1];
+
+		Assert.assertTrue(outlierness.isOutlier());
+
+		Assert.assertEquals(expected.length, data.length);
+
+		for (int i = 0; i < data.length; ++i) {
+			Assert.assertEquals(expected[data[i].getId() - 1], data[i].getValue(outlierness), 0.0001f);
+		}
+	}
+
+	@Test
+	public void progressAndCancelTest() throws Exception {
+		CSVBasedImporter csv = new CSVBasedImporter(database, new ArffFileInfoExtractor());
+		File input = new File(RESPATH + "csv_arff_ssd_files/nantest.arff");
+		File algoOut = new File(RESPATH + "csv_arff_ssd_files/nantest.ssd");
+		final int[] progress = { 0, -1 };
+
+		// a cancelled import leaves an empty database
+		csv.cancel();
+
+		try {
+			csv.importFile(input, algoOut);
+			Assert.fail("Expected InterruptedException.");
+		} catch (InterruptedException e) {
+		}
+
+		Assert.assertTrue(database.isEmpty());
+
+		// the cancel request is consumed, so the next import succeeds and reports its progress
+		csv.setProgressListener(new ImportProgressListener() {
+			@Override
+			public void progressChanged(int imported, int total) {
+				progress[0] = imported;
+				progress[1] = total;
+			}
+		});
+		csv.importFile(input, algoOut);
+
+		Assert.assertFalse(database.isEmpty());
+		Assert.assertEquals(progress[1], progress[0]);
+	}
+
 	@Test
 	public void nullDB() {
 		try {
@@ -0,0 +1,72 @@
+package importexport.importing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * The class {@code OutliernessTableTest} offers tests for the outlierness values of a .ssd-file.
+ */
+public class OutliernessTableTest {
+
+	/**
+	 * Tests the constructor and the setter, by passing invalid data.
+	 */
+	@Test
+	public void invalidArgumentsTest() {
+		try {
+			new OutliernessTable(-1);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		OutliernessTable table = new OutliernessTable(2);
+
+		try {
+			table.set(2, 0, 1.0f);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			table.set(0, -1, 1.0f);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests, that records in any order end up at their object id.
+	 */
+	@Test
+	public void unorderedRecordsTest() {
+		OutliernessTable table = new OutliernessTable(2);
+		int count = 5000;
+
+		// fill the columns backwards, so they have to grow on the first record
+		for (int id = count - 1; id >= 0; --id) {
+			table.set(1, id, id * 0.5f);
+		}
+
+		table.set(0, 3, 7.0f);
+
+		assertEquals(2, table.getSubspaceCount());
+		assertEquals(count, table.getObjectCount());
+
+		for (int id = 0; id < count; ++id) {
+			assertEquals(id * 0.5f, table.get(1, id), 0.0001f);
+		}
+
+		float[] row = new float[3];
+		table.copyRow(3, row, 1);
+
+		assertEquals(7.0f, row[1], 0.0001f);
+		assertEquals(1.5f, row[2], 0.0001f);
+
+		// missing values are NaN
+		assertTrue(Float.isNaN(table.get(0, 2)));
+		assertTrue(Float.isNaN(table.get(0, count - 1)));
+	}
+}
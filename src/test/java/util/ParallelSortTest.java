@@ -0,0 +1,128 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the ParallelSort and SortKeys classes
+ */
+public class ParallelSortTest {
+	/**
+	 * Threads used for sorting
+	 */
+	private static final int THREADS = 3;
+
+	/**
+	 * Executor used for sorting
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Create the executor
+	 */
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	/**
+	 * Shut down the executor
+	 */
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Tests the sort, by passing invalid data
+	 *
+	 * @throws InterruptedException
+	 *             if the sort is interrupted
+	 */
+	@Test
+	public void invalidSortTest() throws InterruptedException {
+		try {
+			ParallelSort.sort(null, this.executor, THREADS);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			ParallelSort.sort(new long[1], this.executor, 0);
+			fail("Expected exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Tests the chunks, which have to cover the array without gaps
+	 */
+	@Test
+	public void chunkTest() {
+		assertEquals(1, ParallelSort.getChunkCount(0, THREADS));
+		assertEquals(1, ParallelSort.getChunkCount(ParallelSort.MIN_CHUNK_SIZE * 2 - 1, THREADS));
+		assertEquals(THREADS, ParallelSort.getChunkCount(ParallelSort.MIN_CHUNK_SIZE * 10, THREADS));
+
+		int length = 1000003;
+		assertEquals(0, ParallelSort.getChunkStart(length, THREADS, 0));
+		assertEquals(length, ParallelSort.getChunkStart(length, THREADS, THREADS));
+	}
+
+	/**
+	 * Tests the sort of several chunks, including an odd chunk, which is merged last
+	 *
+	 * @throws InterruptedException
+	 *             if the sort is interrupted
+	 */
+	@Test
+	public void sortTest() throws InterruptedException {
+		Random random = new Random(42);
+		long[] keys = new long[ParallelSort.MIN_CHUNK_SIZE * THREADS + 7];
+
+		for (int i = 0; i < keys.length; ++i) {
+			keys[i] = random.nextLong();
+		}
+
+		long[] expected = keys.clone();
+		Arrays.sort(expected);
+
+		assertArrayEquals(expected, ParallelSort.sort(keys, this.executor, THREADS));
+	}
+
+	/**
+	 * Tests, that the keys of floats keep their order and that equal values keep the order of their elements
+	 *
+	 * @throws InterruptedException
+	 *             if the sort is interrupted
+	 */
+	@Test
+	public void sortKeysTest() throws InterruptedException {
+		float[] values = { 3.f, -0.5f, Float.NaN, -7.25f, 0.f, 3.f, Float.NEGATIVE_INFINITY, 1e-30f };
+		long[] keys = new long[values.length];
+
+		for (int i = 0; i < values.length; ++i) {
+			keys[i] = SortKeys.pack(SortKeys.sortableBits(values[i]), i);
+		}
+
+		keys = ParallelSort.sort(keys, this.executor, THREADS);
+		int[] expected = { 6, 3, 1, 4, 7, 0, 5, 2 };
+
+		for (int i = 0; i < keys.length; ++i) {
+			assertEquals(expected[i], SortKeys.getIndex(keys[i]));
+			assertEquals(values[expected[i]], SortKeys.toFloat(SortKeys.getSortKey(keys[i])), 0.f);
+		}
+
+		assertTrue(SortKeys.sortableBits(-0.f) < SortKeys.sortableBits(0.f));
+	}
+}